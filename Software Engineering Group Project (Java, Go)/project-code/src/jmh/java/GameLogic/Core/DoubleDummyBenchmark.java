@@ -0,0 +1,62 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solving random bridge deals double dummy, in notrumps and with spades as trumps in turn. Each invocation gets
+ * a new solver, so no results are kept from an earlier solve of the same deal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class DoubleDummyBenchmark {
+
+    private static final int DEALS = 16;
+
+    @Param({"7", "13"})
+    public int cardsEach;
+
+    private final List<TrickPosition> deals = new ArrayList<>();
+    private int next; // Deal to solve next
+    private DoubleDummySolver solver;
+
+    @Setup
+    public void setup() throws IOException {
+        GameParser gameSpec = new GameParser("games/bridge.json");
+        Random random = new Random(0);
+        for (int i = 0; i < DEALS; i++) {
+            List<Card> deck = new ArrayList<>(gameSpec.deck.registry.getCards());
+            Collections.shuffle(deck, random);
+            long[] hands = new long[gameSpec.numberOfPlayers];
+            for (int j = 0; j < cardsEach * hands.length; j++) {
+                hands[j % hands.length] |= Hand.cardMask(deck.get(j));
+            }
+            deals.add(TrickPosition.fromDeal(gameSpec, hands, (i % 2 == 0) ? null : Suit.SPADES, 0));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void newSolver() {
+        solver = new DoubleDummySolver();
+    }
+
+    @Benchmark
+    public int solve() {
+        TrickPosition position = deals.get(next);
+        next = (next + 1) % DEALS;
+        return solver.solve(position, 0);
+    }
+}
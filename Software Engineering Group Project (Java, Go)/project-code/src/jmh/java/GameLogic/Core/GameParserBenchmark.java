@@ -0,0 +1,26 @@
+package GameLogic.Core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading and compiling a game description, including reading the file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameParserBenchmark {
+
+    @Param({"games/bridge.json", "games/speed_whist.json"})
+    public String gameFile;
+
+    @Benchmark
+    public GameParser parse() throws IOException {
+        return new GameParser(gameFile);
+    }
+}
@@ -0,0 +1,67 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Playing out a whole random bridge deal of 52 cards, by HeuristicPolicy or at random, as simulations do below
+ * their tree. Dividing by 52 gives the time of one decision.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayoutBenchmark {
+
+    private static final int DEALS = 16;
+
+    @Param({"heuristic", "random"})
+    public String policy;
+
+    private final List<TrickPosition> deals = new ArrayList<>();
+    private int next; // Deal to play next
+    private TrickPosition position;
+    private HeuristicPolicy heuristicPolicy;
+    private final SplittableRandom random = new SplittableRandom(0);
+
+    @Setup
+    public void setup() throws IOException {
+        GameParser gameSpec = new GameParser("games/bridge.json");
+        Random shuffle = new Random(0);
+        for (int i = 0; i < DEALS; i++) {
+            List<Card> deck = new ArrayList<>(gameSpec.deck.registry.getCards());
+            Collections.shuffle(deck, shuffle);
+            long[] hands = new long[gameSpec.numberOfPlayers];
+            for (int j = 0; j < deck.size(); j++) {
+                hands[j % hands.length] |= Hand.cardMask(deck.get(j));
+            }
+            deals.add(TrickPosition.fromDeal(gameSpec, hands, (i % 2 == 0) ? null : Suit.SPADES, 0));
+        }
+        position = new TrickPosition(deals.get(0));
+        heuristicPolicy = "heuristic".equals(policy) ? new HeuristicPolicy(gameSpec) : null;
+    }
+
+    @Benchmark
+    public int playOut() {
+        position.copyFrom(deals.get(next));
+        next = (next + 1) % DEALS;
+        while (!position.isHandOver()) {
+            long legal = position.legalMoves();
+            position.play((heuristicPolicy == null) ? IsmctsSearch.randomBit(legal, random)
+                    : heuristicPolicy.choose(position, legal, null));
+        }
+        return position.getTricksWon(0);
+    }
+}
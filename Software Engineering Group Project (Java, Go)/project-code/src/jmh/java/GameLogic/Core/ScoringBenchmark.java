@@ -0,0 +1,78 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+import GameLogic.GameFileLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring a completed hand with each calculateScore mode, including dealing the next hand.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoringBenchmark {
+
+    // Scored by tricksWon, bid and trumpPointValue respectively
+    @Param({"games/speed_whist.json", "games/bridge.json", "games/SG Game Store/catchtheten.json"})
+    public String gameFile;
+
+    private Game game;
+    private Game.GameState gameState;
+    private ArrayList<ArrayList<Card>>[] tricks; // Tricks earned by each player
+    private Bid[] bids; // Bid of each player
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        GameParser gameSpec = new GameParser(gameFile);
+        gameState = new GameFileLoader().loadAiGameFromSpec(gameSpec,
+                (number, name, state) -> new PlayerAI(number, name, state, new Random(number)));
+
+        // Deal the first hand, which also picks trumps
+        game = new Game();
+        game.start(gameState, 0);
+
+        // Share the dealt cards out as tricks, in turn
+        int numberOfPlayers = gameState.players.length;
+        tricks = new ArrayList[numberOfPlayers];
+        for (int i = 0; i < numberOfPlayers; i++) {
+            tricks[i] = new ArrayList<>();
+        }
+        ArrayList<Card> cards = gameSpec.deck.cards;
+        int dealtCards = Math.min(cards.size(), gameSpec.initialHandSize * numberOfPlayers);
+        for (int i = 0; i + numberOfPlayers <= dealtCards; i += numberOfPlayers) {
+            tricks[(i / numberOfPlayers) % numberOfPlayers].add(new ArrayList<>(cards.subList(i, i + numberOfPlayers)));
+        }
+
+        // Bids which are under, matched and over by turn
+        bids = new Bid[numberOfPlayers];
+        for (int i = 0; i < numberOfPlayers; i++) {
+            int value = Math.max(tricks[i].size() - gameSpec.ruleSet.trickThreshold + (i % 3) - 1, 0);
+            bids[i] = new Bid(value, gameState.trumpSuit, false);
+        }
+    }
+
+    @Benchmark
+    public int advanceHand() {
+        // Reset to the end of the first hand
+        for (Player thisPlayer : gameState.players) {
+            int number = thisPlayer.getNumber();
+            thisPlayer.setTricksEarned(tricks[number]);
+            thisPlayer.setTricksThisHand(tricks[number].size());
+            thisPlayer.setBid(bids[number]);
+            thisPlayer.getHand().clear();
+        }
+        gameState.currentHandSize = gameState.gameSpec.initialHandSize;
+
+        game.advanceHand(gameState);
+        return gameState.players[0].getPointsThisGame();
+    }
+}
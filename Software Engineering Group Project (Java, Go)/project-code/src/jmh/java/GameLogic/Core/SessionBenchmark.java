@@ -0,0 +1,39 @@
+package GameLogic.Core;
+
+import GameLogic.GameFileLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full ai-only session of speed whist, from a fixed seed so every call plays the same session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SessionBenchmark {
+
+    private static final int SEED = 0;
+
+    private GameParser gameSpec;
+    private GameFileLoader loader;
+
+    @Setup
+    public void setup() throws IOException {
+        gameSpec = new GameParser("games/speed_whist.json");
+        loader = new GameFileLoader();
+    }
+
+    @Benchmark
+    public Game.GameState runGame() {
+        Game.GameState gameState = loader.loadAiGameFromSpec(gameSpec,
+                (number, name, state) -> new PlayerAI(number, name, state, new Random(31L * SEED + number)));
+        new Game().runGame(gameState, null, SEED);
+        return gameState;
+    }
+}
@@ -0,0 +1,101 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+import GameLogic.GameFileLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Playing a card and completing a trick on a dealt speed whist hand. Each invocation undoes its changes,
+ * so every call measures the same move or trick. applyAndUndoTrick plays and takes back a whole trick the way
+ * search does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrickBenchmark {
+
+    private Game game;
+    private Game.GameState gameState;
+    private Player player; // Player to move
+    private Card card; // Card they play
+    private ArrayList<Card> trick; // One card from each hand, led by the player to move
+    private int firstPlayerNumber;
+    private final ArrayList<Card> line = new ArrayList<>(); // Legal cards for one whole trick, for applyMove
+
+    @Setup
+    public void setup() throws IOException {
+        GameParser gameSpec = new GameParser("games/speed_whist.json");
+        gameState = new GameFileLoader().loadAiGameFromSpec(gameSpec,
+                (number, name, state) -> new PlayerAI(number, name, state, new Random(number)));
+
+        // Deal the first hand and stop at the first move
+        game = new Game();
+        game.start(gameState, 0);
+
+        firstPlayerNumber = gameState.currentPlayerNumber;
+        player = gameState.players[firstPlayerNumber];
+        card = player.getHand().get(0);
+
+        trick = new ArrayList<>();
+        for (int i = 0; i < gameState.players.length; i++) {
+            trick.add(gameState.players[(firstPlayerNumber + i) % gameState.players.length].getHand().get(0));
+        }
+
+        // Find a legal line through the first trick, then take it back
+        ArrayList<Card> legalCards = new ArrayList<>();
+        for (int i = 0; i < gameState.players.length; i++) {
+            gameState.legalMoves(gameState.players[gameState.currentPlayerNumber], legalCards);
+            line.add(legalCards.get(0));
+            gameState.applyMove(legalCards.get(0));
+        }
+        while (gameState.getMovesApplied() > 0) {
+            gameState.undoMove();
+        }
+    }
+
+    @Benchmark
+    public boolean makeMove() {
+        boolean moveMade = game.makeMove(gameState, player, card);
+
+        // Undo move
+        player.getHand().add(card);
+        gameState.currentTable.getCards().clear();
+        gameState.allowedSuits = null;
+        return moveMade;
+    }
+
+    @Benchmark
+    public int advanceTrick() {
+        for (Card thisCard : trick) {
+            gameState.currentTable.addCard(thisCard);
+        }
+        gameState.firstPlayerNumber = firstPlayerNumber;
+        game.advanceTrick(gameState);
+
+        // Undo trick, which would otherwise be stored by its winner every call
+        for (Player thisPlayer : gameState.players) {
+            thisPlayer.getTricksEarned().clear();
+        }
+        return gameState.prevWinnerNumber;
+    }
+
+    @Benchmark
+    public int applyAndUndoTrick() {
+        for (int i = 0; i < line.size(); i++) {
+            gameState.applyMove(line.get(i));
+        }
+        int winnerNumber = gameState.prevWinnerNumber;
+        for (int i = 0; i < line.size(); i++) {
+            gameState.undoMove();
+        }
+        return winnerNumber;
+    }
+}
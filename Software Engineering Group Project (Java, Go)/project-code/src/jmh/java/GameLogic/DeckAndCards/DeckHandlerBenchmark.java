@@ -0,0 +1,53 @@
+package GameLogic.DeckAndCards;
+
+import GameLogic.Core.GameParser;
+import GameLogic.Core.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuffling and dealing a standard deck, as done at the start of every hand.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckHandlerBenchmark {
+
+    private GameParser gameSpec;
+    private DeckHandler deckHandler;
+    private Player[] players;
+
+    @Setup
+    public void setup() throws IOException {
+        gameSpec = new GameParser("games/speed_whist.json");
+        deckHandler = new DeckHandler(gameSpec.deck.cards, 0);
+        players = new Player[gameSpec.numberOfPlayers];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new Player(i, "Player " + i, null);
+        }
+    }
+
+    @Benchmark
+    public DeckHandler shuffleDeck() {
+        deckHandler.shuffleDeck();
+        return deckHandler;
+    }
+
+    @Benchmark
+    public Player[] shuffleAndDeal() {
+        // Fresh deck and empty hands, as at the start of a hand
+        deckHandler.createDeck(gameSpec.deck.cards);
+        for (Player player : players) {
+            player.getHand().clear();
+        }
+
+        deckHandler.shuffleDeck();
+        deckHandler.dealHand(players, 0, true, gameSpec.initialHandSize);
+        return players;
+    }
+}
@@ -0,0 +1,64 @@
+package Network;
+
+import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
+import GameLogic.Core.PlayerAI;
+import GameLogic.Core.RuleBreachException;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.GameFileLoader;
+import Network.Events.BinaryEventCodec;
+import Network.Events.PlayCardEvent;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sending a move and reading it back as a card, the way connections do, as json through Gson or in the binary codec.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventCodecBenchmark {
+
+    @Param({"gson", "binary"})
+    public String codec;
+
+    private final Gson gson = new Gson();
+    private final ByteBuffer buffer = ByteBuffer.allocate(BinaryEventCodec.MAX_BYTES);
+    private Game.GameState gameState;
+    private PlayCardEvent move;
+
+    @Setup
+    public void setup() throws IOException, RuleBreachException {
+        GameParser gameSpec = new GameParser("games/speed_whist.json");
+        gameState = new GameFileLoader().loadAiGameFromSpec(gameSpec,
+                (number, name, state) -> new PlayerAI(number, name, state, new Random(number)));
+        new Game().start(gameState, 0);
+        move = Game.cardToEvent(gameState.players[gameState.currentPlayerNumber].getHand().get(0), gameState);
+    }
+
+    @Benchmark
+    public Card sendAndReceive() throws StreamCorruptedException {
+        if (codec.equals("binary")) {
+            buffer.clear();
+            BinaryEventCodec.encode(move, 0, buffer);
+            buffer.flip();
+            return Game.cardFromEvent((PlayCardEvent) BinaryEventCodec.decode(buffer, 0), gameState);
+        }
+
+        // Encoded, then read as a json object and converted to the event
+        byte[] bytes = gson.toJson(move).getBytes(StandardCharsets.UTF_8);
+        JsonObject message = gson.fromJson(new String(bytes, StandardCharsets.UTF_8), JsonObject.class);
+        return Game.cardFromEvent(gson.fromJson(message, PlayCardEvent.class), gameState);
+    }
+}
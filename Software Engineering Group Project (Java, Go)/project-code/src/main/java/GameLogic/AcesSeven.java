@@ -21,9 +21,6 @@ import java.nio.file.Paths;
 //GameLogic.Core.Game wrapping class
 public abstract class AcesSeven {
 
-    public static String activeProfile;
-    public static String[] saveGameFileNames;
-
     //Method to read a string from terminal
     private static String readFromTerminal() {
         String returnString = null;
@@ -62,7 +59,9 @@ public abstract class AcesSeven {
 
         String[] profileFileNames = buildProfileArray();
 
-        saveGameFileNames = buildLoadArray();
+        String[] saveGameFileNames = buildLoadArray();
+
+        String activeProfile = null; // Name of chosen profile
 
         listProfiles(profileFileNames);
 
@@ -132,7 +131,7 @@ public abstract class AcesSeven {
             }
 
             if (inputValue == gameFileNames.length + 1){
-                String newProfile = profileHandler.displayProfileMenu(profileFileNames);
+                String newProfile = profileHandler.displayProfileMenu(profileFileNames, activeProfile);
                 if(newProfile != null){
                     activeProfile = newProfile;
                 }
@@ -145,7 +144,7 @@ public abstract class AcesSeven {
         Game game = new Game();
         if(!isNetwork()) {
             //Create GameState from file.
-            GameFileLoader loader = new GameFileLoader();
+            GameFileLoader loader = new GameFileLoader(activeProfile);
             Game.GameState gameState = loader.loadGameFromFile("games/" + gameFileNames[inputValue], null, false);
             game.runGame(gameState, null, 4);
         } else{
@@ -167,7 +166,7 @@ public abstract class AcesSeven {
                     NetworkGame networkGame = new NetworkGame(network);
     
                     //Create GameState from file.
-                    GameFileLoader loader = new GameFileLoader();
+                    GameFileLoader loader = new GameFileLoader(activeProfile);
                     Game.GameState gameState = loader.loadGameFromFile("games/" + gameFileNames[inputValue], networkGame, false);
     
                     game.runGame(gameState, networkGame, 4);
@@ -188,7 +187,7 @@ public abstract class AcesSeven {
                 NetworkGame networkGame = new NetworkGame(network);
     
                 //Create GameState from file.
-                GameFileLoader loader = new GameFileLoader();
+                GameFileLoader loader = new GameFileLoader(activeProfile);
                 Game.GameState gameState = loader.loadGameFromFile("games/" + gameFileNames[inputValue], networkGame, false);
     
                 game.runGame(gameState, networkGame, 4);
@@ -1,10 +1,12 @@
 package GameLogic;
 
 import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
 import Network.GameInitiation.GameInitiation;
 import Network.GameInitiation.GameNetwork;
 import Network.GameInitiation.NetworkCreationException;
 import Network.GamePlay.NetworkGame;
+import Network.Server.TableServer;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.stream.JsonReader;
@@ -31,6 +33,11 @@ public class AcesSevenUI {
 		options.addOption("a", "ai", false, "Make all but one player be ai players.");
 		options.addOption("f", "gamefile", true, "The json game description file. Use only with host and local games.");
 		options.addOption("l", false, "Prints games it finds.");
+		options.addOption("s", "simulate", true, "Run ai only sessions headless, one per seed in a range, e.g. 0-999. Use with gamefile.");
+		options.addOption("t", "threads", true, "The number of threads to simulate or serve tables with. Defaults to the number of processors.");
+		options.addOption("r", "server", true, "Host many tables of a game, port is the local port to listen for connections on. Use with gamefile.");
+		options.addOption("n", "aiseats", true, "The number of seats at each server table filled by ai players. Defaults to none.");
+		options.addOption("c", "connect", true, "Join a table of a table server at host:port. Use with join, and gamelabel to pick the table.");
 		try {
 			//Parse command line arguments
 			CommandLineParser parser = new DefaultParser();
@@ -45,7 +52,10 @@ public class AcesSevenUI {
 				throw new ParseException("Cannot have an ai game and networked game.");
 			}
 			
-			if (isNetworked) {
+			if (cmd.hasOption('c') && cmd.hasOption('j')) {
+				//Join a table of a table server
+				joinServerTable(cmd.getOptionValue('c'), Integer.parseInt(cmd.getOptionValue('j')), cmd.getOptionValue('g'));
+			} else if (isNetworked) {
 				
 				// Host a game or join a game.
 				if (cmd.hasOption("h") && cmd.hasOption("f")) {
@@ -60,6 +70,15 @@ public class AcesSevenUI {
 					
 				}
 				
+			} else if (cmd.hasOption('r') && cmd.hasOption('f')) {
+				//Host many tables
+				int threads = cmd.hasOption('t') ? Integer.parseInt(cmd.getOptionValue('t')) : Runtime.getRuntime().availableProcessors();
+				int aiSeats = cmd.hasOption('n') ? Integer.parseInt(cmd.getOptionValue('n')) : 0;
+				serveTables(cmd.getOptionValue('f'), Integer.parseInt(cmd.getOptionValue('r')), aiSeats, threads);
+			} else if (cmd.hasOption('s') && cmd.hasOption('f')) {
+				//Run headless ai sessions
+				int threads = cmd.hasOption('t') ? Integer.parseInt(cmd.getOptionValue('t')) : Runtime.getRuntime().availableProcessors();
+				simulateGames(cmd.getOptionValue('f'), cmd.getOptionValue('s'), threads);
 			} else if (cmd.hasOption('a')) {
 				//Start a game with ai players
 				startLocalSinglePlayerGame(cmd.getOptionValue('f'));
@@ -137,6 +156,33 @@ public class AcesSevenUI {
 		game.runGame(gameState, networkGame, networkGame.seed);
 	}
 	
+	public static void joinServerTable(String serverAddress, int localPortNumber, String tableLabel) throws IOException, NetworkCreationException {
+		//Server given as host:port
+		String[] hostAndPort = serverAddress.split(":");
+		InetAddress serverIp = InetAddress.getByName(hostAndPort[0]);
+		int serverPortNumber = Integer.parseInt(hostAndPort[1]);
+		
+		//Initiate the game with the server, which relays every other seat
+		GameInitiation gameInitiation = new GameInitiation();
+		GameNetwork network = gameInitiation.joinTable(serverIp, serverPortNumber, localPortNumber, tableLabel);
+		
+		//Write the spec to a file
+		String gameFileName = "games/" + ((tableLabel != null) ? tableLabel : "table") + ".json";
+		FileWriter fileWriter = new FileWriter(gameFileName);
+		fileWriter.write(network.gameSpec);
+		fileWriter.close();
+		
+		NetworkGame networkGame = new NetworkGame(network);
+		
+		//Create GameState from file
+		GameFileLoader loader = new GameFileLoader();
+		Game.GameState gameState = loader.loadGameFromFile(gameFileName, networkGame, false);
+		
+		//Start the game.
+		Game game = new Game();
+		game.runGame(gameState, networkGame, networkGame.seed);
+	}
+	
 	public static void startLocalGame(String gameFileName) throws FileNotFoundException {
 		//Extract the gamefile
 		JsonObject gameFileJson = new Gson().fromJson(new JsonReader(new InputStreamReader(new FileInputStream(gameFileName))), JsonObject.class);
@@ -167,6 +213,36 @@ public class AcesSevenUI {
 		game.runGame(gameState, null, new Random().nextInt(1000));
 	}
 	
+	public static void simulateGames(String gameFileName, String seedRange, int threads) throws IOException, ParseException {
+		//Parse seed range "first-last"
+		String[] seeds = seedRange.split("-");
+		if (seeds.length != 2) {
+			throw new ParseException("Seed range must be of the form first-last.");
+		}
+		int firstSeed = Integer.parseInt(seeds[0]);
+		int lastSeed = Integer.parseInt(seeds[1]);
+		
+		//Parse the spec once, shared by every session
+		BatchSimulator simulator = new BatchSimulator(new GameParser(gameFileName));
+		
+		//Run and print results
+		long startTime = System.nanoTime();
+		BatchSimulator.SimulationResult result = simulator.simulate(firstSeed, lastSeed, threads);
+		long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+		result.print();
+		System.out.println("Time: " + elapsedMillis + "ms on " + threads + " threads");
+	}
+	
+	public static void serveTables(String gameFileName, int localPortNumber, int aiSeats, int threads) throws IOException {
+		//Extract the gamefile, sent to every joining player
+		JsonObject gameFileJson = new Gson().fromJson(new JsonReader(new InputStreamReader(new FileInputStream(gameFileName))), JsonObject.class);
+		
+		//Parse the spec once, shared by every table
+		TableServer server = new TableServer(localPortNumber, new GameParser(gameFileName), gameFileJson.toString(), aiSeats, threads);
+		System.out.println("Serving tables on port " + server.getPort());
+		server.run();
+	}
+	
 	public static void listGames() {
 		
 		try {
@@ -0,0 +1,165 @@
+package GameLogic;
+
+import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
+import GameLogic.Core.PlayerAI;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs many AI-only sessions headless, split across a fork-join pool. Each session gets its own game state,
+ * deck handler and ai randomness from its seed, so results are reproducible for a seed range regardless of
+ * the number of threads.
+ */
+public class BatchSimulator {
+
+	private static final int SEEDS_PER_TASK = 8; // Sessions run by one task before it stops splitting
+
+	private final GameParser gameSpec;
+
+	public BatchSimulator(GameParser gameSpec) {
+		this.gameSpec = gameSpec;
+	}
+
+	/**
+	 * Runs one session for each seed in [firstSeed, lastSeed] on the given number of threads.
+	 * @param firstSeed
+	 * @param lastSeed
+	 * @param threads
+	 * @return Aggregated statistics for all sessions
+	 */
+	public SimulationResult simulate(int firstSeed, int lastSeed, int threads) {
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			return pool.invoke(new SimulationTask(firstSeed, lastSeed + 1));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Runs a single AI-only session from the given seed.
+	 * @param seed
+	 * @return Statistics for the session
+	 */
+	public SimulationResult simulateSession(int seed) {
+		SimulationResult result = new SimulationResult(this.gameSpec.numberOfPlayers);
+
+		//Create game with recording ai players, each with its own seeded randomness
+		GameFileLoader loader = new GameFileLoader();
+		Game.GameState gameState = loader.loadAiGameFromSpec(this.gameSpec,
+				(number, name, state) -> new RecordingPlayerAI(number, name, state,
+						new Random(31L * seed + number), result));
+
+		//Run session - deck handler is created by the game from the seed
+		new Game().runGame(gameState, null, seed);
+		return result;
+	}
+
+	// Task which splits a seed range until it is small enough to run directly
+	private class SimulationTask extends RecursiveTask<SimulationResult> {
+		private final int fromSeed; // Inclusive
+		private final int toSeed; // Exclusive
+
+		SimulationTask(int fromSeed, int toSeed) {
+			this.fromSeed = fromSeed;
+			this.toSeed = toSeed;
+		}
+
+		@Override
+		protected SimulationResult compute() {
+			//Small range => run sessions on this thread
+			if (toSeed - fromSeed <= SEEDS_PER_TASK) {
+				SimulationResult result = new SimulationResult(gameSpec.numberOfPlayers);
+				for (int seed = fromSeed; seed < toSeed; seed++) {
+					result.merge(simulateSession(seed));
+				}
+				return result;
+			}
+
+			//Split range in half
+			int middleSeed = fromSeed + (toSeed - fromSeed) / 2;
+			SimulationTask lower = new SimulationTask(fromSeed, middleSeed);
+			SimulationTask upper = new SimulationTask(middleSeed, toSeed);
+			lower.fork();
+			SimulationResult result = upper.compute();
+			result.merge(lower.join());
+			return result;
+		}
+	}
+
+	// Ai player which records its own results. Only used by one session, so needs no locking
+	private static class RecordingPlayerAI extends PlayerAI {
+		private final SimulationResult result;
+
+		RecordingPlayerAI(int number, String name, Game.GameState gameState, Random random, SimulationResult result) {
+			super(number, name, gameState, random);
+			this.result = result;
+		}
+
+		@Override
+		public void sendGameSummary() {
+			result.points[this.getNumber()] += this.getPointsThisGame();
+			result.tricks[this.getNumber()] += this.getTricksThisGame();
+			if (this.getNumber() == 0) {
+				result.games++;
+			}
+		}
+
+		@Override
+		public void sendSessionWinners(List<String> winners) {
+			//Every player receives the winners, so only count once
+			if (this.getNumber() != 0) {
+				return;
+			}
+			result.sessions++;
+			for (int i = 0; i < this.gameState.players.length; i++) {
+				if (winners.contains(this.gameState.players[i].getName())) {
+					result.sessionWins[i]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Score and trick totals for each player seat over a number of sessions.
+	 */
+	public static class SimulationResult {
+		public final long[] points; // Points won in all games, by seat
+		public final long[] tricks; // Tricks won in all games, by seat
+		public final long[] sessionWins; // Sessions won, by seat
+		public long games; // Games played
+		public long sessions; // Sessions played
+
+		public SimulationResult(int numberOfPlayers) {
+			this.points = new long[numberOfPlayers];
+			this.tricks = new long[numberOfPlayers];
+			this.sessionWins = new long[numberOfPlayers];
+		}
+
+		// Adds the totals of another result to this one
+		public void merge(SimulationResult other) {
+			for (int i = 0; i < this.points.length; i++) {
+				this.points[i] += other.points[i];
+				this.tricks[i] += other.tricks[i];
+				this.sessionWins[i] += other.sessionWins[i];
+			}
+			this.games += other.games;
+			this.sessions += other.sessions;
+		}
+
+		// Prints a summary table of the results
+		public void print() {
+			System.out.println("Sessions: " + this.sessions + ", Games: " + this.games);
+			System.out.println("Seat\tPoints/Game\tTricks/Game\tSession Wins");
+			for (int i = 0; i < this.points.length; i++) {
+				double games = Math.max(this.games, 1);
+				System.out.println(String.format("%d\t%.3f\t\t%.3f\t\t%d", i, this.points[i] / games,
+						this.tricks[i] / games, this.sessionWins[i]));
+			}
+		}
+	}
+}
@@ -0,0 +1,345 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Suit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/*
+ * Chooses bids for games with bid rules by simulation. The other hands are dealt at random around the bidder's own
+ * many times, and each deal is solved double dummy when hands are small enough to solve quickly, or played out by
+ * HeuristicPolicy when not, giving the odds of the bidder's team taking each number of tricks. Every bid that may be made
+ * is then scored against those odds as Game scores it, and the bid with the best expected score is made.
+ * Odds are cached by hand shape: hands differing only by a swap of suits that play alike share odds, as
+ * SuitIsomorphism finds them, so a hand seen before is answered at once.
+ * Given a deadline, simulation stops when it passes, and the best bid found from the deals simulated so far is made.
+ */
+public class BidEstimator {
+
+    public static final int DEFAULT_DEALS = 48; // Deals simulated for each hand and trump suit
+    // Most cards in a hand to solve double dummy - 7 cards each solve in 0.4 ms a deal on average, 5 ms at worst
+    public static final int DEFAULT_SOLVE_LIMIT = 7;
+    public static final int PLAYOUT_DEALS = 16; // Times as many deals when too big to solve, as play outs are cheap
+    private static final int SOLVER_TABLE_BITS = 16;
+
+    private final int deals;
+    private final int solveLimit;
+    private final int threads; // Simulations run at once, including the calling thread
+    private final ExecutorService executor; // Runs the simulations other than the calling thread's
+    private final Map<ShapeKey, double[]> oddsCache = new ConcurrentHashMap<>();
+
+    public BidEstimator(int threads, ExecutorService executor) {
+        this(DEFAULT_DEALS, DEFAULT_SOLVE_LIMIT, threads, executor);
+    }
+
+    public BidEstimator(int deals, int solveLimit, int threads, ExecutorService executor) {
+        if (deals <= 0) {
+            throw new IllegalArgumentException("Need at least one deal to estimate from");
+        }
+        this.deals = deals;
+        this.solveLimit = solveLimit;
+        this.threads = Math.max(1, threads);
+        this.executor = executor;
+    }
+
+    // Getters
+    public int getCacheSize() {
+        return oddsCache.size();
+    }
+
+    /**
+     * Chooses the bid with the best expected score for a player, from the bids the rules allow now. In an auction
+     * the player passes when no bid is expected to score and someone else has bid.
+     * @param gameState game waiting for the player's bid
+     * @param player player to bid for
+     * @param seed seed for the deals simulated
+     * @return bid to make
+     */
+    public Bid chooseBid(Game.GameState gameState, Player player, long seed) {
+        return chooseBid(gameState, player, seed, Long.MAX_VALUE);
+    }
+
+    /**
+     * Chooses a bid as above, by a deadline. Trump suits not yet simulated when it passes are not bid.
+     * @param gameState game waiting for the player's bid
+     * @param player player to bid for
+     * @param seed seed for the deals simulated
+     * @param deadline System.nanoTime() to choose by - Long.MAX_VALUE for none
+     * @return bid to make
+     */
+    public Bid chooseBid(Game.GameState gameState, Player player, long seed, long deadline) {
+        GameParser.BidRules bidRules = gameState.gameSpec.bidRules;
+
+        // Trump suit each bid plays with - the bid suit if trumps are bid, otherwise the hand's
+        Suit[] suits = (bidRules.trumpSuitBid && bidRules.suitBidRank != null)
+                ? bidRules.suitBidRank : new Suit[] {gameState.trumpSuit};
+
+        // Auction bids must beat the highest bid so far, which only a higher value does
+        int lowest = bidRules.minBid;
+        boolean mustBid = true;
+        if (bidRules.ascendingBid) {
+            for (Player thisPlayer : gameState.players) {
+                Bid thisBid = thisPlayer.getBid();
+                if (thisPlayer != player && thisBid != null && thisBid.getBidType() == Bid.BidType.BID) {
+                    lowest = Math.max(lowest, thisBid.getValue() + 1);
+                    mustBid = false;
+                }
+            }
+        }
+
+        Bid best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (Suit suit : suits) {
+            if (best != null && pastDeadline(deadline)) {
+                break;
+            }
+            double[] odds = null;
+            for (int value = lowest; value <= bidRules.maxBid; value++) {
+                if (odds == null) {
+                    odds = trickOdds(gameState, player, suit, seed, deadline);
+                }
+                Bid bid = new Bid(value, bidRules.trumpSuitBid ? suit : null, false);
+                double score = expectedScore(gameState, player, bid, suit, odds);
+                if (score > bestScore) {
+                    best = bid;
+                    bestScore = score;
+                }
+            }
+        }
+
+        if (best == null || (bidRules.ascendingBid && bidRules.canPass && !mustBid && bestScore <= 0)) {
+            return new Bid(Bid.BidType.PASS);
+        }
+        return best;
+    }
+
+    // Method to find the mean score of a bid over the odds of each number of tricks, less points given to opponents
+    private double expectedScore(Game.GameState gameState, Player player, Bid bid, Suit trumpSuit, double[] odds) {
+        int trickThreshold = gameState.gameSpec.ruleSet.trickThreshold;
+        double score = 0;
+        for (int tricks = 0; tricks < odds.length; tricks++) {
+            if (odds[tricks] == 0) {
+                continue;
+            }
+            int[] points = Game.bidPoints(gameState.gameSpec.bidRules, bid, tricks - trickThreshold - bid.getValue(),
+                    trumpSuit, player.isVulnerable(), trickThreshold);
+            score += odds[tricks] * (points[0] - points[1]);
+        }
+        return score;
+    }
+
+    /**
+     * Finds the odds of a player's team taking each number of tricks this hand, from deals of the cards the player
+     * cannot see. The first trick is led as the rules say it will be once bidding is over.
+     * @param gameState game in its bidding
+     * @param player player whose hand is kept
+     * @param trumpSuit trump suit to play with - null for none
+     * @param seed seed for the deals simulated
+     * @return chance of each number of tricks, indexed by tricks
+     */
+    public double[] trickOdds(Game.GameState gameState, Player player, Suit trumpSuit, long seed) {
+        return trickOdds(gameState, player, trumpSuit, seed, Long.MAX_VALUE);
+    }
+
+    /**
+     * Finds the odds as above, from the deals simulated by a deadline. Odds cut short by it are not cached.
+     * @param gameState game in its bidding
+     * @param player player whose hand is kept
+     * @param trumpSuit trump suit to play with - null for none
+     * @param seed seed for the deals simulated
+     * @param deadline System.nanoTime() to stop simulating by - Long.MAX_VALUE for none. At least one deal is simulated
+     * @return chance of each number of tricks, indexed by tricks
+     */
+    public double[] trickOdds(Game.GameState gameState, Player player, Suit trumpSuit, long seed, long deadline) {
+        int leader = (gameState.gameSpec.ruleSet.firstTrickLeader == RuleSet.FirstTrickLeader.BID_WINNER)
+                ? player.getNumber() : gameState.firstPlayerNumber;
+        ShapeKey key = new ShapeKey(gameState, player, trumpSuit, leader);
+        double[] odds = oddsCache.get(key);
+        if (odds == null) {
+            odds = simulate(gameState, player, trumpSuit, leader, seed, deadline);
+            if (!pastDeadline(deadline)) {
+                oddsCache.put(key, odds);
+            }
+        }
+        return odds;
+    }
+
+    // Method to check if a deadline has passed - Long.MAX_VALUE never does
+    private static boolean pastDeadline(long deadline) {
+        return deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0;
+    }
+
+    // Method to deal and play out every deal, spread over the threads
+    private double[] simulate(Game.GameState gameState, Player player, Suit trumpSuit, int leader, long seed,
+            long deadline) {
+        long[] hands = new long[gameState.players.length];
+        hands[player.getNumber()] = player.getHand().getBits();
+        TrickPosition start = TrickPosition.fromDeal(gameState.gameSpec, hands, trumpSuit, leader);
+        DealSampler sampler = DealSampler.forObserver(gameState, player);
+        int handSize = player.getHand().size();
+        boolean solve = handSize <= solveLimit;
+        HeuristicPolicy policy = solve ? null : new HeuristicPolicy(gameState.gameSpec);
+        int team = start.getTeam(player.getNumber());
+        int dealCount = solve ? deals : deals * PLAYOUT_DEALS;
+
+        // Simulate on other threads and this one
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Future<double[]>> futures = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            Simulation simulation = new Simulation(start, sampler, random.split(), team, handSize, policy);
+            int count = (dealCount + threads - 1 - i) / threads;
+            futures.add(executor.submit(() -> simulation.run(count, deadline)));
+        }
+        double[] tally = new Simulation(start, sampler, random.split(), team, handSize, policy)
+                .run((dealCount + threads - 1) / threads, deadline);
+
+        // Wait for other threads no later than the deadline, using the deals finished by then
+        try {
+            for (Future<double[]> future : futures) {
+                double[] other;
+                if (deadline == Long.MAX_VALUE) {
+                    other = future.get();
+                } else {
+                    other = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                for (int i = 0; i < tally.length; i++) {
+                    tally[i] += other[i];
+                }
+            }
+        } catch (TimeoutException e) {
+            // Out of time
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bid simulation failed", e.getCause());
+        } finally {
+            for (Future<double[]> future : futures) {
+                future.cancel(false);
+            }
+        }
+
+        // Tallies to odds
+        double total = 0;
+        for (double count : tally) {
+            total += count;
+        }
+        for (int i = 0; i < tally.length; i++) {
+            tally[i] /= total;
+        }
+        return tally;
+    }
+
+    // One thread's share of the deals, with its own dealer, position and solver
+    private static final class Simulation {
+        private final TrickPosition start;
+        private final TrickPosition position;
+        private final DealSampler.Dealer dealer;
+        private final long[] hands;
+        private final int team;
+        private final int handSize;
+        private final HeuristicPolicy policy; // Plays deals out - null to solve them
+        private final DoubleDummySolver solver;
+
+        Simulation(TrickPosition start, DealSampler sampler, SplittableRandom random, int team, int handSize,
+                HeuristicPolicy policy) {
+            this.start = start;
+            this.position = new TrickPosition(start);
+            this.dealer = sampler.newDealer(random);
+            this.hands = new long[start.getNumberOfPlayers()];
+            this.team = team;
+            this.handSize = handSize;
+            this.policy = policy;
+            this.solver = (policy == null) ? new DoubleDummySolver(SOLVER_TABLE_BITS) : null;
+        }
+
+        // Method to tally the team's tricks over deals, each deal counting once, stopping early at the deadline
+        double[] run(int count, long deadline) {
+            double[] tally = new double[handSize + 1];
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && pastDeadline(deadline)) {
+                    break;
+                }
+                for (int player = 0; player < hands.length; player++) {
+                    hands[player] = start.getHand(player);
+                }
+                dealer.deal(hands);
+                position.copyFrom(start);
+                for (int player = 0; player < hands.length; player++) {
+                    position.setHand(player, hands[player]);
+                }
+
+                int tricks = (solver != null) ? solver.solve(position, team) : playOut();
+                tally[Math.min(handSize, tricks)]++;
+            }
+            return tally;
+        }
+
+        // Method to play the position out by the policy, returning the team's tricks
+        private int playOut() {
+            while (!position.isHandOver()) {
+                long legal = position.legalMoves();
+                if (legal == 0) {
+                    break;
+                }
+                position.play(policy.choose(position, legal, null));
+            }
+            int tricks = 0;
+            for (int player = 0; player < hands.length; player++) {
+                if (position.getTeam(player) == team) {
+                    tricks += position.getTricksWon(player);
+                }
+            }
+            return tricks;
+        }
+    }
+
+    /*
+     * Key of the odds for a hand: the hand's canonical representative from SuitIsomorphism, so hands that only differ
+     * by a swap of suits that play alike match, with the trump suit, the seats of the player and leader, and the size
+     * of every hand.
+     */
+    private static final class ShapeKey {
+        private final long hand;
+        private final int trumpSuit;
+        private final int player;
+        private final int leader;
+        private final int[] handSizes;
+
+        ShapeKey(Game.GameState gameState, Player player, Suit trumpSuit, int leader) {
+            SuitIsomorphism isomorphism = new SuitIsomorphism(gameState.gameSpec, trumpSuit);
+            this.hand = isomorphism.canonicalHand(player.getHand().getBits());
+            this.trumpSuit = (trumpSuit == null) ? -1 : trumpSuit.ordinal();
+            this.player = player.getNumber();
+            this.leader = leader;
+            this.handSizes = new int[gameState.players.length];
+            for (Player thisPlayer : gameState.players) {
+                handSizes[thisPlayer.getNumber()] = thisPlayer.getHand().size();
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ShapeKey)) {
+                return false;
+            }
+            ShapeKey key = (ShapeKey) other;
+            return hand == key.hand && trumpSuit == key.trumpSuit && player == key.player && leader == key.leader
+                    && Arrays.equals(handSizes, key.handSizes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hand * 0x9E3779B97F4A7C15L) ^ ((trumpSuit * 31 + player) * 31 + leader)
+                    ^ Arrays.hashCode(handSizes);
+        }
+    }
+}
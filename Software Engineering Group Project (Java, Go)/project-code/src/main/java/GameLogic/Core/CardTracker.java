@@ -0,0 +1,81 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+
+import java.util.Arrays;
+
+/*
+ * What every player at the table can infer about the hidden hands this hand, as Hand bitboard masks: the cards
+ * played so far, the cards each player is known not to hold from failing to follow a suit or value, and the cards
+ * each player is known to hold from the fixed leading card rule. Game updates it on every move in constant time,
+ * so ai players and deal samplers can ask without rescanning the tricks played.
+ */
+public class CardTracker {
+
+    private long played = 0L; // Cards played this hand, including the table
+    private long[] notHeld = new long[0]; // Cards each player is known not to hold
+    private long[] knownHeld = new long[0]; // Cards each player is known to hold and has not yet played
+
+    // Method to forget everything at the start of a hand
+    public void newHand(int numberOfPlayers) {
+        if (notHeld.length != numberOfPlayers) {
+            notHeld = new long[numberOfPlayers];
+            knownHeld = new long[numberOfPlayers];
+        } else {
+            Arrays.fill(notHeld, 0L);
+            Arrays.fill(knownHeld, 0L);
+        }
+        played = 0L;
+    }
+
+    // Method to note a player was shown to hold cards, e.g. the card they must lead
+    public void cardsHeld(int playerNumber, long cards) {
+        knownHeld[playerNumber] |= cards;
+    }
+
+    /**
+     * Notes a card being played. A player who plays off a suit or value they were asked to follow, when the rules
+     * only allow that with none held, holds none of it.
+     * @param playerNumber player who played the card
+     * @param card Hand mask of the card played
+     * @param suitsToFollow Hand mask of the suits to follow if held - 0 if none or the rules force them anyway
+     * @param valuesToFollow same for values
+     */
+    public void cardPlayed(int playerNumber, long card, long suitsToFollow, long valuesToFollow) {
+        played |= card;
+        knownHeld[playerNumber] &= ~card;
+        if ((card & suitsToFollow) == 0) {
+            notHeld[playerNumber] |= suitsToFollow;
+        }
+        if ((card & valuesToFollow) == 0) {
+            notHeld[playerNumber] |= valuesToFollow;
+        }
+    }
+
+    // Method to put back what a player's move changed, from values read before it
+    void restore(int playerNumber, long played, long notHeld, long knownHeld) {
+        this.played = played;
+        this.notHeld[playerNumber] = notHeld;
+        this.knownHeld[playerNumber] = knownHeld;
+    }
+
+    // Getters
+    public long getPlayed() {
+        return played;
+    }
+
+    public long getNotHeld(int playerNumber) {
+        return notHeld[playerNumber];
+    }
+
+    public long getKnownHeld(int playerNumber) {
+        return knownHeld[playerNumber];
+    }
+
+    // Checks if a player is known to hold no cards of a suit
+    public boolean isVoidIn(int playerNumber, Suit suit) {
+        long suitMask = Hand.suitMask(suit);
+        return (notHeld[playerNumber] & suitMask) == suitMask;
+    }
+}
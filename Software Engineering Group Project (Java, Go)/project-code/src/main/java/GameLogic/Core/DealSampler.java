@@ -0,0 +1,315 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+ * Draws deals of the unseen cards to the hidden hands uniformly from every deal that agrees with what an observer
+ * knows: the cards left unseen, how many each hidden hand holds, and the cards each is known not to hold. Unseen
+ * cards are grouped by the set of hidden hands that may hold them, and the number of deals left from each way of
+ * splitting a group is counted up front, so every deal is drawn directly with no rejection. Unseen cards beyond
+ * the hidden hand sizes, such as a stock, go to a hand of their own that is not returned.
+ * The sampler is not changed once built, so any number of threads may deal from it, each with its own Dealer.
+ */
+public class DealSampler {
+
+    private static final int CAPACITY_BITS = 7; // Bits of a packed count per hand - hands hold at most 64 cards
+    private static final long CAPACITY_MASK = (1L << CAPACITY_BITS) - 1;
+    private static final int MAX_HANDS = Long.SIZE / CAPACITY_BITS; // Hidden hands and the stock
+    private static final double[] FACTORIALS = new double[Long.SIZE + 1];
+
+    static {
+        FACTORIALS[0] = 1;
+        for (int i = 1; i < FACTORIALS.length; i++) {
+            FACTORIALS[i] = FACTORIALS[i - 1] * i;
+        }
+    }
+
+    private final int[] hiddenPlayers; // Player number of each hidden hand, in hand order
+    private final int hands; // Hidden hands, then the stock if any cards are left over
+    private long[] groupCards; // Unseen cards of each group
+    private int[] groupHands; // Mask of the hands that may hold each group's cards
+    private int[] groupSizes;
+    private final long startCapacities; // Cards each hand needs, packed CAPACITY_BITS to a hand
+    private final boolean consistent; // False if no deal fits what is known, so exclusions are ignored
+
+    // Deals left from each group onwards for each packed hand capacity, as an open addressed table per group
+    private long[][] wayKeys;
+    private double[][] wayCounts;
+    private int[] wayUsed;
+
+    /**
+     * Builds a sampler for the hidden hands.
+     * @param unseenCards Hand mask of every card that may be in a hidden hand or the stock
+     * @param hiddenSizes cards each player holds that must be dealt, by player number - 0 for known hands
+     * @param excluded Hand mask of the cards each player is known not to hold, by player number
+     */
+    public DealSampler(long unseenCards, int[] hiddenSizes, long[] excluded) {
+        // Hidden hands, then a stock for cards left over
+        int[] players = new int[hiddenSizes.length];
+        int hiddenCount = 0;
+        int dealt = 0;
+        for (int i = 0; i < hiddenSizes.length; i++) {
+            if (hiddenSizes[i] > 0) {
+                players[hiddenCount++] = i;
+                dealt += hiddenSizes[i];
+            }
+        }
+        int stock = Long.bitCount(unseenCards) - dealt;
+        if (stock < 0) {
+            throw new IllegalArgumentException("Hidden hands hold more cards than are unseen");
+        }
+        this.hiddenPlayers = Arrays.copyOf(players, hiddenCount);
+        this.hands = hiddenCount + ((stock > 0) ? 1 : 0);
+        if (hands > MAX_HANDS) {
+            throw new IllegalArgumentException("Too many hidden hands: " + hands);
+        }
+
+        long capacities = 0L;
+        for (int i = 0; i < hiddenCount; i++) {
+            capacities |= (long) hiddenSizes[hiddenPlayers[i]] << (i * CAPACITY_BITS);
+        }
+        if (stock > 0) {
+            capacities |= (long) stock << (hiddenCount * CAPACITY_BITS);
+        }
+        this.startCapacities = capacities;
+
+        // Try with what is known, and ignore exclusions if nothing fits
+        long[] handExcluded = new long[hands];
+        for (int i = 0; i < hiddenCount; i++) {
+            handExcluded[i] = excluded[hiddenPlayers[i]];
+        }
+        group(unseenCards, handExcluded);
+        this.consistent = ways(0, startCapacities) > 0;
+        if (!consistent) {
+            group(unseenCards, new long[hands]);
+            ways(0, startCapacities);
+        }
+    }
+
+    /**
+     * Builds a sampler for what a player can see of a running game: their own hand and any dummy are known, and
+     * the card tracker rules out cards for hidden hands. Cards come from the game's own deck, so custom decks
+     * are dealt as defined.
+     * @param gameState game being played
+     * @param observer player whose view is sampled
+     * @return sampler dealing every other hand
+     */
+    public static DealSampler forObserver(Game.GameState gameState, Player observer) {
+        int[] hiddenSizes = new int[gameState.players.length];
+        long[] excluded = new long[gameState.players.length];
+        CardTracker tracker = gameState.cardTracker;
+
+        long unseen = 0L;
+        for (Card thisCard : gameState.gameSpec.deck.registry.getCards()) {
+            unseen |= Hand.cardMask(thisCard);
+        }
+        unseen &= ~tracker.getPlayed();
+        long knownHeld = 0L;
+        for (Player thisPlayer : gameState.players) {
+            knownHeld |= tracker.getKnownHeld(thisPlayer.getNumber());
+        }
+        for (Player thisPlayer : gameState.players) {
+            int playerNumber = thisPlayer.getNumber();
+            if (thisPlayer == observer || thisPlayer.isIsDummy()) {
+                unseen &= ~thisPlayer.getHand().getBits();
+            } else {
+                // Cannot hold suits they failed to follow, or cards known to be in another hand
+                hiddenSizes[playerNumber] = thisPlayer.getHand().size();
+                excluded[playerNumber] = tracker.getNotHeld(playerNumber)
+                        | (knownHeld & ~tracker.getKnownHeld(playerNumber));
+            }
+        }
+        return new DealSampler(unseen, hiddenSizes, excluded);
+    }
+
+    // Method to split unseen cards into groups by the hands that may hold them, with empty tables of deals left
+    private void group(long unseenCards, long[] handExcluded) {
+        long[] byMask = new long[1 << hands];
+        for (long remaining = unseenCards; remaining != 0; remaining &= remaining - 1) {
+            long card = remaining & -remaining;
+            int mask = 0;
+            for (int i = 0; i < hands; i++) {
+                if ((handExcluded[i] & card) == 0) {
+                    mask |= 1 << i;
+                }
+            }
+            byMask[mask] |= card;
+        }
+
+        int groups = 0;
+        for (long cards : byMask) {
+            if (cards != 0) {
+                groups++;
+            }
+        }
+        groupCards = new long[groups];
+        groupHands = new int[groups];
+        groupSizes = new int[groups];
+        groups = 0;
+        for (int mask = 0; mask < byMask.length; mask++) {
+            if (byMask[mask] != 0) {
+                groupCards[groups] = byMask[mask];
+                groupHands[groups] = mask;
+                groupSizes[groups++] = Long.bitCount(byMask[mask]);
+            }
+        }
+
+        wayKeys = new long[groups][16];
+        wayCounts = new double[groups][16];
+        wayUsed = new int[groups];
+        for (long[] keys : wayKeys) {
+            Arrays.fill(keys, -1L);
+        }
+    }
+
+    // Method to count the deals of groups from this one on into hands with the given capacities
+    private double ways(int group, long capacities) {
+        if (group == groupCards.length) {
+            return (capacities == 0) ? 1 : 0;
+        }
+        int slot = findSlot(group, capacities);
+        if (wayKeys[group][slot] == capacities) {
+            return wayCounts[group][slot];
+        }
+        double count = split(group, 0, groupSizes[group], capacities, FACTORIALS[groupSizes[group]], null, 0);
+        storeWays(group, capacities, count);
+        return count;
+    }
+
+    /*
+     * Method to go through each way of splitting the rest of a group between its hands from hand onwards, adding up
+     * the deals each leaves. With a dealer, stops once the running total passes target and leaves the split in
+     * its counts. weight is the number of orders of the cards split so far.
+     */
+    private double split(int group, int hand, int cardsLeft, long capacities, double weight, Dealer dealer,
+            double target) {
+        // Find next hand that may hold this group
+        while (hand < hands && (groupHands[group] & (1 << hand)) == 0) {
+            hand++;
+        }
+        if (hand == hands) {
+            return (cardsLeft == 0) ? weight * ways(group + 1, capacities) : 0;
+        }
+
+        int shift = hand * CAPACITY_BITS;
+        int capacity = (int) ((capacities >>> shift) & CAPACITY_MASK);
+        int most = Math.min(capacity, cardsLeft);
+        double total = 0;
+        for (int count = 0; count <= most; count++) {
+            if (dealer != null) {
+                dealer.counts[hand] = count;
+            }
+            total += split(group, hand + 1, cardsLeft - count, capacities - ((long) count << shift),
+                    weight / FACTORIALS[count], dealer, target - total);
+            if (dealer != null && total > target) {
+                return total;
+            }
+        }
+        return total;
+    }
+
+    private int findSlot(int group, long capacities) {
+        long[] keys = wayKeys[group];
+        int slot = (int) ((capacities * 0x9E3779B97F4A7C15L) >>> 40) & (keys.length - 1);
+        while (keys[slot] != -1L && keys[slot] != capacities) {
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return slot;
+    }
+
+    private void storeWays(int group, long capacities, double count) {
+        if ((wayUsed[group] + 1) * 2 > wayKeys[group].length) {
+            // Grow table
+            long[] oldKeys = wayKeys[group];
+            double[] oldCounts = wayCounts[group];
+            wayKeys[group] = new long[oldKeys.length * 2];
+            Arrays.fill(wayKeys[group], -1L);
+            wayCounts[group] = new double[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != -1L) {
+                    int slot = findSlot(group, oldKeys[i]);
+                    wayKeys[group][slot] = oldKeys[i];
+                    wayCounts[group][slot] = oldCounts[i];
+                }
+            }
+        }
+        int slot = findSlot(group, capacities);
+        wayKeys[group][slot] = capacities;
+        wayCounts[group][slot] = count;
+        wayUsed[group]++;
+    }
+
+    // Getters
+    public double getDealCount() {
+        return ways(0, startCapacities);
+    }
+
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    // Method to make a dealer drawing from this sampler with its own random numbers, for use by one thread
+    public Dealer newDealer(SplittableRandom random) {
+        return new Dealer(random);
+    }
+
+    // Deals for one thread, with its own random numbers and scratch space
+    public final class Dealer {
+        private final SplittableRandom random;
+        private final int[] counts = new int[hands]; // Cards of the current group for each hand
+        private final int[] pool = new int[Long.SIZE];
+        private final long[] dealtHands = new long[hands];
+
+        private Dealer(SplittableRandom random) {
+            this.random = random;
+        }
+
+        /**
+         * Draws a deal, setting the Hand mask of each hidden player. Other entries are left as they are.
+         * @param hands hand of each player by player number, to fill
+         */
+        public void deal(long[] hands) {
+            Arrays.fill(dealtHands, 0L);
+            long capacities = startCapacities;
+            for (int group = 0; group < groupCards.length; group++) {
+                // Choose how many of this group each hand gets, weighted by the deals that leaves. The last group
+                // fills whatever room is left, and is usually the one every hand may hold, as groups go by hand mask
+                if (group == groupCards.length - 1) {
+                    for (int hand = 0; hand < DealSampler.this.hands; hand++) {
+                        counts[hand] = (int) ((capacities >>> (hand * CAPACITY_BITS)) & CAPACITY_MASK);
+                    }
+                } else {
+                    split(group, 0, groupSizes[group], capacities, FACTORIALS[groupSizes[group]], this,
+                            random.nextDouble() * ways(group, capacities));
+                }
+
+                // Shuffle the group and hand out that many of it to each
+                int size = 0;
+                for (long cards = groupCards[group]; cards != 0; cards &= cards - 1) {
+                    pool[size++] = Long.numberOfTrailingZeros(cards);
+                }
+                int next = 0;
+                for (int hand = 0; hand < DealSampler.this.hands; hand++) {
+                    if ((groupHands[group] & (1 << hand)) == 0) {
+                        continue;
+                    }
+                    for (int i = 0; i < counts[hand]; i++, next++) {
+                        int j = next + random.nextInt(size - next);
+                        int swap = pool[j];
+                        pool[j] = pool[next];
+                        pool[next] = swap;
+                        dealtHands[hand] |= 1L << swap;
+                    }
+                    capacities -= (long) counts[hand] << (hand * CAPACITY_BITS);
+                }
+            }
+            for (int i = 0; i < hiddenPlayers.length; i++) {
+                hands[hiddenPlayers[i]] = dealtHands[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,781 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Hand;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+ * Exact solver for the card play of a hand with every hand known. Finds the most tricks a team can take against
+ * best defence by repeated null window alpha-beta searches, following the trick rules of TrickPosition.
+ *
+ * Positions at the start of each trick are stored in a transposition table. Each search also finds the cards that
+ * won tricks in it, and in trick mode a stored result holds for every position with the same suit lengths in each
+ * hand where the cards of each suit down to the lowest of those have the same owners, so lower cards may differ.
+ * Results are found from a Zobrist hash of the suit lengths, which lists how many top cards of each suit results
+ * stored under it depend on, then from a Zobrist hash of the owners of those cards. Cards that are equivalent to a card
+ * already tried are skipped, and likely winning moves are tried first.
+ */
+public class DoubleDummySolver {
+
+    private static final int DEFAULT_TABLE_BITS = 20; // Log2 of transposition table entries
+    private static final int SHAPE_BUCKET_SIZE = 32; // Top card counts listed for a hash of suit lengths
+    private static final int COUNT_BITS = 5; // Bits for the top cards of one suit in a list of counts
+    private static final long SHAPE_KEY_MASK = -1L << (COUNT_BITS * 4); // Key bits kept in a shape
+    private static final long ENTRY_KEY_MASK = -1L << 16; // Key bits kept in an entry, above two bounds
+    private static final int MAX_MOVES = Hand.RANKS_PER_SUIT * 4; // Most cards one hand can hold
+    private static final int SUIT_KEYS = Hand.RANKS_PER_SUIT + 1; // Owner keys of each suit, for each count of top cards
+
+    // Zobrist keys, indexed by seat - made for the number of players of the rules solved under
+    private long[][] lengthKeys; // Key of each suit length in each player's hand, by suit * 17 + length
+    private long[][] cardKeys; // Key of each card in each player's hand
+    private long[] leaderKeys; // Key of each player leading
+    private long[] teamKeys; // Key of each team searched for
+    private long[][] ownerKeys; // Key of each player owning the card of each rank from the top of each suit
+
+    // Transposition table - bounds on tricks the searched team takes from the start of a trick. Each slot is one
+    // long, so a probe reads one cache line
+    private final long[] shapes; // High bits of a key of suit lengths, with the top cards of each suit to match
+    private final byte[] shapeNext; // Slot of each bucket of shapes to replace next
+    private final int shapeMask;
+    private final long[] entries; // High bits of a key of a result, with the lower and upper bounds
+    private final int entryMask;
+    private long generation; // Mixed into keys so solves under other rules never match
+    private TrickPosition rules; // Position of the last solve, for its rules
+
+    // Moves that last decided a search, by a hash of the suit lengths, the cards on the table and the tricks needed,
+    // with the move in the low byte. Positions with the same suit lengths are often decided by the same card
+    private final long[] moveHints;
+    private final int hintMask;
+
+    // Search state
+    private TrickPosition position;
+    private int team; // Team searched for
+    private final int[][] moveBuffers = new int[Long.SIZE + 1][MAX_MOVES]; // Moves at each depth
+    private final int[][] scoreBuffers = new int[Long.SIZE + 1][MAX_MOVES]; // Move order scores at each depth
+    private final long[][] ownerBuffers = new long[Long.SIZE + 1][4 * SUIT_KEYS]; // Owner keys at each depth
+    private final int[] ruffLimits = new int[4]; // Cards of each suit the leader's team can cash before a ruff
+    private final long[] decidingCards = new long[Long.SIZE + 1]; // Cards that won tricks in the search at each depth
+    private final byte[] owners = new byte[Long.SIZE]; // Player holding each card at the start of the solve
+    private long held; // Cards still held by any player
+    private long handsKey; // Key of the suit lengths in each hand, or every card in any card mode
+    private long nodes; // Positions searched
+
+    // Constructor - 2^20 table entries
+    public DoubleDummySolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    // Constructor - 2^tableBits table entries, and a quarter as many shapes, each of 8 bytes
+    public DoubleDummySolver(int tableBits) {
+        // A quarter as many shapes as entries
+        int size = 1 << Math.max(tableBits, 7);
+        this.shapes = new long[size / 4];
+        this.shapeNext = new byte[size / 4 / SHAPE_BUCKET_SIZE];
+        this.shapeMask = size / 4 / SHAPE_BUCKET_SIZE - 1;
+        this.entries = new long[size];
+        this.entryMask = size - 1;
+        this.moveHints = new long[size / 16];
+        this.hintMask = size / 16 - 1;
+    }
+
+    // Getters
+    public long getNodes() {
+        return nodes;
+    }
+
+    // Method to find the most tricks each team can take from the position, with every other team against it.
+    // With two teams every trick the first does not take goes to the second, so only one is searched
+    public int[] solveTeams(TrickPosition position) {
+        int[] tricks = new int[position.getTeams()];
+        if (tricks.length == 2) {
+            tricks[0] = solve(position, 0);
+            tricks[1] = remainingTricks(position) - tricks[0];
+            return tricks;
+        }
+        for (int i = 0; i < tricks.length; i++) {
+            tricks[i] = solve(position, i);
+        }
+        return tricks;
+    }
+
+    // Method to find the most tricks the team of the player to move can take from the position
+    public int solve(TrickPosition position) {
+        return solve(position, position.getTeam(position.getCurrentPlayer()));
+    }
+
+    /**
+     * Finds the most tricks a team can take from a position, counting the trick in progress but not those already
+     * won, with every other player against it. The position is searched in place and left as it was given.
+     * @param position position with every hand filled in
+     * @param team team to take tricks for
+     * @return tricks taken with best play on both sides
+     */
+    public int solve(TrickPosition position, int team) {
+        this.position = position;
+        this.team = team;
+        if (!sameRules(position)) {
+            this.generation++;
+            this.rules = new TrickPosition(position);
+            if (leaderKeys == null || leaderKeys.length != position.numberOfPlayers) {
+                createKeys(position.numberOfPlayers);
+            }
+        }
+        this.held = 0L;
+        this.handsKey = 0L;
+        for (int player = 0; player < position.numberOfPlayers; player++) {
+            held |= position.hands[player];
+            for (long cards = position.hands[player]; cards != 0; cards &= cards - 1) {
+                owners[Long.numberOfTrailingZeros(cards)] = (byte) player;
+            }
+            if (position.trickMode) {
+                for (int suit = 0; suit < 4; suit++) {
+                    long suitCards = position.hands[player] & (Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT));
+                    handsKey ^= lengthKeys[player][suit * SUIT_KEYS + Long.bitCount(suitCards)];
+                }
+            }
+        }
+        if (!position.trickMode) {
+            for (int player = 0; player < position.numberOfPlayers; player++) {
+                for (long cards = position.hands[player]; cards != 0; cards &= cards - 1) {
+                    handsKey ^= cardKeys[player][Long.numberOfTrailingZeros(cards)];
+                }
+            }
+        }
+
+        // Binary search on the number of tricks, each test a null window search
+        int low = 0;
+        int high = remainingTricks();
+        while (low < high) {
+            int target = (low + high + 1) / 2;
+            if (canTake(target, 0)) {
+                low = target;
+            } else {
+                high = target - 1;
+            }
+        }
+        this.position = null;
+        return low;
+    }
+
+    // Method to make the Zobrist keys for a number of players. Seeded, so the same players always get the same keys
+    private void createKeys(int numberOfPlayers) {
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        this.lengthKeys = new long[numberOfPlayers][4 * (Hand.RANKS_PER_SUIT + 1)];
+        this.cardKeys = new long[numberOfPlayers][Long.SIZE];
+        this.leaderKeys = new long[numberOfPlayers];
+        this.teamKeys = new long[numberOfPlayers]; // No more teams than players
+        for (int player = 0; player < numberOfPlayers; player++) {
+            for (int i = 0; i < lengthKeys[player].length; i++) {
+                lengthKeys[player][i] = random.nextLong();
+            }
+            for (int i = 0; i < cardKeys[player].length; i++) {
+                cardKeys[player][i] = random.nextLong();
+            }
+            leaderKeys[player] = random.nextLong();
+            teamKeys[player] = random.nextLong();
+        }
+        this.ownerKeys = new long[4 * Hand.RANKS_PER_SUIT][numberOfPlayers];
+        for (long[] seatKeys : ownerKeys) {
+            for (int i = 0; i < seatKeys.length; i++) {
+                seatKeys[i] = random.nextLong();
+            }
+        }
+    }
+
+    // Checks if a position has the rules of the last solve, so the results stored still hold. Results are only
+    // for the positions stored, so they hold for any deal of the same game
+    private boolean sameRules(TrickPosition other) {
+        return rules != null && rules.numberOfPlayers == other.numberOfPlayers && rules.trickMode == other.trickMode
+                && rules.ascending == other.ascending && rules.minimumHandSize == other.minimumHandSize
+                && Arrays.equals(rules.teamOf, other.teamOf);
+    }
+
+    // Method to count tricks left to play, including the one in progress
+    private int remainingTricks() {
+        int cards = Long.bitCount(held) + position.tableSize;
+        return Math.max(0, cards / position.numberOfPlayers - position.minimumHandSize);
+    }
+
+    // Method to count tricks left to play in a position before it is searched
+    private static int remainingTricks(TrickPosition position) {
+        int cards = position.tableSize;
+        for (int player = 0; player < position.numberOfPlayers; player++) {
+            cards += Long.bitCount(position.hands[player]);
+        }
+        return Math.max(0, cards / position.numberOfPlayers - position.minimumHandSize);
+    }
+
+    // Checks if the team can take at least the needed tricks from the current position. The cards that decided
+    // the result are left in decidingCards[depth]
+    private boolean canTake(int needed, int depth) {
+        nodes++;
+        decidingCards[depth] = 0L;
+        if (needed <= 0) {
+            return true;
+        }
+        if (position.isHandOver()) {
+            return false;
+        }
+        int remaining = remainingTricks();
+        if (needed > remaining) {
+            return false;
+        }
+
+        long key = 0L;
+        long[] ownersKeys = ownerBuffers[depth];
+        if (position.tableSize == 0) {
+            // Tricks the leader can take straight away, or top trumps are sure to take, decide some searches
+            long quickCards = quickTricks(held);
+            if (decidedBy(quickCards, position.leader, needed, remaining)) {
+                decidingCards[depth] = quickCards;
+                return position.teamOf[position.leader] == team;
+            }
+            long trumpCards = topTrumps(held);
+            if (trumpCards != 0) {
+                int holder = owner(trumpCards);
+                if (decidedBy(trumpCards, holder, needed, remaining)) {
+                    decidingCards[depth] = trumpCards;
+                    return position.teamOf[holder] == team;
+                }
+            }
+
+            // Bounds from the table, for each count of top cards stored with these suit lengths
+            key = distributionKey();
+            fillOwnersKeys(ownersKeys);
+            int base = slot(key, shapeMask) * SHAPE_BUCKET_SIZE;
+            for (int shape = base; shape < base + SHAPE_BUCKET_SIZE; shape++) {
+                if ((shapes[shape] & SHAPE_KEY_MASK) != (key & SHAPE_KEY_MASK)) {
+                    continue;
+                }
+                int counts = (int) (shapes[shape] & ~SHAPE_KEY_MASK);
+                long entryKey = entryKey(key, counts, ownersKeys);
+                long entry = entries[slot(entryKey, entryMask)];
+                if ((entry & ENTRY_KEY_MASK) == (entryKey & ENTRY_KEY_MASK)
+                        && (lowerBound(entry) >= needed || upperBound(entry) < needed)) {
+                    decidingCards[depth] = topCards(counts);
+                    return lowerBound(entry) >= needed;
+                }
+            }
+        }
+
+        // Try moves, stopping at the first that decides the result
+        boolean maximising = (position.teamOf[position.current] == team);
+        int[] moves = moveBuffers[depth];
+        long hintKey = hintKey(needed);
+        long hint = moveHints[slot(hintKey, hintMask)];
+        int moveCount = generateMoves(moves, depth, ((hint & ~0xFFL) == (hintKey & ~0xFFL)) ? (int) (hint & 0xFF) : -1);
+        boolean result = !maximising;
+        long deciding = 0L;
+        for (int i = 0; i < moveCount; i++) {
+            long keyChange = handsKeyChange(moves[i]);
+            position.play(moves[i]);
+            held &= ~(1L << moves[i]);
+            handsKey ^= keyChange;
+
+            // A completed trick is decided by its winning card, if it beat another card of its suit
+            int won = 0;
+            long trickCard = 0L;
+            if (position.tableSize == 0) {
+                won = (position.teamOf[position.current] == team) ? 1 : 0;
+                trickCard = lastTrickDecidingCard();
+            }
+            boolean taken = canTake(needed - won, depth + 1);
+            long cards = decidingCards[depth + 1] | trickCard;
+
+            position.unplay();
+            held |= 1L << moves[i];
+            handsKey ^= keyChange;
+
+            if (taken == maximising) {
+                // One move is enough, and only the cards deciding it matter
+                if (moveCount > 1) {
+                    moveHints[slot(hintKey, hintMask)] = (hintKey & ~0xFFL) | moves[i];
+                }
+                result = taken;
+                deciding = cards;
+                break;
+            }
+            // Every move was needed to decide it
+            deciding |= cards;
+        }
+        decidingCards[depth] = deciding;
+
+        if (position.tableSize == 0) {
+            store(key, ownersKeys, deciding, needed, remaining, result);
+        }
+        return result;
+    }
+
+    // Checks if sure tricks for a player, one for each card, decide the search either way
+    private boolean decidedBy(long cards, int player, int needed, int remaining) {
+        int tricks = Long.bitCount(cards);
+        return (position.teamOf[player] == team) ? tricks >= needed : needed > remaining - tricks;
+    }
+
+    // Stores a new bound for the position, matching positions with the same owners of the deciding cards
+    // and of every card above them
+    private void store(long key, long[] ownersKeys, long deciding, int needed, int remaining, boolean result) {
+        // Top cards of each suit that must match
+        int counts = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            counts |= matchCount(held, deciding, suit) << (suit * COUNT_BITS);
+        }
+
+        // List the counts under the suit lengths, replacing the shapes of a bucket in turn
+        int bucket = slot(key, shapeMask);
+        int base = bucket * SHAPE_BUCKET_SIZE;
+        long shape = (key & SHAPE_KEY_MASK) | counts;
+        boolean listed = false;
+        for (int i = base; i < base + SHAPE_BUCKET_SIZE && !listed; i++) {
+            listed = shapes[i] == shape;
+        }
+        if (!listed) {
+            shapes[base + shapeNext[bucket]] = shape;
+            shapeNext[bucket] = (byte) ((shapeNext[bucket] + 1) % SHAPE_BUCKET_SIZE);
+        }
+
+        long entryKey = entryKey(key, counts, ownersKeys);
+        int slot = slot(entryKey, entryMask);
+        long entry = entries[slot];
+        int lower = 0;
+        int upper = remaining;
+        if ((entry & ENTRY_KEY_MASK) == (entryKey & ENTRY_KEY_MASK)) {
+            lower = lowerBound(entry);
+            upper = upperBound(entry);
+        }
+        if (result) {
+            lower = Math.max(lower, needed);
+        } else {
+            upper = Math.min(upper, needed - 1);
+        }
+        entries[slot] = (entryKey & ENTRY_KEY_MASK) | (lower << 8) | upper;
+    }
+
+    // Methods to read the bounds of a table entry
+    private static int lowerBound(long entry) {
+        return (int) (entry >>> 8) & 0xFF;
+    }
+
+    private static int upperBound(long entry) {
+        return (int) entry & 0xFF;
+    }
+
+    // Method to count the held cards of a suit from the highest down to the lowest deciding card. In any card mode
+    // the key holds every card, so none need matching
+    private int matchCount(long held, long deciding, int suit) {
+        if (!position.trickMode) {
+            return 0;
+        }
+        long suitMask = Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT);
+        long suitDeciding = deciding & held & suitMask;
+        if (suitDeciding == 0) {
+            return 0;
+        }
+        long lowest = suitDeciding & -suitDeciding;
+        return Long.bitCount(held & suitMask & ~(lowest - 1));
+    }
+
+    // Method to find the key of a result from the key of suit lengths and the owners of the top cards it depends on
+    private long entryKey(long key, int counts, long[] ownersKeys) {
+        long entryKey = key ^ counts * 0x9E3779B97F4A7C15L;
+        for (int suit = 0; suit < 4; suit++) {
+            entryKey ^= ownersKeys[suit * SUIT_KEYS + ((counts >>> (suit * COUNT_BITS)) & ((1 << COUNT_BITS) - 1))];
+        }
+        return entryKey;
+    }
+
+    // Method to find the held cards of each suit a count of top cards covers
+    private long topCards(int counts) {
+        long cards = 0L;
+        for (int suit = 0; suit < 4; suit++) {
+            long suitCards = held & (Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT));
+            for (int i = (counts >>> (suit * COUNT_BITS)) & ((1 << COUNT_BITS) - 1); i > 0; i--) {
+                long card = Long.highestOneBit(suitCards);
+                cards |= card;
+                suitCards &= ~card;
+            }
+        }
+        return cards;
+    }
+
+    // Method to find the table slot of a key
+    private static int slot(long key, int mask) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    // Fills in the keys of the owners of the top cards of each suit, for each count of top cards
+    private void fillOwnersKeys(long[] ownersKeys) {
+        if (!position.trickMode) {
+            return;
+        }
+        for (int suit = 0; suit < 4; suit++) {
+            long ownersKey = 0L;
+            int rank = 0;
+            long suitCards = held & (Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT));
+            for (; suitCards != 0; rank++) {
+                long card = Long.highestOneBit(suitCards);
+                ownersKeys[suit * SUIT_KEYS + rank] = ownersKey;
+                ownersKey ^= ownerKeys[suit * Hand.RANKS_PER_SUIT + rank][owner(card)];
+                suitCards &= ~card;
+            }
+            ownersKeys[suit * SUIT_KEYS + rank] = ownersKey;
+        }
+    }
+
+    // Method to find the table key of the position from suit lengths, or every card in any card mode, with the
+    // leader and team searched for
+    private long distributionKey() {
+        return handsKey ^ leaderKeys[position.leader] ^ teamKeys[team]
+                ^ (generation * 5 + position.trumpSuit) * 0x9E3779B97F4A7C15L;
+    }
+
+    // Method to find the change to the key of the hands when the player to move plays a card
+    private long handsKeyChange(int bit) {
+        int player = position.current;
+        if (!position.trickMode) {
+            return cardKeys[player][bit];
+        }
+        int suit = bit / Hand.RANKS_PER_SUIT;
+        int length = Long.bitCount(position.hands[player] & (Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT)));
+        return lengthKeys[player][suit * SUIT_KEYS + length] ^ lengthKeys[player][suit * SUIT_KEYS + length - 1];
+    }
+
+    // Method to find the key of the move hint for the position, from its table key, the cards on the table and
+    // the tricks needed
+    private long hintKey(int needed) {
+        long key = distributionKey() ^ needed * 0xC2B2AE3D27D4EB4FL;
+        for (int i = 0; i < position.tableSize; i++) {
+            key ^= cardKeys[i][position.table[i]];
+        }
+        return key;
+    }
+
+    // Method to find the cards the leader's team can win tricks with in a row from the lead, in trick mode: the
+    // leader's own top cards, or a team mate's after leading to their top card of a suit
+    private long quickTricks(long held) {
+        if (!position.trickMode) {
+            return 0L;
+        }
+        int leader = position.leader;
+        int leaderTeam = position.teamOf[leader];
+        int trump = position.trumpSuit;
+        long trumpMask = (trump == -1) ? 0L : Hand.ALL_SUIT_MASK << (trump * Hand.RANKS_PER_SUIT);
+
+        // Cards of each suit the team can cash before an opponent holding trumps runs out of it
+        for (int suit = 0; suit < 4; suit++) {
+            int limit = Hand.RANKS_PER_SUIT;
+            if (trump != -1 && suit != trump) {
+                long suitMask = Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT);
+                for (int player = 0; player < position.numberOfPlayers; player++) {
+                    if (position.teamOf[player] != leaderTeam && (position.hands[player] & trumpMask) != 0) {
+                        limit = Math.min(limit, Long.bitCount(position.hands[player] & suitMask));
+                    }
+                }
+            }
+            ruffLimits[suit] = limit;
+        }
+
+        long cards = runCards(leader, -1, held);
+        for (int player = 0; player < position.numberOfPlayers; player++) {
+            if (player == leader || position.teamOf[player] != leaderTeam) {
+                continue;
+            }
+            for (int suit = 0; suit < 4; suit++) {
+                long suitMask = Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT);
+                if ((position.hands[leader] & suitMask) == 0 || ruffLimits[suit] == 0
+                        || (position.hands[player] & Long.highestOneBit(held & suitMask)) == 0) {
+                    continue;
+                }
+                long teamMateCards = runCards(player, suit, held);
+                if (Long.bitCount(teamMateCards) > Long.bitCount(cards)) {
+                    cards = teamMateCards;
+                }
+            }
+        }
+        return cards;
+    }
+
+    // Method to find the cards a player can win tricks with in a row by leading them. A run of top cards in a suit
+    // only counts for as long as every opponent holding trumps can still follow it, and only one side suit winner
+    // counts if a team mate holds nothing but trumps, as they would take the lead. If the player is reached by a
+    // lead of the entry suit, the leader of it may also hold cards of that suit
+    private long runCards(int runner, int entrySuit, long held) {
+        int trump = position.trumpSuit;
+        int runnerTeam = position.teamOf[runner];
+        long trumpMask = (trump == -1) ? 0L : Hand.ALL_SUIT_MASK << (trump * Hand.RANKS_PER_SUIT);
+        long entryMask = (entrySuit == -1) ? 0L : Hand.ALL_SUIT_MASK << (entrySuit * Hand.RANKS_PER_SUIT);
+
+        boolean partnerAllTrumps = false;
+        for (int player = 0; player < position.numberOfPlayers; player++) {
+            long hand = position.hands[player];
+            if (player == position.leader && player != runner) {
+                hand &= ~entryMask;
+            }
+            if (player != runner && position.teamOf[player] == runnerTeam && hand != 0 && (hand & ~trumpMask) == 0) {
+                partnerAllTrumps = true;
+            }
+        }
+
+        long cards = 0L;
+        long sideCards = 0L;
+        long hand = position.hands[runner];
+        for (int suit = 0; suit < 4; suit++) {
+            long suitCards = held & (Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT));
+            for (int limit = ruffLimits[suit]; limit > 0 && (hand & Long.highestOneBit(suitCards)) != 0; limit--) {
+                long card = Long.highestOneBit(suitCards);
+                if (suit == trump) {
+                    cards |= card;
+                } else {
+                    sideCards |= card;
+                }
+                suitCards &= ~card;
+            }
+        }
+        if (partnerAllTrumps && sideCards != 0) {
+            // Keep an entry suit winner, to be reached by
+            long entryCards = sideCards & entryMask;
+            sideCards = Long.highestOneBit((entryCards != 0) ? entryCards : sideCards);
+        }
+        return cards | sideCards;
+    }
+
+    // Method to find the run of highest trumps held by one player, in trick mode when every card will be played.
+    // Each must win a different trick when played
+    private long topTrumps(long held) {
+        if (!position.trickMode || position.trumpSuit == -1 || position.minimumHandSize != 0) {
+            return 0L;
+        }
+        long trumps = held & (Hand.ALL_SUIT_MASK << (position.trumpSuit * Hand.RANKS_PER_SUIT));
+        if (trumps == 0) {
+            return 0L;
+        }
+        long hand = position.hands[owner(Long.highestOneBit(trumps))];
+        long cards = 0L;
+        while (trumps != 0 && (hand & Long.highestOneBit(trumps)) != 0) {
+            cards |= Long.highestOneBit(trumps);
+            trumps &= ~Long.highestOneBit(trumps);
+        }
+        return cards;
+    }
+
+    // Method to find the player holding a card
+    private int owner(long card) {
+        return owners[Long.numberOfTrailingZeros(card)];
+    }
+
+    // Method to find the card that won the trick just completed, still on the table, if it won by its value.
+    // A card that won as the only card of its suit played would win with any value, so is not returned
+    private long lastTrickDecidingCard() {
+        position.tableSize = position.numberOfPlayers;
+        int winning = position.table[position.winningIndex()];
+        position.tableSize = 0;
+        for (int i = 0; i < position.numberOfPlayers; i++) {
+            int bit = position.table[i];
+            if (bit != winning && bit / Hand.RANKS_PER_SUIT == winning / Hand.RANKS_PER_SUIT) {
+                return 1L << winning;
+            }
+        }
+        return 0L;
+    }
+
+    // Method to fill a buffer with the legal moves worth trying, best first, or the move hinted first if it is one
+    // of them. Returns the number of moves
+    private int generateMoves(int[] moves, int depth, int hint) {
+        long legal = position.legalMoves();
+
+        // Cards the player's cards may be compared with
+        long others = held & ~position.hands[position.current];
+        for (int i = 0; i < position.tableSize; i++) {
+            others |= 1L << position.table[i];
+        }
+
+        // Keep one card of each run of equivalent cards
+        int count = 0;
+        int previous = -1;
+        int values = 0;
+        for (long cards = legal; cards != 0; cards &= cards - 1) {
+            int bit = Long.numberOfTrailingZeros(cards);
+            if (previous == -1 || previous / Hand.RANKS_PER_SUIT != bit / Hand.RANKS_PER_SUIT) {
+                values = competitorValues(bit / Hand.RANKS_PER_SUIT, others);
+            } else if ((values & rangeMask(previous % Hand.RANKS_PER_SUIT, bit % Hand.RANKS_PER_SUIT)) == 0) {
+                // Equivalent to the lower card already kept
+                previous = bit;
+                continue;
+            }
+            moves[count++] = bit;
+            previous = bit;
+        }
+
+        orderMoves(moves, scoreBuffers[depth], count);
+        for (int i = 1; i < count; i++) {
+            if (moves[i] == hint) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = hint;
+                break;
+            }
+        }
+        return count;
+    }
+
+    // Method to find the values of other players' cards a card of a suit is compared with when deciding a trick
+    private int competitorValues(int suit, long others) {
+        int trump = position.trumpSuit;
+        int values = 0;
+        for (int otherSuit = 0; otherSuit < 4; otherSuit++) {
+            boolean compared;
+            if (position.trickMode) {
+                // Only cards of the same suit are compared by value
+                compared = otherSuit == suit;
+            } else {
+                // Any card may win, so all trumps or all other cards are compared
+                compared = (suit == trump) == (otherSuit == trump);
+            }
+            if (compared) {
+                values |= (int) ((others >>> (otherSuit * Hand.RANKS_PER_SUIT)) & Hand.ALL_SUIT_MASK);
+            }
+        }
+        return values;
+    }
+
+    // Method to find the mask of values from low to high, inclusive
+    private static int rangeMask(int low, int high) {
+        return ((1 << (high + 1)) - 1) & ~((1 << low) - 1);
+    }
+
+    // Orders moves in place, so moves likely to decide the search come first
+    private void orderMoves(int[] moves, int[] scores, int count) {
+        if (count < 2) {
+            return;
+        }
+        int winningIndex = (position.tableSize == 0) ? 0 : position.winningIndex();
+        int winningCard = position.table[winningIndex];
+        // A team mate's card only needs no help if no later opponent can beat it
+        boolean partnerWinning = position.tableSize != 0
+                && position.teamOf[position.tablePlayer(winningIndex)] == position.teamOf[position.current]
+                && !canBeBeaten(winningCard);
+        for (int i = 0; i < count; i++) {
+            int value = moves[i] % Hand.RANKS_PER_SUIT;
+            if (position.tableSize == 0) {
+                // Lead winners first, then low to a partner's winner, then low from suits long in the hand and
+                // short with opponents
+                long suitCards = held & (Hand.ALL_SUIT_MASK << ((moves[i] / Hand.RANKS_PER_SUIT) * Hand.RANKS_PER_SUIT));
+                int top = owner(Long.highestOneBit(suitCards));
+                boolean ruffed = canBeRuffed(moves[i] / Hand.RANKS_PER_SUIT);
+                if (top == position.current && !ruffed) {
+                    scores[i] = 200 + value;
+                } else if (partnerRuffs(moves[i] / Hand.RANKS_PER_SUIT) && !ruffed) {
+                    scores[i] = 180 - value;
+                } else if (position.teamOf[top] == position.teamOf[position.current] && !ruffed) {
+                    scores[i] = 150 - value;
+                } else {
+                    int length = Long.bitCount(suitCards & position.hands[position.current]);
+                    scores[i] = length * 8 - opponentLengths(suitCards, length) * 13 - value;
+                    if (top == position.nextPlayer(position.current)) {
+                        scores[i] += 60;
+                    }
+                }
+            } else if (!partnerWinning && position.beats(moves[i], winningCard)) {
+                // Win as cheaply as possible, unless a later opponent can win anyway
+                scores[i] = canBeBeaten(moves[i]) ? -value : 100 - value;
+            } else {
+                // Play low
+                scores[i] = -value;
+            }
+        }
+
+        // Insertion sort, highest score first
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    // Checks if an opponent of the player to move is void in a suit and can trump it, in trick mode
+    private boolean canBeRuffed(int suit) {
+        if (!position.trickMode || position.trumpSuit == -1 || suit == position.trumpSuit) {
+            return false;
+        }
+        long suitMask = Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT);
+        long trumpMask = Hand.ALL_SUIT_MASK << (position.trumpSuit * Hand.RANKS_PER_SUIT);
+        int team = position.teamOf[position.current];
+        for (int player = 0; player < position.numberOfPlayers; player++) {
+            long hand = position.hands[player];
+            if (position.teamOf[player] != team && (hand & suitMask) == 0 && (hand & trumpMask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Method to count the cards of a suit held by opponents of the player to move. An opponent void in it counts as
+    // holding one more than the player, as they may ruff or discard
+    private int opponentLengths(long suitCards, int length) {
+        int team = position.teamOf[position.current];
+        int cards = 0;
+        for (int player = 0; player < position.numberOfPlayers; player++) {
+            if (position.teamOf[player] != team) {
+                int opponentLength = Long.bitCount(suitCards & position.hands[player]);
+                cards += (opponentLength != 0) ? opponentLength : length + 1;
+            }
+        }
+        return cards;
+    }
+
+    // Checks if a team mate of the player to move is void in a suit and can trump it, in trick mode
+    private boolean partnerRuffs(int suit) {
+        if (!position.trickMode || position.trumpSuit == -1 || suit == position.trumpSuit) {
+            return false;
+        }
+        long suitMask = Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT);
+        long trumpMask = Hand.ALL_SUIT_MASK << (position.trumpSuit * Hand.RANKS_PER_SUIT);
+        int team = position.teamOf[position.current];
+        for (int player = 0; player < position.numberOfPlayers; player++) {
+            long hand = position.hands[player];
+            if (player != position.current && position.teamOf[player] == team && (hand & suitMask) == 0 && (hand & trumpMask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Checks if an opponent still to play in the trick could beat a card, in trick mode
+    private boolean canBeBeaten(int bit) {
+        if (!position.trickMode) {
+            return false;
+        }
+        int leadSuit = position.table[0] / Hand.RANKS_PER_SUIT;
+        long leadMask = Hand.ALL_SUIT_MASK << (leadSuit * Hand.RANKS_PER_SUIT);
+        long trumpMask = (position.trumpSuit == -1) ? 0L : Hand.ALL_SUIT_MASK << (position.trumpSuit * Hand.RANKS_PER_SUIT);
+        long higherSameSuit = ~((2L << bit) - 1) & (Hand.ALL_SUIT_MASK << ((bit / Hand.RANKS_PER_SUIT) * Hand.RANKS_PER_SUIT));
+        boolean isTrump = (trumpMask & (1L << bit)) != 0 && leadSuit != position.trumpSuit;
+
+        int team = position.teamOf[position.current];
+        int player = position.current;
+        for (int i = position.tableSize + 1; i < position.numberOfPlayers; i++) {
+            player = position.nextPlayer(player);
+            if (position.teamOf[player] == team) {
+                continue;
+            }
+            long hand = position.hands[player];
+            if ((hand & leadMask) != 0) {
+                // Must follow, so only a higher card of the lead suit wins
+                if (!isTrump && (hand & higherSameSuit) != 0) {
+                    return true;
+                }
+            } else if (isTrump ? (hand & higherSameSuit) != 0 : (hand & trumpMask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -11,6 +11,10 @@ import Network.Events.PlayCardEvent;
 import Network.GamePlay.NetworkGame;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
 
 public class Game {
 
@@ -56,6 +60,467 @@ public class Game {
         public boolean isNetworked; // Bool to show if game is networked or not
 
         public boolean isAsyncGame; // Bool to show if game is played using pub-sub or not
+
+        public int aiMinBid = 0; // Lowest bid value ai players have seen this auction - shared by ai players
+
+        public Phase phase = Phase.CHECK_RUNS; // Position in session loop, for step-wise play
+        public int bidsThisHand = 0; // Bids made this hand, for non-auction bidding
+
+        public CardTracker cardTracker = new CardTracker(); // What every player can infer about hidden hands
+
+        // Undo stack for applyMove and undoMove. Records, table lists and lead suit lists are kept for reuse
+        private final ArrayList<MoveRecord> moveRecords = new ArrayList<>();
+        private int movesApplied = 0; // Records in use on the stack
+        private final ArrayList<ArrayList<Card>> spareTables = new ArrayList<>();
+        private final EnumMap<Suit, ArrayList<Suit>> leadSuitLists = new EnumMap<>(Suit.class);
+
+        // Zobrist hash of the play position, kept up to date as cards are played. Keys come from a fixed seed,
+        // so every machine running the same game agrees on the hash of the same position
+        private static final long POSITION_KEY_SEED = 0x5DEECE66DL;
+        private long positionHash = 0L;
+        private long[][] handKeys; // Key for each player holding each card bit - null until first rehash
+        private long[] tableKeys; // Key for each card bit on the table
+        private long[] playerKeys; // Key for each player to move
+        private long[] trumpKeys; // Key for each trump suit, with no trump last
+        private long[] suitKeys; // Key for each suit to follow
+        private long[] valueKeys; // Key for each value to follow
+        private long[][] trickKeys; // Key for each player and count of tricks won this hand
+
+        // Everything applyMove changes that cannot be worked out again from the move itself
+        private static class MoveRecord {
+            Player player; // Player who moved
+            Card card; // Card played
+            int currentPlayerNumber;
+            int firstPlayerNumber;
+            int prevWinnerNumber;
+            int turnNumber;
+            int trickNumber;
+            ArrayList<Suit> allowedSuits; // Lists as they were, by reference
+            ArrayList<Integer> allowedValues;
+            Suit clearedSuit; // Taken from the front of allowedSuits by the fixed leading card rule - null if not
+            Integer clearedValue; // Same for allowedValues
+            long trackerPlayed; // Card tracker masks of the moving player
+            long trackerNotHeld;
+            long trackerKnownHeld;
+            ArrayList<Card> prevTrick;
+            Player trickWinner; // Winner if the move completed a trick - null if not
+            ArrayList<Card> completedTrick; // Table list of the completed trick
+            long positionHash;
+        }
+
+        /**
+         * Finds the cards a player may play next, by the same rules makeMove checks, without changing anything.
+         * @param player player to move
+         * @return mask of Hand bits of the playable cards - 0 if none
+         */
+        public long legalMoves(Player player) {
+            boolean trickMode = (gameSpec.ruleSet.legalCardMode == RuleSet.LegalCardMode.TRICK);
+            long hand = player.getHand().getBits();
+            long legal = hand;
+
+            // Cards must follow suit, unless the trick rule allows any card when the suit is not held
+            if (allowedSuits != null) {
+                long allowedSuitsMask = Hand.suitsMask(allowedSuits);
+                if (!trickMode || (hand & allowedSuitsMask) != 0) {
+                    legal &= allowedSuitsMask;
+                }
+            }
+
+            // Same for value
+            if (allowedValues != null) {
+                long allowedValuesMask = Hand.valuesMask(allowedValues);
+                if (!trickMode || (hand & allowedValuesMask) != 0) {
+                    legal &= allowedValuesMask;
+                }
+            }
+            return legal;
+        }
+
+        // Method to fill a list with the cards a player may play next, in hand order. Returns the list
+        public List<Card> legalMoves(Player player, List<Card> cards) {
+            cards.clear();
+            long legal = legalMoves(player);
+            for (Card thisCard : player.getHand()) {
+                if ((Hand.cardMask(thisCard) & legal) != 0) {
+                    cards.add(thisCard);
+                }
+            }
+            return cards;
+        }
+
+        /**
+         * Gets the Zobrist hash of the play position: where every card is, the player to move, the suit and value
+         * to follow, trumps and the tricks each player has won this hand. It is recomputed when play starts in
+         * each hand and updated move by move from then on, so equal positions reached by different lines of play
+         * share a hash, as they do across machines.
+         * @return hash of the position
+         */
+        public long getPositionHash() {
+            return positionHash;
+        }
+
+        // Method to work out the position hash from scratch, without changing the kept hash
+        public long computePositionHash() {
+            initPositionKeys();
+            long hash = 0L;
+            for (int i = 0; i < players.length; i++) {
+                for (long bits = players[i].getHand().getBits(); bits != 0; bits &= bits - 1) {
+                    hash ^= handKeys[i][Long.numberOfTrailingZeros(bits)];
+                }
+                hash ^= trickKeys[i][players[i].getTricksThisHand()];
+            }
+            for (Card thisCard : currentTable.getCards()) {
+                hash ^= tableKeys[Hand.bitIndex(thisCard)];
+            }
+            hash ^= playerKeys[currentPlayerNumber];
+            hash ^= trumpKeys[(trumpSuit == null) ? Suit.values().length : trumpSuit.ordinal()];
+            return hash ^ requirementsKey();
+        }
+
+        // Method to reset the kept position hash, after the position was changed other than by playing cards
+        public void rehashPosition() {
+            positionHash = computePositionHash();
+        }
+
+        // Method to make the hash keys once the number of players is known
+        private void initPositionKeys() {
+            if (handKeys != null && handKeys.length == players.length) {
+                return;
+            }
+            Random random = new Random(POSITION_KEY_SEED);
+            handKeys = new long[players.length][Long.SIZE];
+            for (long[] playerHandKeys : handKeys) {
+                fillKeys(playerHandKeys, random);
+            }
+            tableKeys = fillKeys(new long[Long.SIZE], random);
+            playerKeys = fillKeys(new long[players.length], random);
+            trumpKeys = fillKeys(new long[Suit.values().length + 1], random);
+            suitKeys = fillKeys(new long[Suit.values().length], random);
+            valueKeys = fillKeys(new long[Hand.RANKS_PER_SUIT], random);
+            trickKeys = new long[players.length][Long.SIZE + 1];
+            for (long[] playerTrickKeys : trickKeys) {
+                fillKeys(playerTrickKeys, random);
+            }
+        }
+
+        private static long[] fillKeys(long[] keys, Random random) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+            return keys;
+        }
+
+        // Method to find the key of the suits and values to follow
+        private long requirementsKey() {
+            long key = 0L;
+            if (allowedSuits != null) {
+                for (int i = 0; i < allowedSuits.size(); i++) {
+                    key ^= suitKeys[allowedSuits.get(i).ordinal()];
+                }
+            }
+            if (allowedValues != null) {
+                for (int i = 0; i < allowedValues.size(); i++) {
+                    int value = allowedValues.get(i);
+                    if (value >= 0 && value < valueKeys.length) {
+                        key ^= valueKeys[value];
+                    }
+                }
+            }
+            return key;
+        }
+
+        // Methods to update the kept hash. Each toggles a part in or out, so is called before and after a change.
+        // They do nothing until the hash is first worked out
+
+        void hashRequirements() {
+            if (handKeys != null) {
+                positionHash ^= requirementsKey();
+            }
+        }
+
+        void hashPlayerToMove() {
+            if (handKeys != null) {
+                positionHash ^= playerKeys[currentPlayerNumber];
+            }
+        }
+
+        void hashTricks(Player player) {
+            if (handKeys != null) {
+                positionHash ^= trickKeys[player.getNumber()][player.getTricksThisHand()];
+            }
+        }
+
+        // Moves a card from a hand to the table
+        void hashCardPlayed(Player player, Card card) {
+            if (handKeys != null) {
+                int index = Hand.bitIndex(card);
+                positionHash ^= handKeys[player.getNumber()][index] ^ tableKeys[index];
+            }
+        }
+
+        // Takes every table card out, as when the trick is cleared
+        void hashTableCleared() {
+            if (handKeys != null) {
+                ArrayList<Card> cards = currentTable.getCards();
+                for (int i = 0; i < cards.size(); i++) {
+                    positionHash ^= tableKeys[Hand.bitIndex(cards.get(i))];
+                }
+            }
+        }
+
+        // Method to note a card about to be played in the card tracker, with any suit or value it fails to follow
+        void trackCardPlayed(Player player, Card card) {
+            long suitsToFollow = 0L;
+            long valuesToFollow = 0L;
+            if (gameSpec.ruleSet.legalCardMode == RuleSet.LegalCardMode.TRICK) {
+                // Only trick rules let a player off following when they hold none
+                if (allowedSuits != null) {
+                    suitsToFollow = Hand.suitsMask(allowedSuits);
+                }
+                if (allowedValues != null) {
+                    valuesToFollow = Hand.valuesMask(allowedValues);
+                }
+            }
+            cardTracker.cardPlayed(player.getNumber(), Hand.cardMask(card), suitsToFollow, valuesToFollow);
+        }
+
+        // Method to find the player after a given one in turn order
+        int nextPlayerNumber(int playerNumber) {
+            if (gameSpec.ascending_ordering) {
+                // Turns go up regarding to player number
+                return (playerNumber + 1 == players.length) ? 0 : playerNumber + 1;
+            } else {
+                // Turns go down regarding to player number
+                return (playerNumber == 0) ? players.length - 1 : playerNumber - 1;
+            }
+        }
+
+        // Method to find the position on the table of the card winning the trick so far
+        int winningTableIndex() {
+            boolean trickMode = (gameSpec.ruleSet.legalCardMode == RuleSet.LegalCardMode.TRICK);
+            ArrayList<Card> cards = currentTable.getCards();
+            Card leadingCard = cards.get(0);
+            Card winningCard = leadingCard;
+            for (int i = 1; i < cards.size(); i++) {
+                Card thisCard = cards.get(i);
+
+                // Choose winner depending on rules
+                if (trickMode) {
+                    // Trick rules => Card not trump and not following suit is regarded lowly
+                    if (!thisCard.equals(winningCard)) { // Same card means first played wins
+                        /*
+                         * Three cases this card beats another card: 1) Trump when other card not 2)
+                         * Greater value than other card when both are same suit as leading card 3)
+                         * Greater value than other card when both are trumps
+                         */
+                        if (thisCard.getValue() > winningCard.getValue()) {
+                            if (thisCard.getSuit() == trumpSuit) {
+                                winningCard = thisCard; // 3 & part of 1)
+                            } else if (thisCard.getSuit() == leadingCard.getSuit()
+                                    && winningCard.getSuit() == leadingCard.getSuit()) {
+                                winningCard = thisCard; // 2)
+                            }
+                        } else if (winningCard.getSuit() != trumpSuit && thisCard.getSuit() == trumpSuit) {
+                            winningCard = thisCard; // Rest of 1)
+                        }
+                    }
+                } else {
+                    // Legal card mode is ANY
+                    // Any card allowed => get highest trump, and if no trumps, then highest other
+                    // value
+                    if (!thisCard.equals(winningCard)) { // Same card means first played wins
+                        /*
+                         * Three cases this card beats another card: 1) Trump when other card is not 2)
+                         * Greater value than other card when both not trumps 3) Greater value than
+                         * other card when both trumps
+                         */
+                        if (winningCard.getSuit() != trumpSuit && thisCard.getSuit() == trumpSuit) {
+                            winningCard = thisCard; // 1)
+                        } else if (thisCard.getValue() > winningCard.getValue()) { // Same value => First played wins
+                            if (thisCard.getSuit() == trumpSuit && winningCard.getSuit() == trumpSuit) {
+                                winningCard = thisCard; // 3)
+                            } else if (winningCard.getSuit() != trumpSuit) {
+                                winningCard = thisCard; // 2)
+                            }
+                        }
+                    }
+                }
+            }
+            return cards.indexOf(winningCard);
+        }
+
+        // Method to find the number of the player who played the card at a position on the table
+        int tablePositionOwner(int tableIndex) {
+            // Walk the turn order from the leader, as turns may go down
+            int playerNumber = firstPlayerNumber;
+            for (int i = 0; i < tableIndex; i++) {
+                playerNumber = nextPlayerNumber(playerNumber);
+            }
+            return playerNumber;
+        }
+
+        /**
+         * Plays a card for the current player by the same rules as a submitted move, completing the trick when
+         * everyone has played, so that undoMove can exactly put it back. Nothing is sent to players, no hand is
+         * scored and the phase is left alone. Once the undo stack has grown to the search depth no objects are
+         * allocated, so search can make and unmake moves in a loop.
+         * @param card card to play, which must be one of legalMoves for the current player
+         * @return true if played, false if the card is not a legal move
+         */
+        public boolean applyMove(Card card) {
+            Player player = players[currentPlayerNumber];
+            if ((legalMoves(player) & Hand.cardMask(card)) == 0) {
+                return false;
+            }
+            RuleSet ruleSet = gameSpec.ruleSet;
+            boolean trickMode = (ruleSet.legalCardMode == RuleSet.LegalCardMode.TRICK);
+
+            // Save state for undo
+            if (movesApplied == moveRecords.size()) {
+                moveRecords.add(new MoveRecord());
+            }
+            MoveRecord record = moveRecords.get(movesApplied++);
+            record.player = player;
+            record.card = card;
+            record.currentPlayerNumber = currentPlayerNumber;
+            record.firstPlayerNumber = firstPlayerNumber;
+            record.prevWinnerNumber = prevWinnerNumber;
+            record.turnNumber = turnNumber;
+            record.trickNumber = trickNumber;
+            record.allowedSuits = allowedSuits;
+            record.allowedValues = allowedValues;
+            record.clearedSuit = null;
+            record.clearedValue = null;
+            record.prevTrick = prevTrick;
+            record.trickWinner = null;
+            record.completedTrick = null;
+            record.positionHash = positionHash;
+            record.trackerPlayed = cardTracker.getPlayed();
+            record.trackerNotHeld = cardTracker.getNotHeld(player.getNumber());
+            record.trackerKnownHeld = cardTracker.getKnownHeld(player.getNumber());
+            hashRequirements();
+            hashPlayerToMove();
+
+            // Play card, as makeMove
+            trackCardPlayed(player, card);
+            hashCardPlayed(player, card);
+            player.getHand().remove(card);
+            if (trickMode && allowedSuits == null) {
+                // Suit to follow is first played suit. Shared lists are never changed in place
+                allowedSuits = leadSuitLists.get(card.getSuit());
+                if (allowedSuits == null) {
+                    allowedSuits = new ArrayList<>();
+                    allowedSuits.add(card.getSuit());
+                    leadSuitLists.put(card.getSuit(), allowedSuits);
+                }
+            }
+            currentTable.addCard(card);
+
+            // Next turn, as advanceTurn. Last requirement is dropped by reference, so the list stays whole for undo
+            currentPlayerNumber = nextPlayerNumber(currentPlayerNumber);
+            if (ruleSet.leadingCardRule == RuleSet.LeadingCardRule.FIXED && turnNumber == 0 && trickNumber == 0) {
+                if (allowedValues != null && allowedValues.size() != 0) {
+                    if (allowedValues.size() == 1) {
+                        allowedValues = null;
+                    } else {
+                        record.clearedValue = allowedValues.remove(0);
+                    }
+                }
+                if (allowedSuits != null && allowedSuits.size() != 0) {
+                    if (allowedSuits.size() == 1) {
+                        allowedSuits = null;
+                    } else {
+                        record.clearedSuit = allowedSuits.remove(0);
+                    }
+                }
+            }
+            turnNumber += 1;
+
+            // Complete trick once everyone has played, as advanceTrick
+            if (currentPlayerNumber == firstPlayerNumber) {
+                Player winner = players[tablePositionOwner(winningTableIndex())];
+                prevWinnerNumber = winner.getNumber();
+                hashTricks(winner);
+                winner.setTricksThisGame(winner.getTricksThisGame() + 1);
+                winner.setTricksThisHand(winner.getTricksThisHand() + 1);
+                hashTricks(winner);
+                hashTableCleared();
+                ArrayList<Card> trick = currentTable.getCards();
+                winner.appendTricksEarned(trick);
+
+                firstPlayerNumber = winner.getNumber();
+                currentPlayerNumber = firstPlayerNumber;
+                if (trickMode) {
+                    allowedSuits = null;
+                }
+                turnNumber = 0;
+                trickNumber++;
+                prevTrick = trick;
+                currentTable.setCards(spareTables.isEmpty() ? new ArrayList<>() : spareTables.remove(spareTables.size() - 1));
+
+                record.trickWinner = winner;
+                record.completedTrick = trick;
+            }
+            hashRequirements();
+            hashPlayerToMove();
+            return true;
+        }
+
+        /**
+         * Takes back the last move made by applyMove, restoring hands, table, follow requirements, trick counts,
+         * turn and the previous trick exactly as they were.
+         * @throws IllegalStateException if no applied move is left to undo
+         */
+        public void undoMove() {
+            if (movesApplied == 0) {
+                throw new IllegalStateException("No applied move to undo");
+            }
+            MoveRecord record = moveRecords.get(--movesApplied);
+
+            // Put completed trick back on the table
+            if (record.trickWinner != null) {
+                Player winner = record.trickWinner;
+                ArrayList<ArrayList<Card>> tricksEarned = winner.getTricksEarned();
+                tricksEarned.remove(tricksEarned.size() - 1);
+                winner.setTricksThisGame(winner.getTricksThisGame() - 1);
+                winner.setTricksThisHand(winner.getTricksThisHand() - 1);
+                spareTables.add(currentTable.getCards());
+                currentTable.setCards(record.completedTrick);
+            }
+
+            // Take card back from table into hand
+            ArrayList<Card> tableCards = currentTable.getCards();
+            tableCards.remove(tableCards.size() - 1);
+            record.player.getHand().add(record.card);
+            cardTracker.restore(record.player.getNumber(), record.trackerPlayed, record.trackerNotHeld,
+                    record.trackerKnownHeld);
+
+            // Restore turn and requirements
+            currentPlayerNumber = record.currentPlayerNumber;
+            firstPlayerNumber = record.firstPlayerNumber;
+            prevWinnerNumber = record.prevWinnerNumber;
+            turnNumber = record.turnNumber;
+            trickNumber = record.trickNumber;
+            allowedSuits = record.allowedSuits;
+            allowedValues = record.allowedValues;
+            if (record.clearedSuit != null) {
+                allowedSuits.add(0, record.clearedSuit);
+            }
+            if (record.clearedValue != null) {
+                allowedValues.add(0, record.clearedValue);
+            }
+            prevTrick = record.prevTrick;
+            positionHash = record.positionHash;
+
+            // Drop references so undone tricks can be collected
+            record.prevTrick = null;
+            record.completedTrick = null;
+        }
+
+        // Method to find how many applied moves are waiting to be undone
+        public int getMovesApplied() {
+            return movesApplied;
+        }
     }
 
     // =============================================================
@@ -87,7 +552,7 @@ public class Game {
     // =============================================================
 
     // Method to complete dealing and associated rules for start of a game
-    private void startGame(GameState gameState, int shuffleSeed) {
+    private void startGame(GameState gameState) {
 
         // Create deck & shuffle
         gameState.deckHandler.createDeck(gameState.gameSpec.deck.cards);
@@ -102,16 +567,14 @@ public class Game {
         gameState.currentTable = new Table(new ArrayList<Card>());
 
         // Set initial trump suit (can leave null if no designated initial trump)
-        String trumpPickingMode = gameState.gameSpec.rules.get("trumpPickingMode");
-        switch (trumpPickingMode) {
-            case "lastDealt":
+        RuleSet ruleSet = gameState.gameSpec.ruleSet;
+        switch (ruleSet.trumpPickingMode) {
+            case LAST_DEALT:
                 gameState.trumpSuit = gameState.deckHandler.getLastDealt().getSuit();
                 break;
 
-            case "fixed":
-            case "predefined":
-                String trumpSuitString = gameState.gameSpec.rules.get("trumpSuit");
-                gameState.trumpSuit = Card.suitStringToEnum(trumpSuitString);
+            case FIXED:
+                gameState.trumpSuit = ruleSet.fixedTrumpSuit;
                 break;
 
             default:
@@ -119,55 +582,32 @@ public class Game {
                 break;
         }
 
+        // Nothing is known about the new hands yet
+        gameState.cardTracker.newHand(gameState.players.length);
+
         // Set fixed first card if needed
-        String leadingCardRule = gameState.gameSpec.rules.get("validLeadingCardFirstTrick");
-        if (leadingCardRule == null)
-            leadingCardRule = "any";
-        if (leadingCardRule.equals("fixed")) {
-            // Finds fixed card
-            String cardString = gameState.gameSpec.rules.get("validLeadingCardFirstTrickCard");
-
-            // Split into value and suit with " " as delimiter
-            int indexOfSpace = cardString.indexOf(" ");
-            if (indexOfSpace == -1)
-                leadingCardRule = "any"; // Card not specified properly, so adapt rules
-            String valueString = cardString.substring(0, indexOfSpace);
-            String suitString = cardString.substring(indexOfSpace + 1);
-
-            // Convert suit to Suit enum
-            Suit suit = Card.suitStringToEnum(suitString);
-            if (suit == null) {
-                // Suit not described properly, so adapt rules
-                leadingCardRule = "any";
-            }
-
-            // Convert value to int
-            int value = Card.rankStringToInt(valueString, gameState.gameSpec.deck.rankOrder);
-            if (value == -1) {
-                // Value not described properly, so adapt rules
-                leadingCardRule = "any";
-            }
-
-            // Create card from found values
-            Card firstCard = new Card(value, suit, 0);
-
-            // Find player who owns card. That player starts
+        if (ruleSet.leadingCardRule == RuleSet.LeadingCardRule.FIXED) {
+            // Fixed card is resolved to the interned deck card when rules are parsed
+            Card firstCard = ruleSet.fixedLeadingCard;
+
+            // Find player who owns card. That player starts, so everyone knows they hold it
             for (Player thisPlayer : gameState.players) {
                 if (thisPlayer.getHand().contains(firstCard)) {
                     gameState.firstPlayerNumber = thisPlayer.getNumber();
+                    gameState.cardTracker.cardsHeld(thisPlayer.getNumber(), Hand.cardMask(firstCard));
                 }
             }
 
             // Enforce chosen card
             gameState.allowedSuits = new ArrayList<>();
-            gameState.allowedSuits.add(suit);
+            gameState.allowedSuits.add(firstCard.getSuit());
             gameState.allowedValues = new ArrayList<>();
-            gameState.allowedValues.add(value);
+            gameState.allowedValues.add(firstCard.getValue());
 
         }
 
         // If any card goes first and there's no bidding, left to dealer goes first
-        if (leadingCardRule.equals("any") && gameState.gameSpec.bidRules == null) {
+        if (ruleSet.leadingCardRule == RuleSet.LeadingCardRule.ANY && gameState.gameSpec.bidRules == null) {
             gameState.firstPlayerNumber = gameState.dealerPlayerNumber;
             if (gameState.firstPlayerNumber >= gameState.players.length) {
                 gameState.firstPlayerNumber = 0;
@@ -179,6 +619,9 @@ public class Game {
 
         // Set current player to first player
         gameState.currentPlayerNumber = gameState.firstPlayerNumber;
+
+        // Hash the newly dealt position
+        gameState.rehashPosition();
     }
 
     // Method to end session
@@ -277,7 +720,12 @@ public class Game {
     // Method to send this machine's move to other players
     public static void sendBidToOtherPlayers(Bid bid, Game.GameState gameState, boolean isBlind) {
 
-        // Create an event to distribute on the network
+        // Send the event to the network.
+        gameState.networkNetworkGame.sendEvent(bidToEvent(bid, isBlind));
+    }
+
+    // Method to convert a bid to an event to distribute on the network
+    public static BidEvent bidToEvent(Bid bid, boolean isBlind) {
         BidEvent bidEvent = new BidEvent();
         bidEvent.type = "bid";
         bidEvent.suit = Card.suitEnumToString(bid.getSuit());
@@ -295,14 +743,19 @@ public class Game {
                 bidEvent.doubling = true;
                 break;
         }
-
-        // Send the event to the network.
-        gameState.networkNetworkGame.sendEvent(bidEvent);
+        return bidEvent;
     }
 
     // Method to send this machine's move to other players
     public static void sendMoveToOtherPlayers(Card card, Game.GameState gameState) throws RuleBreachException {
 
+        // Send the event to the network.
+        gameState.networkNetworkGame.sendEvent(cardToEvent(card, gameState));
+    }
+
+    // Method to convert a card to an event to distribute on the network
+    public static PlayCardEvent cardToEvent(Card card, Game.GameState gameState) throws RuleBreachException {
+
         // Convert suit to string
         String suit = Card.suitEnumToString(card.getSuit());
         if (suit == null)
@@ -318,9 +771,66 @@ public class Game {
         cardEvent.suit = suit;
         cardEvent.rank = value;
         cardEvent.type = "play";
+        if (card.isInterned())
+            cardEvent.cardOrdinal = card.getOrdinal(); // Only sent by the binary codec
+        cardEvent.positionHash = gameState.getPositionHash(); // Sent after the move is made
+        return cardEvent;
+    }
 
-        // Send the event to the network.
-        gameState.networkNetworkGame.sendEvent(cardEvent);
+    // Method to convert a received bid event to a bid. Null if event is malformed
+    public static Bid bidFromEvent(BidEvent bidEvent) {
+        if (bidEvent == null)
+            return null;
+
+        if (bidEvent.value < 0) {
+            // Negative value => Bid is a Pass
+            return new Bid(Bid.BidType.PASS);
+        }
+        if (bidEvent.doubling) {
+            // Doubling true => Bid is a double/redouble
+            return new Bid(Bid.BidType.DOUBLE);
+        }
+
+        // Convert suit to Suit enum. No suit means no trump
+        Suit suit = null;
+        if (bidEvent.suit != null) {
+            suit = Card.suitStringToEnum(bidEvent.suit);
+            if (suit == null)
+                return null;
+        }
+
+        // Create Bid object
+        return new Bid(bidEvent.value, suit, bidEvent.blindBid);
+    }
+
+    // Method to convert a received card event to the interned deck card. Null if event is malformed
+    public static Card cardFromEvent(PlayCardEvent cardEvent, Game.GameState gameState) {
+        if (cardEvent == null)
+            return null;
+
+        // Binary events carry the card's ordinal in place of its suit and rank
+        if (cardEvent.cardOrdinal != null) {
+            CardRegistry registry = gameState.gameSpec.deck.registry;
+            if (cardEvent.cardOrdinal < 0 || cardEvent.cardOrdinal >= registry.size())
+                return null;
+            return registry.get(cardEvent.cardOrdinal);
+        }
+
+        if (cardEvent.suit == null)
+            return null;
+
+        // Convert suit to Suit enum
+        Suit suit = Card.suitStringToEnum(cardEvent.suit);
+        if (suit == null)
+            return null;
+
+        // Convert value to int
+        int value = Card.rankStringToInt(cardEvent.rank, gameState.gameSpec.deck.rankOrder);
+        if (value == -1)
+            return null;
+
+        // Find interned card from received data. Null if not in deck
+        return gameState.gameSpec.deck.registry.lookup(suit, value);
     }
 
     // =============================================================
@@ -546,86 +1056,51 @@ public class Game {
         contractBid.setIsRedoubled(contractRedoubled);
 
         // Set trump suit to contract if rules say to
-        String trumpPickingMode = gameState.gameSpec.rules.get("trumpPickingMode");
-        if (trumpPickingMode.equals("bid")) {
+        RuleSet ruleSet = gameState.gameSpec.ruleSet;
+        if (ruleSet.trumpPickingMode == RuleSet.TrumpPickingMode.BID) {
             gameState.trumpSuit = contractBid.getSuit();
         }
 
         // Set first player depending on rules
-        String firstPlayerRule = gameState.gameSpec.rules.get("firstTrickLeader");
-        switch (firstPlayerRule) {
-            case "bidWinner":
-            case "contractWinner":
+        switch (ruleSet.firstTrickLeader) {
+            case BID_WINNER:
                 gameState.firstPlayerNumber = contractPlayer.getNumber();
                 gameState.currentPlayerNumber = contractPlayer.getNumber();
                 break;
             default:
                 break;
         }
+
+        // Trumps and leader may have changed
+        gameState.rehashPosition();
     }
 
     // Method to complete a move. Return false means move invalid
-    private boolean makeMove(GameState gameState, Player player, Card cardToPlay) {
+    boolean makeMove(GameState gameState, Player player, Card cardToPlay) {
 
-        // Check if player owns card
-        if (!player.getHand().contains(cardToPlay))
+        // Check player owns card, and it follows suit and value as the rules need
+        boolean trickMode = (gameState.gameSpec.ruleSet.legalCardMode == RuleSet.LegalCardMode.TRICK);
+        Hand hand = player.getHand();
+        if ((gameState.legalMoves(player) & Hand.cardMask(cardToPlay)) == 0)
             return false;
 
-        // Check if move needs to follow suit, and does so if needed
-        if (gameState.allowedSuits != null) {
-            if (!gameState.allowedSuits.contains(cardToPlay.getSuit())) {
-                // Move doesn't follow suit, so check rules
-                if (gameState.gameSpec.rules.get("nextLegalCardMode").equals("trick")) {
-                    // Assume trick rule allows any card to be played, provided wanted suit is not
-                    // held
-                    for (Card thisCard : player.getHand()) {
-                        if (gameState.allowedSuits.contains(thisCard.getSuit())) {
-                            // Requests new move if player has card of suit
-                            return false;
-                        }
-                    }
-                } else {
-                    // No rules to allow exceptions
-                    return false;
-                }
-            }
-        }
-
-        // Check if move needs to follow value, and does so if needed
-        if (gameState.allowedValues != null) {
-            if (!gameState.allowedValues.contains(cardToPlay.getValue())) {
-                // Move doesn't follow value, so check rules
-                if (gameState.gameSpec.rules.get("nextLegalCardMode").equals("trick")) {
-                    // Assume trick rule allows any card to be played, provided wanted value is not
-                    // held
-                    for (Card thisCard : player.getHand()) {
-                        if (gameState.allowedValues.contains(thisCard.getValue())) {
-                            // Requests new move if player has card of value
-                            return false;
-                        }
-                    }
-
-                } else {
-                    // No rules to allow exceptions
-                    return false;
-                }
-            }
-        }
-
         // MAKE MOVE, ADJUSTING TABLE AND HANDS
 
         // Remove from hand
-        player.getHand().remove(cardToPlay);
+        gameState.trackCardPlayed(player, cardToPlay);
+        gameState.hashRequirements();
+        gameState.hashCardPlayed(player, cardToPlay);
+        hand.remove(cardToPlay);
 
         // Add to suits to follow depending on rules
-        String nextLegalCardRule = gameState.gameSpec.rules.get("nextLegalCardMode");
-        if (nextLegalCardRule.equals("trick")) {
+        if (trickMode) {
             if (gameState.allowedSuits == null) {
                 // Suit to follow is first played suit
                 gameState.allowedSuits = new ArrayList<>();
                 gameState.allowedSuits.add(cardToPlay.getSuit());
             }
         }
+        gameState.hashRequirements();
 
         // Add to table
         gameState.currentTable.addCard(cardToPlay);
@@ -638,17 +1113,9 @@ public class Game {
     private void advancePlayer(GameState gameState) {
 
         // Move to next player
-        if (gameState.gameSpec.ascending_ordering) {
-            // Turns go up regarding to player number
-            gameState.currentPlayerNumber += 1;
-            if (gameState.currentPlayerNumber == gameState.players.length)
-                gameState.currentPlayerNumber = 0;
-        } else {
-            // Turns go down regarding to player number
-            gameState.currentPlayerNumber -= 1;
-            if (gameState.currentPlayerNumber == -1)
-                gameState.currentPlayerNumber = gameState.players.length - 1;
-        }
+        gameState.hashPlayerToMove();
+        gameState.currentPlayerNumber = gameState.nextPlayerNumber(gameState.currentPlayerNumber);
+        gameState.hashPlayerToMove();
 
     }
 
@@ -659,10 +1126,10 @@ public class Game {
         advancePlayer(gameState);
 
         // Clear required suits and values if needed (First trick first hand)
-        String leadingCardRule = gameState.gameSpec.rules.get("validLeadingCardFirstTrick");
-        if (leadingCardRule != null && leadingCardRule.equals("fixed") && gameState.turnNumber == 0
-                && gameState.trickNumber == 0) {
+        if (gameState.gameSpec.ruleSet.leadingCardRule == RuleSet.LeadingCardRule.FIXED
+                && gameState.turnNumber == 0 && gameState.trickNumber == 0) {
             // Clear requirements for first card
+            gameState.hashRequirements();
             if (gameState.allowedValues != null && gameState.allowedValues.size() != 0) {
                 gameState.allowedValues.remove(0);
                 if (gameState.allowedValues.size() == 0)
@@ -673,6 +1140,7 @@ public class Game {
                 if (gameState.allowedSuits.size() == 0)
                     gameState.allowedSuits = null;
             }
+            gameState.hashRequirements();
         }
 
         // Increment number
@@ -681,74 +1149,22 @@ public class Game {
     }
 
     // Method to move to next trick
-    private void advanceTrick(GameState gameState) {
+    void advanceTrick(GameState gameState) {
 
         // Find rules
-        String legalCardModeRule = gameState.gameSpec.rules.get("nextLegalCardMode");
-        if (legalCardModeRule == null)
-            legalCardModeRule = "any"; // Adapt rules if incomplete
-
-        // Find winning card of trick
-        Card leadingCard = gameState.currentTable.getCards().get(0);
-        Card winningCard = leadingCard;
-        for (Card thisCard : gameState.currentTable.getCards()) {
-
-            // Choose winner depending on rules
-            if (legalCardModeRule.equals("trick")) {
-                // Trick rules => Card not trump and not following suit is regarded lowly
-                if (!thisCard.equals(winningCard)) { // Same card means first played wins
-                    /*
-                     * Three cases this card beats another card: 1) Trump when other card not 2)
-                     * Greater value than other card when both are same suit as leading card 3)
-                     * Greater value than other card when both are trumps
-                     */
-                    if (thisCard.getValue() > winningCard.getValue()) {
-                        if (thisCard.getSuit() == gameState.trumpSuit) {
-                            winningCard = thisCard; // 3 & part of 1)
-                        } else if (thisCard.getSuit() == leadingCard.getSuit()) {
-                            winningCard = thisCard; // 2)
-                        }
-                    } else if (winningCard.getSuit() != gameState.trumpSuit
-                            && thisCard.getSuit() == gameState.trumpSuit) {
-                        winningCard = thisCard; // Rest of 1)
-                    }
-                }
-            } else {
-                // leadingCardModeRule == "any"
-                // Any card allowed => get highest trump, and if no trumps, then highest other
-                // value
-                if (!thisCard.equals(winningCard)) { // Same card means first played wins
-                    /*
-                     * Three cases this card beats another card: 1) Trump when other card is not 2)
-                     * Greater value than other card when both not trumps 3) Greater value than
-                     * other card when both trumps
-                     */
-
-                    if (winningCard.getSuit() != gameState.trumpSuit && thisCard.getSuit() == gameState.trumpSuit) {
-                        winningCard = thisCard; // 1)
-                    } else if (thisCard.getValue() > winningCard.getValue()) { // Same value => First played wins
-                        if (thisCard.getSuit() == gameState.trumpSuit && winningCard.getSuit() == gameState.trumpSuit) {
-                            winningCard = thisCard; // 3)
-                        } else if (winningCard.getSuit() != gameState.trumpSuit) {
-                            winningCard = thisCard; // 2)
-                        }
-                    }
-                }
-            }
-        }
+        boolean trickMode = (gameState.gameSpec.ruleSet.legalCardMode == RuleSet.LegalCardMode.TRICK);
 
-        // Find owner of winning card
-        int winningIndex = gameState.currentTable.getCards().indexOf(winningCard);
-        int winningPlayerIndex = gameState.firstPlayerNumber + winningIndex;
-        if (winningPlayerIndex >= gameState.players.length) {
-            winningPlayerIndex -= gameState.players.length;
-        }
-        Player winner = gameState.players[winningPlayerIndex];
+        // Find winning card of trick, and its owner
+        int winningIndex = gameState.winningTableIndex();
+        Card winningCard = gameState.currentTable.getCards().get(winningIndex);
+        Player winner = gameState.players[gameState.tablePositionOwner(winningIndex)];
         gameState.prevWinnerNumber = winner.getNumber(); // Saves winner
 
         // Add trick to winners'count
+        gameState.hashTricks(winner);
         winner.setTricksThisGame(winner.getTricksThisGame() + 1);
         winner.setTricksThisHand(winner.getTricksThisHand() + 1);
+        gameState.hashTricks(winner);
 
         // Store trick for hand scoring
         winner.appendTricksEarned(gameState.currentTable.getCards());
@@ -756,18 +1172,23 @@ public class Game {
         // Decide who takes first turn of next trick
         // Only one case for now of winner going first - Rules.md only specifies one
         // option
+        gameState.hashPlayerToMove();
         gameState.firstPlayerNumber = winner.getNumber();
         gameState.currentPlayerNumber = gameState.firstPlayerNumber;
+        gameState.hashPlayerToMove();
 
         // Reset allowed suits if rules say so
-        if (gameState.gameSpec.rules.get("nextLegalCardMode").equals("trick")) {
+        gameState.hashRequirements();
+        if (trickMode) {
             gameState.allowedSuits = null;
         }
+        gameState.hashRequirements();
 
         // Clear table & adjust counters
         gameState.turnNumber = 0;
         gameState.trickNumber++;
         gameState.prevTrick = gameState.currentTable.getCards();
+        gameState.hashTableCleared();
         gameState.currentTable.clearTableCards();
 
         // Send trick summary to every player
@@ -776,29 +1197,144 @@ public class Game {
         }
     }
 
-    // Method to move to next hand after all tricks complete
-    private void advanceHand(GameState gameState) {
+    /**
+     * Scores a bid as advanceHand does at the end of a hand.
+     * @param bidRules bid rules of the game
+     * @param bid bid made, of type BID
+     * @param trickDifference tricks won over the threshold less the bid value - negative for undertricks
+     * @param trumpSuit trump suit of the hand
+     * @param vulnerable if the bidder is vulnerable
+     * @param trickThreshold tricks needed before any count towards the bid
+     * @return points for the bidder, then points for the first player of each opposing team
+     */
+    static int[] bidPoints(GameParser.BidRules bidRules, Bid bid, int trickDifference, Suit trumpSuit,
+            boolean vulnerable, int trickThreshold) {
+        // Calculate points to add to player and opponents
+        int pointsToGive = 0;
+        int pointsToGiveOpponent = 0;
+
+        // Check all special bids for a match to current state. Missing lists are empty
+        SpecialBid[] specialBids = (bidRules.specialBids != null) ? bidRules.specialBids : new SpecialBid[0];
+        GameParser.BonusScore[] bonusScores = (bidRules.bonusScores != null) ? bidRules.bonusScores
+                : new GameParser.BonusScore[0];
+        boolean specialBid = false;
+        for (SpecialBid thisSpecialBid : specialBids) {
+
+            // Check all conditions for this special bid
+            if ((thisSpecialBid.bidValue == bid.getValue()
+                    || thisSpecialBid.bidValue == -1)
+                    && (thisSpecialBid.trumpSuit == trumpSuit
+                            || !bidRules.trumpSuitBid)
+                    && thisSpecialBid.doubled == bid.isIsDoubled()
+                    && thisSpecialBid.vulnerable == vulnerable
+                    && thisSpecialBid.blindBid == bid.isBlind()) {
+
+                // Match found => Apply special bid to score
+
+                // Overtrick
+                if (trickDifference > 0) {
+                    pointsToGive += thisSpecialBid.bonusPoints;
+                    pointsToGive += thisSpecialBid.overtrickPoints * trickDifference;
+                }
+
+                // Undertrick
+                if (trickDifference < 0) {
+                    pointsToGive -= thisSpecialBid.penalty;
+
+                    int undertrickPointsTotal = 0;
+                    int undertricks = Math.abs(trickDifference);
+
+                    if (thisSpecialBid.undertrickIncrement != null
+                            && thisSpecialBid.undertrickIncrement.length != 0) {
+                        // Increase points per undertrick
+                        for (int i = 0; i < undertricks; i++) {
+
+                            // Use final value if more undertricks than increments
+                            int incrementIndex = i;
+                            if (incrementIndex >= thisSpecialBid.undertrickIncrement.length) {
+                                incrementIndex = thisSpecialBid.undertrickIncrement.length - 1;
+                            }
+
+                            // Add to score
+                            undertrickPointsTotal += thisSpecialBid.undertrickIncrement[incrementIndex];
+
+                        }
+
+                    } else {
+                        // Points per undertrick is uniform
+                        undertrickPointsTotal += undertricks * thisSpecialBid.undertrickPoints;
+                    }
+
+                    // Award undertrick points to team specified in rules
+                    if (thisSpecialBid.undertrickAwardedTo.equals("player")) {
+                        // Award undertrick points to player
+                        pointsToGive += undertrickPointsTotal;
+                    } else { // Equals "opponent"
+                        // Award undertrick points to first player in opposing team
+                        pointsToGiveOpponent += undertrickPointsTotal;
+                    }
+                }
+
+            }
+        }
+
+        // No special bid applied, so give standard points for bid
+        if (!specialBid) {
+
+            // Overtrick
+            if (trickDifference > 0) {
+                pointsToGive += bidRules.pointsPerBid
+                        * bid.getValue();
+                pointsToGive += bidRules.overtrickPoints * trickDifference;
+            }
+
+            // Match
+            if (trickDifference == 0) {
+                pointsToGive += bidRules.pointsPerBid
+                        * bid.getValue();
+                pointsToGive += bidRules.pointsForMatching;
+            }
+
+            // Undertrick
+            if (trickDifference < 0) {
+                // NOTE: trickDifference is negative
+                pointsToGive += bidRules.penaltyPoints * trickDifference;
+            }
 
-        // Parse rules
-        String scoringRule = gameState.gameSpec.rules.get("calculateScore"); // "tricksWon", "bid", "trumpPointValue"
-        String scoringDirection = gameState.gameSpec.rules.get("scoring"); // "golf" or "standard"
-        if (scoringDirection == null) {
-            scoringDirection = "standard"; // Default
         }
-        int trickThreshold = 0;
-        try {
-            String trickThresholdRule = gameState.gameSpec.rules.get("trickThreshold");
-            if (trickThresholdRule != null) {
-                trickThreshold = Integer.parseInt(trickThresholdRule);
+
+        // Add bonus score if applicable (only add highest value one)
+        int maxBonusScore = 0;
+        for (GameParser.BonusScore thisBonusScore : bonusScores) {
+            if (thisBonusScore.handScoreMax > pointsToGive && thisBonusScore.handScoreMin < pointsToGive
+                    && (thisBonusScore.trickTotal == null
+                            || thisBonusScore.trickTotal == (bid.getValue()
+                                    - trickThreshold))
+                    && (thisBonusScore.vulnerable == null
+                            || thisBonusScore.vulnerable == vulnerable)) {
+
+                // Bonus score matches
+                if (thisBonusScore.bonusPoints > maxBonusScore) {
+                    maxBonusScore = thisBonusScore.bonusPoints;
+                }
             }
-        } catch (NumberFormatException e) {
-            // Ignore to adapt rules
         }
+        pointsToGive += maxBonusScore;
+
+        return new int[] {pointsToGive, pointsToGiveOpponent};
+    }
+
+    // Method to move to next hand after all tricks complete
+    void advanceHand(GameState gameState) {
+
+        // Find rules
+        RuleSet ruleSet = gameState.gameSpec.ruleSet;
+        int trickThreshold = ruleSet.trickThreshold;
 
         // Rule-dependent switch
-        switch (scoringRule) {
+        switch (ruleSet.scoringMode) {
 
-            case "bid": // Each player gets points based on tricks in comparison to their bids
+            case BID: // Each player gets points based on tricks in comparison to their bids
 
                 // Loop through players, scoring each and finding winners
                 for (Player thisPlayer : gameState.players) {
@@ -811,113 +1347,10 @@ public class Game {
                                 - thisPlayer.getBid().getValue();
 
                         // Calculate points to add to player and opponents
-                        int pointsToGive = 0;
-                        int pointsToGiveOpponent = 0;
-
-                        // Check all special bids for a match to current state
-                        boolean specialBid = false;
-                        for (SpecialBid thisSpecialBid : gameState.gameSpec.bidRules.specialBids) {
-
-                            // Check all conditions for this special bid
-                            if ((thisSpecialBid.bidValue == thisPlayer.getBid().getValue()
-                                    || thisSpecialBid.bidValue == -1)
-                                    && (thisSpecialBid.trumpSuit == gameState.trumpSuit
-                                            || !gameState.gameSpec.bidRules.trumpSuitBid)
-                                    && thisSpecialBid.doubled == thisPlayer.getBid().isIsDoubled()
-                                    && thisSpecialBid.vulnerable == thisPlayer.isVulnerable()
-                                    && thisSpecialBid.blindBid == thisPlayer.getBid().isBlind()) {
-
-                                // Match found => Apply special bid to score
-
-                                // Overtrick
-                                if (trickDifference > 0) {
-                                    pointsToGive += thisSpecialBid.bonusPoints;
-                                    pointsToGive += thisSpecialBid.overtrickPoints * trickDifference;
-                                }
-
-                                // Undertrick
-                                if (trickDifference < 0) {
-                                    pointsToGive -= thisSpecialBid.penalty;
-
-                                    int undertrickPointsTotal = 0;
-                                    int undertricks = Math.abs(trickDifference);
-
-                                    if (thisSpecialBid.undertrickIncrement != null
-                                            && thisSpecialBid.undertrickIncrement.length != 0) {
-                                        // Increase points per undertrick
-                                        for (int i = 0; i < undertricks; i++) {
-
-                                            // Use final value if more undertricks than increments
-                                            int incrementIndex = i;
-                                            if (incrementIndex >= thisSpecialBid.undertrickIncrement.length) {
-                                                incrementIndex = thisSpecialBid.undertrickIncrement.length - 1;
-                                            }
-
-                                            // Add to score
-                                            undertrickPointsTotal += thisSpecialBid.undertrickIncrement[incrementIndex];
-
-                                        }
-
-                                    } else {
-                                        // Points per undertrick is uniform
-                                        undertrickPointsTotal += undertricks * thisSpecialBid.undertrickPoints;
-                                    }
-
-                                    // Award undertrick points to team specified in rules
-                                    if (thisSpecialBid.undertrickAwardedTo.equals("player")) {
-                                        // Award undertrick points to player
-                                        pointsToGive += undertrickPointsTotal;
-                                    } else { // Equals "opponent"
-                                        // Award undertrick points to first player in opposing team
-                                        pointsToGiveOpponent += undertrickPointsTotal;
-                                    }
-                                }
-
-                            }
-                        }
-
-                        // No special bid applied, so give standard points for bid
-                        if (!specialBid) {
-
-                            // Overtrick
-                            if (trickDifference > 0) {
-                                pointsToGive += gameState.gameSpec.bidRules.pointsPerBid
-                                        * thisPlayer.getBid().getValue();
-                                pointsToGive += gameState.gameSpec.bidRules.overtrickPoints * trickDifference;
-                            }
-
-                            // Match
-                            if (trickDifference == 0) {
-                                pointsToGive += gameState.gameSpec.bidRules.pointsPerBid
-                                        * thisPlayer.getBid().getValue();
-                                pointsToGive += gameState.gameSpec.bidRules.pointsForMatching;
-                            }
-
-                            // Undertrick
-                            if (trickDifference < 0) {
-                                // NOTE: trickDifference is negative
-                                pointsToGive += gameState.gameSpec.bidRules.penaltyPoints * trickDifference;
-                            }
-
-                        }
-
-                        // Add bonus score if applicable (only add highest value one)
-                        int maxBonusScore = 0;
-                        for (GameParser.BonusScore thisBonusScore : gameState.gameSpec.bidRules.bonusScores) {
-                            if (thisBonusScore.handScoreMax > pointsToGive && thisBonusScore.handScoreMin < pointsToGive
-                                    && (thisBonusScore.trickTotal == null
-                                            || thisBonusScore.trickTotal == (thisPlayer.getBid().getValue()
-                                                    - trickThreshold))
-                                    && (thisBonusScore.vulnerable == null
-                                            || thisBonusScore.vulnerable == thisPlayer.isVulnerable())) {
-
-                                // Bonus score matches
-                                if (thisBonusScore.bonusPoints > maxBonusScore) {
-                                    maxBonusScore = thisBonusScore.bonusPoints;
-                                }
-                            }
-                        }
-                        pointsToGive += maxBonusScore;
+                        int[] points = bidPoints(gameState.gameSpec.bidRules, thisPlayer.getBid(), trickDifference,
+                                gameState.trumpSuit, thisPlayer.isVulnerable(), trickThreshold);
+                        int pointsToGive = points[0];
+                        int pointsToGiveOpponent = points[1];
 
                         // Add points to this player
                         thisPlayer.setPointsThisGame(thisPlayer.getPointsThisGame() + pointsToGive);
@@ -943,7 +1376,7 @@ public class Game {
 
                 break;
 
-            case "trumpPointValue": // Each player gets points for trump cards in tricks they earned
+            case TRUMP_POINT_VALUE: // Each player gets points for trump cards in tricks they earned
 
                 // Loop through players, scoring each, and finding winners
                 for (Player thisPlayer : gameState.players) {
@@ -970,14 +1403,9 @@ public class Game {
                 for (Player thisPlayer : gameState.players) {
 
                     // Only give points for tricks over threshold
-                    int pointsToGive = thisPlayer.getTricksThisHand();
-                    try {
-                        pointsToGive -= trickThreshold;
-                        if (pointsToGive < 0)
-                            pointsToGive = 0; // No negative scores for tricks
-                    } catch (NumberFormatException e) {
-                        // Ignore, as mistake is in rules
-                    }
+                    int pointsToGive = thisPlayer.getTricksThisHand() - trickThreshold;
+                    if (pointsToGive < 0)
+                        pointsToGive = 0; // No negative scores for tricks
 
                     // Add points to score
                     thisPlayer.setPointsThisGame(thisPlayer.getPointsThisGame() + pointsToGive);
@@ -992,20 +1420,8 @@ public class Game {
         }
 
         // Change hand-size if in rules
-        String handSizeRule = gameState.gameSpec.rules.get("handSize");
-        if (handSizeRule != null) {
-            switch (handSizeRule) {
-                case "decreasing":
-                    gameState.currentHandSize -= 1;
-                    if (gameState.currentHandSize == 0)
-                        break;
-
-                case "decreasingCyclic":
-                    gameState.currentHandSize -= 1;
-                    if (gameState.currentHandSize == 0)
-                        gameState.currentHandSize = gameState.gameSpec.initialHandSize;
-            }
-        }
+        gameState.currentHandSize = ruleSet.handSizeRule.nextHandSize(gameState.currentHandSize,
+                gameState.gameSpec.initialHandSize);
 
         // Advance dealer
         if (gameState.gameSpec.ascending_ordering) {
@@ -1076,6 +1492,11 @@ public class Game {
                 }
             }
         }
+        // Send game summary to players before counters are cleared
+        for (Player thisPlayer : gameState.players) {
+            thisPlayer.sendGameSummary();
+        }
+
         // Clear each player's counters
         for (Player thisPlayer : gameState.players) {
             thisPlayer.setPointsThisGame(0);
@@ -1084,7 +1505,7 @@ public class Game {
 
         // Clear players' hands, as advanceHand is called prior to this
         for (Player thisPlayer:gameState.players) {
-            thisPlayer.setHand(new ArrayList<>());
+            thisPlayer.getHand().clear();
         }
         
         gameState.gameNumber += 1;
@@ -1108,37 +1529,24 @@ public class Game {
 
     // Method to check if game is complete
     private boolean gameHasEnded(GameState gameState) {
-        String gameEndRule = gameState.gameSpec.rules.get("gameEnd");
-        if (gameEndRule == null) {
-            return true; // Adapt to incomplete rules by ending game now
-        }
-        switch (gameEndRule) {
-            case "handsPlayed":
-                try {
-                    int maxValue = Integer.parseInt(gameState.gameSpec.rules.get("gameEndValue"));
-                    if (gameState.handNumber >= maxValue) {
-                        return true;
-                    }
-                } catch (NumberFormatException e) {
-                    return true; // Adapt to rules by ending game now
+        RuleSet ruleSet = gameState.gameSpec.ruleSet;
+        switch (ruleSet.gameEndRule) {
+            case HANDS_PLAYED:
+                if (gameState.handNumber >= ruleSet.gameEndValue) {
+                    return true;
                 }
                 break;
 
-            case "scoreThreshold":
-                try {
-                    int maxValue = Integer.parseInt(gameState.gameSpec.rules.get("gameEndValue"));
-                    for (Player thisPlayer : gameState.players) {
-                        if (thisPlayer.getPointsThisGame() >= maxValue) {
-                            return true;
-                        }
+            case SCORE_THRESHOLD:
+                for (Player thisPlayer : gameState.players) {
+                    if (thisPlayer.getPointsThisGame() >= ruleSet.gameEndValue) {
+                        return true;
                     }
-                } catch (NumberFormatException e) {
-                    return true;
                 }
                 break;
 
             default:
-                // No rule specified, so end after 1 trick
+                // No rule specified, so end after 1 hand
                 return true;
         }
         return false;
@@ -1193,42 +1601,30 @@ public class Game {
 
     // Method to check if session has ended
     private boolean sessionHasEnded(GameState gameState) {
-        String sessionEndRule = gameState.gameSpec.rules.get("sessionEnd");
-        if (sessionEndRule == null) {
-            return true; // Adapt to incomplete rules by ending session now
-        }
-        switch (sessionEndRule) {
-            case "gamesPlayed":
-                try {
-                    int maxValue = Integer.parseInt(gameState.gameSpec.rules.get("sessionEndValue"));
-                    if (gameState.gameNumber >= maxValue) {
-                        return true;
-                    }
-                } catch (NumberFormatException e) {
-                    return true; // Adapt to rules by ending game now
+        RuleSet ruleSet = gameState.gameSpec.ruleSet;
+        switch (ruleSet.sessionEndRule) {
+            case GAMES_PLAYED:
+                if (gameState.gameNumber >= ruleSet.sessionEndValue) {
+                    return true;
                 }
                 break;
 
-            case "bestOf":
+            case BEST_OF:
                 // Player or team must have at least half the max number of games played
-                try {
-                    int maxGames = Integer.parseInt(gameState.gameSpec.rules.get("sessionEndValue"));
-                    if (maxGames % 2 == 0) {
-                        // Add a game if not odd bestOf
-                        maxGames++;
-                    }
-                    for (Player thisPlayer : gameState.players) {
-                        if (thisPlayer.getGamesThisSession() > maxGames / 2) {
-                            return true;
-                        }
+                int maxGames = ruleSet.sessionEndValue;
+                if (maxGames % 2 == 0) {
+                    // Add a game if not odd bestOf
+                    maxGames++;
+                }
+                for (Player thisPlayer : gameState.players) {
+                    if (thisPlayer.getGamesThisSession() > maxGames / 2) {
+                        return true;
                     }
-                } catch (NumberFormatException e) {
-                    return true;
                 }
                 break;
 
             default:
-                // No rule specified, so end after 1 trick
+                // No rule specified, so end after 1 game
                 return true;
         }
 
@@ -1236,188 +1632,270 @@ public class Game {
     }
 
     // =============================================================
-    // ===================== Session Function ======================
+    // =================== Step-wise Functions =====================
     // =============================================================
 
-    // Method to run session - Runs one session, with multiple games, but named for
-    // legacy reasons
-    public void runGame(GameState gameState, NetworkGame networkNetworkGame, int shuffleSeed) {
+    // Position of a table in the session loop. Only AWAIT_BID and AWAIT_MOVE wait for input
+    public enum Phase {
+        CHECK_RUNS, // Check if all re-runs are complete
+        CHECK_SESSION, // Check if session has ended
+        CHECK_GAME, // Check if game has ended, otherwise start a new hand
+        AWAIT_BID, // Waiting for current player to bid
+        CHECK_HAND, // Check if hand has ended
+        CHECK_TRICK, // Check if trick has ended, otherwise wait for a move
+        AWAIT_MOVE, // Waiting for current player to play a card
+        FINISHED // All re-runs complete
+    }
+
+    // Input a table is waiting for
+    public enum Action {
+        BID, MOVE, NONE
+    }
+
+    // Changes to a table caused by one step, in order
+    public enum Transition {
+        BID_MADE, CONTRACT_DECLARED, CARD_PLAYED, TRICK_COMPLETE, HAND_STARTED, HAND_COMPLETE, GAME_COMPLETE,
+        SESSION_COMPLETE, FINISHED
+    }
+
+    // Result of starting a table or submitting an event to it
+    public static class StepResult {
+        public final boolean accepted; // False means event was invalid and the table is unchanged
+        public final List<Transition> transitions; // Transitions caused by the event
+        public final Action expectedAction; // Input the table now waits for
+        public final int nextPlayerNumber; // Player expected to act, -1 if none
+
+        StepResult(boolean accepted, List<Transition> transitions, GameState gameState) {
+            this.accepted = accepted;
+            this.transitions = Collections.unmodifiableList(transitions);
+            switch (gameState.phase) {
+                case AWAIT_BID:
+                    this.expectedAction = Action.BID;
+                    this.nextPlayerNumber = gameState.currentPlayerNumber;
+                    break;
+                case AWAIT_MOVE:
+                    this.expectedAction = Action.MOVE;
+                    this.nextPlayerNumber = gameState.currentPlayerNumber;
+                    break;
+                default:
+                    this.expectedAction = Action.NONE;
+                    this.nextPlayerNumber = -1;
+                    break;
+            }
+        }
+    }
+
+    // Method to start a table, running it until the first bid or move is needed
+    public StepResult start(GameState gameState, int shuffleSeed) {
         // Create a DeckHandler to reuse RNG to avoid duplicate cards - as per SG spec
         gameState.deckHandler = new DeckHandler(gameState.gameSpec.deck.cards, shuffleSeed);
-        //GameSaveHandler gameSaveHandler = new GameSaveHandler();
-        //gameSaveHandler.saveGame(gameState);
-        
-        /*
-         * SESSION LOOP (i.e. RE-RUNS)
-         */
-        while (!runsComplete(gameState)) {
+        gameState.phase = Phase.CHECK_RUNS;
 
-            /*
-             * GAME LOOP
-             */
-            while (!sessionHasEnded(gameState)) {
-
-                /*
-                 * ROUND LOOP
-                 */
-                while (!gameHasEnded(gameState) || gameHasTie(gameState)) {
-
-                    // Start a new game
-                    startGame(gameState, shuffleSeed);
-
-                    /*
-                     * BID LOOP
-                     */
-                    if (gameState.gameSpec.bidRules != null) {
-                        // Bidding is part of the game
-
-                        if (gameState.gameSpec.bidRules.ascendingBid) { // Implies auction
-                            // Auction bid - Loop through players until all but one player passes
-
-                            boolean contractDeclared = false;
-                            while (!contractDeclared) { // Loop until contract is agreed
-                                Player currentPlayer = gameState.players[gameState.currentPlayerNumber]; // Player to
-                                                                                                         // bid
-                                                                                                         // first
-
-                                // Updates interface for this player. A network player will do nothing on this
-                                // call.
-                                // An ai player would use the data to make a decision.
-                                currentPlayer.sendGameState();
-
-                                // Receive bid
-                                Bid thisBid = currentPlayer.receiveBid();
-
-                                // Loop until bid is made (is a valid bid)
-                                boolean bidMade = makeBid(gameState, currentPlayer, thisBid);
-                                while (!bidMade) {
-                                    if (currentPlayer instanceof PlayerNetworked) {
-                                        // Network player made incorrect bid
-                                        rageQuit();
-                                    } else {
-                                        // Local player made invalid bid => Notify & re-fetch
-                                        thisBid = currentPlayer.receiveBid();
-                                        bidMade = makeBid(gameState, currentPlayer, thisBid);
-                                    }
-                                }
+        List<Transition> transitions = new ArrayList<>();
+        advanceUntilInput(gameState, transitions);
+        return new StepResult(true, transitions, gameState);
+    }
 
-                                // If bid agreed upon, apply and exit loop
-                                if (canDeclareContract(gameState)) {
-                                    declareContract(gameState);
-                                    contractDeclared = true;
-                                }
+    // Method to submit a bid from a network event
+    public StepResult submitBid(GameState gameState, int playerNumber, BidEvent bidEvent) {
+        return submitBid(gameState, playerNumber, bidFromEvent(bidEvent));
+    }
 
-                                // Advance player for either next bid or start of hand
-                                advancePlayer(gameState);
-                            }
+    // Method to submit a bid. Rejected if not this player's turn to bid or bid is invalid
+    public StepResult submitBid(GameState gameState, int playerNumber, Bid bid) {
+        if (gameState.phase != Phase.AWAIT_BID || playerNumber != gameState.currentPlayerNumber || bid == null) {
+            return new StepResult(false, new ArrayList<>(), gameState);
+        }
 
-                        } else {
-                            // Not auction bidding - everyone makes one bid
-                            for (int i = 0; i < gameState.players.length; i++) {
-
-                                // Gets player who is to make the next bid
-                                Player currentPlayer = gameState.players[gameState.currentPlayerNumber];
-
-                                // Updates interface for this player.
-                                currentPlayer.sendGameState();
-
-                                // Fetch and set bid
-                                boolean bidMade = false; // Set by makeBid(...) to see if bid was legal
-                                Bid thisBid = null; // Value to retrieve bid into
-                                // Loop until valid bid is made
-                                while (!bidMade) {
-                                    thisBid = currentPlayer.receiveBid();
-                                    bidMade = makeBid(gameState, currentPlayer, thisBid);
-                                    if (!bidMade) {
-                                        // Illegal bid
-                                        if (currentPlayer instanceof PlayerNetworked) {
-                                            // Network player made incorrect bid
-                                            rageQuit();
-                                        } else {
-                                            // Local player made invalid bid => Notify & re-fetch
-                                            // System.out.println("INVALID MOVE: Please choose another");
-                                            thisBid = currentPlayer.receiveBid();
-                                            bidMade = makeBid(gameState, currentPlayer, thisBid);
-                                        }
-                                    }
-                                }
+        // Lock in bid
+        if (!makeBid(gameState, gameState.players[playerNumber], bid)) {
+            return new StepResult(false, new ArrayList<>(), gameState);
+        }
+        List<Transition> transitions = new ArrayList<>();
+        transitions.add(Transition.BID_MADE);
 
-                                // Send move over network if needed
-                                if (gameState.isNetworked && !(currentPlayer instanceof PlayerNetworked)) {
-                                    sendBidToOtherPlayers(thisBid, gameState, false);
-                                }
+        if (gameState.gameSpec.bidRules.ascendingBid) {
+            // Auction bid - If bid agreed upon, apply and start hand
+            boolean contractDeclared = false;
+            if (canDeclareContract(gameState)) {
+                declareContract(gameState);
+                transitions.add(Transition.CONTRACT_DECLARED);
+                contractDeclared = true;
+            }
 
-                                // Advance player for either next bid or start of hand
-                                advancePlayer(gameState);
-                            }
-                        }
-                    }
+            // Advance player for either next bid or start of hand
+            advancePlayer(gameState);
+            gameState.phase = contractDeclared ? Phase.CHECK_HAND : Phase.AWAIT_BID;
+        } else {
+            // Not auction bidding - everyone makes one bid
+            advancePlayer(gameState);
+            gameState.bidsThisHand++;
+            gameState.phase = (gameState.bidsThisHand < gameState.players.length) ? Phase.AWAIT_BID : Phase.CHECK_HAND;
+        }
 
-                    /*
-                     * TRICK LOOP
-                     */
-                    while (!handHasEnded(gameState)) {
+        advanceUntilInput(gameState, transitions);
+        return new StepResult(true, transitions, gameState);
+    }
 
-                        /*
-                         * TURN LOOP
-                         */
-                        while (!trickHasEnded(gameState)) {
-
-                            // Gets player who is to take the next move
-                            Player currentPlayer = gameState.players[gameState.currentPlayerNumber];
-
-                            // Updates interface for this player.
-                            currentPlayer.sendGameState();
-
-                            // Fetch and make move
-                            boolean moveMade = false; // Set by makeMove(...) to see if move was legal
-                            Card thisMove = null; // Value to retrieve move into
-                            while (!moveMade) {
-                                thisMove = currentPlayer.receiveMove();
-                                moveMade = makeMove(gameState, currentPlayer, thisMove);
-                                if (!moveMade) {
-                                    // Illegal move
-                                    if (currentPlayer instanceof PlayerNetworked) {
-                                        // Network player made incorrect move
-                                        rageQuit();
-                                    } else {
-                                        // Local player made incorrect move => Notify and re-fetch
-                                        // System.out.println("INVALID MOVE: Please choose another");
-                                        thisMove = currentPlayer.receiveMove();
-                                        moveMade = makeMove(gameState, currentPlayer, thisMove);
-                                    }
-                                }
-                            }
+    // Method to submit a move from a network event
+    public StepResult submitMove(GameState gameState, int playerNumber, PlayCardEvent cardEvent) {
+        return submitMove(gameState, playerNumber, cardFromEvent(cardEvent, gameState));
+    }
 
-                            // Send move over network if needed
-                            if (gameState.isNetworked && !(currentPlayer instanceof PlayerNetworked)) {
-                                try {
-                                    sendMoveToOtherPlayers(thisMove, gameState);
-                                } catch (RuleBreachException e) {
-                                    rageQuit();
-                                }
-                            }
+    // Method to submit a move. Rejected if not this player's turn to move or move is invalid
+    public StepResult submitMove(GameState gameState, int playerNumber, Card card) {
+        if (gameState.phase != Phase.AWAIT_MOVE || playerNumber != gameState.currentPlayerNumber || card == null) {
+            return new StepResult(false, new ArrayList<>(), gameState);
+        }
 
-                            // Move to next player
-                            advanceTurn(gameState);
-                        } // End turn loop
+        // Make move
+        if (!makeMove(gameState, gameState.players[playerNumber], card)) {
+            return new StepResult(false, new ArrayList<>(), gameState);
+        }
+        List<Transition> transitions = new ArrayList<>();
+        transitions.add(Transition.CARD_PLAYED);
 
-                        // Move to next trick
+        // Move to next player
+        advanceTurn(gameState);
+        gameState.phase = Phase.CHECK_TRICK;
+
+        advanceUntilInput(gameState, transitions);
+        return new StepResult(true, transitions, gameState);
+    }
+
+    // Method to run every transition which needs no input, stopping when a bid or move is needed
+    private void advanceUntilInput(GameState gameState, List<Transition> transitions) {
+        while (true) {
+            switch (gameState.phase) {
+                case CHECK_RUNS:
+                    if (runsComplete(gameState)) {
+                        gameState.phase = Phase.FINISHED;
+                        transitions.add(Transition.FINISHED);
+                    } else {
+                        gameState.phase = Phase.CHECK_SESSION;
+                    }
+                    break;
+
+                case CHECK_SESSION:
+                    if (sessionHasEnded(gameState)) {
+                        endSession(gameState);
+                        transitions.add(Transition.SESSION_COMPLETE);
+                        gameState.phase = Phase.CHECK_RUNS;
+                    } else {
+                        gameState.phase = Phase.CHECK_GAME;
+                    }
+                    break;
+
+                case CHECK_GAME:
+                    if (!gameHasEnded(gameState) || gameHasTie(gameState)) {
+                        // Start a new hand, bidding first if part of the game
+                        startGame(gameState);
+                        transitions.add(Transition.HAND_STARTED);
+                        gameState.bidsThisHand = 0;
+                        gameState.phase = (gameState.gameSpec.bidRules != null) ? Phase.AWAIT_BID : Phase.CHECK_HAND;
+                    } else {
+                        advanceGame(gameState);
+                        transitions.add(Transition.GAME_COMPLETE);
+                        gameState.phase = Phase.CHECK_SESSION;
+                    }
+                    break;
+
+                case CHECK_HAND:
+                    if (!handHasEnded(gameState)) {
+                        gameState.phase = Phase.CHECK_TRICK;
+                    } else {
+                        advanceHand(gameState);
+                        transitions.add(Transition.HAND_COMPLETE);
+                        gameState.phase = Phase.CHECK_GAME;
+                    }
+                    break;
+
+                case CHECK_TRICK:
+                    if (!trickHasEnded(gameState)) {
+                        gameState.phase = Phase.AWAIT_MOVE;
+                    } else {
                         advanceTrick(gameState);
-                    } // End trick loop
+                        transitions.add(Transition.TRICK_COMPLETE);
+                        gameState.phase = Phase.CHECK_HAND;
+                    }
+                    break;
 
-                    // Move to next hand
-                    advanceHand(gameState);
-                } // End hand loop
+                default:
+                    // Waiting for input or finished
+                    return;
+            }
+        }
+    }
 
-                // Move to next game
-                advanceGame(gameState);
-            } // End game loop
+    // =============================================================
+    // ===================== Session Function ======================
+    // =============================================================
 
-            // End session
-            endSession(gameState);
+    // Method to run session - Runs one session, with multiple games, but named for
+    // legacy reasons. Blocks on each player for their bids and moves
+    public void runGame(GameState gameState, NetworkGame networkNetworkGame, int shuffleSeed) {
+        //GameSaveHandler gameSaveHandler = new GameSaveHandler();
+        //gameSaveHandler.saveGame(gameState);
+
+        StepResult step = start(gameState, shuffleSeed);
+        while (step.expectedAction != Action.NONE) {
+
+            // Gets player who is to make the next bid or move
+            Player currentPlayer = gameState.players[step.nextPlayerNumber];
+
+            // Updates interface for this player. A network player will do nothing on this
+            // call. An ai player would use the data to make a decision.
+            currentPlayer.sendGameState();
+
+            if (step.expectedAction == Action.BID) {
+                // Fetch bid, looping until valid bid is made
+                Bid thisBid = currentPlayer.receiveBid();
+                step = submitBid(gameState, currentPlayer.getNumber(), thisBid);
+                while (!step.accepted) {
+                    if (currentPlayer instanceof PlayerNetworked) {
+                        // Network player made incorrect bid
+                        rageQuit();
+                    }
+                    // Local player made invalid bid => Notify & re-fetch
+                    thisBid = currentPlayer.receiveBid();
+                    step = submitBid(gameState, currentPlayer.getNumber(), thisBid);
+                }
+
+                // Send bid over network if needed (auction bids are not sent)
+                if (gameState.isNetworked && !(currentPlayer instanceof PlayerNetworked)
+                        && !gameState.gameSpec.bidRules.ascendingBid) {
+                    sendBidToOtherPlayers(thisBid, gameState, false);
+                }
+
+            } else {
+                // Fetch move, looping until valid move is made
+                Card thisMove = currentPlayer.receiveMove();
+                step = submitMove(gameState, currentPlayer.getNumber(), thisMove);
+                while (!step.accepted) {
+                    if (currentPlayer instanceof PlayerNetworked) {
+                        // Network player made incorrect move
+                        rageQuit();
+                    }
+                    // Local player made incorrect move => Notify and re-fetch
+                    thisMove = currentPlayer.receiveMove();
+                    step = submitMove(gameState, currentPlayer.getNumber(), thisMove);
+                }
+
+                // Network player's game has gone a different way to this one
+                if (currentPlayer instanceof PlayerNetworked
+                        && !((PlayerNetworked) currentPlayer).agreesOnPosition(gameState.getPositionHash())) {
+                    rageQuit();
+                }
+
+                // Send move over network if needed
+                if (gameState.isNetworked && !(currentPlayer instanceof PlayerNetworked)) {
+                    try {
+                        sendMoveToOtherPlayers(thisMove, gameState);
+                    } catch (RuleBreachException e) {
+                        rageQuit();
+                    }
+                }
+            }
         }
-        // End re-runs
-        return;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package GameLogic.Core;
 
 import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.CardRegistry;
+import GameLogic.DeckAndCards.Hand;
 import GameLogic.Saving.FilesHelper;
 import GameLogic.DeckAndCards.Suit;
 import org.json.*;
@@ -34,6 +36,7 @@ public class GameParser {
     int minimumHandSize;
 
     Map<String, String> rules; // Map for rules
+    public RuleSet ruleSet; // Rules compiled from the map above
 
     public static class Rule {
         String name; // Name of the rule - must match one of those described in spec
@@ -45,6 +48,7 @@ public class GameParser {
         public ArrayList<Card> cards; // Optional; NOTE: Super group card definition is slightly different
         public ArrayList<String> rankOrder; // Optional; ordering of ranks (e.g. ace high/low)
         int stock; // i.e. extra cards not used
+        public CardRegistry registry; // Interned cards of this deck - cards holds these same instances
     }
 
     public static class BidRules {
@@ -213,6 +217,9 @@ public class GameParser {
                     this.deck.rankOrder.add(rankOrder.getString(i));
                 }
             }
+            if (this.deck.rankOrder.size() > Hand.RANKS_PER_SUIT) {
+                throw new RuleFormatException("Rank order has more than " + Hand.RANKS_PER_SUIT + " ranks");
+            }
 
             // Cards
             JSONArray cards = readJsonArray(deckObj, "cards", null);
@@ -225,8 +232,13 @@ public class GameParser {
                     String thisCardRankString = readJsonString(thisCard, "rank", "ACE");
                     String thisCardSuitString = readJsonString(thisCard, "suit", "SPADES");
                     int thisCardPointValue = readJsonInt(thisCard, "pointValue", 0);
-                    this.deck.cards.add(new Card(Card.rankStringToInt(thisCardRankString, this.deck.rankOrder),
-                            Card.suitStringToEnum(thisCardSuitString), thisCardPointValue));
+                    int thisCardValue = Card.rankStringToInt(thisCardRankString, this.deck.rankOrder);
+                    Suit thisCardSuit = Card.suitStringToEnum(thisCardSuitString);
+                    if (thisCardValue == -1 || thisCardSuit == null) {
+                        throw new RuleFormatException(
+                                "Unknown card \"" + thisCardRankString + " " + thisCardSuitString + "\" in deck");
+                    }
+                    this.deck.cards.add(new Card(thisCardValue, thisCardSuit, thisCardPointValue));
                 }
             }
 
@@ -239,6 +251,10 @@ public class GameParser {
             this.deck.stock = 0;
         }
 
+        // Intern deck cards so the same instances are used for the whole game
+        this.deck.registry = new CardRegistry(this.deck.cards);
+        this.deck.cards = new ArrayList<>(this.deck.registry.getCards());
+
         // Teams
         JSONArray teamsArr = readJsonArray(json, "teams", null);
         if (teamsArr == null) {
@@ -277,7 +293,7 @@ public class GameParser {
                     ruleData = thisRule.getString("data");
                 } catch (org.json.JSONException e) {
                     ruleName = thisRule.getString("name");
-                    ruleData = Integer.toString(thisRule.getInt("data"));
+                    ruleData = thisRule.get("data").toString(); // Numbers or lists, e.g. trumpOrder
                 }
 
                 // Add to map
@@ -285,6 +301,9 @@ public class GameParser {
             }
         }
 
+        // Compile rules once, rejecting unknown values up front
+        this.ruleSet = new RuleSet(this.rules, this.deck);
+
         // Bid
         JSONObject bidObj = readJsonObj(json, "bid", null);
         if (bidObj != null) {
@@ -0,0 +1,160 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
+
+/*
+ * Fixed rules of thumb for choosing a card, worked out from Hand bitboard masks of a TrickPosition in a handful of
+ * operations with no allocation, so it can play out millions of moves a second in simulations. A player wanting
+ * tricks leads a card no one can beat if it has one, wins a trick with its cheapest winner, trumping only when it
+ * cannot follow, and plays low when the trick is lost or its team is winning it. A player avoiding tricks, as in
+ * golf scoring or once a bid is made, ducks under the winning card as high as it can, dumps point cards on tricks
+ * going to opponents, and wins with its highest card when forced to. The same position always gets the same card.
+ */
+public class HeuristicPolicy {
+
+    private final RuleSet ruleSet;
+    private final long deck; // Every card of the game's deck
+    private final long pointValued; // Cards of the deck worth points, whether or not they count this hand
+
+    // Constructor - takes the rules and deck of a parsed game
+    public HeuristicPolicy(GameParser gameSpec) {
+        this.ruleSet = gameSpec.ruleSet;
+        long deck = 0L;
+        long pointValued = 0L;
+        for (Card thisCard : gameSpec.deck.registry.getCards()) {
+            deck |= Hand.cardMask(thisCard);
+            if (thisCard.getPointValue() != 0) {
+                pointValued |= Hand.cardMask(thisCard);
+            }
+        }
+        this.deck = deck;
+        this.pointValued = pointValued;
+    }
+
+    /**
+     * Chooses a card for the player to move.
+     * @param position position to play from, with the player's hand filled in
+     * @param legal Hand mask of the cards the player may play - not 0
+     * @param bids bid of each player - null if not a bid game
+     * @return bit index of the card to play
+     */
+    public int choose(TrickPosition position, long legal, Bid[] bids) {
+        int player = position.current;
+        long trumps = (position.trumpSuit < 0) ? 0L : Hand.ALL_SUIT_MASK << (position.trumpSuit * Hand.RANKS_PER_SUIT);
+
+        // Cards scoring in a trick, as TrickPosition counts them
+        long points = 0L;
+        if (ruleSet.scoringMode == RuleSet.ScoringMode.TRUMP_POINT_VALUE) {
+            points = pointValued & ((trumps == 0) ? -1L : trumps);
+        }
+        boolean wantTricks = wantsTricks(position, player, bids);
+
+        if (position.tableSize == 0) {
+            return wantTricks ? lead(position, legal, trumps) : lowest(prefer(legal, ~trumps & ~points));
+        }
+
+        // Current winner of the trick, found as TrickPosition finishes it
+        int winningIndex = position.winningIndex();
+        int winner = position.tablePlayer(winningIndex);
+        boolean teamWinning = position.teamOf[winner] == position.teamOf[player];
+        long winners = legal & beating(position, position.table[winningIndex], trumps);
+
+        if (wantTricks) {
+            if (teamWinning || winners == 0) {
+                // Follow low, keeping trumps and points
+                return lowest(prefer(legal, ~trumps & ~points));
+            }
+            // Win cheaply, trumping in only when it cannot follow
+            return lowest(prefer(winners, ~trumps));
+        }
+
+        long losers = legal & ~winners;
+        if (losers != 0) {
+            // Give away points to the other side, otherwise duck as high as still loses
+            if (!teamWinning && (losers & points) != 0) {
+                return highest(losers & points);
+            }
+            return highest(prefer(losers, ~points));
+        }
+        // Forced to win, so with the best card and no points
+        return highest(prefer(legal, ~points));
+    }
+
+    // Checks if the player wants to win tricks: not in golf scoring, and in bid scoring only until the bid is made
+    private boolean wantsTricks(TrickPosition position, int player, Bid[] bids) {
+        if (ruleSet.scoringMode == RuleSet.ScoringMode.BID && bids != null && bids[player] != null
+                && bids[player].getBidType() == Bid.BidType.BID) {
+            return position.tricksWon[player] - ruleSet.trickThreshold < bids[player].getValue();
+        }
+        return ruleSet.scoringDirection != RuleSet.ScoringDirection.GOLF;
+    }
+
+    // Method to choose a lead when wanting tricks: a card no other hand can beat in its suit, best not a trump,
+    // otherwise the lowest plain card
+    private int lead(TrickPosition position, long legal, long trumps) {
+        long outstanding = deck & ~position.playedMask & ~position.hands[position.current];
+        long masters = 0L;
+        for (int suit = 0; suit < Long.SIZE / Hand.RANKS_PER_SUIT; suit++) {
+            long suitMask = Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT);
+            long own = legal & suitMask;
+            if (own != 0) {
+                long top = Long.highestOneBit(own);
+                if (Long.compareUnsigned(Long.highestOneBit(outstanding & suitMask), top) < 0) {
+                    masters |= top;
+                }
+            }
+        }
+        if ((masters & ~trumps) != 0) {
+            return Long.numberOfTrailingZeros(masters & ~trumps);
+        }
+        return lowest(prefer(legal, ~trumps));
+    }
+
+    // Method to find the cards that would beat the winning card, as TrickPosition.winningIndex decides
+    private long beating(TrickPosition position, int winningCard, long trumps) {
+        int winningSuit = winningCard / Hand.RANKS_PER_SUIT;
+        long above = Hand.ALL_SUIT_MASK & (-2L << (winningCard % Hand.RANKS_PER_SUIT)); // Higher ranks of a suit
+        if (winningSuit == position.trumpSuit) {
+            return above << (winningSuit * Hand.RANKS_PER_SUIT);
+        }
+        if (ruleSet.legalCardMode == RuleSet.LegalCardMode.TRICK) {
+            // Card winning is of the led suit
+            return (above << (winningSuit * Hand.RANKS_PER_SUIT)) | trumps;
+        }
+        return (above * Hand.ALL_RANK_MASK) | trumps;
+    }
+
+    // Method to narrow a mask to the wanted cards, if it has any
+    private static long prefer(long mask, long wanted) {
+        return ((mask & wanted) != 0) ? mask & wanted : mask;
+    }
+
+    // Method to find the card of lowest rank in a mask, in the lowest suit on ties
+    private static int lowest(long mask) {
+        int best = -1;
+        int bestRank = Integer.MAX_VALUE;
+        for (int shift = 0; shift < Long.SIZE; shift += Hand.RANKS_PER_SUIT) {
+            long suit = (mask >>> shift) & Hand.ALL_SUIT_MASK;
+            if (suit != 0 && Long.numberOfTrailingZeros(suit) < bestRank) {
+                bestRank = Long.numberOfTrailingZeros(suit);
+                best = shift + bestRank;
+            }
+        }
+        return best;
+    }
+
+    // Method to find the card of highest rank in a mask, in the lowest suit on ties
+    private static int highest(long mask) {
+        int best = -1;
+        int bestRank = -1;
+        for (int shift = 0; shift < Long.SIZE; shift += Hand.RANKS_PER_SUIT) {
+            long suit = (mask >>> shift) & Hand.ALL_SUIT_MASK;
+            if (suit != 0 && 63 - Long.numberOfLeadingZeros(suit) > bestRank) {
+                bestRank = 63 - Long.numberOfLeadingZeros(suit);
+                best = shift + bestRank;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,213 @@
+package GameLogic.Core;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Single observer information set Monte Carlo tree search for one move. Every iteration deals the hidden cards at
+ * random, consistent with what the searching player has seen, then walks a tree of moves shared by all deals,
+ * choosing only moves that are legal in that deal, and plays the rest of the hand out with a playout policy, or at
+ * random without one. Several threads may run the search at once, each with its own
+ * tree, and their visits of the root moves are pooled so a move can be chosen at any time.
+ */
+public class IsmctsSearch {
+
+    public static final double EXPLORATION = 0.7; // UCB exploration constant, for rewards from 0 to 1
+
+    private final TrickPosition root; // Position to search, with only the searching player's hand filled in
+    private final RuleSet ruleSet;
+    private final Bid[] bids; // Bid of each player - null if not a bid game
+    private final long rootMoves; // Cards the searching player may play
+    private final DealSampler sampler; // Deals the hidden hands
+    private final HeuristicPolicy playoutPolicy; // Plays out below the tree - null for random play
+
+    private final AtomicIntegerArray rootVisits = new AtomicIntegerArray(Long.SIZE); // Visits of each root move
+    private final AtomicLong iterations = new AtomicLong(); // Iterations started by all threads
+
+    // Constructor - hands of the root position that are filled in are known, the rest are dealt by the sampler
+    public IsmctsSearch(TrickPosition root, RuleSet ruleSet, Bid[] bids, long rootMoves, DealSampler sampler,
+            HeuristicPolicy playoutPolicy) {
+        this.root = root;
+        this.ruleSet = ruleSet;
+        this.bids = bids;
+        this.rootMoves = rootMoves;
+        this.sampler = sampler;
+        this.playoutPolicy = playoutPolicy;
+    }
+
+    // Getters
+    public long getIterations() {
+        return iterations.get();
+    }
+
+    public int getVisits(int bit) {
+        return rootVisits.get(bit);
+    }
+
+    /**
+     * Runs iterations on the calling thread until the deadline, the iteration budget shared by all threads, or stop.
+     * @param seed seed for this thread's choices
+     * @param deadline System.nanoTime() to stop at
+     * @param maxIterations iterations to run across all threads
+     * @param stop set to stop every thread
+     */
+    public void run(long seed, long deadline, long maxIterations, AtomicBoolean stop) {
+        new Worker(seed).run(deadline, maxIterations, stop);
+    }
+
+    // Method to find the most visited root move so far. Returns -1 if no move has been visited
+    public int bestMove() {
+        int best = -1;
+        int bestVisits = 0;
+        for (long moves = rootMoves; moves != 0; moves &= moves - 1) {
+            int bit = Long.numberOfTrailingZeros(moves);
+            int visits = rootVisits.get(bit);
+            if (visits > bestVisits) {
+                best = bit;
+                bestVisits = visits;
+            }
+        }
+        return best;
+    }
+
+    // Method to pick a random set bit of a mask
+    static int randomBit(long mask, SplittableRandom random) {
+        for (int skip = random.nextInt(Long.bitCount(mask)); skip > 0; skip--) {
+            mask &= mask - 1; // Clear lowest set bit
+        }
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    // Node of one thread's tree, for a move made by a player
+    private static final class Node {
+        final int move; // Bit index of card played
+        final int player; // Player number who played it
+        final Node parent;
+        Node[] children = new Node[4];
+        int childCount;
+        long childMask; // Moves with a child
+        int visits;
+        int avails; // Times the move was legal when its parent was selected from
+        double reward; // Total reward to player
+
+        Node(int move, int player, Node parent) {
+            this.move = move;
+            this.player = player;
+            this.parent = parent;
+        }
+
+        Node addChild(int move, int player) {
+            Node child = new Node(move, player, this);
+            if (childCount == children.length) {
+                Node[] grown = new Node[children.length * 2];
+                System.arraycopy(children, 0, grown, 0, childCount);
+                children = grown;
+            }
+            children[childCount++] = child;
+            childMask |= 1L << move;
+            return child;
+        }
+    }
+
+    // One thread's search, with its own tree and scratch space
+    private final class Worker {
+        private final SplittableRandom random;
+        private final Node tree = new Node(-1, -1, null);
+        private final TrickPosition position = new TrickPosition(root);
+        private final DealSampler.Dealer dealer;
+        private final long[] hands = new long[root.getNumberOfPlayers()];
+        private final double[] rewards = new double[root.getNumberOfPlayers()];
+
+        Worker(long seed) {
+            this.random = new SplittableRandom(seed);
+            this.dealer = sampler.newDealer(random);
+        }
+
+        void run(long deadline, long maxIterations, AtomicBoolean stop) {
+            while (!stop.get() && System.nanoTime() < deadline && iterations.incrementAndGet() <= maxIterations) {
+                iterate();
+            }
+        }
+
+        // One deal, descent, playout and update
+        private void iterate() {
+            position.copyFrom(root);
+            deal();
+
+            // Select down the tree, adding one new node
+            Node node = tree;
+            while (!position.isHandOver()) {
+                long legal = (node == tree) ? rootMoves : position.legalMoves();
+                if (legal == 0) {
+                    break;
+                }
+
+                long untried = legal & ~node.childMask;
+                if (untried != 0) {
+                    int move = randomBit(untried, random);
+                    node = node.addChild(move, position.getCurrentPlayer());
+                    position.play(move);
+                    break;
+                }
+
+                node = select(node, legal);
+                position.play(node.move);
+            }
+
+            // Play out by the policy
+            while (!position.isHandOver()) {
+                long legal = position.legalMoves();
+                if (legal == 0) {
+                    break;
+                }
+                position.play((playoutPolicy == null) ? randomBit(legal, random)
+                        : playoutPolicy.choose(position, legal, bids));
+            }
+
+            // Update path, and pooled root visits
+            position.rewards(ruleSet, bids, rewards);
+            for (; node != tree; node = node.parent) {
+                node.visits++;
+                node.reward += rewards[node.player];
+                if (node.parent == tree) {
+                    rootVisits.incrementAndGet(node.move);
+                }
+            }
+            tree.visits++;
+        }
+
+        // Method to choose the child with the best upper confidence bound among moves legal in this deal
+        private Node select(Node node, long legal) {
+            Node best = null;
+            double bestBound = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < node.childCount; i++) {
+                Node child = node.children[i];
+                if ((legal & (1L << child.move)) == 0) {
+                    continue;
+                }
+                child.avails++;
+                double bound = child.reward / child.visits
+                        + EXPLORATION * Math.sqrt(Math.log(child.avails) / child.visits);
+                if (bound > bestBound) {
+                    best = child;
+                    bestBound = bound;
+                }
+            }
+            return best;
+        }
+
+        // Deals the hidden hands at random, from every deal consistent with what was seen
+        private void deal() {
+            for (int player = 0; player < hands.length; player++) {
+                hands[player] = root.getHand(player);
+            }
+            dealer.deal(hands);
+            for (int player = 0; player < hands.length; player++) {
+                position.setHand(player, hands[player]);
+            }
+        }
+    }
+
+}
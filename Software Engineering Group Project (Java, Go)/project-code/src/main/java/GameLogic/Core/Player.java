@@ -1,6 +1,7 @@
 package GameLogic.Core;
 
 import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -9,7 +10,7 @@ public class Player {
 
     // Attributes
     private int number;
-    private ArrayList<Card> hand;
+    private Hand hand; // Bitboard of cards held
     private String name;
     private Bid bid; // Current bid
     private boolean seenCards = false; // Bool to decide whether player has viewed cards - used for blind bids
@@ -29,7 +30,7 @@ public class Player {
     public Player(int number, String name, Game.GameState gameState) {
         this.number = number;
         this.name = name;
-        this.hand = new ArrayList<>();
+        this.hand = new Hand();
         this.gameState = gameState;
         this.tricksEarned = new ArrayList<>();
     }
@@ -99,7 +100,7 @@ public class Player {
         return pointsThisGame;
     }
 
-    public ArrayList<Card> getHand() {
+    public Hand getHand() {
         return hand;
     }
 
@@ -119,8 +120,8 @@ public class Player {
         this.seenCards = seenCards;
     }
 
-    public void setHand(ArrayList<Card> hand) {
-        this.hand = hand;
+    public void setHand(List<Card> hand) {
+        this.hand = new Hand(hand);
     }
 
     public void setName(String name) {
@@ -175,6 +176,12 @@ public class Player {
     public void sendGameState() {
     }
 
+    /**
+     * Sends the end of game summary to this player, before game counters are cleared.
+     */
+    public void sendGameSummary() {
+    }
+
     public void sendSessionWinners(List<String> winners) {
     
     }
@@ -1,17 +1,25 @@
 package GameLogic.Core;
 
 import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
 import GameLogic.DeckAndCards.Suit;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
 public class PlayerAI extends Player {
 	
-	public static int minbid = 0;
+	private final Random random; // Source of choices - seed for reproducible games
+	private final List<Card> legalCards = new ArrayList<>(); // Cards that may be played, reused each move
 	
 	public PlayerAI(int number, String name, Game.GameState gameState) {
+		this(number, name, gameState, new Random());
+	}
+	
+	public PlayerAI(int number, String name, Game.GameState gameState, Random random) {
 		super(number, name, gameState);
+		this.random = random;
 	}
 	
 	/**
@@ -55,31 +63,31 @@ public class PlayerAI extends Player {
 			if (prev != null) {
 				
 				//Update the min bid
-				if (prev.getValue() > PlayerAI.minbid) {
-					PlayerAI.minbid = prev.getValue();
+				if (prev.getValue() > this.gameState.aiMinBid) {
+					this.gameState.aiMinBid = prev.getValue();
 				}
 				
 				//If we cant bid higher than last player then pass.
-				if (PlayerAI.minbid == gameState.gameSpec.bidRules.maxBid || prev.getBidType() == Bid.BidType.PASS) {
+				if (this.gameState.aiMinBid == gameState.gameSpec.bidRules.maxBid || prev.getBidType() == Bid.BidType.PASS) {
 					return new Bid(Bid.BidType.PASS);
 				}
 				
 				//We can bid higher than last player, do so by 1
-				Suit bidSuit = bidRules.suitBidRank[new Random().nextInt(bidRules.suitBidRank.length)];
+				Suit bidSuit = bidRules.suitBidRank[this.random.nextInt(bidRules.suitBidRank.length)];
 				isBlind = prev.isBlind();
 				Bid bid = new Bid(prev.getValue()+1, bidSuit, isBlind);
 				return bid;
 			}
 		} else {
-			PlayerAI.minbid = gameState.gameSpec.bidRules.minBid;
+			this.gameState.aiMinBid = gameState.gameSpec.bidRules.minBid;
 		}
 		
 		//Get a random value of bid
-		int val = PlayerAI.minbid+1;
+		int val = this.gameState.aiMinBid+1;
 		
 		
 		//Get a random bid suit
-		Suit bidSuit = bidRules.suitBidRank[new Random().nextInt(bidRules.suitBidRank.length)];
+		Suit bidSuit = bidRules.suitBidRank[this.random.nextInt(bidRules.suitBidRank.length)];
 		
 		//Create the bid
 		Bid bid = new Bid(val, bidSuit, isBlind);
@@ -93,14 +101,27 @@ public class PlayerAI extends Player {
 	 */
 	@Override
 	public Card receiveMove() {
-		//Get the player hand
-		List<Card> hand = this.getHand();
+		//Get the cards that may be played, or the whole hand if none may
+		List<Card> hand = this.gameState.legalMoves(this, this.legalCards);
+		if (hand.isEmpty()) {
+			hand = this.getHand();
+		}
 		
 		//Return a random card.
-		int cardIndex = new Random().nextInt(hand.size());
+		int cardIndex = this.random.nextInt(hand.size());
 		return hand.get(cardIndex);
 	}
 	
+	// Method to find the held card at a bit index
+	protected Card cardAt(int bit) {
+		for (Card thisCard : getHand()) {
+			if (Hand.bitIndex(thisCard) == bit) {
+				return thisCard;
+			}
+		}
+		return null;
+	}
+	
 	@Override
 	public void sendGameState() {
 		//Do nothing as their is no where to send game state to. i.e. no user
@@ -0,0 +1,40 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+
+/*
+ * Ai player choosing cards by the rules of thumb of HeuristicPolicy, the same policy simulations play out with.
+ * Moves are instant and the same position always gets the same card. Bids are made as PlayerAI makes them.
+ */
+public class PlayerHeuristic extends PlayerAI {
+
+	private HeuristicPolicy policy; // Made on first move, once the game's rules are known
+
+	public PlayerHeuristic(int number, String name, Game.GameState gameState) {
+		super(number, name, gameState);
+	}
+
+	/**
+	 * Return the move choice from the policy.
+	 * @return
+	 */
+	@Override
+	public Card receiveMove() {
+		long legal = gameState.legalMoves(this);
+		if (legal == 0) {
+			return super.receiveMove();
+		}
+		if (policy == null) {
+			policy = new HeuristicPolicy(gameState.gameSpec);
+		}
+
+		// Only this player's hand is needed to choose
+		TrickPosition position = TrickPosition.fromGame(gameState);
+		position.setHand(getNumber(), getHand().getBits());
+		Bid[] bids = new Bid[gameState.players.length];
+		for (Player thisPlayer : gameState.players) {
+			bids[thisPlayer.getNumber()] = thisPlayer.getBid();
+		}
+		return cardAt(policy.choose(position, legal, bids));
+	}
+}
@@ -0,0 +1,146 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Ai player choosing cards by information set Monte Carlo tree search, run for a time or iteration budget.
+ * Hidden hands are dealt at random around the cards it has seen played and the suits players have shown void in,
+ * and each is played out by HeuristicPolicy.
+ * Bids are chosen by simulating deals around its hand, with the odds of each hand shape kept for the session.
+ */
+public class PlayerISMCTS extends PlayerAI {
+
+	public static final long DEFAULT_MOVE_MILLIS = 40; // Time per move - leaves headroom under 50 ms
+
+	private final Random random; // Source of search seeds
+	private final long moveMillis; // Time to search each move - no limit if 0 or less
+	private final long maxIterations; // Iterations to search each move, across all threads
+	private final int threads; // Searches run at once, including the calling thread
+	private final ExecutorService executor; // Runs the searches other than the calling thread's
+	private final BidEstimator bidEstimator;
+	private HeuristicPolicy playoutPolicy; // Made on first search, once the game's rules are known
+
+	public PlayerISMCTS(int number, String name, Game.GameState gameState) {
+		this(number, name, gameState, new Random(), DEFAULT_MOVE_MILLIS, Long.MAX_VALUE,
+				Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool());
+	}
+
+	public PlayerISMCTS(int number, String name, Game.GameState gameState, Random random, long moveMillis,
+			long maxIterations, int threads, ExecutorService executor) {
+		super(number, name, gameState, random);
+		if (moveMillis <= 0 && maxIterations == Long.MAX_VALUE) {
+			throw new IllegalArgumentException("Search needs a time or iteration budget");
+		}
+		this.random = random;
+		this.moveMillis = moveMillis;
+		this.maxIterations = maxIterations;
+		this.threads = Math.max(1, threads);
+		this.executor = executor;
+		this.bidEstimator = new BidEstimator(this.threads, executor);
+	}
+
+	/**
+	 * Return the bid with the best expected score for this hand, from what is simulated within the budget.
+	 * @return
+	 */
+	@Override
+	public Bid receiveBid() {
+		long deadline = (moveMillis > 0) ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(moveMillis) : Long.MAX_VALUE;
+		return bidEstimator.chooseBid(gameState, this, random.nextLong(), deadline);
+	}
+
+	/**
+	 * Return the move choice from this ai, searching until the budget runs out.
+	 * @return
+	 */
+	@Override
+	public Card receiveMove() {
+		long deadline = (moveMillis > 0) ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(moveMillis) : Long.MAX_VALUE;
+
+		// Only search when there is a choice
+		long legal = gameState.legalMoves(this);
+		if (legal == 0) {
+			return super.receiveMove();
+		}
+		if (Long.bitCount(legal) == 1) {
+			return cardAt(Long.numberOfTrailingZeros(legal));
+		}
+
+		IsmctsSearch search = createSearch(legal);
+
+		// Search on other threads and this one
+		AtomicBoolean stop = new AtomicBoolean();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 1; i < threads; i++) {
+			long seed = random.nextLong();
+			futures.add(executor.submit(() -> search.run(seed, deadline, maxIterations, stop)));
+		}
+		search.run(random.nextLong(), deadline, maxIterations, stop);
+
+		// Wait for other threads no later than the deadline, using what they have found by then
+		try {
+			for (Future<?> future : futures) {
+				if (deadline == Long.MAX_VALUE) {
+					future.get();
+				} else {
+					future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+				}
+			}
+		} catch (TimeoutException e) {
+			// Out of time
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Search failed", e.getCause());
+		} finally {
+			stop.set(true);
+			for (Future<?> future : futures) {
+				future.cancel(false);
+			}
+		}
+
+		// Most visited move, or any legal card if none were searched
+		int best = search.bestMove();
+		if (best == -1) {
+			best = IsmctsSearch.randomBit(legal, new SplittableRandom(random.nextLong()));
+		}
+		return cardAt(best);
+	}
+
+	// Method to build the search from what this player can see
+	private IsmctsSearch createSearch(long legal) {
+		TrickPosition root = TrickPosition.fromGame(gameState);
+		int numberOfPlayers = gameState.players.length;
+
+		// Own hand and any dummy are known, every other hand is dealt by the sampler
+		for (Player thisPlayer : gameState.players) {
+			if (thisPlayer == this || thisPlayer.isIsDummy()) {
+				root.setHand(thisPlayer.getNumber(), thisPlayer.getHand().getBits());
+			}
+		}
+
+		// Bids, for scoring against them
+		Bid[] bids = new Bid[numberOfPlayers];
+		for (Player thisPlayer : gameState.players) {
+			bids[thisPlayer.getNumber()] = thisPlayer.getBid();
+		}
+
+		if (playoutPolicy == null) {
+			playoutPolicy = new HeuristicPolicy(gameState.gameSpec);
+		}
+		return new IsmctsSearch(root, gameState.gameSpec.ruleSet, bids, legal, DealSampler.forObserver(gameState, this),
+				playoutPolicy);
+	}
+}
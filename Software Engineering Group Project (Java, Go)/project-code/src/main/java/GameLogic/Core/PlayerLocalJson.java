@@ -1,6 +1,7 @@
 package GameLogic.Core;
 
 import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
 import GameLogic.DeckAndCards.Suit;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
@@ -10,6 +11,7 @@ import com.google.gson.stream.JsonReader;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -27,11 +29,16 @@ public class PlayerLocalJson extends Player {
 	/**
 	 * InputStream to recieve input from, can be changed to not be stdin
 	 */
-	public static InputStream inputStream = System.in;
+	private InputStream inputStream;
 	
 	public PlayerLocalJson(int number, String name, Game.GameState gameState) {
+		this(number, name, gameState, System.in, System.out);
+	}
+	
+	public PlayerLocalJson(int number, String name, Game.GameState gameState, InputStream inputStream, OutputStream outputStream) {
 		super(number, name, gameState);
-		this.writer = new PrintWriter(System.out, true);
+		this.inputStream = inputStream;
+		this.writer = new PrintWriter(outputStream, true);
 	}
 	
 	/**
@@ -155,8 +162,10 @@ public class PlayerLocalJson extends Player {
 				inputValue = Integer.parseInt(input);
 				done = true;
 				
-				//Check number matches to a card
-				if (inputValue >= 0 && inputValue < this.getHand().size()) {
+				//Check number matches to a card that may be played. Any card is sent on if none may be
+				long legal = this.gameState.legalMoves(this);
+				if (inputValue >= 0 && inputValue < this.getHand().size()
+						&& (legal == 0 || (legal & Hand.cardMask(this.getHand().get(inputValue))) != 0)) {
 					return this.getHand().get(inputValue); //Add chosen card
 				} else {
 					done = false;
@@ -229,7 +238,7 @@ public class PlayerLocalJson extends Player {
 		this.writer.println(requestMessage.toString());
 		
 		//Get response
-		JsonObject response = new Gson().fromJson(new JsonReader(new InputStreamReader(inputStream)), JsonObject.class);
+		JsonObject response = new Gson().fromJson(new JsonReader(new InputStreamReader(this.inputStream)), JsonObject.class);
 		
 		//Return the card
 		return response.get("value").getAsString();
@@ -320,7 +329,7 @@ public class PlayerLocalJson extends Player {
 			//Network player, so don't send cards
 		} else {
 			//Local player, so send cards
-			ArrayList<Card> thisHand = thisPlayer.getHand();
+			Hand thisHand = thisPlayer.getHand();
 			JsonArray cardsInHand = new JsonArray();
 			for (int i = 0; i < thisHand.size(); i++) {
 				if (!thisHand.get(i).printCardString(gameState.gameSpec.deck.rankOrder).equals("")) {
@@ -328,6 +337,13 @@ public class PlayerLocalJson extends Player {
 				}
 			}
 			game.add("cards_in_hand", cardsInHand);
+			
+			//Cards that may be played next
+			JsonArray legalCards = new JsonArray();
+			for (Card thisCard : gameState.legalMoves(thisPlayer, new ArrayList<>())) {
+				legalCards.add(thisCard.printCardString(gameState.gameSpec.deck.rankOrder));
+			}
+			game.add("legal_cards", legalCards);
 		}
 		
 		object.add("game_state", game);
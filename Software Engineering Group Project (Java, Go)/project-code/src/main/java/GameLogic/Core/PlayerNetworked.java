@@ -1,7 +1,6 @@
 package GameLogic.Core;
 
 import GameLogic.DeckAndCards.Card;
-import GameLogic.DeckAndCards.Suit;
 import Network.Events.BidEvent;
 import Network.Events.PlayCardEvent;
 
@@ -10,6 +9,8 @@ import Network.Events.PlayCardEvent;
  */
 public class PlayerNetworked extends Player {
 	
+	private Long positionHash = null; // Position hash sent with the last move - null if not sent
+	
 	public PlayerNetworked(int number, String name, Game.GameState gameState) {
 		super(number, name, gameState);
 	}
@@ -17,43 +18,23 @@ public class PlayerNetworked extends Player {
 	@Override
 	public Bid receiveBid() {
 		
-		// Get bid
-		BidEvent e = (BidEvent) this.gameState.networkNetworkGame.receiveEvent(this.getNumber());
-		
-		if (e.value < 0) {
-			// Negative value => Bid is a Pass
-			return new Bid(Bid.BidType.PASS);
-		}
-		if (e.doubling) {
-			// Doubling true => Bid is a double/redouble
-			return new Bid(Bid.BidType.DOUBLE);
-		}
-		
-		// Convert suit to Suit enum
-		Suit suit = Card.suitStringToEnum(e.suit);
-		if (suit == null) return null;
-		
-		// Create Bid object & return
-		return new Bid(e.value, suit, e.blindBid);
+		// Get bid & convert. Null if malformed
+		BidEvent e = this.gameState.networkNetworkGame.receiveBid(this.getNumber());
+		return Game.bidFromEvent(e);
 	}
 	
 	@Override
 	public Card receiveMove() {
 		
-		// Get card
-		PlayCardEvent e = (PlayCardEvent) this.gameState.networkNetworkGame.receiveEvent(this.getNumber());
-		
-		// Convert suit to Suit enum
-		Suit suit = Card.suitStringToEnum(e.suit);
-		if (suit == null) return null;
-		
-		// Convert value to int
-		int value = Card.rankStringToInt(e.rank, gameState.gameSpec.deck.rankOrder);
-		if (value == -1) return null;
-		
-		// Form card from received data & return
-		return new Card(value, suit, 0);
-		
+		// Get card & convert to interned card. Null if malformed or not in deck
+		PlayCardEvent e = this.gameState.networkNetworkGame.receiveMove(this.getNumber());
+		this.positionHash = (e == null) ? null : e.positionHash;
+		return Game.cardFromEvent(e, this.gameState);
+	}
+	
+	// Checks the hash sent with the last move matches this machine's position after making it. True if none sent
+	public boolean agreesOnPosition(long localPositionHash) {
+		return this.positionHash == null || this.positionHash == localPositionHash;
 	}
 	
 	
@@ -0,0 +1,12 @@
+package GameLogic.Core;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a game description contains an unknown or malformed rule value.
+ */
+public class RuleFormatException extends IOException {
+    public RuleFormatException(String message) {
+        super(message);
+    }
+}
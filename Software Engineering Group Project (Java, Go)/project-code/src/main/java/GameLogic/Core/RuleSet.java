@@ -0,0 +1,334 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Suit;
+
+import java.util.Map;
+
+/**
+ * Immutable, pre-resolved form of the string rules in a game description. Built once by GameParser so the
+ * game loop switches on enums rather than looking up and comparing strings every turn.
+ */
+public final class RuleSet {
+
+    // =============================================================
+    // ====================== Rule Options =========================
+    // =============================================================
+
+    // Which cards may be played after the first card of a trick ("nextLegalCardMode")
+    public enum LegalCardMode {
+        ANY, // Any card may be played
+        TRICK // Must follow the led suit if held
+    }
+
+    // How the trump suit is chosen each hand ("trumpPickingMode")
+    public enum TrumpPickingMode {
+        NONE, // No trump suit
+        LAST_DEALT, // Suit of last card dealt
+        FIXED, // Suit given by the "trumpSuit" rule
+        BID, // Suit of the winning contract
+        FIRST_PLAYED // Not yet supported - plays as no trump until chosen
+    }
+
+    // Restriction on the first card of the first trick ("validLeadingCardFirstTrick")
+    public enum LeadingCardRule {
+        ANY, // Any card may lead
+        FIXED, // Card given by the "validLeadingCardFirstTrickCard" rule must lead
+        NOT_TRUMP // Not yet enforced - plays as any
+    }
+
+    // How points are calculated at the end of a hand ("calculateScore")
+    public enum ScoringMode {
+        TRICKS_WON, // Points for tricks over the threshold
+        BID, // Points for tricks in comparison to bids
+        TRUMP_POINT_VALUE // Points for trump cards in tricks won
+    }
+
+    // Whether high or low scores win ("scoring")
+    public enum ScoringDirection {
+        STANDARD, GOLF
+    }
+
+    // Who leads the first trick after bidding ("firstTrickLeader")
+    public enum FirstTrickLeader {
+        DEFAULT, // Player after the last bidder
+        BID_WINNER // Player who won the contract
+    }
+
+    // How the hand size changes between hands ("handSize")
+    public enum HandSizeRule {
+        FIXED {
+            @Override
+            public int nextHandSize(int currentHandSize, int initialHandSize) {
+                return currentHandSize;
+            }
+        },
+        DECREASING {
+            @Override
+            public int nextHandSize(int currentHandSize, int initialHandSize) {
+                return Math.max(currentHandSize - 1, 0);
+            }
+        },
+        DECREASING_CYCLIC {
+            @Override
+            public int nextHandSize(int currentHandSize, int initialHandSize) {
+                return (currentHandSize <= 1) ? initialHandSize : currentHandSize - 1;
+            }
+        };
+
+        // Method to find the hand size for the next hand
+        public abstract int nextHandSize(int currentHandSize, int initialHandSize);
+    }
+
+    // When a game ends ("gameEnd")
+    public enum GameEndRule {
+        IMMEDIATE, // No rule given - end after one hand
+        HANDS_PLAYED, // End after "gameEndValue" hands
+        SCORE_THRESHOLD // End when a player reaches "gameEndValue" points
+    }
+
+    // When a session ends ("sessionEnd")
+    public enum SessionEndRule {
+        IMMEDIATE, // No rule given - end after one game
+        GAMES_PLAYED, // End after "sessionEndValue" games
+        BEST_OF // End when a player has won most of "sessionEndValue" games
+    }
+
+    // =============================================================
+    // ====================== Compiled Rules =======================
+    // =============================================================
+
+    public final LegalCardMode legalCardMode;
+    public final TrumpPickingMode trumpPickingMode;
+    public final Suit fixedTrumpSuit; // Only set for FIXED trump picking - null plays as no trump
+    public final LeadingCardRule leadingCardRule;
+    public final Card fixedLeadingCard; // Only set for FIXED leading card - interned deck card
+    public final ScoringMode scoringMode;
+    public final ScoringDirection scoringDirection;
+    public final int trickThreshold;
+    public final FirstTrickLeader firstTrickLeader;
+    public final HandSizeRule handSizeRule;
+    public final GameEndRule gameEndRule;
+    public final int gameEndValue;
+    public final SessionEndRule sessionEndRule;
+    public final int sessionEndValue;
+
+    // Constructor - Compiles the given rules map, rejecting unknown or malformed values
+    RuleSet(Map<String, String> rules, GameParser.DeckSpec deck) throws RuleFormatException {
+
+        // Legal card mode
+        String legalCardModeRule = rules.getOrDefault("nextLegalCardMode", "any");
+        switch (legalCardModeRule) {
+            case "any":
+                this.legalCardMode = LegalCardMode.ANY;
+                break;
+            case "trick":
+                this.legalCardMode = LegalCardMode.TRICK;
+                break;
+            default:
+                throw unknownValue("nextLegalCardMode", legalCardModeRule);
+        }
+
+        // Trump picking
+        String trumpPickingRule = rules.getOrDefault("trumpPickingMode", "none");
+        Suit trumpSuit = null;
+        switch (trumpPickingRule) {
+            case "none":
+                this.trumpPickingMode = TrumpPickingMode.NONE;
+                break;
+            case "lastDealt":
+                this.trumpPickingMode = TrumpPickingMode.LAST_DEALT;
+                break;
+            case "fixed":
+                this.trumpPickingMode = TrumpPickingMode.FIXED;
+                trumpSuit = parseSuit("trumpSuit", rules.get("trumpSuit"));
+                break;
+            case "predefined":
+                // Per-hand orders (trumpOrder) are not supported, so only a given trumpSuit is used
+                this.trumpPickingMode = TrumpPickingMode.FIXED;
+                if (rules.containsKey("trumpSuit")) {
+                    trumpSuit = parseSuit("trumpSuit", rules.get("trumpSuit"));
+                }
+                break;
+            case "bid":
+                this.trumpPickingMode = TrumpPickingMode.BID;
+                break;
+            case "firstPlayed":
+                this.trumpPickingMode = TrumpPickingMode.FIRST_PLAYED;
+                break;
+            default:
+                throw unknownValue("trumpPickingMode", trumpPickingRule);
+        }
+        this.fixedTrumpSuit = trumpSuit;
+
+        // Leading card of first trick
+        String leadingCardRule = rules.getOrDefault("validLeadingCardFirstTrick", "any");
+        Card leadingCard = null;
+        switch (leadingCardRule) {
+            case "any":
+                this.leadingCardRule = LeadingCardRule.ANY;
+                break;
+            case "fixed":
+                this.leadingCardRule = LeadingCardRule.FIXED;
+                leadingCard = parseCard("validLeadingCardFirstTrickCard",
+                        rules.get("validLeadingCardFirstTrickCard"), deck);
+                break;
+            case "notTrump":
+                this.leadingCardRule = LeadingCardRule.NOT_TRUMP;
+                break;
+            default:
+                throw unknownValue("validLeadingCardFirstTrick", leadingCardRule);
+        }
+        this.fixedLeadingCard = leadingCard;
+
+        // Scoring
+        String scoringRule = rules.getOrDefault("calculateScore", "tricksWon");
+        switch (scoringRule) {
+            case "tricksWon":
+                this.scoringMode = ScoringMode.TRICKS_WON;
+                break;
+            case "bid":
+                this.scoringMode = ScoringMode.BID;
+                break;
+            case "trumpPointValue":
+                this.scoringMode = ScoringMode.TRUMP_POINT_VALUE;
+                break;
+            default:
+                throw unknownValue("calculateScore", scoringRule);
+        }
+
+        String scoringDirectionRule = rules.getOrDefault("scoring", "standard");
+        switch (scoringDirectionRule) {
+            case "standard":
+                this.scoringDirection = ScoringDirection.STANDARD;
+                break;
+            case "golf":
+                this.scoringDirection = ScoringDirection.GOLF;
+                break;
+            default:
+                throw unknownValue("scoring", scoringDirectionRule);
+        }
+
+        this.trickThreshold = parseInt("trickThreshold", rules.getOrDefault("trickThreshold", "0"));
+
+        // First trick leader
+        String firstTrickLeaderRule = rules.getOrDefault("firstTrickLeader", "default");
+        switch (firstTrickLeaderRule) {
+            case "default":
+            case "contract": // Lead follows from the bidding order, as the dealer would
+                this.firstTrickLeader = FirstTrickLeader.DEFAULT;
+                break;
+            case "bidWinner":
+            case "contractWinner":
+                this.firstTrickLeader = FirstTrickLeader.BID_WINNER;
+                break;
+            default:
+                throw unknownValue("firstTrickLeader", firstTrickLeaderRule);
+        }
+
+        // Hand size progression
+        String handSizeRule = rules.getOrDefault("handSize", "fixed");
+        switch (handSizeRule) {
+            case "fixed":
+                this.handSizeRule = HandSizeRule.FIXED;
+                break;
+            case "decreasing":
+                this.handSizeRule = HandSizeRule.DECREASING;
+                break;
+            case "decreasingCyclic":
+                this.handSizeRule = HandSizeRule.DECREASING_CYCLIC;
+                break;
+            default:
+                throw unknownValue("handSize", handSizeRule);
+        }
+
+        // Game end
+        String gameEndRule = rules.get("gameEnd");
+        if (gameEndRule == null) {
+            this.gameEndRule = GameEndRule.IMMEDIATE;
+            this.gameEndValue = 0;
+        } else {
+            switch (gameEndRule) {
+                case "handsPlayed":
+                    this.gameEndRule = GameEndRule.HANDS_PLAYED;
+                    break;
+                case "scoreThreshold":
+                    this.gameEndRule = GameEndRule.SCORE_THRESHOLD;
+                    break;
+                default:
+                    throw unknownValue("gameEnd", gameEndRule);
+            }
+            this.gameEndValue = parseInt("gameEndValue", rules.get("gameEndValue"));
+        }
+
+        // Session end
+        String sessionEndRule = rules.get("sessionEnd");
+        if (sessionEndRule == null) {
+            this.sessionEndRule = SessionEndRule.IMMEDIATE;
+            this.sessionEndValue = 0;
+        } else {
+            switch (sessionEndRule) {
+                case "gamesPlayed":
+                    this.sessionEndRule = SessionEndRule.GAMES_PLAYED;
+                    break;
+                case "bestOf":
+                    this.sessionEndRule = SessionEndRule.BEST_OF;
+                    break;
+                default:
+                    throw unknownValue("sessionEnd", sessionEndRule);
+            }
+            this.sessionEndValue = parseInt("sessionEndValue", rules.get("sessionEndValue"));
+        }
+    }
+
+    // =============================================================
+    // ====================== Parse Helpers ========================
+    // =============================================================
+
+    private static RuleFormatException unknownValue(String ruleName, String ruleData) {
+        return new RuleFormatException("Unknown value \"" + ruleData + "\" for rule \"" + ruleName + "\"");
+    }
+
+    private static int parseInt(String ruleName, String ruleData) throws RuleFormatException {
+        if (ruleData == null) {
+            throw new RuleFormatException("Missing number for rule \"" + ruleName + "\"");
+        }
+        try {
+            return Integer.parseInt(ruleData);
+        } catch (NumberFormatException e) {
+            throw unknownValue(ruleName, ruleData);
+        }
+    }
+
+    private static Suit parseSuit(String ruleName, String ruleData) throws RuleFormatException {
+        Suit suit = (ruleData == null) ? null : Card.suitStringToEnum(ruleData);
+        if (suit == null) {
+            throw unknownValue(ruleName, ruleData);
+        }
+        return suit;
+    }
+
+    // Parses a card of the form "RANK SUIT" to the matching interned deck card
+    private static Card parseCard(String ruleName, String ruleData, GameParser.DeckSpec deck)
+            throws RuleFormatException {
+        if (ruleData == null) {
+            throw new RuleFormatException("Missing card for rule \"" + ruleName + "\"");
+        }
+
+        // Split into value and suit with " " as delimiter
+        int indexOfSpace = ruleData.indexOf(" ");
+        if (indexOfSpace == -1) {
+            throw unknownValue(ruleName, ruleData);
+        }
+        int value = Card.rankStringToInt(ruleData.substring(0, indexOfSpace), deck.rankOrder);
+        Suit suit = Card.suitStringToEnum(ruleData.substring(indexOfSpace + 1));
+
+        // Must be a card in this deck
+        Card card = deck.registry.lookup(suit, value);
+        if (card == null) {
+            throw unknownValue(ruleName, ruleData);
+        }
+        return card;
+    }
+
+}
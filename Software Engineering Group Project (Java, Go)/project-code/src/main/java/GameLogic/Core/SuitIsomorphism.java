@@ -0,0 +1,165 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.CardRegistry;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+
+import java.util.Arrays;
+
+/*
+ * Maps hands and deals to one canonical representative of every deal that plays the same up to a swap of suits.
+ * Suits may only swap when the rules cannot tell them apart: the deck holds the same ranks of each, with the same
+ * point values rank by rank, and neither is trumps nor the suit of a card that must lead first. The suits of each
+ * such class are sorted by the cards each hand holds in them, so equal deals up to a swap give the same bits and
+ * caches keyed by them share entries - up to 24 ways for four suits that all play alike.
+ * A permutation maps each suit ordinal to the suit ordinal its cards move to, and its inverse maps them back.
+ */
+public class SuitIsomorphism {
+
+    private static final int SUITS = Suit.values().length;
+
+    private final int[][] classSuits; // Suit ordinals of each class of suits that play alike, ascending
+    private final int symmetries; // Orders of the suits that play alike
+
+    /**
+     * Finds the suits that play alike in a game.
+     * @param gameSpec rules and deck of the game
+     * @param trumpSuit trump suit of the hand - null for none
+     */
+    public SuitIsomorphism(GameParser gameSpec, Suit trumpSuit) {
+        // Ranks held by the deck and their point values, per suit
+        CardRegistry registry = gameSpec.deck.registry;
+        long[] deckRanks = new long[SUITS];
+        int[][] pointValues = new int[SUITS][Hand.RANKS_PER_SUIT];
+        for (int i = 0; i < Long.SIZE; i++) {
+            Card card = registry.lookupBit(i);
+            if (card != null) {
+                deckRanks[i / Hand.RANKS_PER_SUIT] |= 1L << (i % Hand.RANKS_PER_SUIT);
+                pointValues[i / Hand.RANKS_PER_SUIT][i % Hand.RANKS_PER_SUIT] = card.getPointValue();
+            }
+        }
+        Card fixedLeadingCard = gameSpec.ruleSet.fixedLeadingCard;
+        long pinned = Hand.suitMask(trumpSuit)
+                | ((fixedLeadingCard == null) ? 0L : Hand.suitMask(fixedLeadingCard.getSuit()));
+
+        // Group each free suit with the first free suit before it that plays alike
+        int[] classOf = new int[SUITS];
+        int[] classSizes = new int[SUITS];
+        int classes = 0;
+        for (int suit = 0; suit < SUITS; suit++) {
+            classOf[suit] = classes;
+            if ((pinned & (Hand.ALL_SUIT_MASK << (suit * Hand.RANKS_PER_SUIT))) == 0) {
+                for (int other = 0; other < suit; other++) {
+                    if ((pinned & (Hand.ALL_SUIT_MASK << (other * Hand.RANKS_PER_SUIT))) == 0
+                            && deckRanks[other] == deckRanks[suit]
+                            && Arrays.equals(pointValues[other], pointValues[suit])) {
+                        classOf[suit] = classOf[other];
+                        break;
+                    }
+                }
+            }
+            if (classOf[suit] == classes) {
+                classes++;
+            }
+            classSizes[classOf[suit]]++;
+        }
+
+        this.classSuits = new int[classes][];
+        int symmetries = 1;
+        for (int i = 0; i < classes; i++) {
+            classSuits[i] = new int[classSizes[i]];
+            for (int k = 2; k <= classSizes[i]; k++) {
+                symmetries *= k;
+            }
+        }
+        int[] filled = new int[classes];
+        for (int suit = 0; suit < SUITS; suit++) {
+            classSuits[classOf[suit]][filled[classOf[suit]]++] = suit;
+        }
+        this.symmetries = symmetries;
+    }
+
+    // Getters
+    public int getSymmetries() {
+        return symmetries;
+    }
+
+    /**
+     * Finds the permutation taking a deal to its canonical representative. The suits of each class are sorted by
+     * their cards in the first hand, then the second on ties, and so on, and take the class's suits in order.
+     * @param hands Hand mask of each hand of the deal - a single hand for a hand on its own
+     * @return suit ordinal each suit's cards move to, by suit ordinal
+     */
+    public int[] canonicalOrder(long... hands) {
+        int[] permutation = new int[SUITS];
+        int[] sorted = new int[SUITS];
+        for (int[] suits : classSuits) {
+            // Insertion sort, as a class holds at most every suit
+            for (int i = 0; i < suits.length; i++) {
+                int suit = suits[i];
+                int j = i;
+                while (j > 0 && compare(hands, sorted[j - 1], suit) > 0) {
+                    sorted[j] = sorted[j - 1];
+                    j--;
+                }
+                sorted[j] = suit;
+            }
+            for (int i = 0; i < suits.length; i++) {
+                permutation[sorted[i]] = suits[i];
+            }
+        }
+        return permutation;
+    }
+
+    // Method to find the canonical representative of a hand on its own
+    public long canonicalHand(long hand) {
+        return permute(hand, canonicalOrder(hand));
+    }
+
+    // Method to find the canonical representative of a deal, keeping the hands in order
+    public long[] canonicalDeal(long[] hands) {
+        int[] permutation = canonicalOrder(hands);
+        long[] canonical = new long[hands.length];
+        for (int i = 0; i < hands.length; i++) {
+            canonical[i] = permute(hands[i], permutation);
+        }
+        return canonical;
+    }
+
+    // Method to move the cards of each suit of a Hand mask to the suit a permutation gives
+    public static long permute(long hand, int[] permutation) {
+        long permuted = 0L;
+        for (int suit = 0; suit < SUITS; suit++) {
+            long ranks = (hand >>> (suit * Hand.RANKS_PER_SUIT)) & Hand.ALL_SUIT_MASK;
+            permuted |= ranks << (permutation[suit] * Hand.RANKS_PER_SUIT);
+        }
+        return permuted;
+    }
+
+    // Method to find the suit a permutation moves a suit to. Returns null for no suit
+    public static Suit permute(Suit suit, int[] permutation) {
+        return (suit == null) ? null : Suit.values()[permutation[suit.ordinal()]];
+    }
+
+    // Method to find the permutation undoing a permutation, mapping canonical suits back
+    public static int[] inverse(int[] permutation) {
+        int[] inverse = new int[permutation.length];
+        for (int suit = 0; suit < permutation.length; suit++) {
+            inverse[permutation[suit]] = suit;
+        }
+        return inverse;
+    }
+
+    // Method to order two suits by their cards in each hand in turn
+    private static int compare(long[] hands, int suit, int other) {
+        for (long hand : hands) {
+            long ranks = (hand >>> (suit * Hand.RANKS_PER_SUIT)) & Hand.ALL_SUIT_MASK;
+            long otherRanks = (hand >>> (other * Hand.RANKS_PER_SUIT)) & Hand.ALL_SUIT_MASK;
+            if (ranks != otherRanks) {
+                return Long.compare(ranks, otherRanks);
+            }
+        }
+        return 0;
+    }
+}
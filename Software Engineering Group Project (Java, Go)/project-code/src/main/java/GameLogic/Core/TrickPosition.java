@@ -0,0 +1,378 @@
+package GameLogic.Core;
+
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.CardRegistry;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Compact copy of the card play of one hand, for searching hypothetical lines of play. Hands are Hand bitboards
+ * and cards are their bit indices, so playing a card, and taking it back, allocates nothing. Follow-suit, trick
+ * winners and the end of the hand mirror Game.makeMove, Game.advanceTrick and the hand size check in Game.
+ */
+public class TrickPosition {
+
+    // Rules - shared by copies
+    final int numberOfPlayers;
+    final boolean trickMode; // Legal card mode is TRICK
+    final boolean ascending; // Turns go up regarding to player number
+    final int minimumHandSize;
+    final int[] pointValues; // Point value of the deck card at each bit index
+    final int[] teamOf; // Team index of each player
+    final int teams;
+
+    // Position
+    int trumpSuit = -1; // Suit ordinal of trumps - -1 if none
+    final long[] hands; // Bitboard of each player's hand
+    final int[] table; // Bit indices of cards on the table, in play order
+    int tableSize;
+    int leader; // Player number who led the current trick
+    int current; // Player number to play next
+    final int[] tricksWon; // Tricks won this hand by each player
+    final int[] pointsWon; // Trump point values won this hand by each player
+    long playedMask; // Cards played this hand, including the table
+
+    // Undo history
+    private final int[] playedBits = new int[Long.SIZE]; // Cards played, in order
+    private final int[] playedBy = new int[Long.SIZE]; // Player number of each card played
+    private int playedCount;
+    private final int[] trickLeaders = new int[Long.SIZE]; // Leader of each completed trick
+    private final int[] trickPoints = new int[Long.SIZE]; // Points won in each completed trick
+    private int trickCount;
+
+    private final double[] teamScores; // Scratch totals for scoring
+
+    // Constructor - takes the rules from a parsed game, with empty hands
+    public TrickPosition(GameParser gameSpec) {
+        this.numberOfPlayers = gameSpec.numberOfPlayers;
+        this.trickMode = (gameSpec.ruleSet.legalCardMode == RuleSet.LegalCardMode.TRICK);
+        this.ascending = gameSpec.ascending_ordering;
+        this.minimumHandSize = gameSpec.minimumHandSize;
+
+        this.pointValues = new int[Long.SIZE];
+        CardRegistry registry = gameSpec.deck.registry;
+        for (int i = 0; i < Long.SIZE; i++) {
+            Card card = registry.lookupBit(i);
+            pointValues[i] = (card == null) ? 0 : card.getPointValue();
+        }
+
+        this.teamOf = new int[numberOfPlayers];
+        for (int i = 0; i < gameSpec.teams.length; i++) {
+            for (int playerNumber : gameSpec.teams[i]) {
+                teamOf[playerNumber] = i;
+            }
+        }
+        this.teams = Math.max(1, gameSpec.teams.length);
+        this.teamScores = new double[teams];
+
+        this.hands = new long[numberOfPlayers];
+        this.table = new int[numberOfPlayers];
+        this.tricksWon = new int[numberOfPlayers];
+        this.pointsWon = new int[numberOfPlayers];
+    }
+
+    // Method to set up a deal with every hand known, before any card is played
+    public static TrickPosition fromDeal(GameParser gameSpec, long[] hands, Suit trumpSuit, int leader) {
+        TrickPosition position = new TrickPosition(gameSpec);
+        System.arraycopy(hands, 0, position.hands, 0, position.numberOfPlayers);
+        position.trumpSuit = (trumpSuit == null) ? -1 : trumpSuit.ordinal();
+        position.leader = leader;
+        position.current = leader;
+        return position;
+    }
+
+    // Constructor - copies another position, sharing its rules
+    public TrickPosition(TrickPosition other) {
+        this.numberOfPlayers = other.numberOfPlayers;
+        this.trickMode = other.trickMode;
+        this.ascending = other.ascending;
+        this.minimumHandSize = other.minimumHandSize;
+        this.pointValues = other.pointValues;
+        this.teamOf = other.teamOf;
+        this.teams = other.teams;
+        this.teamScores = new double[teams];
+
+        this.hands = new long[numberOfPlayers];
+        this.table = new int[numberOfPlayers];
+        this.tricksWon = new int[numberOfPlayers];
+        this.pointsWon = new int[numberOfPlayers];
+        copyFrom(other);
+    }
+
+    // Method to copy the hand of a running game as seen by everyone: hands are left empty to be filled by the caller
+    public static TrickPosition fromGame(Game.GameState gameState) {
+        TrickPosition position = new TrickPosition(gameState.gameSpec);
+        position.trumpSuit = (gameState.trumpSuit == null) ? -1 : gameState.trumpSuit.ordinal();
+        position.leader = gameState.firstPlayerNumber;
+        position.current = gameState.currentPlayerNumber;
+
+        // Cards on the table
+        List<Card> tableCards = gameState.currentTable.getCards();
+        int tablePlayer = position.leader;
+        for (int i = 0; i < tableCards.size() && i < position.table.length; i++) {
+            int bit = Hand.bitIndex(tableCards.get(i));
+            position.table[position.tableSize++] = bit;
+            position.playedMask |= 1L << bit;
+            position.playedBits[position.playedCount] = bit;
+            position.playedBy[position.playedCount++] = tablePlayer;
+            tablePlayer = position.nextPlayer(tablePlayer);
+        }
+
+        // Tricks already won
+        for (Player thisPlayer : gameState.players) {
+            int playerNumber = thisPlayer.getNumber();
+            position.tricksWon[playerNumber] = thisPlayer.getTricksThisHand();
+            for (List<Card> thisTrick : thisPlayer.getTricksEarned()) {
+                for (Card thisCard : thisTrick) {
+                    int bit = Hand.bitIndex(thisCard);
+                    position.playedMask |= 1L << bit;
+                    if (position.scoresPoints(bit)) {
+                        position.pointsWon[playerNumber] += position.pointValues[bit];
+                    }
+                }
+            }
+        }
+        return position;
+    }
+
+    // Copies another position with the same rules, without allocating
+    public void copyFrom(TrickPosition other) {
+        trumpSuit = other.trumpSuit;
+        System.arraycopy(other.hands, 0, hands, 0, numberOfPlayers);
+        System.arraycopy(other.table, 0, table, 0, numberOfPlayers);
+        tableSize = other.tableSize;
+        leader = other.leader;
+        current = other.current;
+        System.arraycopy(other.tricksWon, 0, tricksWon, 0, numberOfPlayers);
+        System.arraycopy(other.pointsWon, 0, pointsWon, 0, numberOfPlayers);
+        playedMask = other.playedMask;
+
+        playedCount = other.playedCount;
+        System.arraycopy(other.playedBits, 0, playedBits, 0, playedCount);
+        System.arraycopy(other.playedBy, 0, playedBy, 0, playedCount);
+        trickCount = other.trickCount;
+        System.arraycopy(other.trickLeaders, 0, trickLeaders, 0, trickCount);
+        System.arraycopy(other.trickPoints, 0, trickPoints, 0, trickCount);
+    }
+
+    // Getters & setters
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    public long getHand(int playerNumber) {
+        return hands[playerNumber];
+    }
+
+    public void setHand(int playerNumber, long hand) {
+        hands[playerNumber] = hand;
+    }
+
+    public int getCurrentPlayer() {
+        return current;
+    }
+
+    public int getLeader() {
+        return leader;
+    }
+
+    public int getTrumpSuit() {
+        return trumpSuit;
+    }
+
+    public int getTeam(int playerNumber) {
+        return teamOf[playerNumber];
+    }
+
+    public int getTeams() {
+        return teams;
+    }
+
+    public int getTableCard(int index) {
+        return table[index];
+    }
+
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    public int getTricksWon(int playerNumber) {
+        return tricksWon[playerNumber];
+    }
+
+    public long getPlayedMask() {
+        return playedMask;
+    }
+
+    // Method to find the cards the player to move may play
+    public long legalMoves() {
+        long hand = hands[current];
+        if (trickMode && tableSize != 0) {
+            long follow = hand & (Hand.ALL_SUIT_MASK << ((table[0] / Hand.RANKS_PER_SUIT) * Hand.RANKS_PER_SUIT));
+            if (follow != 0) {
+                return follow;
+            }
+        }
+        return hand;
+    }
+
+    // Checks if the hand is complete, as Game checks after each trick
+    public boolean isHandOver() {
+        if (tableSize != 0) {
+            return false;
+        }
+        for (int i = 0; i < numberOfPlayers; i++) {
+            if (Long.bitCount(hands[i]) <= minimumHandSize) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Plays a card by bit index for the player to move, completing the trick if it is the last card
+    public void play(int bit) {
+        playedBits[playedCount] = bit;
+        playedBy[playedCount++] = current;
+        hands[current] &= ~(1L << bit);
+        playedMask |= 1L << bit;
+        table[tableSize++] = bit;
+
+        if (tableSize == numberOfPlayers) {
+            finishTrick();
+        } else {
+            current = nextPlayer(current);
+        }
+    }
+
+    // Takes back the last card played, including the trick it completed. Cards that were on the table when the
+    // position was taken from a game can be taken back, but not tricks completed before it
+    public void unplay() {
+        int bit = playedBits[--playedCount];
+        int playerNumber = playedBy[playedCount];
+
+        if (tableSize == 0) {
+            // Card completed a trick, so give the trick back and put it on the table again
+            trickCount--;
+            int winner = current;
+            tricksWon[winner]--;
+            pointsWon[winner] -= trickPoints[trickCount];
+            leader = trickLeaders[trickCount];
+            tableSize = numberOfPlayers;
+            System.arraycopy(playedBits, playedCount + 1 - numberOfPlayers, table, 0, numberOfPlayers);
+        }
+
+        tableSize--;
+        hands[playerNumber] |= 1L << bit;
+        playedMask &= ~(1L << bit);
+        current = playerNumber;
+    }
+
+    // Method to find the player after another in turn order
+    public int nextPlayer(int playerNumber) {
+        if (ascending) {
+            return (playerNumber + 1 == numberOfPlayers) ? 0 : playerNumber + 1;
+        }
+        return (playerNumber == 0) ? numberOfPlayers - 1 : playerNumber - 1;
+    }
+
+    // Method to find the player who played the card at a position on the table, in turn order from the leader
+    public int tablePlayer(int index) {
+        int player = leader;
+        for (int i = 0; i < index; i++) {
+            player = nextPlayer(player);
+        }
+        return player;
+    }
+
+    // Method to find the position on the table of the card winning the current trick
+    public int winningIndex() {
+        int winning = 0;
+        for (int i = 1; i < tableSize; i++) {
+            if (beats(table[i], table[winning])) {
+                winning = i;
+            }
+        }
+        return winning;
+    }
+
+    // Checks if a card played to the current trick would beat the card winning it so far
+    boolean beats(int bit, int winningBit) {
+        int leadSuit = table[0] / Hand.RANKS_PER_SUIT;
+        int thisSuit = bit / Hand.RANKS_PER_SUIT;
+        int thisValue = bit % Hand.RANKS_PER_SUIT;
+        int winningSuit = winningBit / Hand.RANKS_PER_SUIT;
+        int winningValue = winningBit % Hand.RANKS_PER_SUIT;
+
+        if (trickMode) {
+            if (thisValue > winningValue) {
+                return thisSuit == trumpSuit || (thisSuit == leadSuit && winningSuit == leadSuit);
+            }
+            return winningSuit != trumpSuit && thisSuit == trumpSuit;
+        }
+        if (winningSuit != trumpSuit && thisSuit == trumpSuit) {
+            return true;
+        }
+        return thisValue > winningValue && (winningSuit != trumpSuit || thisSuit == trumpSuit);
+    }
+
+    // Method to score the hand for each player from 0 to 1, team mates sharing a score. Bidders score by how
+    // close they came to their bid, everyone else by their team's share of the tricks or trump points
+    public void rewards(RuleSet ruleSet, Bid[] bids, double[] rewards) {
+        boolean pointScoring = (ruleSet.scoringMode == RuleSet.ScoringMode.TRUMP_POINT_VALUE);
+
+        // Team totals
+        Arrays.fill(teamScores, 0);
+        double total = 0;
+        int totalTricks = 0;
+        for (int i = 0; i < numberOfPlayers; i++) {
+            int score = pointScoring ? pointsWon[i] : tricksWon[i];
+            teamScores[teamOf[i]] += score;
+            total += score;
+            totalTricks += tricksWon[i];
+        }
+
+        boolean golf = (ruleSet.scoringDirection == RuleSet.ScoringDirection.GOLF);
+        for (int i = 0; i < numberOfPlayers; i++) {
+            double reward = (total == 0) ? 0.5 : teamScores[teamOf[i]] / total;
+            if (ruleSet.scoringMode == RuleSet.ScoringMode.BID && bids != null) {
+                Bid bid = bids[i];
+                if (bid != null && bid.getBidType() == Bid.BidType.BID) {
+                    int difference = Math.abs(tricksWon[i] - ruleSet.trickThreshold - bid.getValue());
+                    reward = Math.max(0.0, 1.0 - (double) difference / Math.max(1, totalTricks));
+                }
+            }
+            rewards[i] = golf ? 1.0 - reward : reward;
+        }
+    }
+
+    // Completes the trick, as Game.advanceTrick does
+    private void finishTrick() {
+        // Winner found from leader as the engine does
+        int winner = tablePlayer(winningIndex());
+
+        int points = 0;
+        for (int i = 0; i < tableSize; i++) {
+            if (scoresPoints(table[i])) {
+                points += pointValues[table[i]];
+            }
+        }
+        tricksWon[winner]++;
+        pointsWon[winner] += points;
+
+        trickLeaders[trickCount] = leader;
+        trickPoints[trickCount++] = points;
+
+        leader = winner;
+        current = winner;
+        tableSize = 0;
+    }
+
+    // Checks if a card counts towards trump point scoring
+    private boolean scoresPoints(int bit) {
+        return trumpSuit == -1 || bit / Hand.RANKS_PER_SUIT == trumpSuit;
+    }
+
+}
@@ -1,22 +1,31 @@
 package GameLogic.DeckAndCards;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.ArrayList;
 
 /**
- * This is a class to describe all cards
+ * This is a class to describe all cards. Cards are immutable, so the interned instances held by a
+ * CardRegistry can be shared between decks, hands and tables.
  */
 
 public class Card {
     // Attributes
-    private int value; // Using int for easy comparison
-    private Suit suit;
-    private int pointValue;
+    private final int value; // Using int for easy comparison
+    private final Suit suit;
+    private final int pointValue;
+    private final int ordinal; // Index in the owning CardRegistry - -1 if not interned
 
-    // Constructor
+    // Constructors
     public Card(int value, Suit suit, int pointValue) {
+        this(value, suit, pointValue, -1);
+    }
+
+    Card(int value, Suit suit, int pointValue, int ordinal) {
         this.suit = suit;
         this.value = value;
         this.pointValue = pointValue;
+        this.ordinal = ordinal;
     }
 
     // Getters & Setters
@@ -32,12 +41,14 @@ public class Card {
         return pointValue;
     }
 
-    public void setValue(int value) {
-        this.value = value;
+    @JsonIgnore // Not part of saved games - rebuilt from the game spec
+    public int getOrdinal() {
+        return ordinal;
     }
 
-    public void setSuitEnum(Suit suit) {
-        this.suit = suit;
+    @JsonIgnore
+    public boolean isInterned() {
+        return ordinal != -1;
     }
 
 
@@ -58,6 +69,12 @@ public class Card {
         return (((Card) obj).value == this.value && ((Card) obj).suit == this.suit); // True if cards same
     }
 
+    // Hash code override to match equals
+    @Override
+    public int hashCode() {
+        return 31 * value + ((suit == null) ? 0 : suit.ordinal() + 1);
+    }
+
 
     //Method to convert suit to character code
     public static char suitToCharCode(Suit suit) {
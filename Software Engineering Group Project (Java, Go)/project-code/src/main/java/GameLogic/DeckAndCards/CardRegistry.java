@@ -0,0 +1,73 @@
+package GameLogic.DeckAndCards;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Registry of the interned cards for one deck specification. Every card in the deck is created once here
+ * with a dense ordinal, so the engine can pass around canonical references or small ints instead of
+ * allocating new cards every hand or move.
+ */
+public class CardRegistry {
+
+    private final Card[] byOrdinal; // Interned cards, in deck order
+    private final Card[] byBit; // Interned cards, indexed by Hand.bitIndex(...)
+    private final List<Card> cards; // Read-only view of byOrdinal
+
+    // Constructor - interns every card of the given deck order
+    public CardRegistry(List<Card> deckOrder) {
+        this.byOrdinal = new Card[deckOrder.size()];
+        this.byBit = new Card[Long.SIZE];
+
+        for (int i = 0; i < deckOrder.size(); i++) {
+            Card thisCard = deckOrder.get(i);
+            Card interned = new Card(thisCard.getValue(), thisCard.getSuit(), thisCard.getPointValue(), i);
+            byOrdinal[i] = interned;
+
+            // Index by bit, keeping first occurrence if the deck repeats a card
+            int bitIndex = Hand.bitIndex(interned);
+            if (bitIndex != -1 && byBit[bitIndex] == null) {
+                byBit[bitIndex] = interned;
+            }
+        }
+
+        ArrayList<Card> cardList = new ArrayList<>(byOrdinal.length);
+        Collections.addAll(cardList, byOrdinal);
+        this.cards = Collections.unmodifiableList(cardList);
+    }
+
+    // Getters
+    public List<Card> getCards() {
+        return cards;
+    }
+
+    public int size() {
+        return byOrdinal.length;
+    }
+
+    // Gets the card with the given ordinal
+    public Card get(int ordinal) {
+        return byOrdinal[ordinal];
+    }
+
+    // Finds the interned card with the given suit and value. Returns null if not in the deck
+    public Card lookup(Suit suit, int value) {
+        if (suit == null || value < 0 || value >= Hand.RANKS_PER_SUIT) {
+            return null;
+        }
+        return byBit[suit.ordinal() * Hand.RANKS_PER_SUIT + value];
+    }
+
+    // Finds the interned card at a Hand bit index. Returns null if not in the deck
+    public Card lookupBit(int bitIndex) {
+        return (bitIndex < 0 || bitIndex >= Long.SIZE) ? null : byBit[bitIndex];
+    }
+
+    // Finds the interned instance equal to the given card. Returns null if not in the deck
+    public Card intern(Card card) {
+        int bitIndex = Hand.bitIndex(card);
+        return (bitIndex == -1) ? null : byBit[bitIndex];
+    }
+
+}
@@ -1,79 +1,151 @@
 package GameLogic.DeckAndCards;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EmptyStackException;
+import java.util.List;
 
 
 /*
- * Class to represent the cards of cards. Implemented as a stack.
+ * Class to represent the cards of cards. Implemented as a stack of card ordinals in a primitive array, so
+ * shuffling and dealing move ints rather than boxed references. Ordinals index the card table, which is
+ * the deck order the deck was reset from (so match CardRegistry ordinals for a game's deck).
  */
 public class Deck {
 
-    // Underlying data structure of an array list. Accessed as a stack
-    private ArrayList<Card> cards = new ArrayList<>();
+    private Card[] cardTable = new Card[0]; // Card for each ordinal
+    private int tableSize = 0; // Ordinals in use in the card table
+    private List<Card> tableSource; // Deck order the card table was built from, if any
+
+    // Underlying data structure of an int array. Accessed as a stack, with the top at size - 1
+    private int[] ordinals = new int[0];
+    private int size = 0;
+
+    // Refills the deck from a deck order, with the first card on top. Reuses the card table and stack
+    // when refilled from the same deck order, so a new hand allocates nothing
+    public void reset(List<Card> deckOrder) {
+        int n = deckOrder.size();
+        if (deckOrder != tableSource || tableSize != n) {
+            cardTable = deckOrder.toArray(new Card[n]);
+            tableSize = n;
+            tableSource = deckOrder;
+        }
+        if (ordinals.length < n) {
+            ordinals = new int[n];
+        }
+        for (int i = 0; i < n; i++) {
+            ordinals[i] = n - 1 - i;
+        }
+        size = n;
+    }
+
+    // Swaps two cards in place
+    public void swap(int i, int j) {
+        int temp = ordinals[i];
+        ordinals[i] = ordinals[j];
+        ordinals[j] = temp;
+    }
+
+    // Ordinal of the card at a position
+    public int getOrdinal(int index) {
+        checkIndex(index);
+        return ordinals[index];
+    }
+
+    // Card with the given ordinal
+    public Card cardOf(int ordinal) {
+        return cardTable[ordinal];
+    }
 
     // ArrayList set()
     public void set(int index, Card card) {
-        cards.set(index, card);
+        checkIndex(index);
+        ordinals[index] = addToTable(card);
     }
 
     // ArrayList get()
     public Card get(int index){
-       return cards.get(index);
+        checkIndex(index);
+        return cardTable[ordinals[index]];
     }
 
     // Push card onto the stack
     public Card push(Card card) {
-        cards.add(card);
+        int ordinal = addToTable(card);
+        if (size == ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, Math.max(8, size * 2));
+        }
+        ordinals[size++] = ordinal;
         return card;
     }
 
     // Check if stack is empty
     public Boolean isEmpty() {
-        return (cards.size() == 0);
+        return (size == 0);
     }
 
     // Return the size of the list
     public int size() {
-        return this.cards.size();
+        return this.size;
     }
 
     // Pop top card of the stack
     public Card pop() {
-        if (cards.isEmpty()) {
+        return cardTable[popOrdinal()];
+    }
+
+    // Pop ordinal of the top card of the stack
+    public int popOrdinal() {
+        if (size == 0) {
             throw new EmptyStackException();
-        } else {
-            return cards.remove(cards.size() - 1);
         }
+        return ordinals[--size];
     }
 
     // Returns the top card of the deck without removing it from the stack
     public Card peek() {
-        if (cards.isEmpty()) {
+        if (size == 0) {
             throw new EmptyStackException();
-        } else {
-            return cards.get(cards.size() - 1);
         }
+        return cardTable[ordinals[size - 1]];
     }
 
     // Searches the cards for a card specified by the user
     public int search(Card card) {
-        if (cards.isEmpty()) {
+        if (size == 0) {
             throw new EmptyStackException();
-        } else if (cards.contains(card)) {
-            return (cards.indexOf(card));
-        } else {
-            System.out.print("No card!");
-            return -1;
         }
+        for (int i = 0; i < size; i++) {
+            Card thisCard = cardTable[ordinals[i]];
+            if (thisCard == null ? card == null : thisCard.equals(card)) {
+                return i;
+            }
+        }
+        System.out.print("No card!");
+        return -1;
     }
 
     // Removes card from deck without dealing to any player
     public void burn() {
-        if (cards.isEmpty()) {
-            throw new EmptyStackException();
+        popOrdinal();
+    }
+
+    // Finds the ordinal of a card pushed or set directly, adding it to the card table if new
+    private int addToTable(Card card) {
+        if (card != null && card.isInterned() && card.getOrdinal() < tableSize && cardTable[card.getOrdinal()] == card) {
+            return card.getOrdinal();
+        }
+        if (tableSize == cardTable.length) {
+            cardTable = Arrays.copyOf(cardTable, Math.max(8, tableSize * 2));
+        }
+        cardTable[tableSize] = card;
+        tableSource = null; // Table no longer matches a deck order
+        return tableSize++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
         }
-        cards.remove(cards.size() - 1);
     }
 
 }
@@ -2,8 +2,6 @@ package GameLogic.DeckAndCards;
 
 import java.util.ArrayList;
 
-import org.apache.commons.math3.random.MersenneTwister;
-
 import GameLogic.Core.Player;
 
 /*
@@ -14,10 +12,13 @@ public class DeckHandler {
     private Deck deck; // Deck which is currently being wrapped
     private Card lastDealt; // Last card dealt for reference in rules
     private int seed; // Seed for generator
-    MersenneTwister twister; // Randomiser used for shuffling - should persist between hands
+    ShuffleTwister twister; // Randomiser used for shuffling - should persist between hands
     private int shuffleCount; // Number of times shuffler has been used
 
     // Getters and Setters
+    public Deck getDeck() {
+        return this.deck;
+    }
     public int getSeed() {
         return this.seed;
     }
@@ -39,25 +40,38 @@ public class DeckHandler {
         this.lastDealt = lastDealt;
     }
 
+    // Full state of the shuffler, to save or send to a joining player
+    public int[] getTwisterState() {
+        return this.twister.getState();
+    }
+
+    // Resumes the shuffler from a saved state, whatever the number of shuffles made before it
+    public void setTwisterState(int[] twisterState) {
+        this.twister.setState(twisterState);
+    }
+
+    // Moves a newly seeded shuffler past a number of shuffles of a deck, for when only the count is known
+    public void restoreShuffles(int shuffleCount, int deckSize) {
+        this.twister.skip((long) shuffleCount * Math.max(deckSize - 1, 0));
+        this.shuffleCount += shuffleCount;
+    }
+
     // Constructor
     public DeckHandler(ArrayList<Card> deckOrder, int seed) {
         // Create random generator from seed
-        this.twister = new MersenneTwister(seed);
+        this.twister = new ShuffleTwister(seed);
         this.seed = seed;
         this.shuffleCount = 0;
 
         // Create deck - Doesn't matter if called again
+        this.deck = new Deck();
         createDeck(deckOrder);
     }
 
     // Creates a deck from a deck order - Used to replace old deck for new hand
     public void createDeck(ArrayList<Card> deckOrder) {
-        // Create deck
-        deck = new Deck();
-        for (int i = deckOrder.size() - 1; i >= 0; i--) {
-            Card cardToAdd = deckOrder.get(i);
-            deck.push(new Card(cardToAdd.getValue(), cardToAdd.getSuit(), cardToAdd.getPointValue()));
-        }
+        // Refill the same deck - cards are immutable, so deck order instances are shared rather than copied
+        deck.reset(deckOrder);
     }
 
     // Shuffles the deck in accordance with protocol (Fisher Yates)
@@ -67,9 +81,7 @@ public class DeckHandler {
         int n = deck.size();
         for (int i = n - 1; i > 0; i--) {
             int j = Math.abs(Math.floorMod(twister.nextInt(), i + 1));
-            Card temp = deck.get(i);
-            deck.set(i, deck.get(j));
-            deck.set(j, temp);
+            deck.swap(i, j);
         }
 
         // Increment shuffle counter
@@ -0,0 +1,214 @@
+package GameLogic.DeckAndCards;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/*
+ * Class to represent a player's hand as a 64 bit bitboard. Each (suit, rank) pair owns one bit, laid out as
+ * suit-major blocks of RANKS_PER_SUIT bits, so suit and rank queries are single mask operations.
+ * Accessed as a list so existing callers can keep iterating, indexing and removing cards.
+ */
+public class Hand extends AbstractList<Card> {
+
+    public static final int RANKS_PER_SUIT = 16; // Bits reserved for each suit - rank orders must fit in this
+    public static final long ALL_SUIT_MASK = (1L << RANKS_PER_SUIT) - 1; // Mask of every rank in the lowest suit
+    public static final long ALL_RANK_MASK = 0x0001000100010001L; // Mask of the lowest rank in every suit
+
+    private long bits; // Bitboard of cards held
+    private final Card[] cards = new Card[Long.SIZE]; // Card held at each set bit - keeps point values
+
+    // Constructors
+    public Hand() {
+        this.bits = 0L;
+    }
+
+    public Hand(Collection<Card> startingCards) {
+        this();
+        addAll(startingCards);
+    }
+
+    // Getters
+    public long getBits() {
+        return bits;
+    }
+
+    // Method to find the bit index of a card. Returns -1 if card cannot be held in a hand
+    public static int bitIndex(Card card) {
+        if (card == null || card.getSuit() == null || card.getValue() < 0 || card.getValue() >= RANKS_PER_SUIT) {
+            return -1;
+        }
+        return card.getSuit().ordinal() * RANKS_PER_SUIT + card.getValue();
+    }
+
+    // Method to find the bit of a card. Returns 0 if card cannot be held in a hand
+    public static long cardMask(Card card) {
+        int index = bitIndex(card);
+        return (index == -1) ? 0L : 1L << index;
+    }
+
+    // Method to find the mask of every card in a suit
+    public static long suitMask(Suit suit) {
+        return (suit == null) ? 0L : ALL_SUIT_MASK << (suit.ordinal() * RANKS_PER_SUIT);
+    }
+
+    // Method to find the mask of every card with a value
+    public static long valueMask(int value) {
+        return (value < 0 || value >= RANKS_PER_SUIT) ? 0L : ALL_RANK_MASK << value;
+    }
+
+    // Method to find the mask of every card in any of the given suits
+    public static long suitsMask(List<Suit> suits) {
+        long mask = 0L;
+        for (int i = 0; i < suits.size(); i++) {
+            mask |= suitMask(suits.get(i));
+        }
+        return mask;
+    }
+
+    // Method to find the mask of every card with any of the given values
+    public static long valuesMask(List<Integer> values) {
+        long mask = 0L;
+        for (int i = 0; i < values.size(); i++) {
+            mask |= valueMask(values.get(i));
+        }
+        return mask;
+    }
+
+    // Checks if any card in the hand is in the given mask
+    public boolean holdsAny(long mask) {
+        return (bits & mask) != 0;
+    }
+
+    // Checks if the hand holds no cards of a suit
+    public boolean isVoidIn(Suit suit) {
+        return (bits & suitMask(suit)) == 0;
+    }
+
+    // Checks if the hand holds a card of a value in any suit
+    public boolean holdsValue(int value) {
+        return (bits & valueMask(value)) != 0;
+    }
+
+    // Checks if the hand holds a specific card
+    public boolean holds(Card card) {
+        long mask = cardMask(card);
+        return mask != 0 && (bits & mask) != 0;
+    }
+
+    // List overrides backed by the bitboard
+
+    @Override
+    public int size() {
+        return Long.bitCount(bits);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bits == 0;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        return (obj instanceof Card) && holds((Card) obj);
+    }
+
+    // Adds a card to the hand. Returns false if already held or not representable
+    @Override
+    public boolean add(Card card) {
+        int index = bitIndex(card);
+        if (index == -1) {
+            throw new IllegalArgumentException("Card cannot be held in a hand: " + card);
+        }
+        long mask = 1L << index;
+        if ((bits & mask) != 0) {
+            return false;
+        }
+        bits |= mask;
+        cards[index] = card;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+        if (!(obj instanceof Card)) {
+            return false;
+        }
+        int index = bitIndex((Card) obj);
+        if (index == -1 || (bits & (1L << index)) == 0) {
+            return false;
+        }
+        bits &= ~(1L << index);
+        cards[index] = null;
+        modCount++;
+        return true;
+    }
+
+    // Gets the card at a position, ordered by suit then rank
+    @Override
+    public Card get(int position) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size());
+        }
+        long remaining = bits;
+        for (int i = 0; i < position; i++) {
+            remaining &= remaining - 1; // Clear lowest set bit
+        }
+        return cards[Long.numberOfTrailingZeros(remaining)];
+    }
+
+    @Override
+    public Card remove(int position) {
+        Card card = get(position);
+        remove(card);
+        return card;
+    }
+
+    // Iterates set bits directly rather than indexing from the start each time
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<Card>() {
+            private long remaining = bits;
+            private int lastIndex = -1;
+
+            @Override
+            public boolean hasNext() {
+                return remaining != 0;
+            }
+
+            @Override
+            public Card next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                lastIndex = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return cards[lastIndex];
+            }
+
+            @Override
+            public void remove() {
+                if (lastIndex == -1) {
+                    throw new IllegalStateException();
+                }
+                Hand.this.remove(cards[lastIndex]);
+                lastIndex = -1;
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        long remaining = bits;
+        while (remaining != 0) {
+            cards[Long.numberOfTrailingZeros(remaining)] = null;
+            remaining &= remaining - 1;
+        }
+        bits = 0L;
+        modCount++;
+    }
+
+}
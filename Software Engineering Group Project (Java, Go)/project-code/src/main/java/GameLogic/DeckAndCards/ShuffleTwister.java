@@ -0,0 +1,109 @@
+package GameLogic.DeckAndCards;
+
+import java.util.Arrays;
+
+/*
+ * MT19937 Mersenne Twister used by the shuffle protocol. Gives the same nextInt() sequence as the commons-math
+ * MersenneTwister seeded with an int, but its full state can be read and restored, so a saved or joining game
+ * can resume the shuffler directly rather than replaying every shuffle since the seed.
+ */
+public class ShuffleTwister {
+
+    public static final int N = 624; // Words of state
+    private static final int M = 397; // Period parameter
+    private static final int[] MAG01 = {0x0, 0x9908b0df}; // Twist matrix
+
+    private final int[] mt = new int[N]; // State words
+    private int mti; // Index of next word to temper - N means state must be twisted first
+
+    // Constructor - seeds as commons-math MersenneTwister(int) does
+    public ShuffleTwister(int seed) {
+        long longMT = seed;
+        mt[0] = (int) longMT;
+        for (mti = 1; mti < N; ++mti) {
+            longMT = (1812433253L * (longMT ^ (longMT >> 30)) + mti) & 0xffffffffL;
+            mt[mti] = (int) longMT;
+        }
+    }
+
+    // Constructor - resumes from a state given by getState()
+    public ShuffleTwister(int[] state) {
+        setState(state);
+    }
+
+    // Gets a copy of the full state: the N state words followed by the index of the next word
+    public int[] getState() {
+        int[] state = Arrays.copyOf(mt, N + 1);
+        state[N] = mti;
+        return state;
+    }
+
+    // Restores a state given by getState()
+    public void setState(int[] state) {
+        if (state == null || state.length != N + 1 || state[N] < 0 || state[N] > N) {
+            throw new IllegalArgumentException("Not a twister state");
+        }
+        System.arraycopy(state, 0, mt, 0, N);
+        mti = state[N];
+    }
+
+    // Gets the next 32 random bits
+    public int nextInt() {
+        if (mti >= N) {
+            twist();
+        }
+
+        // Tempering
+        int y = mt[mti++];
+        y ^= y >>> 11;
+        y ^= (y << 7) & 0x9d2c5680;
+        y ^= (y << 15) & 0xefc60000;
+        y ^= y >>> 18;
+        return y;
+    }
+
+    // Moves past a number of draws without tempering them. Whole blocks of N draws only twist the state
+    public void skip(long draws) {
+        if (draws < 0) {
+            throw new IllegalArgumentException("Cannot skip back");
+        }
+
+        // Draws left in current block
+        long remaining = draws;
+        if (remaining <= N - mti) {
+            mti += (int) remaining;
+            return;
+        }
+        remaining -= N - mti;
+
+        // Twist once for each further block
+        while (remaining > N) {
+            twist();
+            remaining -= N;
+        }
+        twist();
+        mti = (int) remaining;
+    }
+
+    // Generates the next N words of state
+    private void twist() {
+        int y;
+        int mtNext = mt[0];
+        for (int k = 0; k < N - M; ++k) {
+            int mtCurr = mtNext;
+            mtNext = mt[k + 1];
+            y = (mtCurr & 0x80000000) | (mtNext & 0x7fffffff);
+            mt[k] = mt[k + M] ^ (y >>> 1) ^ MAG01[y & 0x1];
+        }
+        for (int k = N - M; k < N - 1; ++k) {
+            int mtCurr = mtNext;
+            mtNext = mt[k + 1];
+            y = (mtCurr & 0x80000000) | (mtNext & 0x7fffffff);
+            mt[k] = mt[k + (M - N)] ^ (y >>> 1) ^ MAG01[y & 0x1];
+        }
+        y = (mtNext & 0x80000000) | (mt[0] & 0x7fffffff);
+        mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ MAG01[y & 0x1];
+        mti = 0;
+    }
+
+}
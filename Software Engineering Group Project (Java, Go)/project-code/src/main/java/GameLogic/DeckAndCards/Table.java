@@ -21,6 +21,11 @@ public class Table {
         return  cards;
     }
 
+    // Swaps in a list to hold the table cards, so search can reuse lists rather than clearing to a new one
+    public void setCards(ArrayList<Card> cards) {
+        this.cards = cards;
+    }
+
     public void clearTableCards() {
         this.cards = new ArrayList<>();
     }
@@ -6,6 +6,17 @@ import Network.GamePlay.NetworkGame;
 import Network.PlayerClient;
 
 public class GameFileLoader {
+	
+	private final String activeProfile; // Name of local profile, null if none chosen
+	
+	public GameFileLoader() {
+		this(null);
+	}
+	
+	public GameFileLoader(String activeProfile) {
+		this.activeProfile = activeProfile;
+	}
+	
 	// Method to setup game
 	public Game.GameState loadGameFromFile(String gameDescFilePath, NetworkGame networkNetworkGame, boolean isAiGame) {
 		//Instantiates GameState for new game
@@ -43,10 +54,10 @@ public class GameFileLoader {
 			for (PlayerClient thisPlayer : networkNetworkGame.players) {
 				if (thisPlayer.conn == null) {
 					int i = networkNetworkGame.players.indexOf(thisPlayer);
-					gameState.players[i] = new PlayerLocalJson(i, AcesSeven.activeProfile, gameState);
+					gameState.players[i] = new PlayerLocalJson(i, this.activeProfile, gameState);
 				} else {
 					int i = networkNetworkGame.players.indexOf(thisPlayer);
-					gameState.players[i] = new PlayerNetworked(i, AcesSeven.activeProfile, gameState);
+					gameState.players[i] = new PlayerNetworked(i, this.activeProfile, gameState);
 				}
 			}
 		} else if (isAiGame) {
@@ -63,8 +74,8 @@ public class GameFileLoader {
 			}
 		} else {
 			for (int i = 0; i < gameState.players.length; i++) {
-				if (i == 0 && AcesSeven.activeProfile != null) {
-					gameState.players[i] = new PlayerLocalJson(i, AcesSeven.activeProfile, gameState);
+				if (i == 0 && this.activeProfile != null) {
+					gameState.players[i] = new PlayerLocalJson(i, this.activeProfile, gameState);
 				} else {
 					String thisPlayerName = "GameLogic.Core.Player " + (i); //TODO: Get this player name - Sem 2
 					gameState.players[i] = new PlayerLocalJson(i, thisPlayerName, gameState);
@@ -81,14 +92,46 @@ public class GameFileLoader {
 		
 		
 		//Set team flag
+		setTeamFlag(gameState);
+		//Done
+		return gameState;
+	}
+	
+	// Method to setup a headless game from an already parsed spec, where every player is created by the factory
+	public Game.GameState loadAiGameFromSpec(GameParser gameSpec, AiPlayerFactory playerFactory) {
+		//Instantiates GameState for new local game
+		Game.GameState gameState = new Game.GameState();
+		gameState.networkNetworkGame = null;
+		gameState.isNetworked = false;
+		
+		//Parsed spec is read-only, so can be shared between games
+		gameState.gameSpec = gameSpec;
+		gameState.currentHandSize = gameSpec.initialHandSize;
+		
+		//Creates ai players
+		gameState.players = new Player[gameSpec.numberOfPlayers];
+		for (int i = 0; i < gameState.players.length; i++) {
+			gameState.players[i] = playerFactory.createPlayer(i, "AI Player " + i, gameState);
+		}
+		
+		//Set team flag
+		setTeamFlag(gameState);
+		return gameState;
+	}
+	
+	// Method to set the team flag from the spec's teams
+	private void setTeamFlag(Game.GameState gameState) {
 		for (int[] thisTeam : gameState.gameSpec.teams) {
 			if (thisTeam.length > 1) {
 				gameState.isTeamGame = true;
 				break;
 			}
 		}
-		//Done
-		return gameState;
+	}
+	
+	// Creates the players of a headless game
+	public interface AiPlayerFactory {
+		Player createPlayer(int number, String name, Game.GameState gameState);
 	}
 	
 }
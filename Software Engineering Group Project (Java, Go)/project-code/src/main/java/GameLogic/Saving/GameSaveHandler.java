@@ -1,6 +1,7 @@
 package GameLogic.Saving;
 
 import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
 import GameLogic.Core.Player;
 import GameLogic.DeckAndCards.Card;
 import GameLogic.DeckAndCards.DeckHandler;
@@ -21,6 +22,7 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class GameSaveHandler {
@@ -32,7 +34,18 @@ public class GameSaveHandler {
 
     ObjectMapper objectMapper = new ObjectMapper();
 
-    public void saveGame(Game.GameState gameState) {
+    private final File saveDirectory; // Where games are saved, null for the working directory
+
+    public GameSaveHandler() {
+        this(null);
+    }
+
+    public GameSaveHandler(File saveDirectory) {
+        this.saveDirectory = saveDirectory;
+    }
+
+    // Saves a game. Returns the file written, null if saving failed
+    public File saveGame(Game.GameState gameState) {
 
         Date date = new Date();
 
@@ -41,22 +54,21 @@ public class GameSaveHandler {
         GameSaves savedGame = new GameSaves("save_test", gameState.players, gameState.dealerPlayerNumber,
                 gameState.currentPlayerNumber, gameState.firstPlayerNumber, gameState.prevWinnerNumber,
                 gameState.currentTable, gameState.deckHandler.getSeed(), gameState.deckHandler.getShuffleCount(),
-                gameState.prevTrick, gameState.gameFilePath, gameState.turnNumber, gameState.trickNumber, gameState.handNumber,
+                gameState.deckHandler.getTwisterState(), gameState.prevTrick, gameState.gameFilePath, gameState.turnNumber, gameState.trickNumber, gameState.handNumber,
                 gameState.gameNumber, gameState.sessionNumber, gameState.trumpSuit, gameState.allowedSuits,
                 gameState.allowedValues, gameState.currentHandSize, gameState.isTeamGame, gameState.isAsyncGame);
 
+        File saveFile = new File(this.saveDirectory, "" + gameState.gameSpec.name + "save" + formatter.format(date) + ".json");
         try {
-            objectMapper.writeValue(new File("" + gameState.gameSpec.name + "save" +
-                    formatter.format(date) + ".json"), savedGame);
+            objectMapper.writeValue(saveFile, savedGame);
         } catch (IOException e) {
             System.out.println(SAVE_ERROR);
             e.printStackTrace();
+            return null;
         }
-
+        return saveFile;
     }
 
-    //TODO: Code must be written when this loadGame function is called that grabs the int values for the seed and
-    //TODO: shuffle count in order to feed them to a new deckHandler object and maybe remove appropriate cards?
     public Game.GameState loadGame(String saveGameName) {
         ArrayList<Card> deck;
         ArrayList<Card> prevTrick;
@@ -67,23 +79,15 @@ public class GameSaveHandler {
                     new TypeReference<Map<String, Object>>() {
                     });
 
-            if (map.get("deck") != null) {
-                deck = deckToList(map);
-            } else {
-                deck = new ArrayList<Card>();
-            }
-
             if (map.get("prevTrick") != null) {
                 prevTrick = trickToList(map);
             } else {
                 prevTrick = new ArrayList<Card>();
             }
 
-            String teamGameString = (String) map.get("isTeamGame");
-            Boolean isTeamGame = checkBool(teamGameString);
+            Boolean isTeamGame = checkBool(map.get("isTeamGame"));
 
-            String asyncGameString = (String) map.get("isAsyncGame");
-            Boolean isAsyncGame = checkBool(asyncGameString);
+            Boolean isAsyncGame = checkBool(map.get("isAsyncGame"));
 
             Player[] players = playersToArray(map);
 
@@ -95,11 +99,13 @@ public class GameSaveHandler {
 
             ArrayList<Integer> allowedValues = valuesArrayBuild(map);
 
+            int[] twisterState = twisterStateBuild(map);
+
 
             GameSaves loadedGame = new GameSaves(saveGameName, players, (int) map.get("dealerPlayerNumber"),
                     (int) map.get("currentPlayerNumber"), (int) map.get("firstPlayerNumber"),
                     (int) map.get("prevWinnerNumber"), table, (int) map.get("mersenneTwisterSeed"),
-                    (int) map.get("shuffleCount"), prevTrick, (String) map.get("gameFilePath"),
+                    (int) map.get("shuffleCount"), twisterState, prevTrick, (String) map.get("gameFilePath"),
                     (int) map.get("turnNumber"), (int) map.get("trickNumber"), (int) map.get("handNumber"),
                     (int) map.get("gameNumber"), (int) map.get("sessionNumber"), suit, allowedSuits,
                     allowedValues, (int) map.get("currentHandSize"),
@@ -116,8 +122,19 @@ public class GameSaveHandler {
 
             loadedGameState.currentTable = loadedGame.currentTable;
 
-            loadedGameState.deckHandler.setSeed(loadedGame.mersenneTwisterSeed);
-            loadedGameState.deckHandler.setShuffleCount(loadedGame.shuffleCount);
+            // Deck order comes from the game spec - saves do not hold it
+            loadedGameState.gameSpec = new GameParser(loadedGame.gameFilePath);
+            deck = loadedGameState.gameSpec.deck.cards;
+
+            // Resume the shuffler where it was saved, rather than replaying every shuffle since the seed
+            loadedGameState.deckHandler = new DeckHandler(deck, loadedGame.mersenneTwisterSeed);
+            if (loadedGame.twisterState != null) {
+                loadedGameState.deckHandler.setTwisterState(loadedGame.twisterState);
+                loadedGameState.deckHandler.setShuffleCount(loadedGame.shuffleCount);
+            } else {
+                // Older save without state - skip the draws of every past shuffle
+                loadedGameState.deckHandler.restoreShuffles(loadedGame.shuffleCount, deck.size());
+            }
 
             loadedGameState.prevTrick = loadedGame.prevTrick;
 
@@ -138,7 +155,7 @@ public class GameSaveHandler {
             loadedGameState.isTeamGame = loadedGame.isTeamGame;
             loadedGameState.isAsyncGame = loadedGame.isAsyncGame;
 
-            return null;
+            return loadedGameState;
 
         } catch (IOException e) {
             System.out.println(LOAD_ERROR);
@@ -150,13 +167,9 @@ public class GameSaveHandler {
     }
 
 
-    private Boolean checkBool(String bool){
-        if (bool.equals("True")){
-            return true;
-        }
-        else{
-            return false;
-        }
+    // Booleans are written as json booleans, older saves held them as "True"/"False" strings
+    private Boolean checkBool(Object bool){
+        return Boolean.parseBoolean(String.valueOf(bool));
     }
 
     //when loading the game, cast to Map is unchecked, so the map must be loaded as a String and recreated
@@ -173,229 +186,46 @@ public class GameSaveHandler {
         return rules;
     }
 
-    private ArrayList<Card> deckToList(Map<String, Object> map) {
-        ArrayList<Card> deck = new ArrayList<Card>();
-
-        String deckString = map.get("deck").toString();
-//        System.out.println(deckString);
-        String cleanDeck = deckString.replace("[", "").replace("]", " ")
-                .replace(" ", "").replace("{", "")
-                .replaceAll("},", "}/");
-//        System.out.println(cleanDeck);
-        String[] cardString = cleanDeck.split("}");
-//        System.out.println(cardString[0]);
-        try {
-            for (int i = 0; i < cardString.length; i++) {
-                int value = 0;
-                int pointValue = 0;
-                String suit = "";
-                Suit suitEnum = Suit.HEARTS;
-                String[] cardAttributes = cardString[i].split(",");
-                for (int j = 0; j < cardAttributes.length; j++) {
-                    String[] attribtuesToCard = cardAttributes[j].split("=");
-                    if (j == 0) {
-                        value = Integer.parseInt(attribtuesToCard[1]);
-                    } else if (j == 2) {
-                        pointValue = Integer.parseInt(attribtuesToCard[1]);
-                    } else if (j == 3) {
-                        suit = attribtuesToCard[1];
-                    }
-                }
-                switch (suit) {
-                    case "HEARTS":
-                        suitEnum = Suit.HEARTS;
-                        break;
-                    case "CLUBS":
-                        suitEnum = Suit.CLUBS;
-                        break;
-                    case "DIAMONDS":
-                        suitEnum = Suit.DIAMONDS;
-                        break;
-                    case "SPADES":
-                        suitEnum = Suit.SPADES;
-                        break;
-                }
-                Card card = new Card(value, suitEnum, pointValue);
-                deck.add(card);
-            }
-        } catch (java.lang.ArrayIndexOutOfBoundsException e) {
-            return deck;
+    // Jackson reads cards back as maps of their fields
+    private ArrayList<Card> cardsToList(Object cardsObject) {
+        ArrayList<Card> cards = new ArrayList<Card>();
+        if (!(cardsObject instanceof List)) {
+            return cards;
         }
-        return deck;
-    }
-
-    //TODO: Have to evauluate how Tricks are serialised in order to desereailise them
-    private ArrayList<Card> trickToList(Map<String, Object> map) {
-        ArrayList<Card> deck = new ArrayList<Card>();
-
-        String deckString = map.get("deck").toString();
-//        System.out.println(deckString);
-        String cleanDeck = deckString.replace("[", "").replace("]", " ")
-                .replace(" ", "").replace("{", "")
-                .replaceAll("},", "}/");
-//        System.out.println(cleanDeck);
-        String[] cardString = cleanDeck.split("}");
-//        System.out.println(cardString[0]);
-        try {
-            for (int i = 0; i < cardString.length; i++) {
-                int value = 0;
-                int pointValue = 0;
-                String suit = "";
-                Suit suitEnum = Suit.HEARTS;
-                String[] cardAttributes = cardString[i].split(",");
-                for (int j = 0; j < cardAttributes.length; j++) {
-                    String[] attribtuesToCard = cardAttributes[j].split("=");
-                    if (j == 0) {
-                        value = Integer.parseInt(attribtuesToCard[1]);
-                    } else if (j == 2) {
-                        pointValue = Integer.parseInt(attribtuesToCard[1]);
-                    } else if (j == 3) {
-                        suit = attribtuesToCard[1];
-                    }
-                }
-                switch (suit) {
-                    case "HEARTS":
-                        suitEnum = Suit.HEARTS;
-                        break;
-                    case "CLUBS":
-                        suitEnum = Suit.CLUBS;
-                        break;
-                    case "DIAMONDS":
-                        suitEnum = Suit.DIAMONDS;
-                        break;
-                    case "SPADES":
-                        suitEnum = Suit.SPADES;
-                        break;
-                }
-                Card card = new Card(value, suitEnum, pointValue);
-                deck.add(card);
-            }
-        } catch (java.lang.ArrayIndexOutOfBoundsException e) {
-            return deck;
+        for (Object cardObject : (List<?>) cardsObject) {
+            Map<?, ?> cardMap = (Map<?, ?>) cardObject;
+            int value = ((Number) cardMap.get("value")).intValue();
+            int pointValue = ((Number) cardMap.get("pointValue")).intValue();
+            Suit suit = suitParser(String.valueOf(cardMap.get("suit")));
+            cards.add(new Card(value, suit, pointValue));
         }
-        return deck;
+        return cards;
     }
 
-    private ArrayList<Card> deckToList(String deckString) {
-        ArrayList<Card> deck = new ArrayList<Card>();
-
-//        System.out.println(deckString);
-        String cleanDeck = deckString.replace("[", "").replace("]", " ")
-                .replace(" ", "").replace("{", "")
-                .replaceAll("},", "}/");
-//        System.out.println(cleanDeck);
-        String[] cardString = cleanDeck.split("}");
-//        System.out.println(cardString[0]);
-        for (int i = 0; i < cardString.length; i++) {
-            int value = 0;
-            int pointValue = 0;
-            String suit = "";
-            Suit suitEnum = Suit.HEARTS;
-            String[] cardAttributes = cardString[i].split(",");
-            for (int j = 0; j < cardAttributes.length; j++) {
-                String[] attribtuesToCard = cardAttributes[j].split("=");
-                if (j == 0) {
-                    value = Integer.parseInt(attribtuesToCard[1]);
-                } else if (j == 2) {
-                    pointValue = Integer.parseInt(attribtuesToCard[1]);
-                } else if (j == 3) {
-                    suit = attribtuesToCard[1];
-                }
-            }
-            switch (suit) {
-                case "HEARTS":
-                    suitEnum = Suit.HEARTS;
-                    break;
-                case "CLUBS":
-                    suitEnum = Suit.CLUBS;
-                    break;
-                case "DIAMONDS":
-                    suitEnum = Suit.DIAMONDS;
-                    break;
-                case "SPADES":
-                    suitEnum = Suit.SPADES;
-                    break;
-            }
-            Card card = new Card(value, suitEnum, pointValue);
-            deck.add(card);
-//            System.out.println(card.getValue()+ "" + card.getSuit() + "" + card.getPointValue());
-        }
-        return deck;
+    private ArrayList<Card> trickToList(Map<String, Object> map) {
+        return cardsToList(map.get("prevTrick"));
     }
 
     private Player[] playersToArray(Map<String, Object> map) {
-        String playerString = map.get("players").toString();
-        //inserting a unique regex to split up players
-        String cleanPlayers = playerString.replaceAll("}, \\{number", "},% {number");
-        String playerSplit[] = cleanPlayers.split("%");
-//        System.out.println(playerSplit[2]);
-
-        Player players[] = new Player[playerSplit.length];
-
-//        System.out.println(playerString);
-
-        for (int i = 0; i < playerSplit.length; i++) {
-            String frontNumberBreak[] = playerSplit[i].split("number=");
-            String backNumberBreak[] = frontNumberBreak[1].split(",");
-            int number = Integer.parseInt(backNumberBreak[0]);
-//            System.out.println(number);
-
-            String frontPointBreak[] = playerSplit[i].split("points=");
-            String backPointBreak[] = frontPointBreak[1].split(",");
-            int points = Integer.parseInt(backPointBreak[0]);
-//            System.out.println(points);
-
-            String frontCardsPlayedBreak[] = playerSplit[i].split("cardsPlayedThisTurn=");
-            String backCardsPlayedBreak[] = frontCardsPlayedBreak[1].split(",");
-            int cardsPlayedThisTurn = Integer.parseInt(backCardsPlayedBreak[0]);
-//            System.out.println(cardsPlayedThisTurn);
-
-            String frontNameBreak[] = playerSplit[i].split("name=");
-            String backNameBreak[] = frontNameBreak[1].split(",");
-            String name = backNameBreak[0];
-//            System.out.println(name);
-
-            String frontStackBreak[] = playerSplit[i].split("stack=");
-            String backStackBreak[] = frontStackBreak[1].split(",");
-            int stack = Integer.parseInt(backStackBreak[0]);
-//            System.out.println(stack);
-
-            String frontNetworkBreak[] = playerSplit[i].split("networkPlayer=");
-            String backNetworkBreak[] = frontNetworkBreak[1].split("}");
-            Boolean networkPlayer = Boolean.getBoolean(backNetworkBreak[0]);
-//            System.out.println(networkPlayer);
-
-            String frontHandBreak[] = playerSplit[i].split("\\[");
-            String backHandBreak[] = frontHandBreak[frontHandBreak.length - 1].split("]");
-            String hand = backHandBreak[0];
-            ArrayList<Card> newHand = deckToList(hand);
+        List<?> playerList = (List<?>) map.get("players");
+        Player players[] = new Player[playerList.size()];
+
+        for (int i = 0; i < players.length; i++) {
+            Map<?, ?> playerMap = (Map<?, ?>) playerList.get(i);
+            int number = ((Number) playerMap.get("number")).intValue();
+            String name = (String) playerMap.get("name");
 
             Player player = new Player(number, name, null);//TODO add the ability to save this info
-            player.setHand(newHand);
+            player.setHand(cardsToList(playerMap.get("hand")));
             players[i] = player;
         }
         return players;
     }
 
     public Table tableBuilder(Map<String, Object> map) {
-        String tableString = map.get("currentTable").toString();
-//        System.out.println(tableString);
-
-        String frontPotBreak[] = tableString.split("pot=");
-        String backPotBreak[] = frontPotBreak[1].split(",");
-        int pot = Integer.parseInt(backPotBreak[0]);
-
-        String frontCardsBreak[] = tableString.split("cards=\\[");
-        String backCardsBreak[] = frontCardsBreak[1].split("]");
-        try {
-            ArrayList<Card> cards = deckToList(backCardsBreak[0]);
-            Table table = new Table(cards);
-            return table;
-        } catch (java.lang.ArrayIndexOutOfBoundsException e) {
-            ArrayList<Card> cards = new ArrayList<>();
-            Table table = new Table(cards);
-        }
-        return null;
+        Map<?, ?> tableMap = (Map<?, ?>) map.get("currentTable");
+        ArrayList<Card> cards = cardsToList(tableMap == null ? null : tableMap.get("cards"));
+        return new Table(cards);
     }
 
     public Suit suitParser(Map<String, Object> map) {
@@ -459,6 +289,20 @@ public class GameSaveHandler {
         }
     }
 
+    // Twister state is saved as a plain int array. Null if the save has none
+    public int[] twisterStateBuild(Map<String, Object> map) {
+        Object stateObject = map.get("twisterState");
+        if (!(stateObject instanceof List)) {
+            return null;
+        }
+        List<?> stateList = (List<?>) stateObject;
+        int[] twisterState = new int[stateList.size()];
+        for (int i = 0; i < twisterState.length; i++) {
+            twisterState[i] = ((Number) stateList.get(i)).intValue();
+        }
+        return twisterState;
+    }
+
     public ArrayList<Integer> valuesArrayBuild(Map<String, Object> map) {
         ArrayList<Integer> allowedValues = new ArrayList<>();
         try {
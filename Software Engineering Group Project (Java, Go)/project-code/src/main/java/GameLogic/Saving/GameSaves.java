@@ -19,6 +19,7 @@ public class GameSaves {
 
     public int mersenneTwisterSeed;
     public int shuffleCount;
+    public int[] twisterState; // Full shuffler state, so loading needs no replay of past shuffles
 
 
     public ArrayList<Card> prevTrick; // Previous trick
@@ -44,7 +45,7 @@ public class GameSaves {
     //constructor
     public GameSaves(String saveName, Player[] players, int dealerPlayerNumber, int currentPlayerNumber, int firstPlayerNumber,
                      int prevWinnerNumber, Table currentTable, int mersenneTwisterSeed, int shuffleCount,
-                     ArrayList<Card> prevTrick, String gameFilePath, int turnNumber, int trickNumber,
+                     int[] twisterState, ArrayList<Card> prevTrick, String gameFilePath, int turnNumber, int trickNumber,
                      int handNumber, int gameNumber, int sessionNumber, Suit trumpSuit, ArrayList<Suit> allowedSuits,
                      ArrayList<Integer> allowedValues, int currentHandSize, boolean isTeamGame, boolean isAsyncGame) {
 
@@ -58,6 +59,7 @@ public class GameSaves {
         this.currentTable = currentTable;
         this.mersenneTwisterSeed = mersenneTwisterSeed;
         this.shuffleCount = shuffleCount;
+        this.twisterState = twisterState;
         this.prevTrick = prevTrick;
         this.gameFilePath = gameFilePath;
         this.turnNumber = turnNumber;
@@ -111,6 +113,10 @@ public class GameSaves {
         return shuffleCount;
     }
 
+    public int[] getTwisterState() {
+        return twisterState;
+    }
+
 
     public ArrayList<Card> getPrevTrick() {
         return prevTrick;
@@ -1,6 +1,5 @@
 package GameLogic.Saving;
 
-import GameLogic.AcesSeven;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.json.JSONObject;
@@ -78,7 +77,7 @@ public class ProfileHandler {
         file.delete();
     }
 
-    public String displayProfileMenu(String[] profileFileNames) throws IOException {
+    public String displayProfileMenu(String[] profileFileNames, String activeProfile) throws IOException {
         String newProfile = null;
 
         System.out.println("\n[" + 0 + "] " + "See Records" + "\n" + "Select this option to check your records");
@@ -126,7 +125,7 @@ public class ProfileHandler {
                 addPlayer(name);
                 break;
             case 3:
-                deleteProfile(profileFileNames);
+                deleteProfile(profileFileNames, activeProfile);
                 break;
         }
         return newProfile;
@@ -233,7 +232,7 @@ public class ProfileHandler {
         }
     }
 
-    private static void deleteProfile(String[] profileFileNames) throws IOException {
+    private static void deleteProfile(String[] profileFileNames, String activeProfile) throws IOException {
         System.out.println("Made It");
         for (int i = 0; i < profileFileNames.length; i++) {
             // Provided path to JSONObject
@@ -279,7 +278,7 @@ public class ProfileHandler {
             }
             // TODO prevent active profile from being deleted
             String deletePath = "saves/profile_saves/" + profileFileNames[profInputValue];
-            if (!(profileFileNames[profInputValue].equals("save_profiles_" + AcesSeven.activeProfile))) {
+            if (!(profileFileNames[profInputValue].equals("save_profiles_" + activeProfile))) {
                 removePlayer(deletePath);
             } else {
                 System.out.println("You can't delete yourself! Swtich the active profile first");
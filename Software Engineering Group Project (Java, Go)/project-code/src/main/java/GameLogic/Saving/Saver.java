@@ -1,11 +1,9 @@
 package GameLogic.Saving;
 
-import GameLogic.AcesSeven;
-
 import java.io.IOException;
 
 public class Saver {
-    private static String loadMenu() throws IOException {
+    private static String loadMenu(String[] saveGameFileNames) throws IOException {
         int profInputValue = -1;
         while (profInputValue == -1) {
             //Choose game message
@@ -22,19 +20,19 @@ public class Saver {
             }
 
             //Check number matches to a game
-            if (!(profInputValue >= 0 && profInputValue < AcesSeven.saveGameFileNames.length)) {
+            if (!(profInputValue >= 0 && profInputValue < saveGameFileNames.length)) {
                 profInputValue = -1; //Fetch again
             }
 
         }
-        return AcesSeven.saveGameFileNames[profInputValue];
+        return saveGameFileNames[profInputValue];
 
     }
 
-    private static void listSavedGames() throws IOException {
-        for (int i = 0; i < AcesSeven.saveGameFileNames.length; i++) {
+    private static void listSavedGames(String[] saveGameFileNames) throws IOException {
+        for (int i = 0; i < saveGameFileNames.length; i++) {
             //Print number, name and description
-            System.out.println("\n[" + i + "] " + AcesSeven.saveGameFileNames[i]);
+            System.out.println("\n[" + i + "] " + saveGameFileNames[i]);
             System.out.println();
         }
     }
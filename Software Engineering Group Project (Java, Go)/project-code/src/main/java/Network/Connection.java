@@ -0,0 +1,381 @@
+package Network;
+
+import Network.Events.BinaryEventCodec;
+import Network.Events.NetworkEvent;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * A connection to a peer served by an EventLoop. Messages may be sent from any thread: each is encoded straight into
+ * a buffer from the loop's pool, written at once when the socket has room, and what does not fit is queued and
+ * written by the loop as room frees up, in order. Messages received are passed to the connection's handler on the
+ * loop thread.
+ * Connections start in the legacy format of json messages sent back to back. A peer may offer length prefixed
+ * frames by adding "framing":"length" to the first message it sends; the other side answers with a message of just
+ * that field, and both then switch, the offering side once it reads the answer. A peer that does not know the field
+ * ignores it and never answers, so both keep the legacy format. The offering side switches on the answer whenever it
+ * comes, as the other side may have sent messages before reading the offer.
+ * The offer may also add "codec":"binary", for moves and bids to be sent in the few bytes of a BinaryEventCodec
+ * message rather than as json. The answer then carries the same field if accepted, and each side sends events that
+ * way once it has switched to frames. Each side counts the binary events it sends, so one lost or out of order is
+ * caught and the connection dropped.
+ */
+public class Connection implements Closeable {
+
+	public static final String FRAMING_FIELD = "framing";
+	public static final String LENGTH_FRAMING = "length";
+	public static final String CODEC_FIELD = "codec";
+	public static final String BINARY_CODEC = "binary";
+
+	private final EventLoop loop;
+	private final SocketChannel channel;
+	private final Gson gson = new Gson();
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder(); // Guarded by this
+	private final Queue<ByteBuffer> pending = new ArrayDeque<>(); // Messages not yet fully written. Guarded by this
+	private Framer framer = new JsonFramer(); // Only used by the loop thread
+	private boolean lengthFramed; // True once sending length prefixed frames. Guarded by this
+	private boolean binaryEvents; // True once sending events in the binary codec. Guarded by this
+	private int sentEvents; // Binary events sent. Guarded by this
+	private boolean offerChecked; // True once the first message is read. Only used by the loop thread
+	private boolean readBinaryEvents; // True once binary events may arrive. Only used by the loop thread
+	private int receivedEvents; // Binary events received. Only used by the loop thread
+	private EventLoop.Handler handler;
+	private SelectionKey key; // Set once registered. Only used by the loop thread
+	private boolean closing; // True once asked to close after the queued messages are written. Guarded by this
+	private volatile boolean closed;
+
+	Connection(EventLoop loop, SocketChannel channel, EventLoop.Handler handler) {
+		this.loop = loop;
+		this.channel = channel;
+		this.handler = handler;
+	}
+
+	// Getters
+	public boolean isClosed() {
+		return this.closed;
+	}
+
+	public synchronized boolean isLengthFramed() {
+		return this.lengthFramed;
+	}
+
+	public synchronized boolean isBinaryEvents() {
+		return this.binaryEvents;
+	}
+
+	public SocketAddress getRemoteAddress() {
+		try {
+			return this.channel.getRemoteAddress();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	// Setters - only before the connection is registered
+	void setHandler(EventLoop.Handler handler) {
+		this.handler = handler;
+	}
+
+	void setKey(SelectionKey key) {
+		this.key = key;
+	}
+
+	/**
+	 * Adds the offer of length prefixed frames to the first message sent on a connection.
+	 * @param message
+	 * @return The message
+	 */
+	public static JsonObject offerLengthFraming(JsonObject message) {
+		message.addProperty(FRAMING_FIELD, LENGTH_FRAMING);
+		return message;
+	}
+
+	/**
+	 * Adds the offer of length prefixed frames with events in the binary codec to the first message sent on a
+	 * connection. Both sides must play the same game spec, as cards are sent by their deck ordinal.
+	 * @param message Message with fields of its own, so not taken for an answer
+	 * @return The message
+	 */
+	public static JsonObject offerBinaryEvents(JsonObject message) {
+		message.addProperty(CODEC_FIELD, BINARY_CODEC);
+		return offerLengthFraming(message);
+	}
+
+	/**
+	 * Sends a message, writing what it can now and leaving the rest to the loop. Messages sent after the
+	 * connection closes, or is asked to, are dropped.
+	 * @param message
+	 */
+	public void send(CharSequence message) {
+		boolean queued;
+		synchronized (this) {
+			if (this.closed || this.closing) {
+				return;
+			}
+			queued = write(encode(message));
+		}
+		if (queued) {
+			this.loop.execute(this::awaitWritable);
+		}
+	}
+
+	/**
+	 * Sends an event in the binary codec if both sides agreed to it and the codec can describe the event.
+	 * @param event
+	 * @return False if the event must be sent as json instead
+	 */
+	public boolean sendBinary(NetworkEvent event) {
+		boolean queued;
+		synchronized (this) {
+			if (this.closed || this.closing) {
+				//Dropped either way
+				return true;
+			}
+			if (!this.binaryEvents || !BinaryEventCodec.canEncode(event)) {
+				return false;
+			}
+			ByteBuffer buffer = this.loop.takeBuffer(LengthFramer.HEADER_BYTES + BinaryEventCodec.MAX_BYTES);
+			buffer.position(LengthFramer.HEADER_BYTES);
+			BinaryEventCodec.encode(event, this.sentEvents++, buffer);
+			buffer.putInt(0, buffer.position() - LengthFramer.HEADER_BYTES);
+			buffer.flip();
+			queued = write(buffer);
+		}
+		if (queued) {
+			this.loop.execute(this::awaitWritable);
+		}
+		return true;
+	}
+
+	// Method to write what fits of a message now, queueing the rest. True if any was queued. Guarded by this
+	private boolean write(ByteBuffer buffer) {
+		if (!this.pending.isEmpty()) {
+			//Earlier messages are still waiting, so this one must wait behind them
+			this.pending.add(buffer);
+			return false;
+		}
+		try {
+			this.channel.write(buffer);
+		} catch (IOException e) {
+			//Peer gone - closed by the loop, so the handler is told on its thread
+			this.loop.execute(this::closeDead);
+			return false;
+		}
+		if (!buffer.hasRemaining()) {
+			this.loop.releaseBuffer(buffer);
+			return false;
+		}
+		this.pending.add(buffer);
+		return true;
+	}
+
+	// Method to encode a message into a buffer ready to write, behind its length if sending frames. Guarded by this
+	private ByteBuffer encode(CharSequence message) {
+		int header = this.lengthFramed ? LengthFramer.HEADER_BYTES : 0;
+		ByteBuffer buffer = this.loop.takeBuffer(header + message.length() * (int) this.encoder.maxBytesPerChar());
+		buffer.position(header);
+
+		//Worst case size was taken, so all of it fits
+		this.encoder.reset();
+		CoderResult result = this.encoder.encode(CharBuffer.wrap(message), buffer, true);
+		if (result.isError()) {
+			//Lone surrogate - not valid text, so sent replaced as a whole
+			buffer.position(header);
+			buffer.put(message.toString().getBytes(StandardCharsets.UTF_8));
+		} else {
+			this.encoder.flush(buffer);
+		}
+
+		if (this.lengthFramed) {
+			buffer.putInt(0, buffer.position() - header);
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	// Asks the loop to say when the socket has room. Loop thread only
+	private void awaitWritable() {
+		if (this.key != null && this.key.isValid()) {
+			this.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+		}
+	}
+
+	// Writes queued messages while the socket has room. Loop thread only
+	void flush() {
+		boolean failed = false;
+		synchronized (this) {
+			while (!this.pending.isEmpty()) {
+				ByteBuffer buffer = this.pending.peek();
+				try {
+					this.channel.write(buffer);
+				} catch (IOException e) {
+					failed = true;
+					break;
+				}
+				if (buffer.hasRemaining()) {
+					return;
+				}
+				this.loop.releaseBuffer(this.pending.remove());
+			}
+		}
+		if (failed) {
+			//Told outside the lock, as the handler may send on other connections
+			closeDead();
+			return;
+		}
+		if (isClosing()) {
+			//Last queued message written
+			close();
+			return;
+		}
+		this.key.interestOps(SelectionKey.OP_READ);
+	}
+
+	// Checks if the connection is to close once its queued messages are written
+	private synchronized boolean isClosing() {
+		return this.closing;
+	}
+
+	/**
+	 * Reads what has arrived into the loop's buffer and passes every whole message to the handler.
+	 * Loop thread only.
+	 * @param readBuffer Buffer reused for every read
+	 * @return False if the peer closed the connection or sent something that is not json or a binary event in order
+	 */
+	boolean read(ByteBuffer readBuffer) {
+		readBuffer.clear();
+		try {
+			if (this.channel.read(readBuffer) < 0) {
+				return false;
+			}
+		} catch (IOException e) {
+			return false;
+		}
+		readBuffer.flip();
+
+		try {
+			ByteBuffer message;
+			while (!this.closed && (message = this.framer.next(readBuffer)) != null) {
+				if (this.readBinaryEvents && BinaryEventCodec.isBinary(message)) {
+					this.handler.received(this, BinaryEventCodec.decode(message, this.receivedEvents++));
+					continue;
+				}
+				String text = new String(message.array(), message.position(), message.remaining(), StandardCharsets.UTF_8);
+				JsonObject obj = this.gson.fromJson(text, JsonObject.class);
+				if (obj != null && !negotiate(obj)) {
+					this.handler.received(this, obj);
+				}
+			}
+		} catch (IOException | JsonParseException | ClassCastException e) {
+			//Not split into messages, malformed or not an object
+			return false;
+		}
+		return true;
+	}
+
+	// Checks legacy messages for an answer to this side's offer of length prefixed frames, and the first for an offer
+	// from the peer, switching to them if so. Reading switches at once, as the next byte read is the first sent after
+	// the switch. True if the message is the answer
+	private boolean negotiate(JsonObject message) {
+		if (this.framer instanceof LengthFramer || !isField(message, FRAMING_FIELD, LENGTH_FRAMING)) {
+			this.offerChecked = true;
+			return false;
+		}
+		boolean binary = isField(message, CODEC_FIELD, BINARY_CODEC);
+
+		if (message.size() == (binary ? 2 : 1)) {
+			//Answer to this side's offer
+			this.framer = new LengthFramer();
+			this.readBinaryEvents = binary;
+			synchronized (this) {
+				this.lengthFramed = true;
+				this.binaryEvents = binary;
+			}
+			return true;
+		}
+		if (this.offerChecked) {
+			return false;
+		}
+		this.offerChecked = true;
+
+		//Offer from the peer - answer in the legacy format, then send frames
+		this.framer = new LengthFramer();
+		this.readBinaryEvents = binary;
+		JsonObject answer = new JsonObject();
+		answer.addProperty(FRAMING_FIELD, LENGTH_FRAMING);
+		if (binary) {
+			answer.addProperty(CODEC_FIELD, BINARY_CODEC);
+		}
+		synchronized (this) {
+			send(answer.toString());
+			this.lengthFramed = true;
+			this.binaryEvents = binary;
+		}
+		return false;
+	}
+
+	// Checks if a message has a field set to the given string
+	private static boolean isField(JsonObject message, String field, String value) {
+		JsonElement element = message.get(field);
+		return element != null && element.isJsonPrimitive() && value.equals(element.getAsString());
+	}
+
+	// Closes the connection after the loop found it dead, telling the handler. Loop thread only
+	void closeDead() {
+		if (!this.closed) {
+			close();
+			this.handler.closed(this);
+		}
+	}
+
+	/**
+	 * Closes the connection once the messages already sent are written, leaving the loop to close it if any are
+	 * still queued. Messages sent after are dropped.
+	 */
+	public void closeWhenSent() {
+		synchronized (this) {
+			if (this.closed || this.closing) {
+				return;
+			}
+			this.closing = true;
+			if (!this.pending.isEmpty()) {
+				return;
+			}
+		}
+		close();
+	}
+
+	/**
+	 * Closes the connection, dropping any messages not yet written.
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			this.pending.clear();
+		}
+		try {
+			this.channel.close();
+		} catch (IOException e) {
+			//Already closed
+		}
+	}
+}
@@ -0,0 +1,335 @@
+package Network;
+
+import Network.Events.NetworkEvent;
+import com.google.gson.JsonObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Does all socket reads and writes for any number of connections on one thread, waiting on a single selector.
+ * Reads go into one buffer reused for every connection and are split into whole messages, which are passed
+ * to each connection's handler on the loop thread, so the threads used stay the same however many peers and tables
+ * there are. A connection whose peer hangs up or fails is closed and dropped from the selector at once.
+ * Handlers run on the loop thread, so must hand any slow work to another thread rather than block.
+ */
+public class EventLoop implements Runnable, Closeable {
+
+	private static final int READ_BUFFER_SIZE = 16 * 1024;
+	static final int POOLED_BUFFER_SIZE = 4096; // Size of the write buffers kept for reuse - fits most events
+	private static final int MAX_POOLED_BUFFERS = 256;
+	private static EventLoop shared; // Loop for the process, started when first asked for
+
+	private final Selector selector;
+	private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE); // Only used by the loop thread
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>(); // Work for the loop thread
+	private final Queue<ByteBuffer> bufferPool = new ConcurrentLinkedQueue<>(); // Write buffers free for reuse
+	private final AtomicInteger pooledBuffers = new AtomicInteger();
+	private volatile Thread loopThread;
+	private volatile boolean closed;
+
+	/**
+	 * Receives the messages of a connection, on the loop thread.
+	 */
+	public interface Handler {
+		void received(Connection connection, JsonObject message);
+
+		// Called for each move or bid sent in the binary codec, if the connection agreed to it
+		void received(Connection connection, NetworkEvent event);
+
+		// Called once if the peer hangs up, the connection fails, or the peer sends something that is not json
+		void closed(Connection connection);
+	}
+
+	/**
+	 * Gives each connection accepted by a server socket its handler, on the loop thread.
+	 */
+	public interface Acceptor {
+		Handler accepted(Connection connection);
+	}
+
+	public EventLoop() throws IOException {
+		this.selector = Selector.open();
+	}
+
+	/**
+	 * Gets the loop shared by every connection of the process, starting it on a daemon thread if not running.
+	 * @return
+	 * @throws IOException
+	 */
+	public static synchronized EventLoop shared() throws IOException {
+		if (shared == null || shared.closed) {
+			shared = new EventLoop();
+			Thread thread = new Thread(shared, "Network event loop");
+			thread.setDaemon(true);
+			thread.start();
+		}
+		return shared;
+	}
+
+	/**
+	 * Serves a connected socket on this loop.
+	 * @param channel Connected socket - made non blocking
+	 * @param handler
+	 * @return The connection, which may be sent to at once
+	 * @throws IOException
+	 */
+	public Connection register(SocketChannel channel, Handler handler) throws IOException {
+		channel.configureBlocking(false);
+		Connection connection = new Connection(this, channel, handler);
+		execute(() -> attach(channel, connection));
+		return connection;
+	}
+
+	/**
+	 * Connects to a peer without blocking, so any number of connects can be in progress at once. A connect given up
+	 * by cancelling the future, for example after waiting too long, closes its socket.
+	 * @param address
+	 * @param handler
+	 * @return Completed with the connection once connected, ready to be sent to - or with the failure
+	 * @throws IOException If a socket cannot be opened
+	 */
+	public CompletableFuture<Connection> connect(SocketAddress address, Handler handler) throws IOException {
+		SocketChannel channel = SocketChannel.open();
+		channel.configureBlocking(false);
+		Connection connection = new Connection(this, channel, handler);
+		CompletableFuture<Connection> connected = new CompletableFuture<>();
+		connected.whenComplete((result, failure) -> {
+			if (failure != null) {
+				connection.close();
+			}
+		});
+
+		execute(() -> {
+			try {
+				if (channel.connect(address)) {
+					attach(channel, connection);
+					connected.complete(connection);
+				} else {
+					channel.register(this.selector, SelectionKey.OP_CONNECT, new PendingConnect(connection, connected));
+				}
+			} catch (IOException e) {
+				connected.completeExceptionally(e);
+			}
+		});
+		return connected;
+	}
+
+	/**
+	 * Accepts connections from a server socket on this loop until it is closed.
+	 * @param serverChannel Bound server socket - made non blocking
+	 * @param acceptor
+	 * @throws IOException
+	 */
+	public void listen(ServerSocketChannel serverChannel, Acceptor acceptor) throws IOException {
+		serverChannel.configureBlocking(false);
+		execute(() -> {
+			try {
+				serverChannel.register(this.selector, SelectionKey.OP_ACCEPT, acceptor);
+			} catch (ClosedChannelException e) {
+				//Closed before the loop got to it
+			}
+		});
+	}
+
+	// Method to get a cleared buffer to encode a message of at most size bytes into, from the pool if it fits
+	ByteBuffer takeBuffer(int size) {
+		if (size > POOLED_BUFFER_SIZE) {
+			return ByteBuffer.allocate(size);
+		}
+		ByteBuffer buffer = this.bufferPool.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocateDirect(POOLED_BUFFER_SIZE);
+		}
+		this.pooledBuffers.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	// Method to give a buffer back once written, keeping it if it came from the pool and the pool has room
+	void releaseBuffer(ByteBuffer buffer) {
+		if (!buffer.isDirect() || buffer.capacity() != POOLED_BUFFER_SIZE) {
+			return;
+		}
+		if (this.pooledBuffers.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+			this.bufferPool.add(buffer);
+		} else {
+			this.pooledBuffers.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Runs a task on the loop thread - at once if called from it.
+	 * @param task
+	 */
+	public void execute(Runnable task) {
+		if (Thread.currentThread() == this.loopThread) {
+			task.run();
+		} else {
+			this.tasks.add(task);
+			this.selector.wakeup();
+		}
+	}
+
+	/**
+	 * Serves connections until the loop is closed, then closes them all.
+	 */
+	@Override
+	public void run() {
+		this.loopThread = Thread.currentThread();
+		while (!this.closed) {
+			try {
+				this.selector.select();
+			} catch (IOException e) {
+				break;
+			}
+
+			Runnable task;
+			while ((task = this.tasks.poll()) != null) {
+				task.run();
+			}
+
+			Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+			while (keys.hasNext()) {
+				SelectionKey key = keys.next();
+				keys.remove();
+				try {
+					handle(key);
+				} catch (RuntimeException e) {
+					//A handler failed, so its connection is dropped rather than the loop
+					if (key.attachment() instanceof Connection) {
+						((Connection) key.attachment()).close();
+					}
+				}
+			}
+		}
+		closeChannels();
+	}
+
+	// Accepts, connects, writes or reads whatever a key is ready for
+	private void handle(SelectionKey key) {
+		if (key.attachment() instanceof Acceptor) {
+			accept(key);
+			return;
+		}
+		if (key.attachment() instanceof PendingConnect) {
+			((PendingConnect) key.attachment()).finish(key);
+			return;
+		}
+
+		Connection connection = (Connection) key.attachment();
+		try {
+			if (key.isValid() && key.isWritable()) {
+				connection.flush();
+			}
+			if (key.isValid() && key.isReadable() && !connection.read(this.readBuffer)) {
+				connection.closeDead();
+			}
+		} catch (CancelledKeyException e) {
+			//Closed by another thread while being served
+			connection.closeDead();
+		}
+	}
+
+	// Accepts a waiting connection and starts reading from it
+	private void accept(SelectionKey key) {
+		SocketChannel channel;
+		try {
+			channel = ((ServerSocketChannel) key.channel()).accept();
+			if (channel == null) {
+				return;
+			}
+			channel.configureBlocking(false);
+		} catch (IOException e) {
+			//Connection failed before being accepted, or server closed
+			return;
+		}
+
+		Connection connection = new Connection(this, channel, null);
+		connection.setHandler(((Acceptor) key.attachment()).accepted(connection));
+		attach(channel, connection);
+	}
+
+	// A connect in progress, and the future to complete once it is done
+	private class PendingConnect {
+		private final Connection connection;
+		private final CompletableFuture<Connection> connected;
+
+		PendingConnect(Connection connection, CompletableFuture<Connection> connected) {
+			this.connection = connection;
+			this.connected = connected;
+		}
+
+		// Finishes the connect and starts reading, unless it failed or was given up. Loop thread only
+		void finish(SelectionKey key) {
+			SocketChannel channel = (SocketChannel) key.channel();
+			try {
+				if (!channel.finishConnect()) {
+					return;
+				}
+			} catch (IOException e) {
+				this.connected.completeExceptionally(e);
+				return;
+			}
+			attach(channel, this.connection);
+			if (!this.connected.complete(this.connection)) {
+				//Given up on before it connected
+				this.connection.close();
+			}
+		}
+	}
+
+	// Adds a connection to the selector for reading. Loop thread only
+	private void attach(SocketChannel channel, Connection connection) {
+		try {
+			connection.setKey(channel.register(this.selector, SelectionKey.OP_READ, connection));
+		} catch (ClosedChannelException e) {
+			//Closed before the loop got to it
+			connection.close();
+		}
+	}
+
+	// Closes every channel left on the selector, then the selector
+	private void closeChannels() {
+		for (SelectionKey key : this.selector.keys()) {
+			if (key.attachment() instanceof PendingConnect) {
+				((PendingConnect) key.attachment()).connected.completeExceptionally(new ClosedChannelException());
+			} else if (key.attachment() instanceof Connection) {
+				((Connection) key.attachment()).close();
+			} else {
+				try {
+					key.channel().close();
+				} catch (IOException e) {
+					//Already closed
+				}
+			}
+		}
+		try {
+			this.selector.close();
+		} catch (IOException e) {
+			//Already closed
+		}
+	}
+
+	/**
+	 * Stops the loop, closing every connection and server socket on it.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		this.selector.wakeup();
+	}
+}
@@ -1,10 +1,21 @@
 package Network.Events;
 
 
-public class BidEvent {
+public class BidEvent implements NetworkEvent {
     public String type;
     public boolean doubling; // True means double
     public String suit;
     public int value; // Negative value means pass
     public boolean blindBid;
+    public Integer originSeat; // Seat of the bidder when relayed by a table server - null if sent by the bidder
+
+    @Override
+    public Integer getOriginSeat() {
+        return originSeat;
+    }
+
+    @Override
+    public void setOriginSeat(Integer originSeat) {
+        this.originSeat = originSeat;
+    }
 }
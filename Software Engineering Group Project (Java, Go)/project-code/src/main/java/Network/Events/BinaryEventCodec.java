@@ -0,0 +1,141 @@
+package Network.Events;
+
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Suit;
+
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes moves and bids as a few bytes, for connections that chose it when they connected, in place of json.
+ * Every message starts with its type, which is never a byte json can start with, then the sender's count of events
+ * sent on the connection so the receiver can tell none were lost or reordered.
+ * A move is the deck ordinal of the card, so the receiver looks it up directly instead of by suit and rank names,
+ * then the position hash if sent. A bid is its flags, suit ordinal and value. Either ends with the seat it was made at
+ * when a table server relays it.
+ * Both ends must have loaded the same game spec, as ordinals follow its deck order.
+ */
+public class BinaryEventCodec {
+
+	public static final byte PLAY_CARD = 1;
+	public static final byte BID = 2;
+	public static final int MAX_BYTES = 17; // Longest message - a relayed move with its position hash
+
+	private static final int HAS_POSITION_HASH = 1;
+	private static final int DOUBLING = 1;
+	private static final int BLIND_BID = 2;
+	private static final int HAS_SUIT = 4;
+	private static final int HAS_ORIGIN_SEAT = 8; // Flag of moves and bids alike
+
+	private BinaryEventCodec() { }
+
+	// Checks if a message is binary rather than json, by its first byte
+	public static boolean isBinary(ByteBuffer message) {
+		if (!message.hasRemaining()) {
+			return false;
+		}
+		byte type = message.get(message.position());
+		return type == PLAY_CARD || type == BID;
+	}
+
+	// Checks if an event can be encoded - moves need their card ordinal, and bids a known suit or none. A relayed
+	// event's seat must fit in a byte
+	public static boolean canEncode(NetworkEvent event) {
+		Integer originSeat = (event == null) ? null : event.getOriginSeat();
+		if (originSeat != null && (originSeat < 0 || originSeat > 0xFF)) {
+			return false;
+		}
+		if (event instanceof PlayCardEvent) {
+			Integer cardOrdinal = ((PlayCardEvent) event).cardOrdinal;
+			return cardOrdinal != null && cardOrdinal >= 0 && cardOrdinal <= 0xFFFF;
+		}
+		if (event instanceof BidEvent) {
+			BidEvent bid = (BidEvent) event;
+			return (bid.suit == null || Card.suitStringToEnum(bid.suit) != null)
+					&& bid.value >= Short.MIN_VALUE && bid.value <= Short.MAX_VALUE;
+		}
+		return false;
+	}
+
+	/**
+	 * Encodes an event. It must be one canEncode accepts.
+	 * @param event
+	 * @param sequence Events sent on the connection before this one
+	 * @param out Buffer with at least MAX_BYTES left
+	 */
+	public static void encode(NetworkEvent event, int sequence, ByteBuffer out) {
+		if (event instanceof PlayCardEvent) {
+			PlayCardEvent move = (PlayCardEvent) event;
+			out.put(PLAY_CARD);
+			out.putInt(sequence);
+			out.putShort((short) (int) move.cardOrdinal);
+			int flags = ((move.positionHash != null) ? HAS_POSITION_HASH : 0) | ((move.originSeat != null) ? HAS_ORIGIN_SEAT : 0);
+			out.put((byte) flags);
+			if (move.positionHash != null) {
+				out.putLong(move.positionHash);
+			}
+		} else {
+			BidEvent bid = (BidEvent) event;
+			out.put(BID);
+			out.putInt(sequence);
+			int flags = (bid.doubling ? DOUBLING : 0) | (bid.blindBid ? BLIND_BID : 0) | ((bid.suit != null) ? HAS_SUIT : 0)
+					| ((bid.originSeat != null) ? HAS_ORIGIN_SEAT : 0);
+			out.put((byte) flags);
+			out.put((byte) ((bid.suit != null) ? Card.suitStringToEnum(bid.suit).ordinal() : 0));
+			out.putShort((short) bid.value);
+		}
+		if (event.getOriginSeat() != null) {
+			out.put((byte) (int) event.getOriginSeat());
+		}
+	}
+
+	/**
+	 * Decodes a whole binary message.
+	 * @param in The message - left positioned after it
+	 * @param sequence Events received on the connection before this one
+	 * @return A PlayCardEvent with its card ordinal in place of suit and rank, or a BidEvent
+	 * @throws StreamCorruptedException If the message is cut short, has bad fields, or is out of sequence
+	 */
+	public static NetworkEvent decode(ByteBuffer in, int sequence) throws StreamCorruptedException {
+		try {
+			byte type = in.get();
+			if (in.getInt() != sequence) {
+				throw new StreamCorruptedException("Event out of sequence");
+			}
+
+			if (type == PLAY_CARD) {
+				PlayCardEvent move = new PlayCardEvent();
+				move.type = "play";
+				move.cardOrdinal = in.getShort() & 0xFFFF;
+				int flags = in.get();
+				if ((flags & HAS_POSITION_HASH) != 0) {
+					move.positionHash = in.getLong();
+				}
+				if ((flags & HAS_ORIGIN_SEAT) != 0) {
+					move.originSeat = in.get() & 0xFF;
+				}
+				return move;
+			}
+
+			BidEvent bid = new BidEvent();
+			bid.type = "bid";
+			int flags = in.get();
+			int suit = in.get();
+			bid.value = in.getShort();
+			bid.doubling = (flags & DOUBLING) != 0;
+			bid.blindBid = (flags & BLIND_BID) != 0;
+			if ((flags & HAS_SUIT) != 0) {
+				if (suit < 0 || suit >= Suit.values().length) {
+					throw new StreamCorruptedException("Bid of unknown suit");
+				}
+				bid.suit = Card.suitEnumToString(Suit.values()[suit]);
+			}
+			if ((flags & HAS_ORIGIN_SEAT) != 0) {
+				bid.originSeat = in.get() & 0xFF;
+			}
+			return bid;
+		} catch (java.nio.BufferUnderflowException e) {
+			throw new StreamCorruptedException("Event cut short");
+		}
+	}
+}
@@ -1,4 +1,9 @@
 package Network.Events;
 
 public interface NetworkEvent  {
+
+  // Seat of the player who made the event, set by a table server relaying it - null if sent by the player
+  Integer getOriginSeat();
+
+  void setOriginSeat(Integer originSeat);
 }
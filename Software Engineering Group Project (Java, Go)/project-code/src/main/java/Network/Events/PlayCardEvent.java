@@ -4,4 +4,17 @@ public class PlayCardEvent implements NetworkEvent {
   public String type;
   public String suit;
   public String rank;
+  public Long positionHash; // Sender's position hash once the move is made - null if not sent
+  public transient Integer cardOrdinal; // Deck ordinal of the card, for the binary codec - null if not known
+  public Integer originSeat; // Seat of the player when relayed by a table server - null if sent by the player
+
+  @Override
+  public Integer getOriginSeat() {
+    return originSeat;
+  }
+
+  @Override
+  public void setOriginSeat(Integer originSeat) {
+    this.originSeat = originSeat;
+  }
 }
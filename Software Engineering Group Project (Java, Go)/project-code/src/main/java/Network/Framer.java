@@ -0,0 +1,20 @@
+package Network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Splits the bytes read from a connection into whole messages as they arrive, however they are split between reads.
+ */
+public interface Framer {
+
+	int MAX_MESSAGE_BYTES = 1 << 20; // Longest message accepted, so a bad peer cannot fill memory
+
+	/**
+	 * Reads bytes until a message is complete. Call until it returns null to take every message in the bytes.
+	 * @param input bytes read - left positioned after the message returned
+	 * @return The bytes of the next whole message, valid until the next call - null if the bytes ran out first
+	 * @throws IOException If the bytes cannot be split into messages
+	 */
+	ByteBuffer next(ByteBuffer input) throws IOException;
+}
@@ -1,24 +1,36 @@
 package Network.GameInitiation;
 
+import Network.Connection;
 import Network.Discovery.DiscoveryHost;
+import Network.EventLoop;
 import Network.Events.ReadyEvent;
 import Network.PlayerClient;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonSyntaxException;
-import com.google.gson.stream.JsonReader;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class GameInitiation {
-    
+
+    public static final String SPEC_CACHE_FIELD = "specCache"; // In a joining player's introduction if they keep a SpecCache
+    public static final String SPEC_HASH_FIELD = "specHash";
+    public static final String SPEC_REQUEST_FIELD = "specRequest";
+    private static final long CONNECT_TIMEOUT_MS = 5000;
+
+    private final SpecCache specCache = new SpecCache(SpecCache.DEFAULT_DIRECTORY);
     
     /**
      * Gets the details and ip address of all players wanting to join the game.
@@ -41,38 +53,47 @@ public class GameInitiation {
             host.port = portNumber;
             players.add(host);
 
+            //Every connection is read by the process's event loop, not a thread of its own
+            EventLoop eventLoop = EventLoop.shared();
+
             //Start listening
-            ServerSocket serverSocket = new ServerSocket(portNumber);
+            ServerSocketChannel serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(portNumber));
 
             //Start broadcasting that we are hosting a game
             DiscoveryHost discoveryHost = new DiscoveryHost(gameLabel, maxPlayers, portNumber);
             Thread discoveryThread = new Thread(discoveryHost);
             discoveryThread.start();
             
-            while (players.size() < maxPlayers) {
-                //Wait on a connection.
-                Socket connection = serverSocket.accept();
+            //Accept every player first, so their introductions arrive together rather than one after another
+            List<PlayerConnectionHandler> handlers = new ArrayList<>();
+            List<Connection> connections = new ArrayList<>();
+            while (handlers.size() < maxPlayers - 1) {
+                //Wait on a connection, then have the event loop add its json events to event queue
+                SocketChannel channel = serverChannel.accept();
+                PlayerConnectionHandler handler = new PlayerConnectionHandler(eventQueue, null, true);
+                connections.add(eventLoop.register(channel, handler));
+                handlers.add(handler);
+            }
 
+            List<Boolean> cachesSpecs = new ArrayList<>();
+            for (int i = 0; i < handlers.size(); i++) {
                 //Create the player from the json sent by the player
-                InputStreamReader hostReader = new InputStreamReader(connection.getInputStream());
-                PlayerClient player = gson.fromJson(new JsonReader(hostReader), PlayerClient.class);
+                JsonObject introduction = handlers.get(i).takeIntroduction();
+                PlayerClient player = gson.fromJson(introduction, PlayerClient.class);
+                cachesSpecs.add(introduction.has(SPEC_CACHE_FIELD));
 
                 //Store their connection
-                player.conn = connection;
-
-                //Make a thread that adds json events to event queue
-                Thread t = new Thread(new PlayerConnectionThread(eventQueue, player));
-                t.start();
-
-                // System.out.println("Connected to: " + player.conn.getInetAddress().getCanonicalHostName());
+                player.conn = connections.get(i);
+                handlers.get(i).setPlayer(player);
 
                 //Add their details.
                 players.add(player);
             }
             
-            //Stop broadcasting that we are hosting.
+            //Stop broadcasting that we are hosting - not waited on, as it only stops after its next beacon
             discoveryHost.stop = true;
-            discoveryThread.join();
+            serverChannel.close();
             
             //Create GameNetwork
             GameNetwork network = new GameNetwork();
@@ -81,39 +102,39 @@ public class GameInitiation {
             network.seed = randomSeed;
             network.jsonEvents = eventQueue;
 
-            //Send all players the game spec.
-            for (PlayerClient p : players) {
-                if (p != host) {
-                    //Send the game spec message to this player
-                    PrintWriter writer = new PrintWriter(p.conn.getOutputStream(), true);
-                    String testString = gson.toJson(network);
-                    testString = testString.replace("\"REPLACEME\"", network.gameSpec);
-                    writer.write(testString);
-                    writer.flush();
-
-                    //Wait before sending ready event
-                    Thread.sleep(100);
-
-                    //Send ready event.
-                    JsonObject ready = new JsonObject();
-                    ready.addProperty("ready", true);
-                    ready.addProperty("playerIndex", 0);
-                    writer.write(ready.toString());
-                    writer.flush();
-                }
+            //Game network with the spec, and with only its hash for players who may have it cached. Encoded once
+            String networkJson = gson.toJson(network);
+            JsonObject hashedNetwork = gson.fromJson(networkJson, JsonObject.class);
+            hashedNetwork.remove("spec");
+            hashedNetwork.addProperty(SPEC_HASH_FIELD, SpecCache.hash(network.gameSpec));
+            String hashedNetworkJson = hashedNetwork.toString();
+            networkJson = networkJson.replace("\"REPLACEME\"", network.gameSpec);
+
+            JsonObject hostReady = new JsonObject();
+            hostReady.addProperty("ready", true);
+            hostReady.addProperty("playerIndex", 0);
+            String readyJson = hostReady.toString();
+
+            //Send all players the game network then ready event, each in order on its own connection
+            for (int i = 1; i < players.size(); i++) {
+                players.get(i).conn.send(cachesSpecs.get(i - 1) ? hashedNetworkJson : networkJson);
+                players.get(i).conn.send(readyJson);
             }
 
-            //Now wait for ready message from every connected player:
+            //Now wait for ready message from every connected player, sending the spec to any without it cached
             int counter = 0;
             while (counter != network.players.size() - 1) {
                 JsonEvent e = eventQueue.take();
-                ReadyEvent ready = new Gson().fromJson(e.obj, ReadyEvent.class);
-                try {
-                    //System.out.println(e.obj.toString());
-                } catch (NullPointerException exc) {
+                if (e.obj == null) {
+                    continue;
+                }
+                if (e.obj.has(SPEC_REQUEST_FIELD)) {
+                    e.orignPlayer.conn.send("{\"spec\":" + network.gameSpec + "}");
+                    continue;
                 }
+                ReadyEvent ready = new Gson().fromJson(e.obj, ReadyEvent.class);
 
-                if (ready.ready && !network.players.get(ready.playerIndex).isReady) {
+                if (Boolean.TRUE.equals(ready.ready) && !network.players.get(ready.playerIndex).isReady) {
                     network.players.get(ready.playerIndex).isReady = true;
                     counter++;
                 }
@@ -183,111 +204,90 @@ public class GameInitiation {
     private GameNetwork joinGame(InetAddress hostAddr, int hostPortNumber, int localPortNumber) throws NetworkCreationException {
         try {
 
-            //Connect to host
-            Socket hostConn = new Socket(hostAddr, hostPortNumber);
-
             //Create a blocking queue to store events from all players.
             BlockingQueue<JsonEvent> eventQueue = new LinkedBlockingQueue<JsonEvent>();
 
+            //Listen for lower indexed players before the host can tell them about us, so they never connect too soon
+            ServerSocketChannel serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(localPortNumber));
+
+            //Connect to host - every connection is read by the process's event loop
+            EventLoop eventLoop = EventLoop.shared();
+            PlayerConnectionHandler hostHandler = new PlayerConnectionHandler(eventQueue, null, true);
+            Connection hostConn = awaitConnection(eventLoop.connect(new InetSocketAddress(hostAddr, hostPortNumber), hostHandler));
 
             //Send GameLogic.Core.Player describing self
             PlayerClient playerSelf = new PlayerClient();
             playerSelf.ip = InetAddress.getLocalHost().getHostAddress();
             playerSelf.port = localPortNumber;
 
-            PrintWriter hostWriter = new PrintWriter(hostConn.getOutputStream(), true);
-            hostWriter.write(new Gson().toJson(playerSelf));
-            hostWriter.flush();
+            //Offering length prefixed frames with binary moves and bids, which a host that does not know them ignores,
+            //and saying the spec may be sent as its hash
+            JsonObject introduction = Connection.offerBinaryEvents(new Gson().toJsonTree(playerSelf).getAsJsonObject());
+            introduction.addProperty(SPEC_CACHE_FIELD, true);
+            hostConn.send(introduction.toString());
 
             //Wait on game network json
             //Not in event queue as this has to be read before we know who we can listen too.
-            StringBuilder msgSoFar = new StringBuilder();
-			InputStreamReader reader = new InputStreamReader(hostConn.getInputStream());
-			boolean done = false;
-			JsonObject gameNetworkJson = null;
-			while (!done) {
-				msgSoFar.append((char)reader.read());
-				
-				//Check if we have a complete json
-				try {
-					gameNetworkJson = new Gson().fromJson(msgSoFar.toString(), JsonObject.class);
-					
-					//If could parse then we are done.
-					done = true;
-				} catch (JsonSyntaxException e) {}
-				
-			}
-			GameNetwork network = new GameNetwork();
-			network.seed = gameNetworkJson.get("seed").getAsInt();
+			JsonObject gameNetworkJson = hostHandler.takeIntroduction();
+			GameNetwork network = readNetwork(gameNetworkJson);
 			
-			network.players = new ArrayList<>();
-			JsonArray playersArray = gameNetworkJson.get("players").getAsJsonArray();
-			for (int i = 0; i < playersArray.size(); i++) {
-				PlayerClient playerClient = new PlayerClient();
-				JsonObject playerObj = playersArray.get(i).getAsJsonObject();
-				
-				playerClient.ip = playerObj.get("ip").getAsString();
-				playerClient.port = playerObj.get("port").getAsInt();
-				
-				network.players.add(playerClient);
+            //Events from the host are now tied to the host's player
+            hostHandler.setPlayer(network.players.get(0));
+
+			//Spec sent in full, or as its hash if this machine may have it cached
+			if (gameNetworkJson.has("spec")) {
+				network.gameSpec = gameNetworkJson.get("spec").getAsJsonObject().toString();
+			} else {
+				network.gameSpec = fetchSpec(gameNetworkJson.get(SPEC_HASH_FIELD).getAsString(), network.players.get(0), hostConn, eventQueue);
 			}
 			
-			network.gameSpec = gameNetworkJson.get("spec").getAsJsonObject().toString();
-			
             //GameNetwork network = new Gson().fromJson(new JsonReader(new InputStreamReader(hostConn.getInputStream())), GameNetwork.class);
             network.jsonEvents = eventQueue;
 
-            //Make a thread that adds json events to event queue
-            PlayerClient hostPlayer = new PlayerClient();
-            hostPlayer.conn = hostConn;
-            hostPlayer.port = hostPortNumber;
-            hostPlayer.ip = hostAddr.toString();
-            Thread tHost = new Thread(new PlayerConnectionThread(network.jsonEvents, hostPlayer));
-            tHost.start();
-
 
             int selfPlayerIndex = network.players.indexOf(playerSelf);
 
-            //Get connections of lower indexes.
-            for (int i = 0; i < selfPlayerIndex - 1; i++) {
-                //Wait for incoming connection.
-                ServerSocket serverSocket = new ServerSocket(localPortNumber);
-                Socket lowerIndexConn = serverSocket.accept();
-
-                //Create the player from the json sent by the player
-                //PlayerClient player = new Gson().fromJson(new JsonReader(new InputStreamReader(lowerIndexConn.getInputStream())), PlayerClient.class);
-
-                //Store their connection
-                PlayerClient player = network.players.get(i);
+            //Start connecting to all players with index greater than self, all at once.
+            List<CompletableFuture<Connection>> higherConnections = new ArrayList<>();
+            for (int i = selfPlayerIndex + 1; i < network.players.size(); i++) {
+                PlayerClient p = network.players.get(i);
 
-                player.conn = lowerIndexConn;
-                System.out.println("Connected to lower indexed computer: " + lowerIndexConn.getInetAddress().getCanonicalHostName());
-                System.out.flush();
+                //Have the event loop add its json events to event queue
+                PlayerConnectionHandler handler = new PlayerConnectionHandler(eventQueue, null, false);
+                handler.setPlayer(p);
+                higherConnections.add(eventLoop.connect(new InetSocketAddress(InetAddress.getByName(p.ip), p.port), handler));
+            }
 
-                //Make a thread that adds json events to event queue
-                Thread t = new Thread(new PlayerConnectionThread(network.jsonEvents, player));
-                t.start();
+            //Get connections of lower indexes - every player other than the host. All are accepted before any
+            //introduction is waited on, so they arrive together
+            List<PlayerConnectionHandler> lowerHandlers = new ArrayList<>();
+            List<Connection> lowerConnections = new ArrayList<>();
+            for (int i = 1; i < selfPlayerIndex; i++) {
+                //Wait for incoming connection, and have the event loop add its json events to event queue once their
+                //ready event says who they are
+                PlayerConnectionHandler handler = new PlayerConnectionHandler(network.jsonEvents, null, true);
+                lowerConnections.add(eventLoop.register(serverChannel.accept(), handler));
+                lowerHandlers.add(handler);
+            }
+            serverChannel.close();
 
+            for (int i = 0; i < lowerHandlers.size(); i++) {
+                JsonObject ready = lowerHandlers.get(i).takeIntroduction();
+                PlayerClient player = network.players.get(ready.get("playerIndex").getAsInt());
 
+                //Store their connection, as they may connect in any order, then count their ready event
+                player.conn = lowerConnections.get(i);
+                lowerHandlers.get(i).setPlayer(player);
+                network.jsonEvents.add(new JsonEvent(ready, player));
             }
 
             //Continute to use existing connection to host.
             network.players.get(0).conn = hostConn;
 
-            //Establish a connection to all players with index greater than self.
+            //Wait for the connections to higher indexed players
             for (int i = selfPlayerIndex + 1; i < network.players.size(); i++) {
-                PlayerClient p = network.players.get(i);
-
-
-                Socket playerConn = new Socket(InetAddress.getByName(p.ip), p.port);
-                p.conn = playerConn;
-
-                //Make a thread that adds json events to event queue
-                Thread t = new Thread(new PlayerConnectionThread(eventQueue, p));
-                t.start();
-
-                System.out.println("Connected to higher indexed computer: " + playerConn.getInetAddress().getCanonicalHostName());
-
+                network.players.get(i).conn = awaitConnection(higherConnections.get(i - selfPlayerIndex - 1));
             }
 
             //Wait until we have connection to all lower index players
@@ -313,15 +313,14 @@ public class GameInitiation {
 //		p.conn.close();
 //	  }
 
-            for (PlayerClient p : network.players) {
+            for (int i = 0; i < network.players.size(); i++) {
+                PlayerClient p = network.players.get(i);
                 if (p.conn != null) {
-                    //Send ready event.
-                    PrintWriter writer1 = new PrintWriter(p.conn.getOutputStream());
+                    //Send ready event, offering binary moves and bids on connections opened here
                     JsonObject ready = new JsonObject();
                     ready.addProperty("ready", true);
                     ready.addProperty("playerIndex", selfPlayerIndex);
-                    writer1.write(ready.toString());
-                    writer1.flush();
+                    p.conn.send((i > selfPlayerIndex) ? Connection.offerBinaryEvents(ready).toString() : ready.toString());
                 }
             }
 
@@ -332,7 +331,7 @@ public class GameInitiation {
                 ReadyEvent ready = new Gson().fromJson(e.obj, ReadyEvent.class);
                 //System.out.println(e.obj.toString());
 
-                if (ready.ready && !network.players.get(ready.playerIndex).isReady) {
+                if (Boolean.TRUE.equals(ready.ready) && !network.players.get(ready.playerIndex).isReady) {
                     network.players.get(ready.playerIndex).isReady = true;
                     counter++;
                 }
@@ -351,5 +350,134 @@ public class GameInitiation {
 
     }
 
+
+    /**
+     * Joins a table of a table server. The server relays the moves and bids of every other seat, ai seats included,
+     * over the one connection to it, so no other player is connected to and every other seat is played through it.
+     * @param serverAddr
+     * @param serverPortNumber
+     * @param localPortNumber Told to the server with this machine's address, to find this player's seat. Not listened on
+     * @param tableLabel Table to join, null for any table with an open seat
+     */
+    public GameNetwork joinTable(InetAddress serverAddr, int serverPortNumber, int localPortNumber, String tableLabel) throws NetworkCreationException {
+        try {
+
+            //Create a blocking queue to store events from all players.
+            BlockingQueue<JsonEvent> eventQueue = new LinkedBlockingQueue<>();
+
+            //Connect to server - read by the process's event loop
+            PlayerConnectionHandler serverHandler = new PlayerConnectionHandler(eventQueue, null, true, true);
+            Connection serverConn = awaitConnection(EventLoop.shared().connect(new InetSocketAddress(serverAddr, serverPortNumber), serverHandler));
+
+            //Send join request, offering length prefixed frames with binary moves and bids
+            PlayerClient playerSelf = new PlayerClient();
+            playerSelf.ip = InetAddress.getLocalHost().getHostAddress();
+            playerSelf.port = localPortNumber;
+            JsonObject joinRequest = Connection.offerBinaryEvents(new Gson().toJsonTree(playerSelf).getAsJsonObject());
+            if (tableLabel != null) {
+                joinRequest.addProperty("table", tableLabel);
+            }
+            serverConn.send(joinRequest.toString());
+
+            //Wait on game network json, sent with the spec in full once the table is full
+            JsonObject gameNetworkJson = serverHandler.takeIntroduction();
+            GameNetwork network = readNetwork(gameNetworkJson);
+            network.gameSpec = gameNetworkJson.get("spec").getAsJsonObject().toString();
+            network.jsonEvents = eventQueue;
+
+            //Every other seat is played through the server, each from mailboxes of its own
+            int selfPlayerIndex = network.players.indexOf(playerSelf);
+            if (selfPlayerIndex == -1) {
+                throw new IOException("Table has no seat for this player");
+            }
+            for (int i = 0; i < network.players.size(); i++) {
+                if (i != selfPlayerIndex) {
+                    network.players.get(i).conn = serverConn;
+                }
+            }
+            serverHandler.setRelayedPlayers(network.players);
+
+            //Now wait for the server to say every other seat is ready
+            int counter = 0;
+            while (counter != network.players.size() - 1) {
+                JsonEvent e = eventQueue.take();
+                if (e.obj == null) {
+                    continue;
+                }
+                ReadyEvent ready = new Gson().fromJson(e.obj, ReadyEvent.class);
+
+                if (Boolean.TRUE.equals(ready.ready) && !network.players.get(ready.playerIndex).isReady) {
+                    network.players.get(ready.playerIndex).isReady = true;
+                    counter++;
+                }
+            }
+
+            return network;
+
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        throw new NetworkCreationException();
+
+    }
+
+    // Method to read the seed and players of a game network json. The spec is left to the caller
+    private static GameNetwork readNetwork(JsonObject gameNetworkJson) {
+        GameNetwork network = new GameNetwork();
+        network.seed = gameNetworkJson.get("seed").getAsInt();
+
+        network.players = new ArrayList<>();
+        JsonArray playersArray = gameNetworkJson.get("players").getAsJsonArray();
+        for (int i = 0; i < playersArray.size(); i++) {
+            PlayerClient playerClient = new PlayerClient();
+            JsonObject playerObj = playersArray.get(i).getAsJsonObject();
+
+            playerClient.ip = playerObj.get("ip").getAsString();
+            playerClient.port = playerObj.get("port").getAsInt();
+
+            network.players.add(playerClient);
+        }
+        return network;
+    }
+
+    // Waits for a connect to finish, giving up after the connect timeout
+    private static Connection awaitConnection(CompletableFuture<Connection> connecting) throws IOException, InterruptedException {
+        try {
+            return connecting.get(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            connecting.cancel(false);
+            throw new SocketTimeoutException("Connect timed out");
+        } catch (ExecutionException e) {
+            throw (e.getCause() instanceof IOException) ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    // Gets a spec from the cache by its hash, or else asks the host for it and caches it. Other events that arrive
+    // while waiting are put back in the queue
+    private String fetchSpec(String specHash, PlayerClient host, Connection hostConn, BlockingQueue<JsonEvent> eventQueue) throws IOException, InterruptedException {
+        String spec = this.specCache.get(specHash);
+        if (spec != null) {
+            return spec;
+        }
+
+        JsonObject request = new JsonObject();
+        request.addProperty(SPEC_REQUEST_FIELD, specHash);
+        hostConn.send(request.toString());
+
+        List<JsonEvent> early = new ArrayList<>();
+        JsonEvent e = eventQueue.take();
+        while (e.orignPlayer != host || e.obj == null || !e.obj.has("spec")) {
+            early.add(e);
+            e = eventQueue.take();
+        }
+        eventQueue.addAll(early);
+
+        spec = e.obj.get("spec").getAsJsonObject().toString();
+        if (!this.specCache.put(spec).equals(specHash)) {
+            throw new IOException("Spec sent does not match its hash");
+        }
+        return spec;
+    }
 }
 
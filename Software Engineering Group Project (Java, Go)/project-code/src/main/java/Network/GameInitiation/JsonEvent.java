@@ -1,10 +1,12 @@
 package Network.GameInitiation;
 
 import com.google.gson.JsonObject;
+import Network.Events.NetworkEvent;
 import Network.PlayerClient;
 
 public class JsonEvent {
   public JsonObject obj;
+  public NetworkEvent event; // Set instead of obj for events sent in the binary codec
   public PlayerClient orignPlayer;
 
   public JsonEvent(JsonObject obj, PlayerClient orignPlayer) {
@@ -12,5 +14,10 @@ public class JsonEvent {
 	this.orignPlayer = orignPlayer;
   }
 
+  public JsonEvent(NetworkEvent event, PlayerClient orignPlayer) {
+	this.event = event;
+	this.orignPlayer = orignPlayer;
+  }
+
   public JsonEvent() { }
 }
@@ -0,0 +1,172 @@
+package Network.GameInitiation;
+
+import Network.Connection;
+import Network.EventLoop;
+import Network.Events.BidEvent;
+import Network.Events.NetworkEvent;
+import Network.Events.PlayCardEvent;
+import Network.Mailbox;
+import Network.PlayerClient;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps track of a players connection, reading their moves and bids into mailboxes of their own and all other
+ * events into a blocking queue shared by every player.
+ * When a peer introduces itself first, that message is held apart until it is taken, as events
+ * cannot be tied to the player until then.
+ * A table server relays the moves and bids of every other seat over one connection, so on its connection they are
+ * read into mailboxes of the seat each says it came from instead, made for every seat of the game network it sends
+ * first. Moves made before the network is taken wait in them.
+ */
+public class PlayerConnectionHandler implements EventLoop.Handler {
+
+	private static final JsonObject HUNG_UP = new JsonObject(); // Taken as the introduction if the peer hangs up first
+	private static final String ORIGIN_SEAT_FIELD = "originSeat"; // Seat of a move or bid relayed by a table server
+
+	public final BlockingQueue<JsonEvent> events;
+	public final Mailbox<JsonEvent> moves = new Mailbox<>();
+	public final Mailbox<JsonEvent> bids = new Mailbox<>();
+	public volatile PlayerClient player; // Player events are from - set once the introduction is taken
+	private final BlockingQueue<JsonObject> introduction; // Null if every message is an event
+	private boolean introduced; // Only used by the loop thread
+	private final boolean relayed; // True on the connection to a table server
+	private List<Mailbox<JsonEvent>> seatMoves; // Moves and bids by seat when relayed. Made by the loop thread
+	private List<Mailbox<JsonEvent>> seatBids; // before the introduction is taken
+	private volatile List<PlayerClient> relayedPlayers; // Players by seat when relayed - null until set
+
+	/**
+	 * Creates a handler for a connection.
+	 * @param events Queue of events from every player
+	 * @param player Player on the other end, null if not known until they introduce themselves
+	 * @param expectIntroduction True if the first message is held apart from the events
+	 */
+	public PlayerConnectionHandler(BlockingQueue<JsonEvent> events, PlayerClient player, boolean expectIntroduction) {
+		this(events, player, expectIntroduction, false);
+	}
+
+	/**
+	 * Creates a handler for a connection, which may be to a table server.
+	 * @param events Queue of events from every player
+	 * @param player Player on the other end, null if not known until they introduce themselves
+	 * @param expectIntroduction True if the first message is held apart from the events
+	 * @param relayed True if the connection is to a table server, whose first message is the game network
+	 */
+	public PlayerConnectionHandler(BlockingQueue<JsonEvent> events, PlayerClient player, boolean expectIntroduction, boolean relayed) {
+		this.events = events;
+		this.player = player;
+		this.introduction = expectIntroduction ? new ArrayBlockingQueue<>(1) : null;
+		this.relayed = relayed;
+	}
+
+	/**
+	 * Ties the events of the connection to a player, who reads their moves and bids from its mailboxes.
+	 * @param player
+	 */
+	public void setPlayer(PlayerClient player) {
+		player.moves = this.moves;
+		player.bids = this.bids;
+		this.player = player;
+	}
+
+	/**
+	 * Ties the moves and bids a table server relays to the players of its game network, each reading the mailboxes
+	 * of their seat. Only once the introduction is taken.
+	 * @param players Players of the game, by seat
+	 */
+	public void setRelayedPlayers(List<PlayerClient> players) {
+		for (int i = 0; i < players.size() && i < this.seatMoves.size(); i++) {
+			players.get(i).moves = this.seatMoves.get(i);
+			players.get(i).bids = this.seatBids.get(i);
+		}
+		this.relayedPlayers = players;
+	}
+
+	/**
+	 * Waits for the first message of the connection.
+	 * @return
+	 * @throws IOException If the peer hung up first
+	 * @throws InterruptedException
+	 */
+	public JsonObject takeIntroduction() throws IOException, InterruptedException {
+		JsonObject message = this.introduction.take();
+		if (message == HUNG_UP) {
+			throw new IOException("Connection closed before the peer introduced itself");
+		}
+		return message;
+	}
+
+	@Override
+	public void received(Connection connection, JsonObject message) {
+		if (this.introduction != null && !this.introduced) {
+			this.introduced = true;
+			if (this.relayed) {
+				createSeatMailboxes(message);
+			}
+			this.introduction.add(message);
+		} else {
+			JsonElement type = message.get("type");
+			String eventType = (type != null && type.isJsonPrimitive()) ? type.getAsString() : "";
+			JsonElement seat = message.get(ORIGIN_SEAT_FIELD);
+			route(eventType, (seat != null && seat.isJsonPrimitive()) ? seat.getAsInt() : null, message, null);
+		}
+	}
+
+	@Override
+	public void received(Connection connection, NetworkEvent event) {
+		//Binary events are agreed to by the first message, so are never the introduction
+		String eventType = (event instanceof PlayCardEvent) ? "play" : (event instanceof BidEvent) ? "bid" : "";
+		route(eventType, event.getOriginSeat(), null, event);
+	}
+
+	// Makes mailboxes for each seat of the game network sent by a table server
+	private void createSeatMailboxes(JsonObject gameNetworkJson) {
+		this.seatMoves = new ArrayList<>();
+		this.seatBids = new ArrayList<>();
+		JsonElement players = gameNetworkJson.get("players");
+		int seats = (players != null && players.isJsonArray()) ? players.getAsJsonArray().size() : 0;
+		for (int i = 0; i < seats; i++) {
+			this.seatMoves.add(new Mailbox<>());
+			this.seatBids.add(new Mailbox<>());
+		}
+	}
+
+	// Adds a move or bid to the mailbox of the player who made it, and any other event to the shared queue. On a
+	// table server's connection that is the seat it was relayed from, and one from no seat is passed on with the
+	// other events
+	private void route(String eventType, Integer originSeat, JsonObject message, NetworkEvent event) {
+		PlayerClient sender = this.player;
+		Mailbox<JsonEvent> mailbox = eventType.equals("play") ? this.moves : eventType.equals("bid") ? this.bids : null;
+		if (mailbox != null && this.relayed) {
+			if (originSeat != null && originSeat >= 0 && this.seatMoves != null && originSeat < this.seatMoves.size()) {
+				List<PlayerClient> players = this.relayedPlayers;
+				sender = (players == null) ? null : players.get(originSeat);
+				mailbox = eventType.equals("play") ? this.seatMoves.get(originSeat) : this.seatBids.get(originSeat);
+			} else {
+				mailbox = null;
+			}
+		}
+
+		JsonEvent jsonEvent = (event != null) ? new JsonEvent(event, sender) : new JsonEvent(message, sender);
+		if (mailbox != null) {
+			mailbox.add(jsonEvent);
+		} else {
+			this.events.add(jsonEvent);
+		}
+	}
+
+	@Override
+	public void closed(Connection connection) {
+		//Player disconnected - their events stop
+		if (this.introduction != null && !this.introduced) {
+			this.introduced = true;
+			this.introduction.add(HUNG_UP);
+		}
+	}
+}
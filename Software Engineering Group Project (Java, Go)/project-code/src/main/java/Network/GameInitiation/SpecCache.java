@@ -0,0 +1,108 @@
+package Network.GameInitiation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Game specs received from hosts, kept by the hash of their content. A host sends only the hash to a player who
+ * keeps a cache, and the full spec only if they ask for it, so a game played before starts without the transfer.
+ * Specs are kept in memory and in a directory, one file per hash. A file that no longer matches its hash is ignored.
+ */
+public class SpecCache {
+
+	// Kept whatever directory the game is started from. Set acesseven.specCache to move it
+	public static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("acesseven.specCache",
+			Paths.get(System.getProperty("user.home"), ".acesseven", "spec_cache").toString())).toAbsolutePath();
+	private static final String EXTENSION = ".json";
+
+	private final Path directory;
+	private final Map<String, String> specs = new ConcurrentHashMap<>();
+
+	public SpecCache(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Hashes a spec as sent.
+	 * @param spec
+	 * @return SHA-256 of the spec's UTF-8 bytes, in hex
+	 */
+	public static String hash(String spec) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			//Every Java platform has SHA-256
+			throw new IllegalStateException(e);
+		}
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest(spec.getBytes(StandardCharsets.UTF_8))) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * Gets a spec by its hash.
+	 * @param hash
+	 * @return Null if not cached, or if the cached copy does not match the hash
+	 */
+	public String get(String hash) {
+		String spec = this.specs.get(hash);
+		if (spec != null) {
+			return spec;
+		}
+		if (!isHash(hash)) {
+			//Not a file name this cache would have written
+			return null;
+		}
+
+		try {
+			spec = new String(Files.readAllBytes(this.directory.resolve(hash + EXTENSION)), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			return null;
+		}
+		if (!hash(spec).equals(hash)) {
+			return null;
+		}
+		this.specs.put(hash, spec);
+		return spec;
+	}
+
+	/**
+	 * Keeps a spec. Failing to write it to disk only loses it for later runs.
+	 * @param spec
+	 * @return The spec's hash
+	 */
+	public String put(String spec) {
+		String hash = hash(spec);
+		this.specs.put(hash, spec);
+		try {
+			Files.createDirectories(this.directory);
+			Files.write(this.directory.resolve(hash + EXTENSION), spec.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			//Kept in memory only
+		}
+		return hash;
+	}
+
+	// Checks a hash is hex of the length this cache writes
+	private static boolean isHash(String hash) {
+		if (hash.length() != 64) {
+			return false;
+		}
+		for (int i = 0; i < hash.length(); i++) {
+			if (Character.digit(hash.charAt(i), 16) == -1) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -1,20 +1,27 @@
 package Network.GamePlay;
 
+import Network.Connection;
+import Network.Events.BidEvent;
 import Network.Events.NetworkEvent;
 import Network.Events.PlayCardEvent;
 import Network.GameInitiation.GameNetwork;
 import Network.GameInitiation.JsonEvent;
+import Network.Mailbox;
 import Network.PlayerClient;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
-import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
+/**
+ * Moves and bids of a networked game. Each player's moves and bids arrive in mailboxes of their own, so waiting on
+ * one player never takes another's event, and events sent before they are wanted wait in order.
+ */
 public class NetworkGame {
 
-    private BlockingQueue<JsonEvent> eventsQueue;
+    private BlockingQueue<JsonEvent> eventsQueue; // Events other than moves and bids, from every player
+    private final Gson gson = new Gson();
     public List<PlayerClient> players;
     public int seed;
 
@@ -24,43 +31,67 @@ public class NetworkGame {
         seed = network.seed;
     }
 
-    public NetworkEvent receiveEvent(int i) {
+    // Waits for the next move of the player with index i. Null if malformed
+    public PlayCardEvent receiveMove(int i) {
+        return receiveEvent(players.get(i).moves, PlayCardEvent.class);
+    }
+
+    // Waits for the next bid of the player with index i. Null if malformed
+    public BidEvent receiveBid(int i) {
+        return receiveEvent(players.get(i).bids, BidEvent.class);
+    }
+
+    private <Event extends NetworkEvent> Event receiveEvent(Mailbox<JsonEvent> mailbox, Class<Event> eventClass) {
         
-        PlayCardEvent playCardEvent = null;
-        while (playCardEvent == null) {
+        JsonEvent ev = null;
+        while (ev == null) {
             try {
-                //Should be most recent event
-                JsonEvent ev = eventsQueue.take();
-        
-                playCardEvent = new Gson().fromJson(ev.obj, PlayCardEvent.class);
-                
+                ev = mailbox.take();
             } catch (InterruptedException e) {
                 System.out.println("Got null event:(");
             }
         }
-        
-        return playCardEvent;
-    }
 
+        if (ev.event != null) {
+            //Sent in the binary codec, so already decoded
+            return eventClass.isInstance(ev.event) ? eventClass.cast(ev.event) : null;
+        }
+        try {
+            return gson.fromJson(ev.obj, eventClass);
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
 
-    public <Event> void sendEvent(Event e) {
 
-        for (PlayerClient p : players) {
-            if (p.conn != null && !p.conn.isClosed()) {
-                try {
-                    PrintWriter writer = new PrintWriter(p.conn.getOutputStream(), true);
-                    String j = new Gson().toJson(e, PlayCardEvent.class);
-                    writer.write(j);
-                    writer.flush();
+    public void sendEvent(NetworkEvent e) {
 
-                } catch (IOException ex) {
-                    System.out.println("Failed to play move!");
-                    ex.printStackTrace();
+        //Sent in binary to players who agreed to it, otherwise encoded once for every other player. Players reached
+        //through a table server share its connection, which is sent to once
+        String j = null;
+        for (int i = 0; i < players.size(); i++) {
+            PlayerClient p = players.get(i);
+            if (p.conn == null || p.conn.isClosed() || sentBefore(p.conn, i)) {
+                continue;
+            }
+            if (!p.conn.sendBinary(e)) {
+                if (j == null) {
+                    j = gson.toJson(e);
                 }
-
+                p.conn.send(j);
             }
         }
 
     }
 
+    // Checks if a player before the one with index i has the same connection
+    private boolean sentBefore(Connection conn, int i) {
+        for (int k = 0; k < i; k++) {
+            if (players.get(k).conn == conn) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -0,0 +1,72 @@
+package Network;
+
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+/**
+ * Splits a stream of json messages sent back to back, the legacy wire format, into whole messages. Only brackets
+ * and quotes outside strings are tracked, which are single bytes in UTF-8, so a message is only decoded once all
+ * of it has arrived. Whitespace between messages is skipped.
+ */
+public class JsonFramer implements Framer {
+
+	private byte[] message = new byte[256]; // Bytes of the message so far, reused for every message
+	private int length;
+	private int depth; // Objects and arrays open
+	private boolean inString;
+	private boolean escaped; // True if the last byte in a string was an unescaped backslash
+
+	/**
+	 * Reads bytes until a message is complete.
+	 * @param input bytes read - left positioned after the message returned
+	 * @return The bytes of the next whole message, valid until the next call - null if the bytes ran out first
+	 * @throws StreamCorruptedException If a message does not start with an object or array, or is too long
+	 */
+	@Override
+	public ByteBuffer next(ByteBuffer input) throws StreamCorruptedException {
+		while (input.hasRemaining()) {
+			byte b = input.get();
+			if (depth == 0) {
+				if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+					continue;
+				}
+				if (b != '{' && b != '[') {
+					throw new StreamCorruptedException("Message does not start with an object or array");
+				}
+			}
+			append(b);
+
+			if (inString) {
+				if (escaped) {
+					escaped = false;
+				} else if (b == '\\') {
+					escaped = true;
+				} else if (b == '"') {
+					inString = false;
+				}
+			} else if (b == '"') {
+				inString = true;
+			} else if (b == '{' || b == '[') {
+				depth++;
+			} else if ((b == '}' || b == ']') && --depth == 0) {
+				ByteBuffer whole = ByteBuffer.wrap(message, 0, length);
+				length = 0;
+				return whole;
+			}
+		}
+		return null;
+	}
+
+	// Method to add a byte to the message so far, growing it when full
+	private void append(byte b) throws StreamCorruptedException {
+		if (length == message.length) {
+			if (length == MAX_MESSAGE_BYTES) {
+				throw new StreamCorruptedException("Message longer than " + MAX_MESSAGE_BYTES + " bytes");
+			}
+			byte[] grown = new byte[Math.min(length * 2, MAX_MESSAGE_BYTES)];
+			System.arraycopy(message, 0, grown, 0, length);
+			message = grown;
+		}
+		message[length++] = b;
+	}
+}
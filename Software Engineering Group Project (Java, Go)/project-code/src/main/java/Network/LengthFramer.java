@@ -0,0 +1,55 @@
+package Network;
+
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+/**
+ * Splits a stream of length prefixed frames into messages. Each frame is a 4 byte big endian count of the bytes
+ * that follow, then those bytes, so the end of a message is known without looking inside it.
+ */
+public class LengthFramer implements Framer {
+
+	public static final int HEADER_BYTES = 4;
+
+	private int header; // Header bytes read so far, shifted in
+	private int headerLength;
+	private int expected = -1; // Bytes in the message being read - -1 while reading its header
+	private byte[] message = new byte[256]; // Bytes of the message so far, reused for every message
+	private int length;
+
+	@Override
+	public ByteBuffer next(ByteBuffer input) throws StreamCorruptedException {
+		while (input.hasRemaining() || this.expected == 0) {
+			if (this.expected < 0) {
+				this.header = (this.header << 8) | (input.get() & 0xFF);
+				if (++this.headerLength == HEADER_BYTES) {
+					startMessage(this.header);
+				}
+				continue;
+			}
+
+			int count = Math.min(input.remaining(), this.expected - this.length);
+			input.get(this.message, this.length, count);
+			this.length += count;
+			if (this.length == this.expected) {
+				this.expected = -1;
+				return ByteBuffer.wrap(this.message, 0, this.length);
+			}
+		}
+		return null;
+	}
+
+	// Method to start reading a message once its header is read, growing the buffer if it will not fit
+	private void startMessage(int size) throws StreamCorruptedException {
+		if (size < 0 || size > MAX_MESSAGE_BYTES) {
+			throw new StreamCorruptedException("Frame of " + size + " bytes");
+		}
+		if (size > this.message.length) {
+			this.message = new byte[Math.min(Math.max(size, this.message.length * 2), MAX_MESSAGE_BYTES)];
+		}
+		this.expected = size;
+		this.length = 0;
+		this.header = 0;
+		this.headerLength = 0;
+	}
+}
@@ -0,0 +1,55 @@
+package Network;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queue of messages from one sender to one receiver. Adding never blocks or locks, so the event loop can fill
+ * a mailbox per peer without waiting on the game thread; the receiver parks until something arrives.
+ * Messages are kept in the order added, so any that arrive before they are wanted wait their turn.
+ */
+public class Mailbox<E> {
+
+	private final Queue<E> messages = new ConcurrentLinkedQueue<>();
+	private volatile Thread receiver; // Thread parked waiting on a message - null if none
+
+	/**
+	 * Adds a message, waking the receiver if it is waiting.
+	 * @param message
+	 */
+	public void add(E message) {
+		this.messages.add(message);
+		Thread waiting = this.receiver;
+		if (waiting != null) {
+			LockSupport.unpark(waiting);
+		}
+	}
+
+	/**
+	 * Takes the oldest message, waiting for one if there are none. Only one thread may take from a mailbox.
+	 * @return
+	 * @throws InterruptedException
+	 */
+	public E take() throws InterruptedException {
+		E message = this.messages.poll();
+		while (message == null) {
+			//Checked again once registered, so a message added in between is not missed
+			this.receiver = Thread.currentThread();
+			message = this.messages.poll();
+			if (message == null) {
+				LockSupport.park(this);
+				message = this.messages.poll();
+			}
+			this.receiver = null;
+			if (message == null && Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+		return message;
+	}
+
+	public boolean isEmpty() {
+		return this.messages.isEmpty();
+	}
+}
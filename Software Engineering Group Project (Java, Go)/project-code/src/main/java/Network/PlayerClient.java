@@ -1,7 +1,6 @@
 package Network;
 
-import java.net.InetAddress;
-import java.net.Socket;
+import Network.GameInitiation.JsonEvent;
 
 /**
  * Represents a players client.
@@ -23,7 +22,13 @@ public class PlayerClient {
 	 * Marked as transient so Gson ignores this
 	 * during serialization and deserialization.
 	 */
-	public transient Socket conn;
+	public transient Connection conn;
+
+	/**
+	 * Moves and bids from this player, in the order sent. Null for players not connected to.
+	 */
+	public transient Mailbox<JsonEvent> moves;
+	public transient Mailbox<JsonEvent> bids;
 
 	public transient boolean isReady;
 
@@ -0,0 +1,400 @@
+package Network.Server;
+
+import GameLogic.Core.Bid;
+import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
+import GameLogic.Core.Player;
+import GameLogic.Core.PlayerAI;
+import GameLogic.Core.RuleBreachException;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.GameFileLoader;
+import Network.Events.BidEvent;
+import Network.Events.NetworkEvent;
+import Network.Events.PlayCardEvent;
+import Network.GameInitiation.GameNetwork;
+import Network.GameInitiation.JsonEvent;
+import Network.PlayerClient;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One game hosted by a table server. Each table owns its own game state, so tables share nothing but the
+ * executor their work runs on. Events for a table are queued and drained by at most one task at a time,
+ * so the game state is only ever touched by one thread and no table holds a thread while it waits.
+ */
+public class HostedTable {
+
+	public final String label;
+
+	private final String gameSpecJson; // Sent to each remote seat when the table starts
+	private final int seed;
+	private final Game game = new Game();
+	private final Game.GameState gameState;
+	private final Seat[] seats;
+	private final Executor executor;
+	private final Gson gson = new Gson();
+
+	private final Queue<JsonEvent> inbox = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean scheduled = new AtomicBoolean(false); // True while a drain is queued or running
+	private final CountDownLatch finished = new CountDownLatch(1);
+	private int openSeats; // Remote seats still to be filled. Guarded by this
+	private final int remoteSeats;
+	private volatile boolean abandoned; // True once the table must end without finishing its game
+	private Runnable finishedListener;
+	private Game.StepResult step; // Null until the table starts. Only touched by the draining thread
+
+	// A place at the table. Ai seats have no client
+	private static class Seat {
+		PlayerClient client;
+	}
+
+	/**
+	 * Creates a table for a game. The first seats are filled by joining players, the last aiSeats by ai.
+	 * @param label
+	 * @param gameSpec
+	 * @param gameSpecJson
+	 * @param aiSeats
+	 * @param seed
+	 * @param executor Runs the table's work
+	 */
+	public HostedTable(String label, GameParser gameSpec, String gameSpecJson, int aiSeats, int seed, Executor executor) {
+		this.label = label;
+		this.gameSpecJson = gameSpecJson;
+		this.seed = seed;
+		this.executor = executor;
+
+		int remoteSeats = Math.max(gameSpec.numberOfPlayers - aiSeats, 0);
+		this.remoteSeats = remoteSeats;
+		this.openSeats = remoteSeats;
+		this.seats = new Seat[gameSpec.numberOfPlayers];
+		for (int i = 0; i < this.seats.length; i++) {
+			this.seats[i] = new Seat();
+		}
+
+		//Remote players are only told of moves, so a plain player holds their cards
+		this.gameState = new GameFileLoader().loadAiGameFromSpec(gameSpec, (number, name, state) ->
+				(number < remoteSeats) ? new Player(number, "Player " + number, state)
+						: new PlayerAI(number, name, state, new Random(31L * seed + number)));
+	}
+
+	// Getters
+	public Game.GameState getGameState() {
+		return this.gameState;
+	}
+
+	public synchronized boolean hasOpenSeat() {
+		return this.openSeats > 0;
+	}
+
+	public synchronized int getOpenSeats() {
+		return this.openSeats;
+	}
+
+	public boolean isFinished() {
+		return this.finished.getCount() == 0;
+	}
+
+	/**
+	 * Waits for the table's game to finish.
+	 * @param timeout
+	 * @param unit
+	 * @return False if the timeout passed first
+	 * @throws InterruptedException
+	 */
+	public boolean awaitFinished(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.finished.await(timeout, unit);
+	}
+
+	// Sets a task to run once when the game finishes
+	void setFinishedListener(Runnable finishedListener) {
+		this.finishedListener = finishedListener;
+	}
+
+	/**
+	 * Gives a joining player the next open seat. The table starts once every remote seat is filled.
+	 * @param player Must have an open connection
+	 * @return Seat number of the player, -1 if the table is full
+	 */
+	public synchronized int seat(PlayerClient player) {
+		if (this.openSeats == 0 || this.abandoned) {
+			return -1;
+		}
+
+		//Fill lowest open seat
+		int seatNumber = 0;
+		while (this.seats[seatNumber].client != null) {
+			seatNumber++;
+		}
+		this.seats[seatNumber].client = player;
+		this.openSeats--;
+
+		if (this.openSeats == 0) {
+			schedule();
+		}
+		return seatNumber;
+	}
+
+	/**
+	 * Takes a player who disconnected off the table. Before the table starts their seat is opened again, unless no
+	 * remote player is left. Once started the game cannot go on without them, so the table ends.
+	 * @param player
+	 */
+	public synchronized void leave(PlayerClient player) {
+		int seatNumber = seatOf(player);
+		if (seatNumber == -1 || isFinished()) {
+			return;
+		}
+		if (this.openSeats > 0) {
+			//Not started, as that waits for every remote seat
+			this.seats[seatNumber].client = null;
+			this.openSeats++;
+			if (this.openSeats < this.remoteSeats) {
+				return;
+			}
+		}
+
+		//Ended by the draining thread, which alone touches the game
+		this.abandoned = true;
+		schedule();
+	}
+
+	/**
+	 * Queues an event sent by a seated player to be played on the table.
+	 * @param event
+	 */
+	public void submit(JsonEvent event) {
+		this.inbox.add(event);
+		schedule();
+	}
+
+	// Queues a drain of the inbox unless one is already queued or running
+	void schedule() {
+		if (this.scheduled.compareAndSet(false, true)) {
+			try {
+				this.executor.execute(this::drain);
+			} catch (RejectedExecutionException e) {
+				//Server is shutting down
+				this.scheduled.set(false);
+			}
+		}
+	}
+
+	// Starts the table if ready and plays all queued events
+	private void drain() {
+		try {
+			if (this.abandoned) {
+				finish();
+				return;
+			}
+			if (this.step == null && !hasOpenSeat()) {
+				startTable();
+			}
+
+			JsonEvent event;
+			while (this.step != null && !isFinished() && (event = this.inbox.poll()) != null) {
+				playEvent(event);
+			}
+		} finally {
+			this.scheduled.set(false);
+		}
+
+		//Events which arrived after the last poll need another drain
+		if (!isFinished() && (this.abandoned || (this.step != null && !this.inbox.isEmpty()))) {
+			schedule();
+		}
+	}
+
+	// Sends every remote seat the game network, then plays until a remote seat must act
+	private void startTable() {
+		//Create game network - ai seats are named by seat number
+		GameNetwork network = new GameNetwork();
+		network.gameSpec = this.gameSpecJson;
+		network.players = new ArrayList<>();
+		for (int i = 0; i < this.seats.length; i++) {
+			PlayerClient player = this.seats[i].client;
+			if (player == null) {
+				player = new PlayerClient();
+				player.ip = "ai";
+				player.port = i;
+			}
+			network.players.add(player);
+		}
+		network.seed = this.seed;
+
+		String networkJson = this.gson.toJson(network).replace("\"REPLACEME\"", network.gameSpec);
+		for (int i = 0; i < this.seats.length; i++) {
+			PlayerClient player = this.seats[i].client;
+			if (player == null) {
+				continue;
+			}
+			player.conn.send(networkJson);
+
+			//Every other seat is already ready
+			for (int j = 0; j < this.seats.length; j++) {
+				if (j != i) {
+					JsonObject ready = new JsonObject();
+					ready.addProperty("ready", true);
+					ready.addProperty("playerIndex", j);
+					player.conn.send(ready.toString());
+				}
+			}
+		}
+
+		this.step = this.game.start(this.gameState, this.seed);
+		playAiTurns();
+	}
+
+	// Plays an event from a remote seat. Events out of turn or against the rules are dropped
+	private void playEvent(JsonEvent event) {
+		int seatNumber = seatOf(event.orignPlayer);
+		NetworkEvent networkEvent = (seatNumber == -1) ? null : toNetworkEvent(event);
+		if (networkEvent == null) {
+			return;
+		}
+
+		Game.StepResult result;
+		if (networkEvent instanceof BidEvent) {
+			result = this.game.submitBid(this.gameState, seatNumber, (BidEvent) networkEvent);
+		} else {
+			Card card = Game.cardFromEvent((PlayCardEvent) networkEvent, this.gameState);
+			result = this.game.submitMove(this.gameState, seatNumber, card);
+			if (result.accepted) {
+				try {
+					//Described in full, as binary moves carry only the card ordinal
+					networkEvent = Game.cardToEvent(card, this.gameState);
+				} catch (RuleBreachException e) {
+					finish();
+					return;
+				}
+			}
+		}
+		if (!result.accepted) {
+			return;
+		}
+
+		this.step = result;
+		broadcast(networkEvent, seatNumber);
+		playAiTurns();
+	}
+
+	// Method to get the move or bid of an event, whether sent as json or binary. Null if neither
+	private NetworkEvent toNetworkEvent(JsonEvent event) {
+		if (event.event != null) {
+			return event.event;
+		}
+		if (event.obj == null || !event.obj.has("type")) {
+			return null;
+		}
+		switch (event.obj.get("type").getAsString()) {
+			case "bid":
+				return this.gson.fromJson(event.obj, BidEvent.class);
+			case "play":
+				return this.gson.fromJson(event.obj, PlayCardEvent.class);
+			default:
+				return null;
+		}
+	}
+
+	// Plays ai seats until a remote seat must act or the game ends
+	private void playAiTurns() {
+		while (this.step.expectedAction != Game.Action.NONE && this.seats[this.step.nextPlayerNumber].client == null) {
+			Player currentPlayer = this.gameState.players[this.step.nextPlayerNumber];
+			currentPlayer.sendGameState();
+
+			if (this.step.expectedAction == Game.Action.BID) {
+				// Fetch bid, looping until valid bid is made
+				Bid thisBid;
+				do {
+					thisBid = currentPlayer.receiveBid();
+					this.step = this.game.submitBid(this.gameState, currentPlayer.getNumber(), thisBid);
+				} while (!this.step.accepted);
+
+				broadcast(Game.bidToEvent(thisBid, false), currentPlayer.getNumber());
+			} else {
+				// Fetch move, looping until valid move is made
+				Card thisMove;
+				do {
+					thisMove = currentPlayer.receiveMove();
+					this.step = this.game.submitMove(this.gameState, currentPlayer.getNumber(), thisMove);
+				} while (!this.step.accepted);
+
+				try {
+					broadcast(Game.cardToEvent(thisMove, this.gameState), currentPlayer.getNumber());
+				} catch (RuleBreachException e) {
+					//Card cannot be described to remote seats, so the table cannot continue
+					finish();
+					return;
+				}
+			}
+		}
+
+		if (this.step.expectedAction == Game.Action.NONE) {
+			finish();
+		}
+	}
+
+	// Sends an event to every remote seat except its sender, in binary where agreed and otherwise as json encoded once.
+	// Every seat is reached through the server, so the event names the seat it was made at
+	private void broadcast(NetworkEvent event, int fromSeatNumber) {
+		event.setOriginSeat(fromSeatNumber);
+		String eventJson = null;
+		for (int i = 0; i < this.seats.length; i++) {
+			if (i != fromSeatNumber && this.seats[i].client != null && !this.seats[i].client.conn.sendBinary(event)) {
+				if (eventJson == null) {
+					eventJson = this.gson.toJson(event);
+				}
+				this.seats[i].client.conn.send(eventJson);
+			}
+		}
+	}
+
+	// Finds the seat of a remote player, -1 if not seated here
+	private int seatOf(PlayerClient player) {
+		for (int i = 0; i < this.seats.length; i++) {
+			if (this.seats[i].client == player) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// Ends the table, closing all remote connections once the last events sent to them are written
+	private void finish() {
+		if (isFinished()) {
+			return;
+		}
+		synchronized (this) {
+			for (Seat seat : this.seats) {
+				if (seat.client != null) {
+					seat.client.conn.closeWhenSent();
+				}
+			}
+		}
+		this.inbox.clear();
+		if (this.finishedListener != null) {
+			this.finishedListener.run();
+		}
+		this.finished.countDown();
+	}
+
+	/**
+	 * Closes the connections of all seated players.
+	 */
+	public synchronized void close() {
+		for (Seat seat : this.seats) {
+			if (seat.client != null) {
+				seat.client.conn.close();
+			}
+		}
+	}
+}
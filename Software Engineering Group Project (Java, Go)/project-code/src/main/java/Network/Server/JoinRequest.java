@@ -0,0 +1,33 @@
+package Network.Server;
+
+import Network.PlayerClient;
+
+/**
+ * First message sent by a client connecting to a table server. Has the same fields as the
+ * PlayerClient json sent when joining a hosted game, so existing clients can join a server.
+ */
+public class JoinRequest {
+
+	/**
+	 * Ip address of the joining player.
+	 */
+	public String ip;
+
+	/**
+	 * Port of the joining player.
+	 */
+	public int port;
+
+	/**
+	 * Label of the table to join. Null joins any table with an open seat.
+	 */
+	public String table;
+
+	// Method to get the player described by this request
+	public PlayerClient toPlayerClient() {
+		PlayerClient player = new PlayerClient();
+		player.ip = this.ip;
+		player.port = this.port;
+		return player;
+	}
+}
@@ -0,0 +1,133 @@
+package Network.Server;
+
+import GameLogic.Core.GameParser;
+import Network.PlayerClient;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * All tables hosted by a server, by label. Tables remove themselves once their game has finished.
+ */
+public class TableRegistry {
+
+	private final ConcurrentHashMap<String, HostedTable> tables = new ConcurrentHashMap<>();
+	private final GameParser gameSpec;
+	private final String gameSpecJson;
+	private final int aiSeats;
+	private final Executor executor;
+	private final Random seeds = new Random();
+	private final AtomicInteger nextTableNumber = new AtomicInteger(0);
+
+	/**
+	 * Creates a registry whose tables all play the given game.
+	 * @param gameSpec
+	 * @param gameSpecJson The game description sent to joining players
+	 * @param aiSeats Seats at each table filled by ai
+	 * @param executor Runs the work of every table
+	 */
+	public TableRegistry(GameParser gameSpec, String gameSpecJson, int aiSeats, Executor executor) {
+		this.gameSpec = gameSpec;
+		this.gameSpecJson = gameSpecJson;
+		this.aiSeats = aiSeats;
+		this.executor = executor;
+	}
+
+	/**
+	 * Creates a table with a random seed.
+	 * @param label Null for a generated label
+	 * @return The new table, or null if the label is taken
+	 */
+	public HostedTable create(String label) {
+		int seed;
+		synchronized (this.seeds) {
+			seed = this.seeds.nextInt(1000);
+		}
+		return create(label, seed);
+	}
+
+	/**
+	 * Creates a table which deals from the given seed. Tables without remote seats start immediately.
+	 * @param label Null for a generated label
+	 * @param seed
+	 * @return The new table, or null if the label is taken
+	 */
+	public HostedTable create(String label, int seed) {
+		if (label == null) {
+			label = "table-" + this.nextTableNumber.getAndIncrement();
+		}
+
+		HostedTable table = new HostedTable(label, this.gameSpec, this.gameSpecJson, this.aiSeats, seed, this.executor);
+		if (this.tables.putIfAbsent(label, table) != null) {
+			return null;
+		}
+
+		String tableLabel = label;
+		table.setFinishedListener(() -> this.tables.remove(tableLabel, table));
+		table.schedule();
+		return table;
+	}
+
+	/**
+	 * Seats a player at the table they asked for, creating it if needed. Players not asking for a table
+	 * join any table with an open seat, or a new one.
+	 * @param request
+	 * @param player Player with an open connection
+	 * @return The table joined, or null if the asked for table is full
+	 */
+	public synchronized HostedTable join(JoinRequest request, PlayerClient player) {
+		HostedTable table;
+		if (request.table != null) {
+			table = this.tables.get(request.table);
+			if (table == null) {
+				table = create(request.table);
+			}
+		} else {
+			table = findOpen();
+			if (table == null) {
+				table = create(null);
+			}
+		}
+
+		if (table == null || table.seat(player) == -1) {
+			return null;
+		}
+		return table;
+	}
+
+	// Method to find any table with an open seat, null if there is none
+	private HostedTable findOpen() {
+		for (HostedTable table : this.tables.values()) {
+			if (table.hasOpenSeat()) {
+				return table;
+			}
+		}
+		return null;
+	}
+
+	// Getters
+	public HostedTable get(String label) {
+		return this.tables.get(label);
+	}
+
+	public Collection<HostedTable> getTables() {
+		return this.tables.values();
+	}
+
+	public int size() {
+		return this.tables.size();
+	}
+
+	/**
+	 * Closes every table.
+	 */
+	public void closeAll() {
+		for (HostedTable table : this.tables.values()) {
+			table.close();
+		}
+		this.tables.clear();
+	}
+}
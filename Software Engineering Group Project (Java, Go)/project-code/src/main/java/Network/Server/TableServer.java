@@ -0,0 +1,126 @@
+package Network.Server;
+
+import GameLogic.Core.GameParser;
+import Network.Connection;
+import Network.EventLoop;
+import Network.Events.NetworkEvent;
+import Network.GameInitiation.JsonEvent;
+import Network.PlayerClient;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hosts many tables of one game in a single process. Every player connects to the same port and is routed
+ * to a table by their join request. Table work runs on a fixed size pool shared by all tables, and every
+ * connection is read by one event loop, so neither the number of tables nor players is limited by the
+ * number of threads.
+ */
+public class TableServer implements Runnable, Closeable {
+
+	private final ServerSocketChannel serverChannel;
+	private final ExecutorService tableExecutor; // Runs table work, bounded
+	private final EventLoop eventLoop; // Reads and writes every player connection, on the thread running the server
+	private final TableRegistry registry;
+
+	/**
+	 * Creates a server listening on the given port.
+	 * @param portNumber 0 for any free port
+	 * @param gameSpec
+	 * @param gameSpecJson The game description sent to joining players
+	 * @param aiSeats Seats at each table filled by ai
+	 * @param threads Threads to run table work on
+	 * @throws IOException
+	 */
+	public TableServer(int portNumber, GameParser gameSpec, String gameSpecJson, int aiSeats, int threads) throws IOException {
+		this.serverChannel = ServerSocketChannel.open();
+		this.serverChannel.bind(new InetSocketAddress(portNumber));
+		this.tableExecutor = Executors.newFixedThreadPool(threads);
+		this.eventLoop = new EventLoop();
+		this.eventLoop.listen(this.serverChannel, connection -> new PlayerHandler());
+		this.registry = new TableRegistry(gameSpec, gameSpecJson, aiSeats, this.tableExecutor);
+	}
+
+	// Getters
+	public int getPort() {
+		return this.serverChannel.socket().getLocalPort();
+	}
+
+	public TableRegistry getRegistry() {
+		return this.registry;
+	}
+
+	/**
+	 * Accepts players and serves their connections on the calling thread until the server is closed.
+	 */
+	@Override
+	public void run() {
+		this.eventLoop.run();
+	}
+
+	// Seats the player sending the join request, then passes all their events to their table
+	private class PlayerHandler implements EventLoop.Handler {
+
+		private final Gson gson = new Gson();
+		private PlayerClient player;
+		private HostedTable table; // Null until seated
+
+		@Override
+		public void received(Connection connection, JsonObject message) {
+			if (this.table != null) {
+				this.table.submit(new JsonEvent(message, this.player));
+				return;
+			}
+
+			//Create the player from the json sent by the player
+			JoinRequest request = this.gson.fromJson(message, JoinRequest.class);
+			this.player = request.toPlayerClient();
+			this.player.conn = connection;
+
+			this.table = TableServer.this.registry.join(request, this.player);
+			if (this.table == null) {
+				//Asked for table is full
+				connection.close();
+			}
+		}
+
+		@Override
+		public void received(Connection connection, NetworkEvent event) {
+			if (this.table == null) {
+				//Events come after the join request
+				connection.close();
+				return;
+			}
+			this.table.submit(new JsonEvent(event, this.player));
+		}
+
+		@Override
+		public void closed(Connection connection) {
+			//Player disconnected - their seat is freed, or the game they were playing ends
+			if (this.table != null) {
+				this.table.leave(this.player);
+			}
+		}
+	}
+
+	/**
+	 * Stops accepting players and closes every table.
+	 */
+	@Override
+	public void close() {
+		try {
+			this.serverChannel.close();
+		} catch (IOException e) {
+			//Already closed
+		}
+		this.registry.closeAll();
+		this.tableExecutor.shutdownNow();
+		this.eventLoop.close();
+	}
+}
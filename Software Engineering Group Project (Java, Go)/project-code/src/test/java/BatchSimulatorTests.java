@@ -0,0 +1,44 @@
+import GameLogic.BatchSimulator;
+import GameLogic.Core.GameParser;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class BatchSimulatorTests {
+
+	BatchSimulator simulator;
+
+	@Before
+	public void setup() throws IOException {
+		this.simulator = new BatchSimulator(new GameParser("games/speed_whist.json"));
+	}
+
+	@Test
+	public void testSimulate() {
+		BatchSimulator.SimulationResult result = this.simulator.simulate(0, 19, 4);
+
+		// check every session ran
+		Assert.assertEquals(20, result.sessions);
+		Assert.assertTrue(result.games >= 20);
+
+		// check every trick was counted
+		long tricks = 0;
+		for (long seatTricks : result.tricks) {
+			tricks += seatTricks;
+		}
+		Assert.assertTrue(tricks > 0);
+	}
+
+	@Test
+	public void testReproducible() {
+		// check same seeds give same results, regardless of threads
+		BatchSimulator.SimulationResult serial = this.simulator.simulate(100, 131, 1);
+		BatchSimulator.SimulationResult parallel = this.simulator.simulate(100, 131, 4);
+		Assert.assertArrayEquals(serial.points, parallel.points);
+		Assert.assertArrayEquals(serial.tricks, parallel.tricks);
+		Assert.assertArrayEquals(serial.sessionWins, parallel.sessionWins);
+		Assert.assertEquals(serial.games, parallel.games);
+	}
+}
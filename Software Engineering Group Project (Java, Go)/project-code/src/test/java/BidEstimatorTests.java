@@ -0,0 +1,138 @@
+import GameLogic.Core.Bid;
+import GameLogic.Core.BidEstimator;
+import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
+import GameLogic.Core.Player;
+import GameLogic.Core.PlayerAI;
+import GameLogic.Core.PlayerISMCTS;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Suit;
+import GameLogic.GameFileLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class BidEstimatorTests {
+
+	private static final String OH_HELL = "games/SG Game Store/ohhell.json";
+
+	// Starts oh hell with small hands, waiting for the first bid
+	private Game.GameState startSmallHands(int handSize) {
+		Game.GameState gameState = new GameFileLoader().loadGameFromFile(OH_HELL, null, true);
+		for (int i = 0; i < gameState.players.length; i++) {
+			gameState.players[i] = new PlayerAI(i, "AI Player " + i, gameState, new Random(i));
+		}
+		gameState.currentHandSize = handSize;
+		Game.StepResult step = new Game().start(gameState, 1);
+		Assert.assertEquals(Game.Action.BID, step.expectedAction);
+		return gameState;
+	}
+
+	// Finds the deck cards of a suit from the highest down
+	private List<Card> topCards(Game.GameState gameState, Suit suit, int count) {
+		List<Card> cards = new ArrayList<>();
+		for (int value = 14; value >= 2 && cards.size() < count; value--) {
+			for (Card thisCard : gameState.gameSpec.deck.registry.getCards()) {
+				if (thisCard.getSuit() == suit && thisCard.getValue() == value) {
+					cards.add(thisCard);
+				}
+			}
+		}
+		return cards;
+	}
+
+	@Test
+	public void testTopTrumpsTakeEveryTrick() {
+		Game.GameState gameState = startSmallHands(5);
+		Player player = gameState.players[0];
+		player.setHand(topCards(gameState, Suit.SPADES, 5));
+		BidEstimator estimator = new BidEstimator(16, 8, 2, ForkJoinPool.commonPool());
+
+		// check every deal is solved as all tricks won
+		double[] odds = estimator.trickOdds(gameState, player, Suit.SPADES, 1);
+		Assert.assertEquals(6, odds.length);
+		Assert.assertEquals(1.0, odds[5], 1e-9);
+
+		// check odds add up without trumps
+		double total = 0;
+		for (double chance : estimator.trickOdds(gameState, player, null, 1)) {
+			total += chance;
+		}
+		Assert.assertEquals(1.0, total, 1e-9);
+	}
+
+	@Test
+	public void testOddsCachedByShape() {
+		Game.GameState gameState = startSmallHands(5);
+		Player player = gameState.players[0];
+		BidEstimator estimator = new BidEstimator(8, 8, 1, ForkJoinPool.commonPool());
+		List<Card> hand = topCards(gameState, Suit.HEARTS, 3);
+		hand.addAll(topCards(gameState, Suit.CLUBS, 2));
+		player.setHand(hand);
+		double[] odds = estimator.trickOdds(gameState, player, Suit.SPADES, 1);
+
+		// check same hand with hearts and clubs swapped answers from the cache
+		List<Card> swapped = topCards(gameState, Suit.CLUBS, 3);
+		swapped.addAll(topCards(gameState, Suit.HEARTS, 2));
+		player.setHand(swapped);
+		Assert.assertSame(odds, estimator.trickOdds(gameState, player, Suit.SPADES, 2));
+		Assert.assertEquals(1, estimator.getCacheSize());
+
+		// check a swap with the trump suit is not the same shape
+		List<Card> trumps = topCards(gameState, Suit.SPADES, 3);
+		trumps.addAll(topCards(gameState, Suit.CLUBS, 2));
+		player.setHand(trumps);
+		Assert.assertNotSame(odds, estimator.trickOdds(gameState, player, Suit.HEARTS, 3));
+		Assert.assertEquals(2, estimator.getCacheSize());
+	}
+
+	@Test
+	public void testDeadlineCutsSimulationShort() {
+		Game.GameState gameState = startSmallHands(8);
+		Player player = gameState.players[0];
+		BidEstimator estimator = new BidEstimator(100000, 8, 2, ForkJoinPool.commonPool());
+		long start = System.nanoTime();
+
+		// check odds from a short budget still add up, and are not cached
+		double[] odds = estimator.trickOdds(gameState, player, Suit.SPADES, 1,
+				start + TimeUnit.MILLISECONDS.toNanos(20));
+		double total = 0;
+		for (double chance : odds) {
+			total += chance;
+		}
+		Assert.assertEquals(1.0, total, 1e-9);
+		Assert.assertEquals(0, estimator.getCacheSize());
+
+		// check a bid is still made once the deadline has passed
+		Bid bid = estimator.chooseBid(gameState, player, 2, System.nanoTime());
+		Assert.assertNotNull(bid);
+		Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+	}
+
+	@Test
+	public void testAuctionBidsAccepted() throws IOException {
+		GameParser gameSpec = new GameParser("games/bridge.json");
+		Game.GameState gameState = new GameFileLoader().loadAiGameFromSpec(gameSpec, (number, name, state) ->
+				new PlayerISMCTS(number, name, state, new Random(number), 0, 50, 1, ForkJoinPool.commonPool()));
+		Game game = new Game();
+		Game.StepResult step = game.start(gameState, 2);
+
+		// check every simulated bid is one the rules allow, until a contract is declared
+		int bids = 0;
+		while (step.expectedAction == Game.Action.BID) {
+			Player player = gameState.players[step.nextPlayerNumber];
+			Bid bid = player.receiveBid();
+			step = game.submitBid(gameState, player.getNumber(), bid);
+			Assert.assertTrue(step.accepted);
+			bids++;
+		}
+		Assert.assertEquals(Game.Action.MOVE, step.expectedAction);
+		Assert.assertTrue(bids >= gameState.players.length);
+	}
+}
@@ -0,0 +1,59 @@
+import GameLogic.Core.GameParser;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.CardRegistry;
+import GameLogic.DeckAndCards.Suit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+public class CardRegistryTests {
+    CardRegistry r;
+
+    @Before
+    public void setUp() {
+        ArrayList<Card> list = new ArrayList<>();
+        list.add(new Card(2, Suit.DIAMONDS, 4));
+        list.add(new Card(5, Suit.SPADES, 7));
+        list.add(new Card(12, Suit.SPADES, 7));
+        r = new CardRegistry(list);
+    }
+
+    @Test
+    public void testOrdinals() {
+        Assert.assertEquals(3, r.size());
+        for (int i = 0; i < r.size(); i++) {
+            Assert.assertEquals(i, r.get(i).getOrdinal());
+            Assert.assertTrue(r.get(i).isInterned());
+        }
+
+        // check point values kept
+        Assert.assertEquals(4, r.get(0).getPointValue());
+
+        // check not interned
+        Assert.assertFalse(new Card(2, Suit.DIAMONDS, 4).isInterned());
+    }
+
+    @Test
+    public void testLookup() {
+        // check normal
+        Assert.assertSame(r.get(1), r.lookup(Suit.SPADES, 5));
+        Assert.assertSame(r.get(2), r.intern(new Card(12, Suit.SPADES, 0)));
+
+        // check not in deck
+        Assert.assertNull(r.lookup(Suit.HEARTS, 5));
+        Assert.assertNull(r.lookup(null, 5));
+        Assert.assertNull(r.lookup(Suit.SPADES, -1));
+    }
+
+    @Test
+    public void testParsedDeckIsInterned() throws IOException {
+        GameParser g = new GameParser("games/speed_whist.json");
+        Assert.assertEquals(52, g.deck.registry.size());
+        for (int i = 0; i < g.deck.cards.size(); i++) {
+            Assert.assertSame(g.deck.registry.get(i), g.deck.cards.get(i));
+        }
+    }
+}
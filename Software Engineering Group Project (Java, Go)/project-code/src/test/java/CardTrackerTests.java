@@ -0,0 +1,122 @@
+import GameLogic.Core.CardTracker;
+import GameLogic.Core.Game;
+import GameLogic.Core.Player;
+import GameLogic.Core.PlayerAI;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+import GameLogic.GameFileLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class CardTrackerTests {
+
+	@Test
+	public void testInference() {
+		CardTracker tracker = new CardTracker();
+		tracker.newHand(3);
+		long aceOfSpades = Hand.cardMask(new Card(14, Suit.SPADES, 0));
+		long twoOfHearts = Hand.cardMask(new Card(2, Suit.HEARTS, 0));
+		tracker.cardsHeld(0, aceOfSpades);
+
+		// check leader follows nothing, and their known card is no longer held once played
+		tracker.cardPlayed(0, aceOfSpades, 0L, 0L);
+		Assert.assertEquals(aceOfSpades, tracker.getPlayed());
+		Assert.assertEquals(0L, tracker.getKnownHeld(0));
+		Assert.assertEquals(0L, tracker.getNotHeld(0));
+
+		// check failing to follow shows a void, following does not
+		tracker.cardPlayed(1, twoOfHearts, Hand.suitMask(Suit.SPADES), 0L);
+		Assert.assertTrue(tracker.isVoidIn(1, Suit.SPADES));
+		Assert.assertFalse(tracker.isVoidIn(1, Suit.HEARTS));
+		tracker.cardPlayed(2, Hand.cardMask(new Card(3, Suit.SPADES, 0)), Hand.suitMask(Suit.SPADES), 0L);
+		Assert.assertFalse(tracker.isVoidIn(2, Suit.SPADES));
+
+		// check new hand forgets everything
+		tracker.newHand(3);
+		Assert.assertEquals(0L, tracker.getPlayed());
+		Assert.assertFalse(tracker.isVoidIn(1, Suit.SPADES));
+	}
+
+	// Plays a hand checking the tracker against the real hands and a rescan of the tricks played
+	private void checkHand(String gameFileName, int seed) {
+		Game.GameState gameState = new GameFileLoader().loadGameFromFile(gameFileName, null, true);
+		for (int i = 0; i < gameState.players.length; i++) {
+			gameState.players[i] = new PlayerAI(i, "AI Player " + i, gameState, new Random(seed + i));
+		}
+		Game game = new Game();
+		Game.StepResult step = game.start(gameState, seed);
+		CardTracker tracker = gameState.cardTracker;
+		long played = 0L;
+		boolean[][] voids = new boolean[gameState.players.length][Suit.values().length];
+		List<Card> legalCards = new ArrayList<>();
+
+		while (step.expectedAction == Game.Action.MOVE) {
+			Player player = gameState.players[step.nextPlayerNumber];
+			for (Player thisPlayer : gameState.players) {
+				long hand = thisPlayer.getHand().getBits();
+
+				// check inferences hold for the real hands
+				Assert.assertEquals(0L, hand & tracker.getNotHeld(thisPlayer.getNumber()));
+				Assert.assertEquals(tracker.getKnownHeld(thisPlayer.getNumber()),
+						hand & tracker.getKnownHeld(thisPlayer.getNumber()));
+				for (Suit suit : Suit.values()) {
+					Assert.assertEquals(voids[thisPlayer.getNumber()][suit.ordinal()],
+							tracker.isVoidIn(thisPlayer.getNumber(), suit));
+				}
+			}
+			Assert.assertEquals(played, tracker.getPlayed());
+
+			// Note a void from the rescan if the card played does not follow the led suit
+			List<Card> table = gameState.currentTable.getCards();
+			Card card = gameState.legalMoves(player, legalCards).get(0);
+			if (!table.isEmpty() && card.getSuit() != table.get(0).getSuit()
+					&& gameState.allowedSuits.contains(table.get(0).getSuit())) {
+				voids[player.getNumber()][table.get(0).getSuit().ordinal()] = true;
+			}
+			played |= Hand.cardMask(card);
+
+			step = game.submitMove(gameState, player.getNumber(), card);
+			Assert.assertTrue(step.accepted);
+			if (step.transitions.contains(Game.Transition.HAND_COMPLETE)) {
+				break;
+			}
+		}
+
+		// check some voids were found
+		boolean anyVoid = false;
+		for (boolean[] playerVoids : voids) {
+			for (boolean thisVoid : playerVoids) {
+				anyVoid |= thisVoid;
+			}
+		}
+		Assert.assertTrue(anyVoid);
+	}
+
+	@Test
+	public void testTracksWhistHand() {
+		checkHand("games/speed_whist.json", 1);
+	}
+
+	@Test
+	public void testTracksFixedLeadingCard() {
+		Game.GameState gameState = new GameFileLoader().loadGameFromFile("games/A7 Game Store/no_pass_hearts.json", null, true);
+		for (int i = 0; i < gameState.players.length; i++) {
+			gameState.players[i] = new PlayerAI(i, "AI Player " + i, gameState, new Random(i));
+		}
+		new Game().start(gameState, 0);
+
+		// check the holder of the card that must lead is known
+		long firstCard = Hand.cardMask(gameState.gameSpec.ruleSet.fixedLeadingCard);
+		long knownHeld = 0L;
+		for (Player thisPlayer : gameState.players) {
+			Assert.assertEquals(thisPlayer.getHand().getBits() & firstCard, gameState.cardTracker.getKnownHeld(thisPlayer.getNumber()));
+			knownHeld |= gameState.cardTracker.getKnownHeld(thisPlayer.getNumber());
+		}
+		Assert.assertEquals(firstCard, knownHeld);
+	}
+}
@@ -0,0 +1,136 @@
+import GameLogic.Core.DealSampler;
+import GameLogic.Core.Game;
+import GameLogic.Core.Player;
+import GameLogic.Core.PlayerAI;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.GameFileLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+public class DealSamplerTests {
+
+	// Counts every deal of the cards to hands of the given sizes that avoids excluded cards, by trying them all
+	private int countDeals(long cards, int[] sizes, long[] excluded, int player) {
+		if (player == sizes.length) {
+			return 1;
+		}
+		if (sizes[player] == 0) {
+			return countDeals(cards, sizes, excluded, player + 1);
+		}
+		int deals = 0;
+		for (long subset = cards; subset != 0; subset = (subset - 1) & cards) {
+			if (Long.bitCount(subset) == sizes[player] && (subset & excluded[player]) == 0) {
+				deals += countDeals(cards & ~subset, sizes, excluded, player + 1);
+			}
+		}
+		return deals;
+	}
+
+	// Checks a drawn deal uses each unseen card at most once and keeps to the sizes and exclusions
+	private void checkDeal(long[] hands, long unseen, int[] sizes, long[] excluded) {
+		long dealt = 0L;
+		for (int i = 0; i < hands.length; i++) {
+			if (sizes[i] > 0) {
+				Assert.assertEquals(sizes[i], Long.bitCount(hands[i]));
+				Assert.assertEquals(0L, hands[i] & excluded[i]);
+				Assert.assertEquals(0L, hands[i] & dealt);
+				dealt |= hands[i];
+			}
+		}
+		Assert.assertEquals(dealt, dealt & unseen);
+	}
+
+	@Test
+	public void testUniform() {
+		// Nine cards in three suits of three, with player 1 void in the lowest suit and player 3 in the next
+		long unseen = 0x7L | (0x7L << 16) | (0x7L << 32);
+		int[] sizes = {0, 3, 3, 2};
+		long[] excluded = {0L, Hand.ALL_SUIT_MASK, 0L, Hand.ALL_SUIT_MASK << 16};
+		DealSampler sampler = new DealSampler(unseen, sizes, excluded);
+
+		// check deal count matches trying every deal, one card left in the stock
+		int deals = countDeals(unseen, sizes, excluded, 0);
+		Assert.assertTrue(sampler.isConsistent());
+		Assert.assertEquals(deals, sampler.getDealCount(), 1e-6);
+
+		// check every deal is drawn about equally often
+		DealSampler.Dealer dealer = sampler.newDealer(new SplittableRandom(1));
+		Map<String, Integer> seen = new HashMap<>();
+		long[] hands = new long[sizes.length];
+		int draws = deals * 200;
+		for (int i = 0; i < draws; i++) {
+			dealer.deal(hands);
+			checkDeal(hands, unseen, sizes, excluded);
+			seen.merge(hands[1] + "," + hands[2] + "," + hands[3], 1, Integer::sum);
+		}
+		Assert.assertEquals(deals, seen.size());
+		for (int count : seen.values()) {
+			Assert.assertTrue(count > 120 && count < 280);
+		}
+	}
+
+	@Test
+	public void testInconsistentIgnoresExclusions() {
+		// Two hidden players both void in the only suit left
+		long unseen = 0xFL;
+		int[] sizes = {0, 2, 2};
+		long[] excluded = {0L, Hand.ALL_SUIT_MASK, Hand.ALL_SUIT_MASK};
+		DealSampler sampler = new DealSampler(unseen, sizes, excluded);
+
+		// check still deals every card
+		Assert.assertFalse(sampler.isConsistent());
+		long[] hands = new long[sizes.length];
+		sampler.newDealer(new SplittableRandom(2)).deal(hands);
+		checkDeal(hands, unseen, sizes, new long[sizes.length]);
+		Assert.assertEquals(unseen, hands[1] | hands[2]);
+	}
+
+	@Test
+	public void testCustomDeckGame() {
+		Game.GameState gameState = new GameFileLoader().loadGameFromFile("games/SG Game Store/catchtheten.json", null, true);
+		for (int i = 0; i < gameState.players.length; i++) {
+			gameState.players[i] = new PlayerAI(i, "AI Player " + i, gameState, new Random(i));
+		}
+		Game game = new Game();
+		Game.StepResult step = game.start(gameState, 3);
+
+		// Play a few cards, so some are seen
+		List<Card> legalCards = new ArrayList<>();
+		for (int i = 0; i < 6 && step.expectedAction == Game.Action.MOVE; i++) {
+			Player player = gameState.players[step.nextPlayerNumber];
+			step = game.submitMove(gameState, player.getNumber(), gameState.legalMoves(player, legalCards).get(0));
+		}
+
+		Player observer = gameState.players[gameState.currentPlayerNumber];
+		DealSampler sampler = DealSampler.forObserver(gameState, observer);
+		DealSampler.Dealer dealer = sampler.newDealer(new SplittableRandom(3));
+		long deck = 0L;
+		for (Card thisCard : gameState.gameSpec.deck.registry.getCards()) {
+			deck |= Hand.cardMask(thisCard);
+		}
+		long[] hands = new long[gameState.players.length];
+		for (int i = 0; i < 100; i++) {
+			dealer.deal(hands);
+
+			// check hidden hands are the right size, from the game's deck, and never hold seen cards
+			for (Player thisPlayer : gameState.players) {
+				if (thisPlayer != observer) {
+					Assert.assertEquals(thisPlayer.getHand().size(), Long.bitCount(hands[thisPlayer.getNumber()]));
+					Assert.assertEquals(0L, hands[thisPlayer.getNumber()] & ~deck);
+					Assert.assertEquals(0L, hands[thisPlayer.getNumber()] & observer.getHand().getBits());
+					Assert.assertEquals(0L, hands[thisPlayer.getNumber()] & gameState.cardTracker.getPlayed());
+					Assert.assertEquals(0L, hands[thisPlayer.getNumber()]
+							& gameState.cardTracker.getNotHeld(thisPlayer.getNumber()));
+				}
+			}
+		}
+	}
+}
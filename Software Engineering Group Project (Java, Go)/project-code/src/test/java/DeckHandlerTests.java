@@ -2,12 +2,17 @@ import GameLogic.Core.Game;
 import GameLogic.DeckAndCards.DeckHandler;
 import GameLogic.DeckAndCards.Card;
 import GameLogic.DeckAndCards.Deck;
+import GameLogic.DeckAndCards.ShuffleTwister;
 import GameLogic.DeckAndCards.Suit;
 import  GameLogic.Core.Player;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.*;
 
+import GameLogic.Core.GameParser;
+import org.apache.commons.math3.random.MersenneTwister;
+
+import java.io.IOException;
 import java.util.ArrayList;
 
 public class DeckHandlerTests {
@@ -107,6 +112,100 @@ public class DeckHandlerTests {
 
 
 
+    @Test
+    public void testShuffleMatchesProtocol() throws IOException {
+        ArrayList<Card> deckOrder = new GameParser("games/speed_whist.json").deck.cards;
+        DeckHandler handler = new DeckHandler(deckOrder, 42);
+        MersenneTwister twister = new MersenneTwister(42);
+
+        // check several hands in a row, as the twister carries over between shuffles
+        for (int hand = 0; hand < 5; hand++) {
+            // Reference shuffle from shuffle_protocol.md, on a list stack with the first card on top
+            ArrayList<Card> expected = new ArrayList<>();
+            for (int i = deckOrder.size() - 1; i >= 0; i--) {
+                expected.add(deckOrder.get(i));
+            }
+            for (int i = expected.size() - 1; i > 0; i--) {
+                int j = Math.abs(Math.floorMod(twister.nextInt(), i + 1));
+                Card temp = expected.get(i);
+                expected.set(i, expected.get(j));
+                expected.set(j, temp);
+            }
+
+            handler.createDeck(deckOrder);
+            handler.shuffleDeck();
+            Deck deck = handler.getDeck();
+            Assert.assertEquals(expected.size(), deck.size());
+            for (int i = expected.size() - 1; i >= 0; i--) {
+                Assert.assertSame(expected.get(i), deck.pop());
+            }
+        }
+    }
+
+    @Test
+    public void testTwisterMatchesCommonsMath() {
+        // check same sequence as the twister used by other clients, including across state twists
+        int[] seeds = { 0, 1, 42, -7, Integer.MAX_VALUE, Integer.MIN_VALUE };
+        for (int seed : seeds) {
+            MersenneTwister expected = new MersenneTwister(seed);
+            ShuffleTwister twister = new ShuffleTwister(seed);
+            for (int i = 0; i < 2000; i++) {
+                Assert.assertEquals(expected.nextInt(), twister.nextInt());
+            }
+        }
+    }
+
+    @Test
+    public void testTwisterSkip() {
+        // check skipping matches drawing, from different positions within a block
+        long[] skips = { 0, 1, 623, 624, 625, 5000 };
+        for (int start = 0; start < 700; start += 233) {
+            for (long skip : skips) {
+                ShuffleTwister drawn = new ShuffleTwister(5);
+                ShuffleTwister skipped = new ShuffleTwister(5);
+                for (int i = 0; i < start; i++) {
+                    drawn.nextInt();
+                    skipped.nextInt();
+                }
+                for (long i = 0; i < skip; i++) {
+                    drawn.nextInt();
+                }
+                skipped.skip(skip);
+                Assert.assertArrayEquals(drawn.getState(), skipped.getState());
+                Assert.assertEquals(drawn.nextInt(), skipped.nextInt());
+            }
+        }
+    }
+
+    @Test
+    public void testRestoreTwisterState() throws IOException {
+        ArrayList<Card> deckOrder = new GameParser("games/speed_whist.json").deck.cards;
+        DeckHandler original = new DeckHandler(deckOrder, 7);
+        for (int i = 0; i < 100; i++) {
+            original.shuffleDeck();
+        }
+
+        // check restoring from state
+        DeckHandler fromState = new DeckHandler(deckOrder, 7);
+        fromState.setTwisterState(original.getTwisterState());
+
+        // check restoring from shuffle count
+        DeckHandler fromCount = new DeckHandler(deckOrder, 7);
+        fromCount.restoreShuffles(original.getShuffleCount(), deckOrder.size());
+        Assert.assertEquals(original.getShuffleCount(), fromCount.getShuffleCount());
+
+        // check next deal is the same
+        for (DeckHandler restored : new DeckHandler[] { fromState, fromCount }) {
+            DeckHandler expected = new DeckHandler(deckOrder, 7);
+            expected.setTwisterState(original.getTwisterState());
+            expected.shuffleDeck();
+            restored.shuffleDeck();
+            while (!expected.getDeck().isEmpty()) {
+                Assert.assertSame(expected.getDeck().pop(), restored.getDeck().pop());
+            }
+        }
+    }
+
     @Test
     public void testDealHand() {
         //testing that it doesnt crash
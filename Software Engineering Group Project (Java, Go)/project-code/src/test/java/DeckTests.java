@@ -11,6 +11,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.*;
+import java.util.Arrays;
+import java.util.List;
 import java.util.EmptyStackException;
 
 
@@ -101,6 +103,28 @@ public class DeckTests {
         d.search(c1);
     }
 
+    @Test
+    public void testResetAndSwap() {
+        List<Card> order = Arrays.asList(c1, c2);
+
+        //check first card is on top
+        d.reset(order);
+        Assert.assertEquals(2, d.size());
+        Assert.assertEquals(c1, d.peek());
+
+        //check swap
+        d.swap(0, 1);
+        Assert.assertEquals(c2, d.peek());
+        Assert.assertEquals(c1, d.get(0));
+
+        //check reset refills after popping
+        d.pop();
+        d.reset(order);
+        Assert.assertEquals(2, d.size());
+        Assert.assertEquals(c1, d.pop());
+        Assert.assertEquals(c2, d.pop());
+    }
+
     @Test (expected = EmptyStackException.class)
     public void testBurn() {
 
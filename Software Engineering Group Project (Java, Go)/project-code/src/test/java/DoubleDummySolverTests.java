@@ -0,0 +1,153 @@
+import GameLogic.Core.DoubleDummySolver;
+import GameLogic.Core.GameParser;
+import GameLogic.Core.TrickPosition;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class DoubleDummySolverTests {
+
+	// Deals cards from the deck of a game to every player at random
+	private TrickPosition deal(GameParser gameSpec, int cardsEach, Suit trumpSuit, Random random) {
+		List<Card> deck = new ArrayList<>(gameSpec.deck.registry.getCards());
+		Collections.shuffle(deck, random);
+		long[] hands = new long[gameSpec.numberOfPlayers];
+		for (int i = 0; i < cardsEach * hands.length; i++) {
+			hands[i % hands.length] |= Hand.cardMask(deck.get(i));
+		}
+		return TrickPosition.fromDeal(gameSpec, hands, trumpSuit, random.nextInt(hands.length));
+	}
+
+	// Finds the most tricks a team can take by trying every line of play
+	private int exhaustive(TrickPosition position, int team) {
+		if (position.isHandOver() || position.legalMoves() == 0) {
+			return 0;
+		}
+		boolean maximising = position.getTeam(position.getCurrentPlayer()) == team;
+		int best = maximising ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		for (long moves = position.legalMoves(); moves != 0; moves &= moves - 1) {
+			TrickPosition next = new TrickPosition(position);
+			int before = teamTricks(next, team);
+			next.play(Long.numberOfTrailingZeros(moves));
+			int tricks = teamTricks(next, team) - before + exhaustive(next, team);
+			best = maximising ? Math.max(best, tricks) : Math.min(best, tricks);
+		}
+		return best;
+	}
+
+	private int teamTricks(TrickPosition position, int team) {
+		int tricks = 0;
+		for (int i = 0; i < position.getNumberOfPlayers(); i++) {
+			if (position.getTeam(i) == team) {
+				tricks += position.getTricksWon(i);
+			}
+		}
+		return tricks;
+	}
+
+	// Checks the solver against exhaustive search on small random deals
+	private void checkSmallDeals(String gameFile, int cardsEach) throws IOException {
+		GameParser gameSpec = new GameParser(gameFile);
+		DoubleDummySolver solver = new DoubleDummySolver(12);
+		Random random = new Random(cardsEach);
+		Suit[] trumps = {null, Suit.SPADES, Suit.HEARTS};
+		for (int i = 0; i < 60; i++) {
+			TrickPosition position = deal(gameSpec, cardsEach, trumps[i % trumps.length], random);
+
+			// Part way through a trick half the time
+			if (i % 2 == 1) {
+				position.play(Long.numberOfTrailingZeros(position.legalMoves()));
+			}
+
+			for (int team = 0; team < position.getTeams(); team++) {
+				Assert.assertEquals(exhaustive(position, team), solver.solve(position, team));
+			}
+		}
+	}
+
+	@Test
+	public void testMatchesExhaustiveTrickMode() throws IOException {
+		checkSmallDeals("games/bridge.json", 4);
+	}
+
+	@Test
+	public void testMatchesExhaustiveAnyMode() throws IOException {
+		checkSmallDeals("games/A7 Game Store/one_trick_pony.json", 5);
+	}
+
+	@Test
+	public void testPositionUnchanged() throws IOException {
+		GameParser gameSpec = new GameParser("games/bridge.json");
+		TrickPosition position = deal(gameSpec, 6, Suit.CLUBS, new Random(1));
+		position.play(Long.numberOfTrailingZeros(position.legalMoves()));
+		TrickPosition before = new TrickPosition(position);
+
+		new DoubleDummySolver(12).solve(position);
+
+		// check hands, turn and table restored
+		for (int i = 0; i < position.getNumberOfPlayers(); i++) {
+			Assert.assertEquals(before.getHand(i), position.getHand(i));
+			Assert.assertEquals(before.getTricksWon(i), position.getTricksWon(i));
+		}
+		Assert.assertEquals(before.getCurrentPlayer(), position.getCurrentPlayer());
+		Assert.assertEquals(before.getTableSize(), position.getTableSize());
+		Assert.assertEquals(before.getTableCard(0), position.getTableCard(0));
+	}
+
+	@Test
+	public void testSolidSuits() throws IOException {
+		GameParser gameSpec = new GameParser("games/bridge.json");
+		long[] hands = new long[4];
+		Suit[] suits = {Suit.SPADES, Suit.HEARTS, Suit.DIAMONDS, Suit.CLUBS};
+		for (Card thisCard : gameSpec.deck.registry.getCards()) {
+			hands[Arrays.asList(suits).indexOf(thisCard.getSuit())] |= Hand.cardMask(thisCard);
+		}
+		DoubleDummySolver solver = new DoubleDummySolver();
+
+		// check leader runs their suit, unless the other side can trump it
+		Assert.assertArrayEquals(new int[] {13, 0}, solver.solveTeams(TrickPosition.fromDeal(gameSpec, hands, null, 0)));
+		Assert.assertArrayEquals(new int[] {0, 13}, solver.solveTeams(TrickPosition.fromDeal(gameSpec, hands, null, 1)));
+		Assert.assertArrayEquals(new int[] {13, 0}, solver.solveTeams(TrickPosition.fromDeal(gameSpec, hands, Suit.DIAMONDS, 1)));
+	}
+
+	@Test
+	public void testFullBridgeDeal() throws IOException {
+		GameParser gameSpec = new GameParser("games/bridge.json");
+		DoubleDummySolver solver = new DoubleDummySolver();
+		Random random = new Random(7);
+		for (int i = 0; i < 2; i++) {
+			TrickPosition position = deal(gameSpec, 13, (i % 2 == 0) ? null : Suit.SPADES, random);
+			int[] tricks = solver.solveTeams(position);
+
+			// check both sides cannot take more than every trick between them, with two sides
+			Assert.assertEquals(13, tricks[0] + tricks[1]);
+
+			// check the second side's tricks, found from the first's, match a search for that side
+			Assert.assertEquals(tricks[1], new DoubleDummySolver().solve(position, 1));
+		}
+	}
+
+	@Test
+	public void testTrumpBeatsHigherLeadSuitCard() throws IOException {
+		GameParser gameSpec = new GameParser("games/bridge.json");
+		long[] hands = {Hand.cardMask(new Card(2, Suit.HEARTS, 0)), Hand.cardMask(new Card(3, Suit.SPADES, 0)),
+				Hand.cardMask(new Card(14, Suit.HEARTS, 0)), Hand.cardMask(new Card(5, Suit.HEARTS, 0))};
+		TrickPosition position = TrickPosition.fromDeal(gameSpec, hands, Suit.SPADES, 0);
+		for (int i = 0; i < hands.length; i++) {
+			position.play(Long.numberOfTrailingZeros(position.legalMoves()));
+		}
+
+		// check trump won after a higher card of the lead suit was played
+		Assert.assertEquals(1, position.getTricksWon(1));
+		Assert.assertEquals(0, position.getTricksWon(2));
+	}
+}
@@ -0,0 +1,215 @@
+import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
+import GameLogic.Core.PlayerAI;
+import GameLogic.Core.RuleBreachException;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.GameFileLoader;
+import Network.Connection;
+import Network.EventLoop;
+import Network.Events.BidEvent;
+import Network.Events.BinaryEventCodec;
+import Network.Events.NetworkEvent;
+import Network.Events.PlayCardEvent;
+import com.google.gson.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class EventCodecTests {
+
+	// Method to load a dealt speed whist game
+	private Game.GameState dealtGame() throws IOException {
+		GameParser gameSpec = new GameParser("games/speed_whist.json");
+		Game.GameState gameState = new GameFileLoader().loadAiGameFromSpec(gameSpec,
+				(number, name, state) -> new PlayerAI(number, name, state, new Random(number)));
+		new Game().start(gameState, 0);
+		return gameState;
+	}
+
+	// Method to encode an event and decode it again
+	private NetworkEvent roundTrip(NetworkEvent event, int sequence) throws StreamCorruptedException {
+		Assert.assertTrue(BinaryEventCodec.canEncode(event));
+		ByteBuffer buffer = ByteBuffer.allocate(BinaryEventCodec.MAX_BYTES);
+		BinaryEventCodec.encode(event, sequence, buffer);
+		buffer.flip();
+		Assert.assertTrue(BinaryEventCodec.isBinary(buffer));
+		NetworkEvent decoded = BinaryEventCodec.decode(buffer, sequence);
+		Assert.assertFalse(buffer.hasRemaining());
+		return decoded;
+	}
+
+	// Method to make a bid event
+	private BidEvent bid(String suit, int value, boolean doubling, boolean blindBid) {
+		BidEvent bid = new BidEvent();
+		bid.type = "bid";
+		bid.suit = suit;
+		bid.value = value;
+		bid.doubling = doubling;
+		bid.blindBid = blindBid;
+		return bid;
+	}
+
+	@Test
+	public void testMoveRoundTrip() throws IOException, RuleBreachException {
+		Game.GameState gameState = dealtGame();
+
+		// check every card of the deck comes back as the same interned card, with the position hash
+		int sequence = 0;
+		for (Card card : gameState.gameSpec.deck.registry.getCards()) {
+			PlayCardEvent move = (PlayCardEvent) roundTrip(Game.cardToEvent(card, gameState), sequence++);
+			Assert.assertEquals("play", move.type);
+			Assert.assertSame(card, Game.cardFromEvent(move, gameState));
+			Assert.assertEquals(Long.valueOf(gameState.getPositionHash()), move.positionHash);
+		}
+
+		// check a move without a hash is sent without one
+		PlayCardEvent move = Game.cardToEvent(gameState.gameSpec.deck.registry.get(3), gameState);
+		move.positionHash = null;
+		Assert.assertNull(((PlayCardEvent) roundTrip(move, 0)).positionHash);
+
+		// check a move relayed by a table server keeps the seat it was made at, with its hash, and a seat past a byte
+		// cannot be sent
+		move.positionHash = gameState.getPositionHash();
+		move.setOriginSeat(2);
+		PlayCardEvent relayed = (PlayCardEvent) roundTrip(move, 0);
+		Assert.assertEquals(Integer.valueOf(2), relayed.getOriginSeat());
+		Assert.assertEquals(move.positionHash, relayed.positionHash);
+		move.setOriginSeat(256);
+		Assert.assertFalse(BinaryEventCodec.canEncode(move));
+		move.setOriginSeat(null);
+
+		// check an ordinal outside the deck is no card, and a card never interned cannot be sent
+		move.cardOrdinal = gameState.gameSpec.deck.registry.size();
+		Assert.assertNull(Game.cardFromEvent((PlayCardEvent) roundTrip(move, 0), gameState));
+		move.cardOrdinal = null;
+		Assert.assertFalse(BinaryEventCodec.canEncode(move));
+	}
+
+	@Test
+	public void testBidRoundTrip() throws StreamCorruptedException {
+		BidEvent[] bids = {bid("SPADES", 4, false, false), bid(null, 3, false, false), bid(null, -1, false, false),
+				bid("CLUBS", 0, true, false), bid("HEARTS", 7, false, true)};
+
+		// check every field of each bid comes back
+		for (int i = 0; i < bids.length; i++) {
+			BidEvent decoded = (BidEvent) roundTrip(bids[i], i);
+			Assert.assertEquals("bid", decoded.type);
+			Assert.assertEquals(bids[i].suit, decoded.suit);
+			Assert.assertEquals(bids[i].value, decoded.value);
+			Assert.assertEquals(bids[i].doubling, decoded.doubling);
+			Assert.assertEquals(bids[i].blindBid, decoded.blindBid);
+		}
+
+		// check a bid relayed by a table server keeps the seat it was made at
+		BidEvent relayed = bid("SPADES", 4, false, false);
+		relayed.setOriginSeat(3);
+		Assert.assertEquals(Integer.valueOf(3), roundTrip(relayed, 0).getOriginSeat());
+		Assert.assertNull(roundTrip(bids[0], 0).getOriginSeat());
+
+		// check a bid of an unknown suit cannot be sent
+		Assert.assertFalse(BinaryEventCodec.canEncode(bid("STARS", 1, false, false)));
+	}
+
+	@Test
+	public void testBadMessagesRefused() {
+		ByteBuffer buffer = ByteBuffer.allocate(BinaryEventCodec.MAX_BYTES);
+		BinaryEventCodec.encode(bid("SPADES", 4, false, false), 5, buffer);
+		buffer.flip();
+
+		// check json is not taken for binary
+		Assert.assertFalse(BinaryEventCodec.isBinary(ByteBuffer.wrap("{}".getBytes())));
+
+		// check a message out of sequence or cut short is refused
+		try {
+			BinaryEventCodec.decode(buffer.duplicate(), 4);
+			Assert.fail();
+		} catch (StreamCorruptedException e) {
+			// expected
+		}
+		try {
+			BinaryEventCodec.decode((ByteBuffer) buffer.duplicate().limit(6), 5);
+			Assert.fail();
+		} catch (StreamCorruptedException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testBinaryNegotiated() throws IOException, InterruptedException, RuleBreachException {
+		Game.GameState gameState = dealtGame();
+		Card card = gameState.gameSpec.deck.registry.get(7);
+		BlockingQueue<NetworkEvent> echoed = new ArrayBlockingQueue<>(1);
+		EventLoop eventLoop = new EventLoop();
+		Thread loopThread = new Thread(eventLoop);
+		loopThread.start();
+
+		try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+			serverChannel.bind(new InetSocketAddress("localhost", 0));
+
+			// Echo every binary event back
+			eventLoop.listen(serverChannel, accepted -> new EventLoop.Handler() {
+				@Override
+				public void received(Connection connection, JsonObject message) {
+				}
+
+				@Override
+				public void received(Connection connection, NetworkEvent event) {
+					Assert.assertTrue(connection.sendBinary(event));
+				}
+
+				@Override
+				public void closed(Connection connection) {
+				}
+			});
+
+			Connection client = eventLoop.register(SocketChannel.open(serverChannel.getLocalAddress()), new EventLoop.Handler() {
+				@Override
+				public void received(Connection connection, JsonObject message) {
+				}
+
+				@Override
+				public void received(Connection connection, NetworkEvent event) {
+					echoed.add(event);
+				}
+
+				@Override
+				public void closed(Connection connection) {
+				}
+			});
+
+			// check nothing is sent in binary until the offer is answered
+			Assert.assertFalse(client.sendBinary(Game.cardToEvent(card, gameState)));
+			JsonObject ready = new JsonObject();
+			ready.addProperty("ready", true);
+			client.send(Connection.offerBinaryEvents(ready).toString());
+			long deadline = System.currentTimeMillis() + 10000;
+			while (!client.isBinaryEvents() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			Assert.assertTrue(client.isBinaryEvents());
+			Assert.assertTrue(client.isLengthFramed());
+
+			// check moves are then sent and echoed in binary, in sequence
+			for (int i = 0; i < 3; i++) {
+				Assert.assertTrue(client.sendBinary(Game.cardToEvent(card, gameState)));
+				NetworkEvent event = echoed.poll(10, TimeUnit.SECONDS);
+				Assert.assertNotNull(event);
+				Assert.assertSame(card, Game.cardFromEvent((PlayCardEvent) event, gameState));
+			}
+			Assert.assertFalse(client.isClosed());
+		} finally {
+			eventLoop.close();
+			loopThread.join(5000);
+		}
+	}
+}
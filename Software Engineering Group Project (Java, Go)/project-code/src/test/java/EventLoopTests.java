@@ -0,0 +1,331 @@
+import Network.Connection;
+import Network.EventLoop;
+import Network.Framer;
+import Network.JsonFramer;
+import Network.LengthFramer;
+import Network.Events.NetworkEvent;
+import com.google.gson.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class EventLoopTests {
+
+	// Method to read the next message from a framer as text, null if none is complete
+	private static String next(Framer framer, ByteBuffer input) throws IOException {
+		ByteBuffer message = framer.next(input);
+		return (message == null) ? null : StandardCharsets.UTF_8.decode(message).toString();
+	}
+
+	@Test
+	public void testFramerSplitsMessages() throws IOException {
+		String first = "{\"type\":\"play\",\"note\":\"a } in a \\\"string\\\" {\",\"suit\":\"\u2660\"}";
+		String second = "[1,{\"a\":[2]}]";
+		byte[] bytes = (" " + first + "\n" + second).getBytes(StandardCharsets.UTF_8);
+		JsonFramer framer = new JsonFramer();
+
+		// check messages come out whole when fed a byte at a time, splitting the multi byte suit
+		List<String> messages = new ArrayList<>();
+		for (byte b : bytes) {
+			String message = next(framer, ByteBuffer.wrap(new byte[] {b}));
+			if (message != null) {
+				messages.add(message);
+			}
+		}
+		Assert.assertEquals(2, messages.size());
+		Assert.assertEquals(first, messages.get(0));
+		Assert.assertEquals(second, messages.get(1));
+
+		// check messages in one read come out one call at a time
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		Assert.assertEquals(first, next(framer, buffer));
+		Assert.assertEquals(second, next(framer, buffer));
+		Assert.assertNull(next(framer, buffer));
+	}
+
+	@Test
+	public void testLengthFramerSplitsFrames() throws IOException {
+		byte[] first = "{\"type\":\"play\",\"suit\":\"\u2660\"}".getBytes(StandardCharsets.UTF_8);
+		byte[] second = "{}".getBytes(StandardCharsets.UTF_8);
+		ByteBuffer frames = ByteBuffer.allocate(2 * LengthFramer.HEADER_BYTES + first.length + second.length + 4);
+		frames.putInt(first.length).put(first).putInt(0).putInt(second.length).put(second);
+		frames.flip();
+		byte[] bytes = new byte[frames.remaining()];
+		frames.get(bytes);
+		LengthFramer framer = new LengthFramer();
+
+		// check frames come out whole when fed a byte at a time, including an empty frame
+		List<String> messages = new ArrayList<>();
+		for (byte b : bytes) {
+			String message = next(framer, ByteBuffer.wrap(new byte[] {b}));
+			if (message != null) {
+				messages.add(message);
+			}
+		}
+		Assert.assertEquals(3, messages.size());
+		Assert.assertEquals(new String(first, StandardCharsets.UTF_8), messages.get(0));
+		Assert.assertEquals("", messages.get(1));
+		Assert.assertEquals("{}", messages.get(2));
+
+		// check a frame too long to accept is refused
+		try {
+			next(framer, ByteBuffer.allocate(4).putInt(0, Framer.MAX_MESSAGE_BYTES + 1));
+			Assert.fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testManyPeersOneThread() throws IOException, InterruptedException {
+		int peers = 50;
+		Set<Thread> handlerThreads = ConcurrentHashMap.newKeySet();
+		CountDownLatch received = new CountDownLatch(peers * 2);
+		EventLoop eventLoop = new EventLoop();
+		Thread loopThread = new Thread(eventLoop);
+		loopThread.start();
+
+		try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+			serverChannel.bind(new InetSocketAddress("localhost", 0));
+			int port = serverChannel.socket().getLocalPort();
+
+			// Echo every message back
+			eventLoop.listen(serverChannel, accepted -> new EventLoop.Handler() {
+				@Override
+				public void received(Connection connection, JsonObject message) {
+					handlerThreads.add(Thread.currentThread());
+					connection.send(message.toString());
+					received.countDown();
+				}
+
+				@Override
+				public void received(Connection connection, NetworkEvent event) {
+				}
+
+				@Override
+				public void closed(Connection connection) {
+				}
+			});
+
+			List<Socket> sockets = new ArrayList<>();
+			try {
+				for (int i = 0; i < peers; i++) {
+					Socket socket = new Socket("localhost", port);
+					sockets.add(socket);
+					OutputStream out = socket.getOutputStream();
+					out.write(("{\"peer\":" + i + ",\"n\":0}{\"peer\":" + i).getBytes(StandardCharsets.UTF_8));
+					out.flush();
+					out.write(",\"n\":1}".getBytes(StandardCharsets.UTF_8));
+					out.flush();
+				}
+
+				// check every message from every peer is read, all on the loop thread
+				Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+				Assert.assertEquals(1, handlerThreads.size());
+				Assert.assertTrue(handlerThreads.contains(loopThread));
+
+				// check echoes arrive whole and in order
+				InputStreamReader reader = new InputStreamReader(sockets.get(7).getInputStream(), StandardCharsets.UTF_8);
+				char[] expected = "{\"peer\":7,\"n\":0}{\"peer\":7,\"n\":1}".toCharArray();
+				char[] echoed = new char[expected.length];
+				int read = 0;
+				while (read < echoed.length) {
+					read += reader.read(echoed, read, echoed.length - read);
+				}
+				Assert.assertArrayEquals(expected, echoed);
+			} finally {
+				for (Socket socket : sockets) {
+					socket.close();
+				}
+			}
+		} finally {
+			eventLoop.close();
+			loopThread.join(5000);
+		}
+		Assert.assertFalse(loopThread.isAlive());
+	}
+
+	@Test
+	public void testDeadPeerClosed() throws IOException, InterruptedException {
+		CountDownLatch closed = new CountDownLatch(2);
+		List<Connection> connections = new ArrayList<>();
+		EventLoop eventLoop = new EventLoop();
+		Thread loopThread = new Thread(eventLoop);
+		loopThread.start();
+
+		try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+			serverChannel.bind(new InetSocketAddress("localhost", 0));
+			eventLoop.listen(serverChannel, accepted -> {
+				connections.add(accepted);
+				return new EventLoop.Handler() {
+					@Override
+					public void received(Connection connection, JsonObject message) {
+					}
+
+					@Override
+					public void received(Connection connection, NetworkEvent event) {
+					}
+
+					@Override
+					public void closed(Connection connection) {
+						closed.countDown();
+					}
+				};
+			});
+
+			// One peer hangs up, the other sends something that is not json
+			new Socket("localhost", serverChannel.socket().getLocalPort()).close();
+			try (Socket socket = new Socket("localhost", serverChannel.socket().getLocalPort())) {
+				socket.getOutputStream().write("hello".getBytes(StandardCharsets.UTF_8));
+				socket.getOutputStream().flush();
+
+				// check both are closed and dropped
+				Assert.assertTrue(closed.await(10, TimeUnit.SECONDS));
+				Assert.assertEquals(2, connections.size());
+				for (Connection connection : connections) {
+					Assert.assertTrue(connection.isClosed());
+				}
+			}
+		} finally {
+			eventLoop.close();
+			loopThread.join(5000);
+		}
+	}
+
+	@Test
+	public void testPeerGoneWhileSendingClosed() throws IOException, InterruptedException {
+		CountDownLatch closed = new CountDownLatch(1);
+		List<Connection> connections = new ArrayList<>();
+		CountDownLatch accepted = new CountDownLatch(1);
+		EventLoop eventLoop = new EventLoop();
+		Thread loopThread = new Thread(eventLoop);
+		loopThread.start();
+
+		try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+			serverChannel.bind(new InetSocketAddress("localhost", 0));
+			eventLoop.listen(serverChannel, connection -> {
+				connections.add(connection);
+				accepted.countDown();
+				return new EventLoop.Handler() {
+					@Override
+					public void received(Connection connection, JsonObject message) {
+					}
+
+					@Override
+					public void received(Connection connection, NetworkEvent event) {
+					}
+
+					@Override
+					public void closed(Connection connection) {
+						closed.countDown();
+					}
+				};
+			});
+
+			// Peer resets the connection while this side keeps sending
+			Socket socket = new Socket("localhost", serverChannel.socket().getLocalPort());
+			Assert.assertTrue(accepted.await(10, TimeUnit.SECONDS));
+			socket.setSoLinger(true, 0);
+			socket.close();
+			char[] filler = new char[1000];
+			Arrays.fill(filler, 'x');
+			String message = "{\"filler\":\"" + new String(filler) + "\"}";
+			for (int i = 0; i < 1000 && closed.getCount() > 0; i++) {
+				connections.get(0).send(message);
+				Thread.sleep(1);
+			}
+
+			// check the handler is told the peer is gone, and the connection is closed
+			Assert.assertTrue(closed.await(10, TimeUnit.SECONDS));
+			Assert.assertTrue(connections.get(0).isClosed());
+		} finally {
+			eventLoop.close();
+			loopThread.join(5000);
+		}
+	}
+
+	@Test
+	public void testConnectsAtOnce() throws Exception {
+		int peers = 20;
+		CountDownLatch received = new CountDownLatch(peers);
+		EventLoop eventLoop = new EventLoop();
+		Thread loopThread = new Thread(eventLoop);
+		loopThread.start();
+		EventLoop.Handler ignore = new EventLoop.Handler() {
+			@Override
+			public void received(Connection connection, JsonObject message) {
+			}
+
+			@Override
+			public void received(Connection connection, NetworkEvent event) {
+			}
+
+			@Override
+			public void closed(Connection connection) {
+			}
+		};
+
+		try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+			serverChannel.bind(new InetSocketAddress("localhost", 0));
+			eventLoop.listen(serverChannel, accepted -> new EventLoop.Handler() {
+				@Override
+				public void received(Connection connection, JsonObject message) {
+					received.countDown();
+				}
+
+				@Override
+				public void received(Connection connection, NetworkEvent event) {
+				}
+
+				@Override
+				public void closed(Connection connection) {
+				}
+			});
+
+			// Start every connect before waiting on any
+			List<CompletableFuture<Connection>> connecting = new ArrayList<>();
+			for (int i = 0; i < peers; i++) {
+				connecting.add(eventLoop.connect(serverChannel.getLocalAddress(), ignore));
+			}
+
+			// check each connects and can be sent to at once
+			for (CompletableFuture<Connection> connect : connecting) {
+				connect.get(10, TimeUnit.SECONDS).send("{}");
+			}
+			Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+
+			// check a connect to a closed port fails rather than hangs
+			int closedPort;
+			try (ServerSocketChannel unused = ServerSocketChannel.open()) {
+				unused.bind(new InetSocketAddress("localhost", 0));
+				closedPort = unused.socket().getLocalPort();
+			}
+			try {
+				eventLoop.connect(new InetSocketAddress("localhost", closedPort), ignore).get(10, TimeUnit.SECONDS);
+				Assert.fail();
+			} catch (ExecutionException e) {
+				Assert.assertTrue(e.getCause() instanceof IOException);
+			}
+		} finally {
+			eventLoop.close();
+			loopThread.join(5000);
+		}
+	}
+}
@@ -1,6 +1,63 @@
 // package test.java;
 
+import GameLogic.Core.Game;
+import GameLogic.GameFileLoader;
+import GameLogic.Saving.GameSaveHandler;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
 public class GameSaveHandlerTests {
+
+    @Rule
+    public TemporaryFolder saveDirectory = new TemporaryFolder();
+
+    @Test
+    public void testLoadedGameDealsTheSame() throws IOException {
+        Game.GameState gameState = new GameFileLoader().loadGameFromFile("games/speed_whist.json", null, true);
+        new Game().start(gameState, 3);
+        for (int i = 0; i < 5; i++) {
+            gameState.deckHandler.createDeck(gameState.gameSpec.deck.cards);
+            gameState.deckHandler.shuffleDeck();
+        }
+
+        GameSaveHandler gameSaveHandler = new GameSaveHandler(this.saveDirectory.getRoot());
+        File saveFile = gameSaveHandler.saveGame(gameState);
+        Assert.assertNotNull(saveFile);
+        Assert.assertEquals(this.saveDirectory.getRoot(), saveFile.getParentFile());
+
+        // check a save holding the shuffler state
+        Game.GameState fromState = gameSaveHandler.loadGame(saveFile.getPath());
+
+        // check an older save without it
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Object> saved = objectMapper.readValue(saveFile, new TypeReference<Map<String, Object>>() {
+        });
+        saved.remove("twisterState");
+        objectMapper.writeValue(saveFile, saved);
+        Game.GameState fromCount = gameSaveHandler.loadGame(saveFile.getPath());
+
+        // check next deal is the same
+        gameState.deckHandler.createDeck(gameState.gameSpec.deck.cards);
+        gameState.deckHandler.shuffleDeck();
+        for (Game.GameState loaded : new Game.GameState[] { fromState, fromCount }) {
+            Assert.assertNotNull(loaded);
+            Assert.assertEquals(gameState.deckHandler.getShuffleCount() - 1, loaded.deckHandler.getShuffleCount());
+            loaded.deckHandler.createDeck(loaded.gameSpec.deck.cards);
+            loaded.deckHandler.shuffleDeck();
+            Assert.assertEquals(gameState.deckHandler.getDeck().size(), loaded.deckHandler.getDeck().size());
+            for (int i = 0; i < gameState.deckHandler.getDeck().size(); i++) {
+                Assert.assertEquals(gameState.deckHandler.getDeck().get(i), loaded.deckHandler.getDeck().get(i));
+            }
+        }
+    }
 //
 //    GameSaveHandler gameSaveHandler;
 //    Game.GameState testGameState;
@@ -1,12 +1,25 @@
+import GameLogic.BatchSimulator;
+import GameLogic.Core.Bid;
 import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
 import GameLogic.Core.Player;
 import GameLogic.Core.PlayerAI;
 import GameLogic.Core.PlayerLocalJson;
+import GameLogic.DeckAndCards.Card;
 import GameLogic.GameFileLoader;
+import Network.Events.BidEvent;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class GameTests {
 	
@@ -51,4 +64,330 @@ public class GameTests {
 		this.game.runGame(this.gameState, null, new Random().nextInt(1000));
 	}
 	
+	@Test
+	public void testTrumpNotBeatenByLedSuit() {
+		setupGame("games/speed_whist.json");
+		Game.StepResult step = this.game.start(this.gameState, 3);
+		Assert.assertEquals(Game.Action.MOVE, step.expectedAction);
+		int leader = step.nextPlayerNumber;
+		int ruffer = (leader + 1) % 4;
+		int follower = (leader + 2) % 4;
+		int last = (leader + 3) % 4;
+		
+		// Lowest trump, and lowest and highest of a suit led, with the cards of a third suit to fill the hands
+		Card trump = null;
+		Card lowLed = null;
+		Card highLed = null;
+		List<Card> others = new ArrayList<>();
+		Card led = null;
+		for (Card thisCard : this.gameState.gameSpec.deck.registry.getCards()) {
+			if (thisCard.getSuit() == this.gameState.trumpSuit) {
+				if (trump == null || thisCard.getValue() < trump.getValue()) {
+					trump = thisCard;
+				}
+			} else if (led == null || thisCard.getSuit() == led.getSuit()) {
+				led = thisCard;
+				if (lowLed == null || thisCard.getValue() < lowLed.getValue()) {
+					lowLed = thisCard;
+				}
+				if (highLed == null || thisCard.getValue() > highLed.getValue()) {
+					highLed = thisCard;
+				}
+			} else if (others.isEmpty() || thisCard.getSuit() == others.get(0).getSuit()) {
+				others.add(thisCard);
+			}
+		}
+		this.gameState.players[leader].setHand(Arrays.asList(lowLed, others.get(0)));
+		this.gameState.players[ruffer].setHand(Arrays.asList(trump, others.get(1)));
+		this.gameState.players[follower].setHand(Arrays.asList(highLed, others.get(2)));
+		this.gameState.players[last].setHand(Arrays.asList(others.get(3), others.get(4)));
+		
+		// check a higher card of the led suit played after a trump does not take the trick from it
+		Assert.assertTrue(this.game.submitMove(this.gameState, leader, lowLed).accepted);
+		Assert.assertTrue(this.game.submitMove(this.gameState, ruffer, trump).accepted);
+		Assert.assertTrue(this.game.submitMove(this.gameState, follower, highLed).accepted);
+		step = this.game.submitMove(this.gameState, last, others.get(3));
+		Assert.assertTrue(step.accepted);
+		Assert.assertEquals(ruffer, step.nextPlayerNumber);
+		Assert.assertEquals(1, this.gameState.players[ruffer].getTricksThisHand());
+		Assert.assertEquals(0, this.gameState.players[follower].getTricksThisHand());
+	}
+	
+	// Plays a table without bidding through the step-wise api, submitting the first valid card of each hand
+	private int playStepwise(Game.StepResult step) {
+		int cardsPlayed = 0;
+		while (step.expectedAction != Game.Action.NONE) {
+			Assert.assertEquals(Game.Action.MOVE, step.expectedAction);
+			int playerNumber = step.nextPlayerNumber;
+			
+			// check other players can't move
+			int otherPlayerNumber = (playerNumber + 1) % this.gameState.players.length;
+			Card ownCard = this.gameState.players[playerNumber].getHand().get(0);
+			Assert.assertFalse(this.game.submitMove(this.gameState, otherPlayerNumber, ownCard).accepted);
+			
+			// check invalid moves leave table waiting for same player
+			Game.StepResult result = null;
+			for (Card thisCard : new ArrayList<>(this.gameState.players[playerNumber].getHand())) {
+				result = this.game.submitMove(this.gameState, playerNumber, thisCard);
+				if (result.accepted) {
+					break;
+				}
+				Assert.assertEquals(Game.Action.MOVE, result.expectedAction);
+				Assert.assertEquals(playerNumber, result.nextPlayerNumber);
+				Assert.assertTrue(result.transitions.isEmpty());
+			}
+			Assert.assertTrue(result.accepted);
+			Assert.assertEquals(Game.Transition.CARD_PLAYED, result.transitions.get(0));
+			step = result;
+			cardsPlayed++;
+		}
+		
+		// check finished
+		Assert.assertEquals(-1, step.nextPlayerNumber);
+		Assert.assertEquals(Game.Transition.FINISHED, step.transitions.get(step.transitions.size() - 1));
+		return cardsPlayed;
+	}
+	
+	@Test
+	public void testStepwiseSpeedWhist() {
+		setupGame("games/speed_whist.json");
+		
+		// check starts waiting for a move
+		Game.StepResult step = this.game.start(this.gameState, 7);
+		Assert.assertTrue(step.accepted);
+		Assert.assertEquals(Game.Action.MOVE, step.expectedAction);
+		Assert.assertTrue(step.transitions.contains(Game.Transition.HAND_STARTED));
+		
+		// check bids rejected when moves expected
+		Assert.assertFalse(this.game.submitBid(this.gameState, step.nextPlayerNumber, new Bid(1, null, false)).accepted);
+		
+		Assert.assertTrue(playStepwise(step) > 0);
+	}
+	
+	@Test
+	public void testLegalMovesMatchSubmit() {
+		setupGame("games/speed_whist.json");
+		Game.StepResult step = this.game.start(this.gameState, 3);
+		List<Card> legalCards = new ArrayList<>();
+		
+		while (step.expectedAction == Game.Action.MOVE) {
+			Player player = this.gameState.players[step.nextPlayerNumber];
+			long legal = this.gameState.legalMoves(player);
+			this.gameState.legalMoves(player, legalCards);
+			
+			// check mask and list agree, and something is playable
+			Assert.assertFalse(legalCards.isEmpty());
+			Assert.assertEquals(Long.bitCount(legal), legalCards.size());
+			
+			// check every other card is refused
+			for (Card thisCard : new ArrayList<>(player.getHand())) {
+				if (!legalCards.contains(thisCard)) {
+					Assert.assertFalse(this.game.submitMove(this.gameState, player.getNumber(), thisCard).accepted);
+				}
+			}
+			
+			// check a playable card is accepted
+			step = this.game.submitMove(this.gameState, player.getNumber(), legalCards.get(legalCards.size() - 1));
+			Assert.assertTrue(step.accepted);
+			if (step.transitions.contains(Game.Transition.HAND_COMPLETE)) {
+				break;
+			}
+		}
+	}
+	
+	// Collects everything applyMove may change, with lists copied and their identities kept
+	private List<Object> moveState() {
+		List<Object> state = new ArrayList<>();
+		for (Player thisPlayer : this.gameState.players) {
+			state.add(thisPlayer.getHand().getBits());
+			state.add(thisPlayer.getTricksThisHand());
+			state.add(thisPlayer.getTricksThisGame());
+			state.add(new ArrayList<>(thisPlayer.getTricksEarned()));
+			state.add(this.gameState.cardTracker.getNotHeld(thisPlayer.getNumber()));
+			state.add(this.gameState.cardTracker.getKnownHeld(thisPlayer.getNumber()));
+		}
+		state.add(this.gameState.cardTracker.getPlayed());
+		state.add(System.identityHashCode(this.gameState.currentTable.getCards()));
+		state.add(new ArrayList<>(this.gameState.currentTable.getCards()));
+		state.add(System.identityHashCode(this.gameState.allowedSuits));
+		state.add((this.gameState.allowedSuits == null) ? null : new ArrayList<>(this.gameState.allowedSuits));
+		state.add(System.identityHashCode(this.gameState.allowedValues));
+		state.add((this.gameState.allowedValues == null) ? null : new ArrayList<>(this.gameState.allowedValues));
+		state.add(System.identityHashCode(this.gameState.prevTrick));
+		state.add(this.gameState.currentPlayerNumber);
+		state.add(this.gameState.firstPlayerNumber);
+		state.add(this.gameState.prevWinnerNumber);
+		state.add(this.gameState.turnNumber);
+		state.add(this.gameState.trickNumber);
+		state.add(this.gameState.getPositionHash());
+		return state;
+	}
+	
+	// Plays a hand trying out lines of play with applyMove and undoMove before each submitted move
+	private void checkApplyAndUndo(String gameFileName, int seed) {
+		setupGame(gameFileName);
+		Game.StepResult step = this.game.start(this.gameState, seed);
+		Random random = new Random(seed);
+		int moves = 0;
+		List<Card> legalCards = new ArrayList<>();
+		
+		while (step.expectedAction == Game.Action.MOVE) {
+			Player player = this.gameState.players[step.nextPlayerNumber];
+			List<Object> before = moveState();
+			
+			// check illegal card refused without changing anything
+			for (Card thisCard : this.gameState.players[(player.getNumber() + 1) % this.gameState.players.length].getHand()) {
+				Assert.assertFalse(this.gameState.applyMove(thisCard));
+			}
+			Assert.assertEquals(0, this.gameState.getMovesApplied());
+			
+			// check random lines of play across tricks are exactly taken back
+			for (int line = 0; line < 20; line++) {
+				int depth = 1 + random.nextInt(12);
+				for (int i = 0; i < depth; i++) {
+					this.gameState.legalMoves(this.gameState.players[this.gameState.currentPlayerNumber], legalCards);
+					if (legalCards.isEmpty()) {
+						break;
+					}
+					Assert.assertTrue(this.gameState.applyMove(legalCards.get(random.nextInt(legalCards.size()))));
+					Assert.assertEquals(this.gameState.computePositionHash(), this.gameState.getPositionHash());
+				}
+				while (this.gameState.getMovesApplied() > 0) {
+					this.gameState.undoMove();
+				}
+				Assert.assertEquals(before, moveState());
+			}
+			
+			// check applying the chosen card agrees with submitting it
+			this.gameState.legalMoves(player, legalCards);
+			Card card = legalCards.get(random.nextInt(legalCards.size()));
+			this.gameState.applyMove(card);
+			int appliedNext = this.gameState.currentPlayerNumber;
+			int appliedWinner = this.gameState.prevWinnerNumber;
+			this.gameState.undoMove();
+			step = this.game.submitMove(this.gameState, player.getNumber(), card);
+			Assert.assertTrue(step.accepted);
+			moves++;
+			if (step.transitions.contains(Game.Transition.HAND_COMPLETE)) {
+				break;
+			}
+			Assert.assertEquals(appliedNext, this.gameState.currentPlayerNumber);
+			Assert.assertEquals(appliedWinner, this.gameState.prevWinnerNumber);
+		}
+		
+		// check a whole hand was played
+		Assert.assertTrue(moves > this.gameState.players.length);
+	}
+	
+	@Test
+	public void testApplyAndUndoMoves() {
+		checkApplyAndUndo("games/speed_whist.json", 5);
+	}
+	
+	@Test
+	public void testApplyAndUndoFixedLeadingCard() {
+		checkApplyAndUndo("games/A7 Game Store/no_pass_hearts.json", 0);
+	}
+	
+	// Plays some hands with ai players, returning the position hash before each move
+	private List<Long> playHashed(String gameFileName, int seed, int hands) {
+		setupGame(gameFileName);
+		for (int i = 0; i < this.gameState.players.length; i++) {
+			this.gameState.players[i] = new PlayerAI(i, "AI Player " + i, this.gameState, new Random(seed + i));
+		}
+		List<Long> hashes = new ArrayList<>();
+		Game.StepResult step = this.game.start(this.gameState, seed);
+		while (step.expectedAction != Game.Action.NONE && hands > 0) {
+			Player player = this.gameState.players[step.nextPlayerNumber];
+			if (step.expectedAction == Game.Action.BID) {
+				step = this.game.submitBid(this.gameState, player.getNumber(), player.receiveBid());
+			} else {
+				// check kept hash matches one worked out from scratch
+				Assert.assertEquals(this.gameState.computePositionHash(), this.gameState.getPositionHash());
+				hashes.add(this.gameState.getPositionHash());
+				step = this.game.submitMove(this.gameState, player.getNumber(), player.receiveMove());
+			}
+			if (step.transitions.contains(Game.Transition.HAND_COMPLETE)) {
+				hands--;
+			}
+		}
+		return hashes;
+	}
+	
+	@Test
+	public void testPositionHash() {
+		List<Long> whistHashes = playHashed("games/speed_whist.json", 4, 3);
+		List<Long> bridgeHashes = playHashed("games/bridge.json", 4, 3);
+		
+		// check every position in a hand hashes differently, as cards only ever leave hands
+		Assert.assertEquals(whistHashes.size(), new HashSet<>(whistHashes).size());
+		
+		// check the same game from the same seed gives the same hashes, as peers must
+		Assert.assertEquals(bridgeHashes, playHashed("games/bridge.json", 4, 3));
+	}
+	
+	@Test
+	public void testStepwiseBidding() {
+		setupGame("games/SG Game Store/ohhell.json");
+		
+		// check starts waiting for a bid
+		Game.StepResult step = this.game.start(this.gameState, 7);
+		Assert.assertEquals(Game.Action.BID, step.expectedAction);
+		
+		// check malformed bid event rejected
+		BidEvent badEvent = new BidEvent();
+		badEvent.suit = "NOT A SUIT";
+		Assert.assertFalse(this.game.submitBid(this.gameState, step.nextPlayerNumber, badEvent).accepted);
+		
+		// check each player bids once, then a move is expected
+		for (int i = 0; i < this.gameState.players.length; i++) {
+			Assert.assertEquals(Game.Action.BID, step.expectedAction);
+			BidEvent bidEvent = new BidEvent();
+			bidEvent.type = "bid";
+			bidEvent.value = 1;
+			step = this.game.submitBid(this.gameState, step.nextPlayerNumber, bidEvent);
+			Assert.assertTrue(step.accepted);
+		}
+		Assert.assertEquals(Game.Action.MOVE, step.expectedAction);
+		for (Player thisPlayer : this.gameState.players) {
+			Assert.assertEquals(1, thisPlayer.getBid().getValue());
+		}
+	}
+	
+	@Test
+	public void testConcurrentMatchesSerial() throws Exception {
+		String[] gameFileNames = { "games/speed_whist.json", "games/A7 Game Store/whist.json",
+				"games/SG Game Store/catchtheten.json", "games/SG Game Store/two-trick-pony.json" };
+		int sessionsPerGame = 100;
+		
+		for (String gameFileName : gameFileNames) {
+			BatchSimulator simulator = new BatchSimulator(new GameParser(gameFileName));
+			
+			//Run serially
+			List<BatchSimulator.SimulationResult> serial = new ArrayList<>();
+			for (int seed = 0; seed < sessionsPerGame; seed++) {
+				serial.add(simulator.simulateSession(seed));
+			}
+			
+			//Run the same seeds at the same time in one JVM
+			ExecutorService pool = Executors.newFixedThreadPool(8);
+			List<Future<BatchSimulator.SimulationResult>> concurrent = new ArrayList<>();
+			for (int seed = 0; seed < sessionsPerGame; seed++) {
+				final int thisSeed = seed;
+				concurrent.add(pool.submit(() -> simulator.simulateSession(thisSeed)));
+			}
+			pool.shutdown();
+			
+			//Check each session matches
+			for (int seed = 0; seed < sessionsPerGame; seed++) {
+				BatchSimulator.SimulationResult expected = serial.get(seed);
+				BatchSimulator.SimulationResult actual = concurrent.get(seed).get();
+				Assert.assertArrayEquals(gameFileName, expected.points, actual.points);
+				Assert.assertArrayEquals(gameFileName, expected.tricks, actual.tricks);
+				Assert.assertArrayEquals(gameFileName, expected.sessionWins, actual.sessionWins);
+				Assert.assertEquals(gameFileName, expected.games, actual.games);
+			}
+		}
+	}
+	
 }
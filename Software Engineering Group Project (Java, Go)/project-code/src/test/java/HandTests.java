@@ -0,0 +1,109 @@
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+public class HandTests {
+    Hand h;
+    Card c1;
+    Card c2;
+    Card c3;
+
+    @Before
+    public void setUp() {
+        h = new Hand();
+        c1 = new Card(2, Suit.DIAMONDS, 4);
+        c2 = new Card(12, Suit.SPADES, 7);
+        c3 = new Card(2, Suit.CLUBS, 0);
+    }
+
+    @Test
+    public void testAddAndContains() {
+        // check empty
+        Assert.assertTrue(h.isEmpty());
+        Assert.assertFalse(h.contains(c1));
+
+        // check normal
+        Assert.assertTrue(h.add(c1));
+        Assert.assertTrue(h.contains(new Card(2, Suit.DIAMONDS, 0)));
+        Assert.assertEquals(1, h.size());
+
+        // check duplicate
+        Assert.assertFalse(h.add(c1));
+        Assert.assertEquals(1, h.size());
+
+        // check null
+        Assert.assertFalse(h.contains(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNullSuit() {
+        h.add(new Card(0, null, 0));
+    }
+
+    @Test
+    public void testRemove() {
+        h.add(c1);
+        h.add(c2);
+
+        // check normal
+        Assert.assertTrue(h.remove(new Card(12, Suit.SPADES, 0)));
+        Assert.assertFalse(h.contains(c2));
+        Assert.assertEquals(1, h.size());
+
+        // check not held
+        Assert.assertFalse(h.remove(c3));
+    }
+
+    @Test
+    public void testSuitAndValueMasks() {
+        h.add(c1);
+        h.add(c2);
+
+        // check void
+        Assert.assertFalse(h.isVoidIn(Suit.DIAMONDS));
+        Assert.assertTrue(h.isVoidIn(Suit.HEARTS));
+
+        // check values
+        Assert.assertTrue(h.holdsValue(2));
+        Assert.assertTrue(h.holdsValue(12));
+        Assert.assertFalse(h.holdsValue(5));
+
+        // check multiple suits
+        ArrayList<Suit> suits = new ArrayList<>();
+        suits.add(Suit.HEARTS);
+        suits.add(Suit.CLUBS);
+        Assert.assertFalse(h.holdsAny(Hand.suitsMask(suits)));
+        suits.add(Suit.SPADES);
+        Assert.assertTrue(h.holdsAny(Hand.suitsMask(suits)));
+    }
+
+    @Test
+    public void testListAccess() {
+        h.add(c2);
+        h.add(c1);
+        h.add(c3);
+
+        // check ordered by suit then rank, keeping the held instance
+        Assert.assertSame(c1, h.get(0));
+        Assert.assertSame(c3, h.get(1));
+        Assert.assertSame(c2, h.get(2));
+        Assert.assertEquals(7, h.get(2).getPointValue());
+
+        // check iteration matches indexing
+        int i = 0;
+        for (Card c : h) {
+            Assert.assertSame(h.get(i), c);
+            i++;
+        }
+        Assert.assertEquals(3, i);
+
+        // check clear
+        h.clear();
+        Assert.assertTrue(h.isEmpty());
+    }
+}
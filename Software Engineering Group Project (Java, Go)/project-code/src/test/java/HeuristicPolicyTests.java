@@ -0,0 +1,147 @@
+import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
+import GameLogic.Core.HeuristicPolicy;
+import GameLogic.Core.Player;
+import GameLogic.Core.PlayerAI;
+import GameLogic.Core.PlayerHeuristic;
+import GameLogic.Core.TrickPosition;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+import GameLogic.GameFileLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class HeuristicPolicyTests {
+
+	// Finds the bit of a card by rank name, as decks of custom cards number their ranks from the rank order
+	private static int bit(GameParser gameSpec, String rank, Suit suit) {
+		return Hand.bitIndex(new Card(Card.rankStringToInt(rank, gameSpec.deck.rankOrder), suit, 0));
+	}
+
+	private static long mask(GameParser gameSpec, String rank, Suit suit) {
+		return 1L << bit(gameSpec, rank, suit);
+	}
+
+	// Plays the cards given onto the table of a deal, then asks the policy for the next player's card
+	private int choose(GameParser gameSpec, long[] hands, Suit trumpSuit, int... played) {
+		TrickPosition position = TrickPosition.fromDeal(gameSpec, hands, trumpSuit, 0);
+		for (int thisBit : played) {
+			position.play(thisBit);
+		}
+		return new HeuristicPolicy(gameSpec).choose(position, position.legalMoves(), null);
+	}
+
+	// Loads no pass hearts scored by the hearts in tricks won, so hearts are point cards to avoid
+	private GameParser heartsWithPoints() throws IOException {
+		String json = new String(Files.readAllBytes(Paths.get("games/A7 Game Store/no_pass_hearts.json")),
+				StandardCharsets.UTF_8);
+		Path path = Files.createTempFile("hearts", ".json");
+		path.toFile().deleteOnExit();
+		Files.write(path, json.replace("\"tricksWon\"", "\"trumpPointValue\"").getBytes(StandardCharsets.UTF_8));
+		return new GameParser(path.toString());
+	}
+
+	@Test
+	public void testWantingTricks() throws IOException {
+		GameParser gameSpec = new GameParser("games/bridge.json");
+		long lead = mask(gameSpec, "FIVE", Suit.HEARTS) | mask(gameSpec, "THREE", Suit.CLUBS);
+		long rest = mask(gameSpec, "SEVEN", Suit.DIAMONDS) | mask(gameSpec, "EIGHT", Suit.DIAMONDS);
+
+		// check leads a card no one can beat
+		long master = mask(gameSpec, "ACE", Suit.CLUBS) | mask(gameSpec, "FOUR", Suit.DIAMONDS);
+		Assert.assertEquals(bit(gameSpec, "ACE", Suit.CLUBS),
+				choose(gameSpec, new long[] {master, rest, rest, rest}, null));
+
+		// check wins with the cheapest winner
+		long[] hands = {lead, mask(gameSpec, "KING", Suit.HEARTS) | mask(gameSpec, "QUEEN", Suit.HEARTS), rest, rest};
+		Assert.assertEquals(bit(gameSpec, "QUEEN", Suit.HEARTS),
+				choose(gameSpec, hands, Suit.SPADES, bit(gameSpec, "FIVE", Suit.HEARTS)));
+
+		// check trumps in when void
+		hands[1] = mask(gameSpec, "TWO", Suit.SPADES) | mask(gameSpec, "NINE", Suit.CLUBS);
+		Assert.assertEquals(bit(gameSpec, "TWO", Suit.SPADES),
+				choose(gameSpec, hands, Suit.SPADES, bit(gameSpec, "FIVE", Suit.HEARTS)));
+
+		// check follows low when the trick is lost
+		hands[0] = mask(gameSpec, "ACE", Suit.HEARTS) | mask(gameSpec, "THREE", Suit.CLUBS);
+		hands[1] = mask(gameSpec, "THREE", Suit.HEARTS) | mask(gameSpec, "FOUR", Suit.HEARTS);
+		Assert.assertEquals(bit(gameSpec, "THREE", Suit.HEARTS),
+				choose(gameSpec, hands, Suit.SPADES, bit(gameSpec, "ACE", Suit.HEARTS)));
+
+		// check does not beat partner
+		hands[0] = mask(gameSpec, "TEN", Suit.HEARTS) | mask(gameSpec, "THREE", Suit.CLUBS);
+		hands[2] = mask(gameSpec, "KING", Suit.HEARTS) | mask(gameSpec, "TWO", Suit.HEARTS);
+		Assert.assertEquals(bit(gameSpec, "TWO", Suit.HEARTS),
+				choose(gameSpec, hands, Suit.SPADES, bit(gameSpec, "TEN", Suit.HEARTS), bit(gameSpec, "THREE", Suit.HEARTS)));
+	}
+
+	@Test
+	public void testAvoidingPoints() throws IOException {
+		GameParser gameSpec = heartsWithPoints();
+		long rest = mask(gameSpec, "SEVEN", Suit.DIAMONDS) | mask(gameSpec, "EIGHT", Suit.DIAMONDS)
+				| mask(gameSpec, "NINE", Suit.DIAMONDS);
+		long[] hands = {mask(gameSpec, "TEN", Suit.CLUBS) | mask(gameSpec, "ACE", Suit.HEARTS), 0L, rest, rest};
+
+		// check ducks under the winning card as high as it can
+		hands[1] = mask(gameSpec, "JACK", Suit.CLUBS) | mask(gameSpec, "NINE", Suit.CLUBS)
+				| mask(gameSpec, "FOUR", Suit.CLUBS);
+		Assert.assertEquals(bit(gameSpec, "NINE", Suit.CLUBS),
+				choose(gameSpec, hands, Suit.HEARTS, bit(gameSpec, "TEN", Suit.CLUBS)));
+
+		// check gives away its highest point card to a trick it loses
+		hands[1] = mask(gameSpec, "KING", Suit.HEARTS) | mask(gameSpec, "TWO", Suit.HEARTS)
+				| mask(gameSpec, "FOUR", Suit.DIAMONDS);
+		Assert.assertEquals(bit(gameSpec, "KING", Suit.HEARTS),
+				choose(gameSpec, hands, Suit.HEARTS, bit(gameSpec, "ACE", Suit.HEARTS)));
+
+		// check wins with its highest card when it must
+		hands[1] = mask(gameSpec, "QUEEN", Suit.CLUBS) | mask(gameSpec, "JACK", Suit.CLUBS)
+				| mask(gameSpec, "FOUR", Suit.DIAMONDS);
+		Assert.assertEquals(bit(gameSpec, "QUEEN", Suit.CLUBS),
+				choose(gameSpec, hands, Suit.HEARTS, bit(gameSpec, "TEN", Suit.CLUBS)));
+	}
+
+	@Test
+	public void testBeatsRandomPlay() throws IOException {
+		GameParser gameSpec = new GameParser("games/A7 Game Store/whist.json");
+		GameFileLoader.AiPlayerFactory factory = (number, name, state) -> (number % 2 == 0)
+				? new PlayerHeuristic(number, name, state)
+				: new PlayerAI(number, name, state, new Random(number));
+
+		// Heuristic team is players 0 and 2
+		int heuristicTricks = 0;
+		int randomTricks = 0;
+		for (int seed = 0; seed < 20; seed++) {
+			Game.GameState gameState = new GameFileLoader().loadAiGameFromSpec(gameSpec, factory);
+			Game game = new Game();
+			Game.StepResult step = game.start(gameState, seed);
+			while (step.expectedAction == Game.Action.MOVE) {
+				Player player = gameState.players[step.nextPlayerNumber];
+				step = game.submitMove(gameState, player.getNumber(), player.receiveMove());
+				Assert.assertTrue(step.accepted);
+				if (step.transitions.contains(Game.Transition.TRICK_COMPLETE)) {
+					if (gameState.prevWinnerNumber % 2 == 0) {
+						heuristicTricks++;
+					} else {
+						randomTricks++;
+					}
+				}
+				if (step.transitions.contains(Game.Transition.HAND_COMPLETE)) {
+					break;
+				}
+			}
+		}
+
+		// check rules of thumb win most tricks
+		Assert.assertEquals(260, heuristicTricks + randomTricks);
+		Assert.assertTrue(heuristicTricks * 2 > randomTricks * 3);
+	}
+}
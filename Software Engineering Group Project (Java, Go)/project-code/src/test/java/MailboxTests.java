@@ -0,0 +1,147 @@
+import Network.Events.BidEvent;
+import Network.Events.PlayCardEvent;
+import Network.GameInitiation.GameNetwork;
+import Network.GameInitiation.JsonEvent;
+import Network.GameInitiation.PlayerConnectionHandler;
+import Network.GamePlay.NetworkGame;
+import Network.Mailbox;
+import Network.PlayerClient;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class MailboxTests {
+
+	// Method to make a json move
+	private JsonObject move(String suit, String rank) {
+		JsonObject move = new JsonObject();
+		move.addProperty("type", "play");
+		move.addProperty("suit", suit);
+		move.addProperty("rank", rank);
+		return move;
+	}
+
+	// Method to make a json bid
+	private JsonObject bid(int value) {
+		JsonObject bid = new JsonObject();
+		bid.addProperty("type", "bid");
+		bid.addProperty("value", value);
+		return bid;
+	}
+
+	@Test
+	public void testTakeWaitsInOrder() throws InterruptedException {
+		Mailbox<Integer> mailbox = new Mailbox<>();
+		int messages = 100000;
+		Thread sender = new Thread(() -> {
+			for (int i = 0; i < messages; i++) {
+				mailbox.add(i);
+			}
+		});
+		sender.start();
+
+		// check every message is taken once, in the order sent, while the sender is still adding
+		for (int i = 0; i < messages; i++) {
+			Assert.assertEquals(Integer.valueOf(i), mailbox.take());
+		}
+		sender.join();
+		Assert.assertTrue(mailbox.isEmpty());
+	}
+
+	@Test
+	public void testEventsRoutedByPlayerAndType() {
+		BlockingQueue<JsonEvent> events = new LinkedBlockingQueue<>();
+		PlayerClient player = new PlayerClient();
+		PlayerConnectionHandler handler = new PlayerConnectionHandler(events, null, false);
+		handler.setPlayer(player);
+
+		JsonObject ready = new JsonObject();
+		ready.addProperty("ready", true);
+		handler.received(null, move("SPADES", "ACE"));
+		handler.received(null, ready);
+		handler.received(null, bid(3));
+		handler.received(null, new PlayCardEvent());
+
+		// check moves and bids go to the player's mailboxes, and anything else to the shared queue
+		Assert.assertEquals(1, events.size());
+		Assert.assertSame(ready, events.peek().obj);
+		Assert.assertSame(player, events.peek().orignPlayer);
+		Assert.assertFalse(player.moves.isEmpty());
+		Assert.assertFalse(player.bids.isEmpty());
+	}
+
+	@Test
+	public void testEarlyEventsWaitForTheirSeat() {
+		GameNetwork network = new GameNetwork();
+		network.jsonEvents = new LinkedBlockingQueue<>();
+		network.players = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			PlayerClient player = new PlayerClient();
+			if (i > 0) {
+				new PlayerConnectionHandler(network.jsonEvents, null, false).setPlayer(player);
+			}
+			network.players.add(player);
+		}
+		NetworkGame networkGame = new NetworkGame(network);
+
+		// A fast player sends their bid and move before the player before them bids
+		network.players.get(2).bids.add(new JsonEvent(bid(5), network.players.get(2)));
+		network.players.get(2).moves.add(new JsonEvent(move("HEARTS", "TWO"), network.players.get(2)));
+		network.players.get(1).bids.add(new JsonEvent(bid(2), network.players.get(1)));
+		network.players.get(1).moves.add(new JsonEvent(move("CLUBS", "KING"), network.players.get(1)));
+
+		// check each seat gets only its own events, as bids and moves, in turn order
+		BidEvent bid = networkGame.receiveBid(1);
+		Assert.assertEquals(2, bid.value);
+		Assert.assertEquals(5, networkGame.receiveBid(2).value);
+		PlayCardEvent move = networkGame.receiveMove(1);
+		Assert.assertEquals("CLUBS", move.suit);
+		Assert.assertEquals("HEARTS", networkGame.receiveMove(2).suit);
+	}
+
+	@Test
+	public void testRelayedEventsRoutedBySeat() throws InterruptedException {
+		BlockingQueue<JsonEvent> events = new LinkedBlockingQueue<>();
+		PlayerConnectionHandler handler = new PlayerConnectionHandler(events, null, true, true);
+
+		// The table server sends its game network of three seats first
+		JsonObject network = new JsonObject();
+		JsonArray seats = new JsonArray();
+		for (int i = 0; i < 3; i++) {
+			seats.add(new JsonObject());
+		}
+		network.add("players", seats);
+		handler.received(null, network);
+
+		// A move relayed before the players are set, then a bid in binary and moves of no seat or an unknown one
+		JsonObject early = move("SPADES", "ACE");
+		early.addProperty("originSeat", 2);
+		handler.received(null, early);
+		PlayerClient[] players = {new PlayerClient(), new PlayerClient(), new PlayerClient()};
+		handler.setRelayedPlayers(Arrays.asList(players));
+		BidEvent relayedBid = new BidEvent();
+		relayedBid.type = "bid";
+		relayedBid.setOriginSeat(1);
+		handler.received(null, relayedBid);
+		JsonObject unknown = move("HEARTS", "TWO");
+		unknown.addProperty("originSeat", 3);
+		handler.received(null, unknown);
+		handler.received(null, move("CLUBS", "KING"));
+
+		// check each relayed event waits in its seat's mailboxes, and one from no known seat goes to the shared queue
+		Assert.assertSame(early, players[2].moves.take().obj);
+		Assert.assertTrue(players[2].bids.isEmpty());
+		JsonEvent bid = players[1].bids.take();
+		Assert.assertSame(relayedBid, bid.event);
+		Assert.assertSame(players[1], bid.orignPlayer);
+		Assert.assertTrue(players[0].moves.isEmpty());
+		Assert.assertEquals(2, events.size());
+		Assert.assertSame(unknown, events.poll().obj);
+	}
+}
@@ -0,0 +1,114 @@
+import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
+import GameLogic.Core.Player;
+import GameLogic.Core.PlayerAI;
+import GameLogic.Core.PlayerISMCTS;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.GameFileLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class PlayerISMCTSTests {
+
+	private static final String WHIST = "games/A7 Game Store/whist.json";
+
+	// Plays the first hand through the step-wise api, returning tricks won by each player
+	private int[] playHand(Game.GameState gameState, int seed, List<Card> searchedMoves) {
+		Game game = new Game();
+		int[] tricks = new int[gameState.players.length];
+		Game.StepResult step = game.start(gameState, seed);
+		while (step.expectedAction == Game.Action.MOVE) {
+			Player player = gameState.players[step.nextPlayerNumber];
+			Card card = player.receiveMove();
+			Game.StepResult result = game.submitMove(gameState, player.getNumber(), card);
+			if (player instanceof PlayerISMCTS) {
+				// check searched move is legal first time
+				Assert.assertTrue(result.accepted);
+				if (searchedMoves != null) {
+					searchedMoves.add(card);
+				}
+			}
+			while (!result.accepted) {
+				result = game.submitMove(gameState, player.getNumber(), player.receiveMove());
+			}
+			step = result;
+
+			if (step.transitions.contains(Game.Transition.TRICK_COMPLETE)) {
+				tricks[gameState.prevWinnerNumber]++;
+			}
+			if (step.transitions.contains(Game.Transition.HAND_COMPLETE)) {
+				break;
+			}
+		}
+		return tricks;
+	}
+
+	@Test
+	public void testMoveWithinDeadline() throws IOException {
+		GameParser gameSpec = new GameParser(WHIST);
+		Game.GameState gameState = new GameFileLoader().loadAiGameFromSpec(gameSpec, (number, name, state) -> {
+			if (number == 0) {
+				return new PlayerISMCTS(number, name, state, new Random(number), 20, Long.MAX_VALUE,
+						Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool()) {
+					@Override
+					public Card receiveMove() {
+						long start = System.nanoTime();
+						Card card = super.receiveMove();
+
+						// check answered in time
+						Assert.assertTrue((System.nanoTime() - start) / 1000000 < 50);
+						return card;
+					}
+				};
+			}
+			return new PlayerAI(number, name, state, new Random(number));
+		});
+
+		List<Card> searchedMoves = new ArrayList<>();
+		playHand(gameState, 3, searchedMoves);
+		Assert.assertEquals(13, searchedMoves.size());
+	}
+
+	@Test
+	public void testIterationBudgetReproducible() throws IOException {
+		GameParser gameSpec = new GameParser(WHIST);
+		GameFileLoader.AiPlayerFactory factory = (number, name, state) ->
+				new PlayerISMCTS(number, name, state, new Random(number), 0, 200, 1, ForkJoinPool.commonPool());
+
+		List<Card> firstMoves = new ArrayList<>();
+		playHand(new GameFileLoader().loadAiGameFromSpec(gameSpec, factory), 5, firstMoves);
+		List<Card> secondMoves = new ArrayList<>();
+		playHand(new GameFileLoader().loadAiGameFromSpec(gameSpec, factory), 5, secondMoves);
+
+		// check same seed and budget choose same cards
+		Assert.assertEquals(52, firstMoves.size());
+		Assert.assertEquals(firstMoves, secondMoves);
+	}
+
+	@Test
+	public void testBeatsRandomPlay() throws IOException {
+		GameParser gameSpec = new GameParser(WHIST);
+		GameFileLoader.AiPlayerFactory factory = (number, name, state) -> (number % 2 == 0)
+				? new PlayerISMCTS(number, name, state, new Random(number), 0, 500, 1, ForkJoinPool.commonPool())
+				: new PlayerAI(number, name, state, new Random(number));
+
+		// Searching team is players 0 and 2
+		int searchedTricks = 0;
+		int randomTricks = 0;
+		for (int seed = 0; seed < 10; seed++) {
+			int[] tricks = playHand(new GameFileLoader().loadAiGameFromSpec(gameSpec, factory), seed, null);
+			searchedTricks += tricks[0] + tricks[2];
+			randomTricks += tricks[1] + tricks[3];
+		}
+
+		// check search wins most tricks
+		Assert.assertEquals(130, searchedTricks + randomTricks);
+		Assert.assertTrue(searchedTricks * 2 > randomTricks * 3);
+	}
+}
@@ -0,0 +1,116 @@
+import GameLogic.Core.GameParser;
+import GameLogic.Core.RuleFormatException;
+import GameLogic.Core.RuleSet;
+import GameLogic.DeckAndCards.Suit;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class RuleSetTests {
+
+    // Writes a game description with the given rules array to a temporary file and parses it
+    private GameParser parseRules(String rulesJson) throws IOException {
+        Path path = Files.createTempFile("rules", ".json");
+        path.toFile().deleteOnExit();
+        Files.write(path, ("{\"name\" : \"test\", \"rules\" : [" + rulesJson + "]}").getBytes(StandardCharsets.US_ASCII));
+        return new GameParser(path.toString());
+    }
+
+    @Test
+    public void testCompiledRules() throws IOException {
+        GameParser g = new GameParser("games/speed_whist.json");
+        RuleSet r = g.ruleSet;
+
+        // check normal
+        Assert.assertEquals(RuleSet.LegalCardMode.TRICK, r.legalCardMode);
+        Assert.assertEquals(RuleSet.GameEndRule.HANDS_PLAYED, r.gameEndRule);
+        Assert.assertTrue(r.gameEndValue > 0);
+    }
+
+    @Test
+    public void testDefaults() throws IOException {
+        RuleSet r = parseRules("").ruleSet;
+
+        // check no rules given
+        Assert.assertEquals(RuleSet.LegalCardMode.ANY, r.legalCardMode);
+        Assert.assertEquals(RuleSet.TrumpPickingMode.NONE, r.trumpPickingMode);
+        Assert.assertEquals(RuleSet.LeadingCardRule.ANY, r.leadingCardRule);
+        Assert.assertEquals(RuleSet.ScoringMode.TRICKS_WON, r.scoringMode);
+        Assert.assertEquals(RuleSet.HandSizeRule.FIXED, r.handSizeRule);
+        Assert.assertEquals(RuleSet.GameEndRule.IMMEDIATE, r.gameEndRule);
+        Assert.assertEquals(RuleSet.SessionEndRule.IMMEDIATE, r.sessionEndRule);
+        Assert.assertEquals(0, r.trickThreshold);
+    }
+
+    @Test
+    public void testResolvedValues() throws IOException {
+        GameParser g = parseRules("{\"name\" : \"trumpPickingMode\", \"data\" : \"predefined\"},"
+                + "{\"name\" : \"trumpSuit\", \"data\" : \"HEARTS\"},"
+                + "{\"name\" : \"validLeadingCardFirstTrick\", \"data\" : \"fixed\"},"
+                + "{\"name\" : \"validLeadingCardFirstTrickCard\", \"data\" : \"TWO CLUBS\"},"
+                + "{\"name\" : \"trickThreshold\", \"data\" : 6}");
+        RuleSet r = g.ruleSet;
+
+        // check trump suit
+        Assert.assertEquals(RuleSet.TrumpPickingMode.FIXED, r.trumpPickingMode);
+        Assert.assertEquals(Suit.HEARTS, r.fixedTrumpSuit);
+
+        // check leading card is interned deck card
+        Assert.assertEquals(Suit.CLUBS, r.fixedLeadingCard.getSuit());
+        Assert.assertSame(g.deck.registry.intern(r.fixedLeadingCard), r.fixedLeadingCard);
+
+        // check number
+        Assert.assertEquals(6, r.trickThreshold);
+    }
+
+    @Test
+    public void testHandSizeRules() {
+        // check fixed
+        Assert.assertEquals(5, RuleSet.HandSizeRule.FIXED.nextHandSize(5, 13));
+
+        // check decreasing
+        Assert.assertEquals(4, RuleSet.HandSizeRule.DECREASING.nextHandSize(5, 13));
+        Assert.assertEquals(0, RuleSet.HandSizeRule.DECREASING.nextHandSize(0, 13));
+
+        // check decreasing cyclic
+        Assert.assertEquals(4, RuleSet.HandSizeRule.DECREASING_CYCLIC.nextHandSize(5, 13));
+        Assert.assertEquals(13, RuleSet.HandSizeRule.DECREASING_CYCLIC.nextHandSize(1, 13));
+    }
+
+    @Test(expected = RuleFormatException.class)
+    public void testUnknownValue() throws IOException {
+        parseRules("{\"name\" : \"calculateScore\", \"data\" : \"unknown\"}");
+    }
+
+    @Test(expected = RuleFormatException.class)
+    public void testMissingNumber() throws IOException {
+        parseRules("{\"name\" : \"gameEnd\", \"data\" : \"handsPlayed\"}");
+    }
+
+    @Test(expected = RuleFormatException.class)
+    public void testLeadingCardNotInDeck() throws IOException {
+        parseRules("{\"name\" : \"validLeadingCardFirstTrick\", \"data\" : \"fixed\"},"
+                + "{\"name\" : \"validLeadingCardFirstTrickCard\", \"data\" : \"ONE CLUBS\"}");
+    }
+
+    @Test
+    public void testAllGameFilesCompile() throws IOException {
+        // check every shipped game description parses
+        File[] dirs = { new File("games"), new File("games/A7 Game Store"), new File("games/SG Game Store") };
+        int parsed = 0;
+        for (File dir : dirs) {
+            for (File file : dir.listFiles()) {
+                if (file.getName().endsWith(".json")) {
+                    Assert.assertNotNull(new GameParser(file.getPath()).ruleSet);
+                    parsed++;
+                }
+            }
+        }
+        Assert.assertTrue(parsed > 0);
+    }
+}
@@ -0,0 +1,39 @@
+import Network.GameInitiation.SpecCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class SpecCacheTests {
+
+	@Test
+	public void testSpecsKeptByHash() throws IOException {
+		Path directory = Files.createTempDirectory("spec_cache");
+		String spec = "{\"name\":\"test\",\"numberOfPlayers\":4}";
+
+		// check the hash is SHA-256 in hex, and nothing is cached yet
+		String hash = SpecCache.hash(spec);
+		Assert.assertEquals(64, hash.length());
+		Assert.assertEquals(hash, SpecCache.hash(spec));
+		Assert.assertNotEquals(hash, SpecCache.hash("{\"name\":\"other\"}"));
+		Assert.assertNull(new SpecCache(directory).get(hash));
+
+		// check a spec put is found by a later cache on the same directory
+		Assert.assertEquals(hash, new SpecCache(directory).put(spec));
+		Assert.assertEquals(spec, new SpecCache(directory).get(hash));
+
+		// check a file changed since it was written, or a name that is not a hash, is not used
+		Files.write(directory.resolve(hash + ".json"), "{}".getBytes(StandardCharsets.UTF_8));
+		Assert.assertNull(new SpecCache(directory).get(hash));
+		Assert.assertNull(new SpecCache(directory).get("../" + hash));
+	}
+
+	@Test
+	public void testDefaultDirectoryAbsolute() {
+		// check the cache does not move with the working directory
+		Assert.assertTrue(SpecCache.DEFAULT_DIRECTORY.isAbsolute());
+	}
+}
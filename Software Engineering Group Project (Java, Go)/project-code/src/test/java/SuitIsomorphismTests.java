@@ -0,0 +1,78 @@
+import GameLogic.Core.GameParser;
+import GameLogic.Core.SuitIsomorphism;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+public class SuitIsomorphismTests {
+
+	// Deals a shuffled 52 card deck to four hands
+	private long[] randomDeal(long seed) {
+		int[] bits = new int[52];
+		for (int i = 0; i < bits.length; i++) {
+			bits[i] = (i / 13) * Hand.RANKS_PER_SUIT + 2 + i % 13;
+		}
+		Random random = new Random(seed);
+		long[] hands = new long[4];
+		for (int i = bits.length - 1; i >= 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = bits[i];
+			bits[i] = bits[j];
+			bits[j] = swap;
+			hands[i % 4] |= 1L << bits[i];
+		}
+		return hands;
+	}
+
+	@Test
+	public void testSymmetriesOfBridge() throws IOException {
+		GameParser gameSpec = new GameParser("games/bridge.json");
+
+		// check every suit plays alike without trumps, and trumps stay apart
+		Assert.assertEquals(24, new SuitIsomorphism(gameSpec, null).getSymmetries());
+		Assert.assertEquals(6, new SuitIsomorphism(gameSpec, Suit.SPADES).getSymmetries());
+	}
+
+	@Test
+	public void testPointValuesKeepSuitsApart() throws IOException {
+		GameParser gameSpec = new GameParser("games/A7 Game Store/no_pass_hearts.json");
+		SuitIsomorphism isomorphism = new SuitIsomorphism(gameSpec, null);
+
+		// check hearts, the queen of spades, the jack of diamonds and the leading two of clubs set every suit apart
+		Assert.assertEquals(1, isomorphism.getSymmetries());
+		long hand = randomDeal(1)[0];
+		Assert.assertEquals(hand, isomorphism.canonicalHand(hand));
+	}
+
+	@Test
+	public void testSwappedDealsMatch() throws IOException {
+		GameParser gameSpec = new GameParser("games/bridge.json");
+		SuitIsomorphism isomorphism = new SuitIsomorphism(gameSpec, Suit.HEARTS);
+		int[] swap = {Suit.SPADES.ordinal(), Suit.DIAMONDS.ordinal(), Suit.HEARTS.ordinal(), Suit.CLUBS.ordinal()};
+
+		for (int seed = 0; seed < 20; seed++) {
+			long[] hands = randomDeal(seed);
+			long[] swapped = new long[hands.length];
+			for (int i = 0; i < hands.length; i++) {
+				swapped[i] = SuitIsomorphism.permute(hands[i], swap);
+			}
+
+			// check deals and hands differing by a swap of plain suits share a representative
+			Assert.assertArrayEquals(isomorphism.canonicalDeal(hands), isomorphism.canonicalDeal(swapped));
+			Assert.assertEquals(isomorphism.canonicalHand(hands[0]), isomorphism.canonicalHand(swapped[0]));
+
+			// check trumps stay put and the inverse maps the representative back
+			int[] permutation = isomorphism.canonicalOrder(hands);
+			Assert.assertEquals(Suit.HEARTS, SuitIsomorphism.permute(Suit.HEARTS, permutation));
+			long[] canonical = isomorphism.canonicalDeal(hands);
+			int[] inverse = SuitIsomorphism.inverse(permutation);
+			for (int i = 0; i < hands.length; i++) {
+				Assert.assertEquals(hands[i], SuitIsomorphism.permute(canonical[i], inverse));
+			}
+		}
+	}
+}
@@ -0,0 +1,265 @@
+import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
+import GameLogic.Core.PlayerAI;
+import GameLogic.Core.PlayerNetworked;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.GameFileLoader;
+import Network.GameInitiation.GameInitiation;
+import Network.GameInitiation.GameNetwork;
+import Network.GameInitiation.NetworkCreationException;
+import Network.GamePlay.NetworkGame;
+import Network.Server.HostedTable;
+import Network.Server.TableRegistry;
+import Network.Server.TableServer;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TableServerTests {
+
+	@Test
+	public void testManyAiTables() throws IOException, InterruptedException {
+		GameParser gameSpec = new GameParser("games/speed_whist.json");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			TableRegistry registry = new TableRegistry(gameSpec, "{}", gameSpec.numberOfPlayers, executor);
+
+			// check many more tables than threads all run
+			List<HostedTable> tables = new ArrayList<>();
+			for (int seed = 0; seed < 200; seed++) {
+				tables.add(registry.create(null, seed));
+			}
+			for (HostedTable table : tables) {
+				Assert.assertTrue(table.awaitFinished(60, TimeUnit.SECONDS));
+			}
+
+			// check finished tables are removed
+			Assert.assertEquals(0, registry.size());
+
+			// check each table plays the same as a blocking game from its seed
+			for (int seed = 0; seed < tables.size(); seed++) {
+				int thisSeed = seed;
+				Game.GameState serial = new GameFileLoader().loadAiGameFromSpec(gameSpec, (number, name, state) ->
+						new PlayerAI(number, name, state, new Random(31L * thisSeed + number)));
+				new Game().runGame(serial, null, seed);
+
+				Game.GameState hosted = tables.get(seed).getGameState();
+				for (int i = 0; i < serial.players.length; i++) {
+					Assert.assertEquals(serial.players[i].getGamesThisSession(), hosted.players[i].getGamesThisSession());
+					Assert.assertEquals(serial.players[i].getPointsThisGame(), hosted.players[i].getPointsThisGame());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testDuplicateLabel() throws IOException {
+		GameParser gameSpec = new GameParser("games/speed_whist.json");
+		TableRegistry registry = new TableRegistry(gameSpec, "{}", 0, command -> { });
+
+		// check label is taken until table finishes
+		Assert.assertNotNull(registry.create("table", 0));
+		Assert.assertNull(registry.create("table", 0));
+		Assert.assertEquals(1, registry.size());
+	}
+
+	// Method to join a table through GameInitiation and play the whole game, the local seat by ai and every other
+	// seat through the server
+	// Joins the server's named table and plays it with an ai at this client's seat, giving every move it saw in order
+	private List<String> playRelayedClient(GameParser gameSpec, int serverPort, int localPort) throws NetworkCreationException {
+		GameNetwork network = new GameInitiation().joinTable(InetAddress.getLoopbackAddress(), serverPort, localPort, "test");
+		int self = -1;
+		for (int i = 0; i < network.players.size(); i++) {
+			if (network.players.get(i).port == localPort && !network.players.get(i).ip.equals("ai")) {
+				self = i;
+			}
+		}
+		Assert.assertNotEquals(-1, self);
+
+		int selfSeat = self;
+		List<String> moves = new ArrayList<>();
+		NetworkGame networkGame = new NetworkGame(network);
+		Game.GameState gameState = new GameFileLoader().loadAiGameFromSpec(gameSpec, (number, name, state) -> {
+			if (number == selfSeat) {
+				return new PlayerAI(number, name, state, new Random(number)) {
+					@Override
+					public Card receiveMove() {
+						Card card = super.receiveMove();
+						moves.add(number + " " + card);
+						return card;
+					}
+				};
+			}
+			return new PlayerNetworked(number, name, state) {
+				@Override
+				public Card receiveMove() {
+					Card card = super.receiveMove();
+					moves.add(number + " " + card);
+					return card;
+				}
+			};
+		});
+		gameState.networkNetworkGame = networkGame;
+		gameState.isNetworked = true;
+		new Game().runGame(gameState, networkGame, network.seed);
+		return moves;
+	}
+
+	@Test
+	public void testRelayedClientsPlayGame() throws Exception {
+		GameParser gameSpec = new GameParser("games/A7 Game Store/whist.json");
+		String gameSpecJson = new String(Files.readAllBytes(Paths.get("games/A7 Game Store/whist.json")), StandardCharsets.UTF_8);
+		ExecutorService clients = Executors.newFixedThreadPool(2);
+		try (TableServer server = new TableServer(0, gameSpec, gameSpecJson, 2, 2)) {
+			Thread serverThread = new Thread(server);
+			serverThread.start();
+			HostedTable table = server.getRegistry().create("test", 5);
+
+			// Two clients join the named table, the other two seats are ai
+			Future<List<String>> first = clients.submit(() -> playRelayedClient(gameSpec, server.getPort(), 4000));
+			Future<List<String>> second = clients.submit(() -> playRelayedClient(gameSpec, server.getPort(), 4001));
+			List<String> firstMoves = first.get(60, TimeUnit.SECONDS);
+			List<String> secondMoves = second.get(60, TimeUnit.SECONDS);
+			Assert.assertTrue(table.awaitFinished(60, TimeUnit.SECONDS));
+
+			// check both clients saw the same whole tricks, ai seats included - runGame checks each move's position
+			// hash against the server's along the way
+			Assert.assertFalse(firstMoves.isEmpty());
+			Assert.assertEquals(0, firstMoves.size() % 4);
+			Assert.assertEquals(firstMoves, secondMoves);
+		} finally {
+			clients.shutdownNow();
+		}
+	}
+
+	// Method to join a table over a raw socket offering frames, reading the answer to the offer
+	private Socket joinFramed(int serverPort, int localPort, String tableLabel) throws IOException {
+		Socket conn = new Socket("localhost", serverPort);
+		OutputStream out = conn.getOutputStream();
+		out.write(("{\"ip\":\"127.0.0.1\",\"port\":" + localPort + ",\"table\":\"" + tableLabel
+				+ "\",\"framing\":\"length\"}").getBytes(StandardCharsets.UTF_8));
+		out.flush();
+		byte[] answer = new byte["{\"framing\":\"length\"}".length()];
+		new DataInputStream(conn.getInputStream()).readFully(answer);
+		return conn;
+	}
+
+	// Method to read the next frame of a socket as json
+	private JsonObject readFrame(Socket conn) throws IOException {
+		DataInputStream in = new DataInputStream(conn.getInputStream());
+		byte[] frame = new byte[in.readInt()];
+		in.readFully(frame);
+		return new Gson().fromJson(new String(frame, StandardCharsets.UTF_8), JsonObject.class);
+	}
+
+	// Method to wait for a table to have a number of open seats, as players are seated and unseated by the server
+	private void awaitOpenSeats(HostedTable table, int openSeats) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (table.getOpenSeats() != openSeats && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		Assert.assertEquals(openSeats, table.getOpenSeats());
+	}
+
+	@Test
+	public void testSeatFreedWhenPlayerLeaves() throws IOException, InterruptedException {
+		GameParser gameSpec = new GameParser("games/speed_whist.json");
+		try (TableServer server = new TableServer(0, gameSpec, "{\"name\":\"test\"}", 1, 2)) {
+			Thread serverThread = new Thread(server);
+			serverThread.start();
+			HostedTable table = server.getRegistry().create("test", 0);
+
+			// A player joins then hangs up before the table fills
+			try (Socket other = joinFramed(server.getPort(), 4001, "test")) {
+				Socket gone = joinFramed(server.getPort(), 4000, "test");
+				awaitOpenSeats(table, 1);
+				gone.close();
+
+				// check the seat is given to the next player, and the table starts without the one who left
+				awaitOpenSeats(table, 2);
+				try (Socket next = joinFramed(server.getPort(), 4002, "test");
+					 Socket last = joinFramed(server.getPort(), 4003, "test")) {
+					JsonObject network = readFrame(last);
+					JsonArray players = network.get("players").getAsJsonArray();
+					Assert.assertEquals(4001, players.get(0).getAsJsonObject().get("port").getAsInt());
+					Assert.assertEquals(4002, players.get(1).getAsJsonObject().get("port").getAsInt());
+					Assert.assertEquals(4003, players.get(2).getAsJsonObject().get("port").getAsInt());
+					Assert.assertFalse(table.isFinished());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testTableEndsWhenPlayerLeaves() throws IOException, InterruptedException {
+		GameParser gameSpec = new GameParser("games/speed_whist.json");
+		try (TableServer server = new TableServer(0, gameSpec, "{\"name\":\"test\"}", 2, 2)) {
+			Thread serverThread = new Thread(server);
+			serverThread.start();
+
+			HostedTable table = server.getRegistry().create("test", 0);
+			try (Socket first = joinFramed(server.getPort(), 4000, "test");
+				 Socket second = joinFramed(server.getPort(), 4001, "test")) {
+				readFrame(first);
+
+				// check the game ends once a player hangs up, and the table is removed
+				second.close();
+				Assert.assertTrue(table.awaitFinished(10, TimeUnit.SECONDS));
+				Assert.assertNull(server.getRegistry().get("test"));
+			}
+		}
+	}
+
+	@Test
+	public void testJoinTableFramed() throws IOException {
+		GameParser gameSpec = new GameParser("games/A7 Game Store/two_player_whist.json");
+		try (TableServer server = new TableServer(0, gameSpec, "{\"name\":\"test\"}", 1, 2)) {
+			Thread serverThread = new Thread(server);
+			serverThread.start();
+
+			try (Socket conn = new Socket("localhost", server.getPort())) {
+				// Join offering length prefixed frames
+				OutputStream out = conn.getOutputStream();
+				out.write("{\"ip\":\"127.0.0.1\",\"port\":4000,\"framing\":\"length\"}".getBytes(StandardCharsets.UTF_8));
+				out.flush();
+				DataInputStream in = new DataInputStream(conn.getInputStream());
+				Gson gson = new Gson();
+
+				// check offer is answered in the legacy format
+				byte[] answer = new byte["{\"framing\":\"length\"}".length()];
+				in.readFully(answer);
+				Assert.assertEquals("{\"framing\":\"length\"}", new String(answer, StandardCharsets.UTF_8));
+
+				// check game network and ready event then come as frames
+				byte[] frame = new byte[in.readInt()];
+				in.readFully(frame);
+				JsonObject network = gson.fromJson(new String(frame, StandardCharsets.UTF_8), JsonObject.class);
+				Assert.assertEquals("test", network.get("spec").getAsJsonObject().get("name").getAsString());
+				frame = new byte[in.readInt()];
+				in.readFully(frame);
+				JsonObject ready = gson.fromJson(new String(frame, StandardCharsets.UTF_8), JsonObject.class);
+				Assert.assertEquals(1, ready.get("playerIndex").getAsInt());
+			}
+		}
+	}
+}
@@ -0,0 +1,171 @@
+import GameLogic.Core.BidEstimator;
+import GameLogic.Core.Game;
+import GameLogic.Core.GameParser;
+import GameLogic.Core.Player;
+import GameLogic.Core.RuleSet;
+import GameLogic.Core.TrickPosition;
+import GameLogic.DeckAndCards.Card;
+import GameLogic.DeckAndCards.Hand;
+import GameLogic.DeckAndCards.Suit;
+import GameLogic.GameFileLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class TrickPositionTests {
+
+	private static final String[] GAME_DIRECTORIES = {"games", "games/A7 Game Store", "games/SG Game Store"};
+	private static final int DEALS = 20;
+
+	// Finds every game shipped
+	private List<String> gameFiles() {
+		List<String> gameFiles = new ArrayList<>();
+		for (String directory : GAME_DIRECTORIES) {
+			for (File file : new File(directory).listFiles()) {
+				if (file.getName().endsWith(".json")) {
+					gameFiles.add(file.getPath());
+				}
+			}
+		}
+		return gameFiles;
+	}
+
+	// Finds a card in a player's hand by its bit
+	private Card cardAt(Player player, int bit) {
+		for (Card thisCard : player.getHand()) {
+			if (Hand.bitIndex(thisCard) == bit) {
+				return thisCard;
+			}
+		}
+		throw new AssertionError("Card " + bit + " is not in the hand of player " + player.getNumber());
+	}
+
+	// Picks one of a mask's bits at random
+	private int randomBit(long mask, Random random) {
+		for (int choice = random.nextInt(Long.bitCount(mask)); choice > 0; choice--) {
+			mask &= mask - 1;
+		}
+		return Long.numberOfTrailingZeros(mask);
+	}
+
+	@Test
+	public void testMatchesGameOnRandomDeals() {
+		List<String> gameFiles = gameFiles();
+		Assert.assertTrue(gameFiles.size() > 10);
+		BidEstimator bidEstimator = new BidEstimator(4, 8, 1, ForkJoinPool.commonPool());
+		for (String gameFile : gameFiles) {
+			for (int deal = 0; deal < DEALS; deal++) {
+				Game.GameState gameState = new GameFileLoader().loadGameFromFile(gameFile, null, true);
+				Game game = new Game();
+				Game.StepResult step = game.start(gameState, deal);
+				while (step.expectedAction == Game.Action.BID) {
+					Player player = gameState.players[step.nextPlayerNumber];
+					step = game.submitBid(gameState, player.getNumber(), bidEstimator.chooseBid(gameState, player, deal));
+				}
+				Assert.assertEquals(gameFile, Game.Action.MOVE, step.expectedAction);
+				Random random = new Random(deal);
+
+				// Game plays the first trick by its own rules when bidding leaves play with someone other than the
+				// trick's first player, or the leading card is fixed. Play it out to start from a whole trick, with
+				// a fixed card led by its holder, as start leaves the dealer to lead
+				boolean fixedLead = (gameState.gameSpec.ruleSet.leadingCardRule == RuleSet.LeadingCardRule.FIXED);
+				if (fixedLead) {
+					for (Player thisPlayer : gameState.players) {
+						if (thisPlayer.getHand().contains(gameState.gameSpec.ruleSet.fixedLeadingCard)) {
+							gameState.firstPlayerNumber = thisPlayer.getNumber();
+							gameState.currentPlayerNumber = thisPlayer.getNumber();
+						}
+					}
+				}
+				while (gameState.currentPlayerNumber != gameState.firstPlayerNumber
+						|| !gameState.currentTable.getCards().isEmpty() || (fixedLead && gameState.trickNumber == 0)) {
+					Player player = gameState.players[gameState.currentPlayerNumber];
+					long legal = gameState.legalMoves(player);
+					Assert.assertNotEquals(gameFile + " deal " + deal, 0, legal);
+					Assert.assertTrue(gameFile, gameState.applyMove(cardAt(player, randomBit(legal, random))));
+				}
+
+				TrickPosition position = TrickPosition.fromGame(gameState);
+				for (Player thisPlayer : gameState.players) {
+					position.setHand(thisPlayer.getNumber(), thisPlayer.getHand().getBits());
+				}
+
+				// check every move of the hand is allowed, played and won the same
+				while (!position.isHandOver()) {
+					String where = gameFile + " deal " + deal + " trick " + gameState.trickNumber;
+					Player player = gameState.players[gameState.currentPlayerNumber];
+					Assert.assertEquals(where, player.getNumber(), position.getCurrentPlayer());
+					long legal = gameState.legalMoves(player);
+					Assert.assertEquals(where, legal, position.legalMoves());
+
+					int bit = randomBit(legal, random);
+					Assert.assertTrue(where, gameState.applyMove(cardAt(player, bit)));
+					position.play(bit);
+
+					for (Player thisPlayer : gameState.players) {
+						Assert.assertEquals(where, thisPlayer.getTricksThisHand(),
+								position.getTricksWon(thisPlayer.getNumber()));
+						Assert.assertEquals(where, thisPlayer.getHand().getBits(),
+								position.getHand(thisPlayer.getNumber()));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDescendingOrderWinner() throws IOException {
+		// Turns go down, so player 0 leads to 3, then 2, then 1
+		GameParser gameSpec = new GameParser("games/SG Game Store/smart-aleck.json");
+		long[] hands = {Hand.cardMask(new Card(5, Suit.HEARTS, 0)), Hand.cardMask(new Card(2, Suit.HEARTS, 0)),
+				Hand.cardMask(new Card(3, Suit.HEARTS, 0)), Hand.cardMask(new Card(14, Suit.HEARTS, 0))};
+		TrickPosition position = TrickPosition.fromDeal(gameSpec, hands, Suit.DIAMONDS, 0);
+		for (int player : new int[] {0, 3, 2, 1}) {
+			Assert.assertEquals(player, position.getCurrentPlayer());
+			position.play(Long.numberOfTrailingZeros(hands[player]));
+		}
+
+		// check the ace's holder wins, though it was played second
+		Assert.assertEquals(1, position.getTricksWon(3));
+		Assert.assertEquals(3, position.getCurrentPlayer());
+	}
+
+	@Test
+	public void testDescendingOrderWinnerInGame() {
+		String gameFile = "games/SG Game Store/smart-aleck.json";
+		for (int deal = 0; deal < DEALS; deal++) {
+			Game.GameState gameState = new GameFileLoader().loadGameFromFile(gameFile, null, true);
+			Game.StepResult step = new Game().start(gameState, deal);
+			Assert.assertEquals(Game.Action.MOVE, step.expectedAction);
+			Random random = new Random(deal);
+
+			// Play one trick, noting who played each card
+			Card winningCard = null;
+			int winner = -1;
+			for (int i = 0; i < gameState.players.length; i++) {
+				Player player = gameState.players[gameState.currentPlayerNumber];
+				Card card = cardAt(player, randomBit(gameState.legalMoves(player), random));
+				boolean trumps = card.getSuit() == Suit.DIAMONDS;
+				boolean winningTrumps = winningCard != null && winningCard.getSuit() == Suit.DIAMONDS;
+				if (winningCard == null || (trumps && !winningTrumps)
+						|| (card.getSuit() == winningCard.getSuit() && card.getValue() > winningCard.getValue())) {
+					winningCard = card;
+					winner = player.getNumber();
+				}
+				Assert.assertTrue(gameState.applyMove(card));
+			}
+
+			// check the trick goes to the player who played the winning card
+			for (Player thisPlayer : gameState.players) {
+				Assert.assertEquals("deal " + deal, (thisPlayer.getNumber() == winner) ? 1 : 0,
+						thisPlayer.getTricksThisHand());
+			}
+		}
+	}
+}